@@ -0,0 +1,36 @@
+package com.party.activity;
+
+import com.party.repository.ActivityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 活动参与人数计数校验
+ * 参与者服务之外写入的参与记录（初始化数据、手工导入）不会调整计数，启动时重算与参与记录不一致的活动
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class ActivityCounterVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityCounterVerifier.class);
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void verify() {
+        long start = System.currentTimeMillis();
+        int corrected = activityRepository.recountStaleParticipantCounters();
+        if (corrected > 0) {
+            logger.info("活动参与人数计数已修正: {}个活动, 耗时{}ms", corrected, System.currentTimeMillis() - start);
+        }
+    }
+}
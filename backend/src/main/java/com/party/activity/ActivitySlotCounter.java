@@ -0,0 +1,177 @@
+package com.party.activity;
+
+import com.party.entity.Activity;
+import com.party.repository.ActivityRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 活动报名名额计数
+ * 在内存中按活动保存剩余名额和候补设置，报名高峰时满员且未开启候补的请求直接拒绝，不再争用数据库中的活动行。
+ * 内存计数只是前置判断，名额以数据库中的条件更新为准；计数定期按数据库重新加载，
+ * 以吸收其他节点的报名、取消和活动人数上限的修改。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class ActivitySlotCounter {
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Value("${party.activity.sign-up.slot-ttl-ms:5000}")
+    private long slotTtlMs;
+
+    @Value("${party.activity.sign-up.stripes:64}")
+    private int stripeCount;
+
+    private final Map<Long, Slots> slots = new ConcurrentHashMap<>();
+
+    /** 分段锁，同一活动的计数只加载一次 */
+    private Object[] stripes;
+
+    @PostConstruct
+    public void init() {
+        stripes = new Object[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    // ==================== 名额 ====================
+
+    /**
+     * 占用一个名额
+     * @param activityId 活动ID
+     * @return 不限人数或仍有剩余名额时返回true
+     */
+    public boolean tryAcquire(Long activityId) {
+        Slots current = slotsOf(activityId);
+        if (current.capacity == null) {
+            return true;
+        }
+        while (true) {
+            int available = current.available.get();
+            if (available <= 0) {
+                return false;
+            }
+            if (current.available.compareAndSet(available, available - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 当前事务回滚时归还已占用的名额
+     */
+    public void releaseOnRollback(Long activityId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(activityId);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 当前事务提交后归还一个名额，无事务时立即归还
+     */
+    public void releaseAfterCommit(Long activityId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(activityId);
+                }
+            });
+        } else {
+            release(activityId);
+        }
+    }
+
+    /**
+     * 数据库判定已满时调用，内存计数同步为0
+     */
+    public void markFull(Long activityId) {
+        Slots current = slots.get(activityId);
+        if (current != null && current.capacity != null) {
+            current.available.set(0);
+        }
+    }
+
+    /**
+     * 活动是否开启候补
+     */
+    public boolean isWaitlistEnabled(Long activityId) {
+        return slotsOf(activityId).waitlistEnabled;
+    }
+
+    /**
+     * 丢弃活动的内存计数，下次报名时按数据库重新加载
+     */
+    public void invalidate(Long activityId) {
+        slots.remove(activityId);
+    }
+
+    private void release(Long activityId) {
+        Slots current = slots.get(activityId);
+        if (current != null && current.capacity != null) {
+            current.available.updateAndGet(available -> Math.min(available + 1, current.capacity));
+        }
+    }
+
+    private Slots slotsOf(Long activityId) {
+        Slots current = slots.get(activityId);
+        if (current != null && !current.isExpired(slotTtlMs)) {
+            return current;
+        }
+        synchronized (stripes[Math.floorMod(activityId.hashCode(), stripes.length)]) {
+            current = slots.get(activityId);
+            if (current == null || current.isExpired(slotTtlMs)) {
+                Activity activity = activityRepository.findById(activityId)
+                        .orElseThrow(() -> new RuntimeException("活动不存在"));
+                current = new Slots(activity);
+                slots.put(activityId, current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * 单个活动的名额状态
+     */
+    private static final class Slots {
+
+        /** 人数上限，null表示不限 */
+        private final Integer capacity;
+
+        private final boolean waitlistEnabled;
+
+        private final AtomicInteger available;
+
+        private final long loadedAt = System.currentTimeMillis();
+
+        private Slots(Activity activity) {
+            capacity = activity.getMaxParticipants();
+            waitlistEnabled = Boolean.TRUE.equals(activity.getWaitlistEnabled());
+            available = new AtomicInteger(capacity != null ? Math.max(0, capacity - activity.getSignedUpCount()) : 0);
+        }
+
+        private boolean isExpired(long ttlMs) {
+            return System.currentTimeMillis() - loadedAt > ttlMs;
+        }
+    }
+}
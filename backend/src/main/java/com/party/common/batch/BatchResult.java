@@ -0,0 +1,103 @@
+package com.party.common.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量操作结果
+ * 记录成功的条目和每个失败条目在请求中的序号、标识和原因，一个条目失败不影响其他条目
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public class BatchResult<T> {
+
+    private final int totalCount;
+
+    private final List<T> succeeded = new ArrayList<>();
+
+    private final List<BatchError> errors = new ArrayList<>();
+
+    private long elapsedMillis;
+
+    public BatchResult(int totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public void addSuccess(T item) {
+        succeeded.add(item);
+    }
+
+    public void addError(int index, Object key, String message) {
+        errors.add(new BatchError(index, key, message));
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public int getSuccessCount() {
+        return succeeded.size();
+    }
+
+    public int getFailureCount() {
+        return errors.size();
+    }
+
+    public List<T> getSucceeded() {
+        return succeeded;
+    }
+
+    public List<BatchError> getErrors() {
+        return errors;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * 失败条目
+     */
+    public static class BatchError {
+
+        /** 条目在请求中的序号，从0开始 */
+        private final int index;
+
+        /** 条目标识，如用户名、组织编码或ID */
+        private final Object key;
+
+        private final String message;
+
+        public BatchError(int index, Object key, String message) {
+            this.index = index;
+            this.key = key;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Object getKey() {
+            return key;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "BatchError{" +
+                    "index=" + index +
+                    ", key=" + key +
+                    ", message='" + message + '\'' +
+                    '}';
+        }
+    }
+}
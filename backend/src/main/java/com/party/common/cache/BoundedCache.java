@@ -0,0 +1,343 @@
+package com.party.common.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 有界本地缓存
+ * 按区域配置容量上限和写入后过期时间，超出容量时先清除过期条目，再按最近访问时间淘汰到容量的九成。
+ * 注册了加载函数的区域在条目写入超过刷新间隔后被再次读取时，先返回旧值并在后台线程重新加载，热点数据不会在过期时集中回源。
+ * 清除操作在当前事务提交后执行并通知其他节点，事务回滚时不清除。
+ * 不缓存空值，查询不到的键每次都回源。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public class BoundedCache extends AbstractValueAdaptingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedCache.class);
+
+    private final String name;
+
+    private final int maxSize;
+
+    private final long expireAfterWriteNanos;
+
+    private final long refreshAfterWriteNanos;
+
+    private final CacheRegion region;
+
+    private final CacheCoherenceManager coherenceManager;
+
+    private final Executor refreshExecutor;
+
+    private final Map<Object, Entry> store = new ConcurrentHashMap<>();
+
+    /** 正在加载的键，同一个键同时只有一个线程回源 */
+    private final Map<Object, Object> loadingLocks = new ConcurrentHashMap<>();
+
+    private volatile Function<Object, Object> loader;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong totalLoadNanos = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    public BoundedCache(String name, int maxSize, long expireAfterWriteSeconds, long refreshAfterWriteSeconds,
+                        CacheRegion region, CacheCoherenceManager coherenceManager, Executor refreshExecutor) {
+        super(false);
+        this.name = name;
+        this.maxSize = Math.max(maxSize, 1);
+        this.expireAfterWriteNanos = TimeUnit.SECONDS.toNanos(Math.max(expireAfterWriteSeconds, 0));
+        this.refreshAfterWriteNanos = TimeUnit.SECONDS.toNanos(Math.max(refreshAfterWriteSeconds, 0));
+        this.region = region;
+        this.coherenceManager = coherenceManager;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * 注册后台刷新使用的加载函数，返回null表示数据已不存在
+     * 未注册加载函数的区域只按过期时间失效
+     */
+    public void setLoader(Function<Object, Object> loader) {
+        this.loader = loader;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return store;
+    }
+
+    // ==================== 读取 ====================
+
+    @Override
+    protected Object lookup(Object key) {
+        return find(key, true);
+    }
+
+    private Object find(Object key, boolean record) {
+        Entry entry = store.get(key);
+        long now = System.nanoTime();
+        if (entry != null && isExpired(entry, now)) {
+            if (store.remove(key, entry)) {
+                expirations.incrementAndGet();
+            }
+            entry = null;
+        }
+        if (entry == null) {
+            if (record) {
+                misses.incrementAndGet();
+            }
+            return null;
+        }
+        entry.lastAccess = now;
+        if (record) {
+            hits.incrementAndGet();
+            refreshIfStale(key, entry, now);
+        }
+        return entry.value;
+    }
+
+    /**
+     * 未命中时由当前线程调用加载方法，同一个键的并发请求等待这一次加载的结果
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = find(key, true);
+        if (cached != null) {
+            return (T) fromStoreValue(cached);
+        }
+        Object lock = loadingLocks.computeIfAbsent(key, k -> new Object());
+        try {
+            synchronized (lock) {
+                cached = find(key, false);
+                if (cached != null) {
+                    return (T) fromStoreValue(cached);
+                }
+                T value = load(key, valueLoader);
+                if (value != null) {
+                    put(key, value);
+                }
+                return value;
+            }
+        } finally {
+            loadingLocks.remove(key, lock);
+        }
+    }
+
+    private <T> T load(Object key, Callable<T> valueLoader) {
+        long start = System.nanoTime();
+        try {
+            T value = valueLoader.call();
+            loads.incrementAndGet();
+            return value;
+        } catch (Exception e) {
+            loadFailures.incrementAndGet();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            totalLoadNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    // ==================== 写入 ====================
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        store.put(key, new Entry(toStoreValue(value), System.nanoTime()));
+        if (store.size() > maxSize) {
+            trim();
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        Object existing = find(key, false);
+        if (existing == null) {
+            put(key, value);
+        }
+        return toValueWrapper(existing);
+    }
+
+    /**
+     * 先清除过期条目，仍超出容量时按最近访问时间从旧到新淘汰到容量的九成
+     */
+    private synchronized void trim() {
+        if (store.size() <= maxSize) {
+            return;
+        }
+        long now = System.nanoTime();
+        store.entrySet().removeIf(e -> {
+            if (isExpired(e.getValue(), now)) {
+                expirations.incrementAndGet();
+                return true;
+            }
+            return false;
+        });
+        int toRemove = store.size() - maxSize * 9 / 10;
+        if (toRemove <= 0) {
+            return;
+        }
+        List<Map.Entry<Object, Entry>> entries = new ArrayList<>(store.entrySet());
+        entries.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+        for (int i = 0; i < toRemove && i < entries.size(); i++) {
+            Map.Entry<Object, Entry> e = entries.get(i);
+            if (store.remove(e.getKey(), e.getValue())) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    // ==================== 清除 ====================
+
+    @Override
+    public void evict(Object key) {
+        afterCommit(() -> store.remove(key));
+    }
+
+    @Override
+    public void clear() {
+        afterCommit(store::clear);
+    }
+
+    /**
+     * 只清除本节点的缓存，不通知其他节点，由跨节点一致性轮询调用
+     */
+    public void clearLocal() {
+        store.clear();
+    }
+
+    private void afterCommit(Runnable invalidation) {
+        if (region != null && coherenceManager != null) {
+            coherenceManager.publishAfterCommit(region);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    // ==================== 后台刷新 ====================
+
+    /**
+     * 写入超过刷新间隔的条目被读取时提交后台加载，加载完成前继续返回旧值
+     * 加载期间条目被清除或覆盖时丢弃加载结果
+     */
+    private void refreshIfStale(Object key, Entry entry, long now) {
+        Function<Object, Object> refreshLoader = loader;
+        if (refreshLoader == null || refreshAfterWriteNanos <= 0 || refreshExecutor == null
+                || now - entry.writtenAt < refreshAfterWriteNanos || !entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    Object value = refreshLoader.apply(key);
+                    loads.incrementAndGet();
+                    refreshes.incrementAndGet();
+                    if (value == null) {
+                        store.remove(key, entry);
+                    } else {
+                        store.replace(key, entry, new Entry(toStoreValue(value), System.nanoTime()));
+                    }
+                } catch (RuntimeException e) {
+                    loadFailures.incrementAndGet();
+                    entry.refreshing.set(false);
+                    logger.warn("后台刷新缓存{}的键{}失败: {}", name, key, e.getMessage());
+                } finally {
+                    totalLoadNanos.addAndGet(System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return expireAfterWriteNanos > 0 && now - entry.writtenAt >= expireAfterWriteNanos;
+    }
+
+    // ==================== 统计 ====================
+
+    /**
+     * 获取命中、未命中、淘汰和加载耗时统计
+     */
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long loadCount = loads.get() + loadFailures.get();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("name", name);
+        statistics.put("region", region);
+        statistics.put("size", store.size());
+        statistics.put("maxSize", maxSize);
+        statistics.put("expireAfterWriteSeconds", TimeUnit.NANOSECONDS.toSeconds(expireAfterWriteNanos));
+        statistics.put("refreshAfterWriteSeconds", TimeUnit.NANOSECONDS.toSeconds(refreshAfterWriteNanos));
+        statistics.put("refreshAhead", loader != null && refreshAfterWriteNanos > 0);
+        statistics.put("hits", hitCount);
+        statistics.put("misses", missCount);
+        statistics.put("hitRate", hitCount + missCount == 0 ? 0.0
+                : Math.round(hitCount * 10000.0 / (hitCount + missCount)) / 100.0);
+        statistics.put("evictions", evictions.get());
+        statistics.put("expirations", expirations.get());
+        statistics.put("loads", loads.get());
+        statistics.put("loadFailures", loadFailures.get());
+        statistics.put("refreshes", refreshes.get());
+        statistics.put("averageLoadMillis", loadCount == 0 ? 0.0
+                : Math.round(totalLoadNanos.get() / 10_000.0 / loadCount) / 100.0);
+        return statistics;
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+
+        private final Object value;
+        private final long writtenAt;
+        private volatile long lastAccess;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(Object value, long writtenAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+            this.lastAccess = writtenAt;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.party.common.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 有界缓存管理器
+ * 替代spring.cache.type=simple的无界ConcurrentHashMap，只提供CacheNames中登记的缓存，
+ * 每个缓存的容量、写入后过期时间和后台刷新间隔由party.cache.regions.<缓存名>下的配置指定。
+ * 缓存清除时通过对应的跨节点缓存区域通知其他节点，其他节点的变更到达时清除本节点的缓存。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component("cacheManager")
+public class BoundedCacheManager extends AbstractCacheManager {
+
+    private static final String PROPERTY_PREFIX = "party.cache.regions.";
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private CacheCoherenceManager cacheCoherenceManager;
+
+    /** 后台刷新线程池，队列满时放弃本次刷新，条目到期后照常回源 */
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(1, 2, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(256), new RefreshThreadFactory());
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<BoundedCache> caches = new ArrayList<>();
+        caches.add(createCache(CacheNames.USERS, CacheRegion.USERS, 2000, 600, 300));
+        caches.add(createCache(CacheNames.ORGANIZATIONS, CacheRegion.ORGANIZATIONS, 500, 300, 0));
+        caches.add(createCache(CacheNames.PERMISSIONS, CacheRegion.PERMISSION, 2000, 600, 0));
+        return caches;
+    }
+
+    private BoundedCache createCache(String name, CacheRegion region, int defaultMaxSize,
+                                     long defaultExpireSeconds, long defaultRefreshSeconds) {
+        String prefix = PROPERTY_PREFIX + name + ".";
+        BoundedCache cache = new BoundedCache(name,
+                environment.getProperty(prefix + "max-size", Integer.class, defaultMaxSize),
+                environment.getProperty(prefix + "expire-after-write-seconds", Long.class, defaultExpireSeconds),
+                environment.getProperty(prefix + "refresh-after-write-seconds", Long.class, defaultRefreshSeconds),
+                region, cacheCoherenceManager, refreshExecutor);
+        cacheCoherenceManager.register(region, cache::clearLocal);
+        return cache;
+    }
+
+    /**
+     * 为缓存注册后台刷新使用的加载函数，由提供数据的服务在初始化时调用
+     */
+    public void registerLoader(String name, Function<Object, Object> loader) {
+        Cache cache = getCache(name);
+        if (!(cache instanceof BoundedCache)) {
+            throw new IllegalArgumentException("缓存不存在: " + name);
+        }
+        ((BoundedCache) cache).setLoader(loader);
+    }
+
+    /**
+     * 获取各缓存的命中率、淘汰数和加载耗时
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        for (String name : getCacheNames()) {
+            Cache cache = getCache(name);
+            if (cache instanceof BoundedCache) {
+                statistics.put(name, ((BoundedCache) cache).getStatistics());
+            }
+        }
+        return statistics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private static final class RefreshThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "cache-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.party.common.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 跨节点缓存一致性
+ * 多个后端节点各自在内存中缓存系统配置、权限、组织树、党费标准、统计计数以及用户和组织缓存，不借助消息中间件，
+ * 而是在cache_versions表中为每个缓存区域维护一个版本号：本节点提交变更后递增对应区域的版本，
+ * 各节点的后台线程按固定间隔读取这几行版本号，发现某个区域的版本变大时只清除或重建该区域的本地缓存。
+ * 本节点记录自己递增出的每个版本号，轮询时新增的版本全部出自本节点才不再触发一次失效。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class CacheCoherenceManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheCoherenceManager.class);
+
+    private static final String BASELINE_SQL = "SELECT cache_name, version, updated_by, updated_at FROM cache_versions";
+
+    private static final String POLL_SQL = "SELECT cache_name, version FROM cache_versions";
+
+    private static final String VERSION_SQL = "SELECT version FROM cache_versions WHERE cache_name = ?";
+
+    private static final String BUMP_SQL = "UPDATE cache_versions SET version = version + 1, updated_by = ?, " +
+            "updated_at = ? WHERE cache_name = ?";
+
+    private static final String INSERT_SQL = "INSERT INTO cache_versions (cache_name, version, updated_by, updated_at) " +
+            "VALUES (?, 0, ?, ?)";
+
+    /** 启动基线时的时钟容差，启动前这段时间内的变更也视为本节点可能没有看到 */
+    private static final long STARTUP_SKEW_MS = 60_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${party.cache.coherence.enabled:true}")
+    private boolean enabled;
+
+    @Value("${party.cache.coherence.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    /** 各区域的本地失效处理 */
+    private final Map<CacheRegion, List<Runnable>> handlers = new EnumMap<>(CacheRegion.class);
+
+    /** 本节点已处理到的版本 */
+    private final Map<CacheRegion, Long> knownVersions = new ConcurrentHashMap<>();
+
+    /** 本节点递增出的版本号，轮询越过后移除 */
+    private final Map<CacheRegion, NavigableSet<Long>> localVersions = new ConcurrentHashMap<>();
+
+    private final String nodeId = resolveNodeId();
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong failedPolls = new AtomicLong();
+
+    private ScheduledExecutorService poller;
+
+    private volatile LocalDateTime lastPollAt;
+
+    // ==================== 注册 ====================
+
+    /**
+     * 注册区域的本地失效处理，由缓存组件在初始化时调用
+     * 处理方法只清除或重建本节点的缓存，不能再发布变更；同一区域可以注册多个处理
+     */
+    public synchronized void register(CacheRegion region, Runnable handler) {
+        handlers.computeIfAbsent(region, r -> new ArrayList<>()).add(handler);
+    }
+
+    // ==================== 发布 ====================
+
+    /**
+     * 通知其他节点区域已变更，在当前事务提交后递增版本，无事务时立即递增
+     * 同一事务内同一区域只递增一次，事务回滚时不递增
+     */
+    public void publishAfterCommit(CacheRegion region) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(region);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<CacheRegion> pending = (Set<CacheRegion>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            pending.add(region);
+            return;
+        }
+        Set<CacheRegion> regions = EnumSet.of(region);
+        TransactionSynchronizationManager.bindResource(this, regions);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                regions.forEach(CacheCoherenceManager.this::publish);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CacheCoherenceManager.this);
+            }
+        });
+    }
+
+    /**
+     * 递增区域版本，并记下本次递增得到的版本号
+     */
+    public void publish(CacheRegion region) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Long version = bump(region, now);
+            if (version == null) {
+                insertRow(region, now);
+                version = bump(region, now);
+            }
+            if (version == null) {
+                return;
+            }
+            // 提交后才记下版本号：轮询若先读到这个版本，只会多清除一次本节点的缓存，不会漏掉其他节点的变更
+            localVersions.computeIfAbsent(region, r -> new ConcurrentSkipListSet<>()).add(version);
+            published.incrementAndGet();
+        } catch (DataAccessException e) {
+            // 发布失败时其他节点要到下一次变更才能看到，本节点的缓存已经失效不受影响
+            logger.warn("发布缓存区域{}变更失败: {}", region, e.getMessage());
+        }
+    }
+
+    /**
+     * 在独立事务中递增并读回版本号，递增持有的行锁保证读到的正是本次递增的结果；区域行不存在时返回null
+     * 发布通常在调用方事务提交后的回调中进行，此时不能再加入调用方的事务
+     */
+    private Long bump(CacheRegion region, Timestamp now) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update(BUMP_SQL, nodeId, now, region.name()) == 0) {
+                return null;
+            }
+            return jdbcTemplate.queryForObject(VERSION_SQL, Long.class, region.name());
+        });
+    }
+
+    private void insertRow(CacheRegion region, Timestamp now) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, region.name(), nodeId, now);
+        } catch (DuplicateKeyException e) {
+            // 其他节点已经插入
+        }
+    }
+
+    // ==================== 轮询 ====================
+
+    /**
+     * 启动后以当前版本为基线开始轮询
+     * 基线之前刚被其他节点修改过的区域清除一次，避免启动过程中加载的缓存错过这些变更
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("跨节点缓存一致性已关闭");
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime() - STARTUP_SKEW_MS),
+                ZoneId.systemDefault());
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (CacheRegion region : CacheRegion.values()) {
+                insertRow(region, now);
+            }
+            jdbcTemplate.query(BASELINE_SQL, (RowCallbackHandler) rs -> {
+                CacheRegion region = regionOf(rs.getString("cache_name"));
+                if (region == null) {
+                    return;
+                }
+                long version = rs.getLong("version");
+                knownVersions.put(region, version);
+                forgetLocalVersions(region, version);
+                Timestamp updatedAt = rs.getTimestamp("updated_at");
+                if (updatedAt != null && updatedAt.toLocalDateTime().isAfter(startedAt)
+                        && !nodeId.equals(rs.getString("updated_by"))) {
+                    invalidate(region);
+                }
+            });
+        } catch (DataAccessException e) {
+            logger.warn("读取缓存版本基线失败, 将在首次轮询时建立: {}", e.getMessage());
+        }
+
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-coherence-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(pollIntervalMs, 50L);
+        poller.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("跨节点缓存一致性已启动: nodeId={}, pollIntervalMs={}", nodeId, interval);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    /**
+     * 读取全部区域的版本，版本变大的区域执行本地失效
+     */
+    void poll() {
+        try {
+            jdbcTemplate.query(POLL_SQL, (RowCallbackHandler) rs -> {
+                CacheRegion region = regionOf(rs.getString("cache_name"));
+                if (region == null) {
+                    return;
+                }
+                long version = rs.getLong("version");
+                Long known = knownVersions.put(region, version);
+                if (known != null && version > known && !producedLocally(region, known, version)) {
+                    invalidate(region);
+                }
+                forgetLocalVersions(region, version);
+            });
+            lastPollAt = LocalDateTime.now();
+        } catch (RuntimeException e) {
+            long failures = failedPolls.incrementAndGet();
+            if (failures % 100 == 1) {
+                logger.warn("轮询缓存版本失败, 已累计失败{}次: {}", failures, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * (known, current]之间的每个版本是否都由本节点递增，缺少任何一个都说明其间有其他节点的变更
+     */
+    private boolean producedLocally(CacheRegion region, long known, long current) {
+        NavigableSet<Long> versions = localVersions.get(region);
+        if (versions == null) {
+            return false;
+        }
+        for (long version = known + 1; version <= current; version++) {
+            if (!versions.contains(version)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 移除不超过已处理版本的记录，这些版本之后不会再被轮询读到
+     */
+    private void forgetLocalVersions(CacheRegion region, long upTo) {
+        NavigableSet<Long> versions = localVersions.get(region);
+        if (versions != null) {
+            versions.headSet(upTo, true).clear();
+        }
+    }
+
+    private void invalidate(CacheRegion region) {
+        List<Runnable> regionHandlers;
+        synchronized (this) {
+            regionHandlers = new ArrayList<>(handlers.getOrDefault(region, Collections.emptyList()));
+        }
+        if (regionHandlers.isEmpty()) {
+            return;
+        }
+        for (Runnable handler : regionHandlers) {
+            try {
+                handler.run();
+            } catch (RuntimeException e) {
+                logger.warn("清除缓存区域{}失败: {}", region, e.getMessage());
+            }
+        }
+        applied.incrementAndGet();
+        logger.debug("其他节点变更了缓存区域{}, 已清除本地缓存", region);
+    }
+
+    private static CacheRegion regionOf(String name) {
+        try {
+            return CacheRegion.valueOf(name);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 节点标识：主机名加进程号
+     */
+    private static String resolveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+
+    // ==================== 状态 ====================
+
+    /**
+     * 获取运行状态
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", enabled);
+        status.put("nodeId", nodeId);
+        status.put("pollIntervalMs", pollIntervalMs);
+        status.put("lastPollAt", lastPollAt);
+        status.put("versions", new TreeMap<>(knownVersions));
+        status.put("published", published.get());
+        status.put("applied", applied.get());
+        status.put("failedPolls", failedPolls.get());
+        return status;
+    }
+}
@@ -0,0 +1,23 @@
+package com.party.common.cache;
+
+/**
+ * 缓存名称
+ * 只有在这里登记并由BoundedCacheManager创建的缓存可以在@Cacheable和@CacheEvict中使用
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public final class CacheNames {
+
+    /** 按ID缓存的用户 */
+    public static final String USERS = "users";
+
+    /** 组织统计和子树成员数 */
+    public static final String ORGANIZATIONS = "organizations";
+
+    /** 用户的角色和权限列表 */
+    public static final String PERMISSIONS = "permissions";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,35 @@
+package com.party.common.cache;
+
+/**
+ * 需要跨节点保持一致的本地缓存区域
+ * 名称即cache_versions表中的cache_name
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public enum CacheRegion {
+
+    /** 系统配置快照 */
+    SYSTEM_CONFIG,
+
+    /** 用户权限位图 */
+    PERMISSION,
+
+    /** 组织树快照 */
+    ORGANIZATION_TREE,
+
+    /** 党费标准区间索引 */
+    FEE_STANDARD,
+
+    /** 统计计数 */
+    STATISTICS,
+
+    /** 用户缓存 */
+    USERS,
+
+    /** 组织统计缓存 */
+    ORGANIZATIONS,
+
+    /** Hibernate二级缓存 */
+    ENTITY_CACHE
+}
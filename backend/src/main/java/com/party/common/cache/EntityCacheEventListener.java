@@ -0,0 +1,70 @@
+package com.party.common.cache;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * 二级缓存实体变更事件监听器
+ * 启用了二级缓存的实体提交后通知其他节点清除二级缓存，回滚的写入不通知
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+class EntityCacheEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final EntityCacheManager entityCacheManager;
+
+    EntityCacheEventListener(EntityCacheManager entityCacheManager) {
+        this.entityCacheManager = entityCacheManager;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        entityCacheManager.onEntityChange();
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        entityCacheManager.onEntityChange();
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        entityCacheManager.onEntityChange();
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // 事务未提交，缓存未变更
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // 事务未提交，缓存未变更
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // 事务未提交，缓存未变更
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    /**
+     * Hibernate 5.6中仍须实现的旧方法名，直接沿用新方法的判断
+     */
+    @Override
+    @Deprecated
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+}
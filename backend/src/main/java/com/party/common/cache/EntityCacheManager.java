@@ -0,0 +1,82 @@
+package com.party.common.cache;
+
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 二级缓存跨节点失效和统计
+ * 组织、角色、权限、党费标准和系统配置实体以及角色权限、用户角色集合启用了Hibernate二级缓存，
+ * 这些实体提交变更后递增ENTITY_CACHE区域版本，其他节点收到后清除全部二级缓存区域。
+ * 角色分配和角色授权只修改关联集合，不一定触发实体事件，收到PERMISSION区域变更时另外清除这两个集合区域。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class EntityCacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityCacheManager.class);
+
+    private static final String USER_ROLES = "com.party.entity.User.roles";
+
+    private static final String ROLE_PERMISSIONS = "com.party.entity.Role.permissions";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheCoherenceManager cacheCoherenceManager;
+
+    private CacheImplementor cache;
+
+    @PostConstruct
+    public void registerListeners() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        cache = sessionFactory.getCache();
+        EntityCacheEventListener listener = new EntityCacheEventListener(this);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        cacheCoherenceManager.register(CacheRegion.ENTITY_CACHE, this::evictAll);
+        cacheCoherenceManager.register(CacheRegion.PERMISSION, this::evictPermissionCollections);
+    }
+
+    void onEntityChange() {
+        cacheCoherenceManager.publishAfterCommit(CacheRegion.ENTITY_CACHE);
+    }
+
+    /**
+     * 清除本节点的全部二级缓存区域，包括查询缓存
+     */
+    public void evictAll() {
+        cache.evictAllRegions();
+        logger.debug("已清除二级缓存");
+    }
+
+    private void evictPermissionCollections() {
+        cache.evictCollectionData(USER_ROLES);
+        cache.evictCollectionData(ROLE_PERMISSIONS);
+    }
+
+    /**
+     * 获取各二级缓存区域的统计
+     */
+    public Map<String, Object> getStatistics() {
+        if (!(cache.getRegionFactory() instanceof LocalRegionFactory)) {
+            return Collections.emptyMap();
+        }
+        return ((LocalRegionFactory) cache.getRegionFactory()).getStatistics();
+    }
+}
@@ -0,0 +1,177 @@
+package com.party.common.cache;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 二级缓存区域的本地存储
+ * 每个实体、集合或查询结果区域一个实例，容量和过期规则与BoundedCache一致：
+ * 超出容量时先清除过期条目，再按最近访问时间淘汰到容量的九成。
+ * 软锁和版本比较由Hibernate的读写策略处理，这里只负责存取和统计。
+ * 更新时间戳区域的条目不能过期或淘汰，否则查询缓存会返回表变更前的结果，创建时容量和过期时间传0。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public class LocalCacheStorage implements DomainDataStorageAccess {
+
+    private final String regionName;
+
+    private final int maxEntries;
+
+    private final long expireNanos;
+
+    private final Map<Object, Entry> store = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong puts = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * @param maxEntries 容量上限，0为不限
+     * @param expireSeconds 写入后过期时间，0为不过期
+     */
+    public LocalCacheStorage(String regionName, int maxEntries, long expireSeconds) {
+        this.regionName = regionName;
+        this.maxEntries = Math.max(maxEntries, 0);
+        this.expireNanos = TimeUnit.SECONDS.toNanos(Math.max(expireSeconds, 0));
+    }
+
+    public String getRegionName() {
+        return regionName;
+    }
+
+    // ==================== 存取 ====================
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Entry entry = store.get(key);
+        long now = System.nanoTime();
+        if (entry != null && isExpired(entry, now)) {
+            if (store.remove(key, entry)) {
+                expirations.incrementAndGet();
+            }
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        entry.lastAccess = now;
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        store.put(key, new Entry(value, System.nanoTime()));
+        puts.incrementAndGet();
+        if (maxEntries > 0 && store.size() > maxEntries) {
+            trim();
+        }
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        Entry entry = store.get(key);
+        return entry != null && !isExpired(entry, System.nanoTime());
+    }
+
+    @Override
+    public void evictData() {
+        store.clear();
+    }
+
+    @Override
+    public void evictData(Object key) {
+        store.remove(key);
+    }
+
+    @Override
+    public void release() {
+        store.clear();
+    }
+
+    /**
+     * 先清除过期条目，仍超出容量时按最近访问时间从旧到新淘汰到容量的九成
+     */
+    private synchronized void trim() {
+        if (store.size() <= maxEntries) {
+            return;
+        }
+        long now = System.nanoTime();
+        store.entrySet().removeIf(e -> {
+            if (isExpired(e.getValue(), now)) {
+                expirations.incrementAndGet();
+                return true;
+            }
+            return false;
+        });
+        int toRemove = store.size() - maxEntries * 9 / 10;
+        if (toRemove <= 0) {
+            return;
+        }
+        List<Map.Entry<Object, Entry>> entries = new ArrayList<>(store.entrySet());
+        entries.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+        for (int i = 0; i < toRemove && i < entries.size(); i++) {
+            Map.Entry<Object, Entry> e = entries.get(i);
+            if (store.remove(e.getKey(), e.getValue())) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return expireNanos > 0 && now - entry.writtenAt >= expireNanos;
+    }
+
+    // ==================== 统计 ====================
+
+    /**
+     * 获取命中、未命中、写入和淘汰统计
+     */
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("region", regionName);
+        statistics.put("size", store.size());
+        statistics.put("maxEntries", maxEntries);
+        statistics.put("expireSeconds", TimeUnit.NANOSECONDS.toSeconds(expireNanos));
+        statistics.put("hits", hitCount);
+        statistics.put("misses", missCount);
+        statistics.put("hitRate", hitCount + missCount == 0 ? 0.0
+                : Math.round(hitCount * 10000.0 / (hitCount + missCount)) / 100.0);
+        statistics.put("puts", puts.get());
+        statistics.put("evictions", evictions.get());
+        statistics.put("expirations", expirations.get());
+        return statistics;
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+
+        private final Object value;
+        private final long writtenAt;
+        private volatile long lastAccess;
+
+        Entry(Object value, long writtenAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+            this.lastAccess = writtenAt;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.party.common.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate二级缓存区域工厂
+ * 实体、集合和查询结果区域存放在本节点内存中，每个区域的容量和写入后过期时间由
+ * hibernate.cache.local.<区域名>.max-entries和expire-seconds指定，未指定时使用hibernate.cache.local.default下的值。
+ * 更新时间戳区域不限容量且不过期。其他节点的变更由EntityCacheManager通过缓存版本表通知后清除。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public class LocalRegionFactory extends RegionFactoryTemplate {
+
+    private static final String PROPERTY_PREFIX = "hibernate.cache.local.";
+
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private static final long DEFAULT_EXPIRE_SECONDS = 3600;
+
+    private final Map<String, LocalCacheStorage> storages = new ConcurrentHashMap<>();
+
+    private Map<?, ?> configValues;
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    protected void prepareForUse(SessionFactoryOptions settings, Map configValues) {
+        this.configValues = configValues;
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        storages.values().forEach(LocalCacheStorage::release);
+        storages.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                   DomainDataRegionBuildingContext buildingContext) {
+        return createStorage(regionConfig.getRegionName(), true);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return createStorage(regionName, true);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return createStorage(regionName, false);
+    }
+
+    private LocalCacheStorage createStorage(String regionName, boolean bounded) {
+        LocalCacheStorage storage = bounded
+                ? new LocalCacheStorage(regionName,
+                        (int) getLong(regionName, "max-entries", DEFAULT_MAX_ENTRIES),
+                        getLong(regionName, "expire-seconds", DEFAULT_EXPIRE_SECONDS))
+                : new LocalCacheStorage(regionName, 0, 0);
+        storages.put(regionName, storage);
+        return storage;
+    }
+
+    private long getLong(String regionName, String property, long defaultValue) {
+        Object value = configValues != null ? configValues.get(PROPERTY_PREFIX + regionName + "." + property) : null;
+        if (value == null && configValues != null) {
+            value = configValues.get(PROPERTY_PREFIX + "default." + property);
+        }
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("二级缓存配置无效: " + PROPERTY_PREFIX + regionName + "." + property
+                    + "=" + value);
+        }
+    }
+
+    /**
+     * 获取各区域的命中率、写入数和淘汰数
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new TreeMap<>();
+        storages.forEach((name, storage) -> statistics.put(name, storage.getStatistics()));
+        return statistics;
+    }
+}
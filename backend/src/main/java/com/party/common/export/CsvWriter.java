@@ -0,0 +1,120 @@
+package com.party.common.export;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 流式CSV写入器
+ * 逐个单元格直接写入底层输出流，不在内存中保留已写出的行。
+ * 字段按RFC 4180转义：包含逗号、引号或换行时整体加引号，内部引号双写。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public class CsvWriter implements RowWriter, Flushable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final Writer writer;
+
+    /** 当前行是否已写入单元格 */
+    private boolean rowStarted;
+
+    /**
+     * @param out 输出流，关闭写入器时一并关闭
+     * @param withBom 是否写入UTF-8 BOM，Excel直接打开中文CSV时需要
+     */
+    public CsvWriter(OutputStream out, boolean withBom) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (withBom) {
+            writer.write('\uFEFF');
+        }
+    }
+
+    // ==================== 写入 ====================
+
+    /**
+     * 写入一行表头
+     */
+    @Override
+    public CsvWriter header(String... names) throws IOException {
+        for (String name : names) {
+            cell(name);
+        }
+        return endRow();
+    }
+
+    /**
+     * 写入一个单元格，null写为空
+     */
+    @Override
+    public CsvWriter cell(Object value) throws IOException {
+        return cell(value != null ? value.toString() : null);
+    }
+
+    /**
+     * 写入一个单元格，null写为空
+     */
+    @Override
+    public CsvWriter cell(String value) throws IOException {
+        if (rowStarted) {
+            writer.write(',');
+        }
+        rowStarted = true;
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        if (!needsQuote(value)) {
+            writer.write(value);
+            return this;
+        }
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                writer.write(value, start, i - start + 1);
+                writer.write('"');
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+        return this;
+    }
+
+    /**
+     * 结束当前行
+     */
+    @Override
+    public CsvWriter endRow() throws IOException {
+        writer.write("\r\n");
+        rowStarted = false;
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private static boolean needsQuote(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        // 首尾空白在部分工具中会被裁掉
+        return value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ';
+    }
+}
@@ -0,0 +1,33 @@
+package com.party.common.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 逐行写出表格数据的写入器
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public interface RowWriter extends Closeable {
+
+    /**
+     * 写入一行表头
+     */
+    RowWriter header(String... names) throws IOException;
+
+    /**
+     * 写入一个单元格，null写为空
+     */
+    RowWriter cell(Object value) throws IOException;
+
+    /**
+     * 写入一个文本单元格，null写为空
+     */
+    RowWriter cell(String value) throws IOException;
+
+    /**
+     * 结束当前行
+     */
+    RowWriter endRow() throws IOException;
+}
@@ -0,0 +1,217 @@
+package com.party.common.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 流式Excel（xlsx）写入器
+ * 只生成单个工作表，单元格以内联字符串或数值写入，不使用共享字符串表和样式表，
+ * 每行写完即输出到压缩流，内存中只保留当前行的状态，行数不影响内存占用。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public class XlsxWriter implements RowWriter {
+
+    /** Excel单个工作表的最大行数 */
+    public static final int MAX_ROWS = 1_048_576;
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static final String CONTENT_TYPES =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+            "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">" +
+            "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>" +
+            "<Default Extension=\"xml\" ContentType=\"application/xml\"/>" +
+            "<Override PartName=\"/xl/workbook.xml\" " +
+            "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>" +
+            "<Override PartName=\"/xl/worksheets/sheet1.xml\" " +
+            "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>" +
+            "</Types>";
+
+    private static final String ROOT_RELS =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+            "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+            "<Relationship Id=\"rId1\" " +
+            "Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" " +
+            "Target=\"xl/workbook.xml\"/>" +
+            "</Relationships>";
+
+    private static final String WORKBOOK_RELS =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+            "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+            "<Relationship Id=\"rId1\" " +
+            "Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" " +
+            "Target=\"worksheets/sheet1.xml\"/>" +
+            "</Relationships>";
+
+    private final ZipOutputStream zip;
+
+    private final Writer writer;
+
+    private int rowCount;
+
+    private boolean rowOpen;
+
+    /**
+     * @param out 输出流，关闭写入器时一并关闭
+     * @param sheetName 工作表名称
+     */
+    public XlsxWriter(OutputStream out, String sheetName) throws IOException {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        writeEntry("[Content_Types].xml", CONTENT_TYPES);
+        writeEntry("_rels/.rels", ROOT_RELS);
+        writeEntry("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+        StringBuilder workbook = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n")
+                .append("<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" ")
+                .append("xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">")
+                .append("<sheets><sheet name=\"");
+        appendEscaped(workbook, sheetName);
+        workbook.append("\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>");
+        writeEntry("xl/workbook.xml", workbook.toString());
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+        writer.write("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+    }
+
+    // ==================== 写入 ====================
+
+    /**
+     * 写入一行表头
+     */
+    @Override
+    public XlsxWriter header(String... names) throws IOException {
+        for (String name : names) {
+            cell(name);
+        }
+        return endRow();
+    }
+
+    /**
+     * 写入一个单元格，数值按数字写入，其他按文本写入，null写为空单元格
+     */
+    @Override
+    public XlsxWriter cell(Object value) throws IOException {
+        if (value instanceof Number) {
+            openRow();
+            writer.write("<c><v>");
+            writer.write(value.toString());
+            writer.write("</v></c>");
+            return this;
+        }
+        return cell(value != null ? value.toString() : null);
+    }
+
+    /**
+     * 写入一个文本单元格，null写为空单元格
+     */
+    @Override
+    public XlsxWriter cell(String value) throws IOException {
+        openRow();
+        if (value == null || value.isEmpty()) {
+            writer.write("<c/>");
+            return this;
+        }
+        writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+        writeEscaped(value);
+        writer.write("</t></is></c>");
+        return this;
+    }
+
+    /**
+     * 结束当前行
+     */
+    @Override
+    public XlsxWriter endRow() throws IOException {
+        openRow();
+        writer.write("</row>");
+        rowOpen = false;
+        return this;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 结束工作表并关闭压缩流
+     */
+    @Override
+    public void close() throws IOException {
+        if (rowOpen) {
+            endRow();
+        }
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+        zip.close();
+    }
+
+    private void openRow() throws IOException {
+        if (rowOpen) {
+            return;
+        }
+        if (rowCount >= MAX_ROWS) {
+            throw new IllegalStateException("超出Excel工作表最大行数: " + MAX_ROWS);
+        }
+        rowCount++;
+        writer.write("<row>");
+        rowOpen = true;
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    writer.write("&amp;");
+                    break;
+                case '<':
+                    writer.write("&lt;");
+                    break;
+                case '>':
+                    writer.write("&gt;");
+                    break;
+                default:
+                    // XML 1.0 不允许除制表符和换行外的控制字符
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        writer.write(c);
+                    }
+            }
+        }
+    }
+
+    private static void appendEscaped(StringBuilder builder, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '&') {
+                builder.append("&amp;");
+            } else if (c == '<') {
+                builder.append("&lt;");
+            } else if (c == '>') {
+                builder.append("&gt;");
+            } else if (c == '"') {
+                builder.append("&quot;");
+            } else {
+                builder.append(c);
+            }
+        }
+    }
+}
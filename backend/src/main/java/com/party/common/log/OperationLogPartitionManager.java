@@ -0,0 +1,212 @@
+package com.party.common.log;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 操作日志按月分区维护
+ * 分区表（见迁移脚本011）按created_at划分为每月一个分区，带created_at条件的查询只扫描命中的分区。
+ * 本组件预先创建未来月份的分区，并在保留期清理时整区删除过期月份，代替逐行删除。
+ * 仅对MySQL的分区表生效；其他数据库或未分区的表上所有操作为空操作，清理退回按主键区间分段删除。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class OperationLogPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationLogPartitionManager.class);
+
+    private static final String TABLE_NAME = "operation_logs";
+
+    /** 兜底分区，容纳尚未建立月份分区的数据 */
+    private static final String MAX_PARTITION = "pmax";
+
+    private static final String PARTITIONS_SQL =
+            "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    private static final DateTimeFormatter PARTITION_NAME_FORMATTER = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${party.operation-log.partition.enabled:true}")
+    private boolean enabled;
+
+    @Value("${party.operation-log.partition.months-ahead:3}")
+    private int monthsAhead;
+
+    private volatile Boolean supported;
+
+    // ==================== 分区创建 ====================
+
+    /**
+     * 启动时及每天检查一次，保证当月及之后若干个月的分区已存在，
+     * 新数据不会落入兜底分区
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${party.operation-log.partition.cron:0 0 2 * * ?}")
+    public void ensurePartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+        try {
+            List<Partition> partitions = loadPartitions();
+            LocalDate highest = partitions.stream()
+                    .map(Partition::getUpperBound)
+                    .filter(bound -> bound != null)
+                    .max(LocalDate::compareTo)
+                    .orElse(null);
+            YearMonth next = highest != null ? YearMonth.from(highest) : YearMonth.now();
+            YearMonth last = YearMonth.now().plusMonths(Math.max(monthsAhead, 0));
+            List<String> definitions = new ArrayList<>();
+            for (YearMonth month = next; !month.isAfter(last); month = month.plusMonths(1)) {
+                definitions.add(String.format("PARTITION %s VALUES LESS THAN ('%s')",
+                        month.format(PARTITION_NAME_FORMATTER), month.plusMonths(1).atDay(1)));
+            }
+            if (definitions.isEmpty()) {
+                return;
+            }
+            definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE_NAME + " REORGANIZE PARTITION " + MAX_PARTITION +
+                    " INTO (" + String.join(", ", definitions) + ")");
+            logger.info("创建操作日志分区: {} ~ {}", next, last);
+        } catch (DataAccessException e) {
+            // 多节点同时执行时后执行的一方会失败，下次检查时按实际分区重新计算
+            logger.warn("创建操作日志分区失败: {}", e.getMessage());
+        }
+    }
+
+    // ==================== 分区删除 ====================
+
+    /**
+     * 可整区删除的边界：上界不晚于指定时间的分区中最大的上界
+     * @return 该时间之前的日志都在可删除的分区中；没有可删除的分区或表未分区时为null
+     */
+    public LocalDateTime droppableBoundary(LocalDateTime cutoff) {
+        if (!isPartitioned()) {
+            return null;
+        }
+        return loadPartitions().stream()
+                .map(Partition::getUpperBound)
+                .filter(bound -> bound != null && !bound.atStartOfDay().isAfter(cutoff))
+                .max(LocalDate::compareTo)
+                .map(LocalDate::atStartOfDay)
+                .orElse(null);
+    }
+
+    /**
+     * 删除上界不晚于指定时间的分区
+     * @return 删除的日志行数，表未分区时为0
+     */
+    public long dropPartitionsBefore(LocalDateTime boundary) {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        long dropped = 0;
+        for (Partition partition : loadPartitions()) {
+            LocalDate upperBound = partition.getUpperBound();
+            if (upperBound == null || upperBound.atStartOfDay().isAfter(boundary)) {
+                continue;
+            }
+            Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TABLE_NAME +
+                    " PARTITION (" + partition.getName() + ")", Long.class);
+            jdbcTemplate.execute("ALTER TABLE " + TABLE_NAME + " DROP PARTITION " + partition.getName());
+            dropped += rows != null ? rows : 0;
+            logger.info("删除操作日志分区{}（{}之前），共{}条", partition.getName(), upperBound, rows);
+        }
+        return dropped;
+    }
+
+    /**
+     * 操作日志表是否为本组件可维护的分区表
+     */
+    public boolean isPartitioned() {
+        if (!enabled) {
+            return false;
+        }
+        Boolean result = supported;
+        if (result == null) {
+            result = detect();
+            supported = result;
+        }
+        return result;
+    }
+
+    private boolean detect() {
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            if (product == null || !(product.contains("MySQL") || product.contains("MariaDB"))) {
+                logger.info("数据库{}不支持操作日志分区维护，保留期清理按主键区间分段删除", product);
+                return false;
+            }
+            boolean partitioned = !loadPartitions().isEmpty();
+            if (!partitioned) {
+                logger.info("操作日志表未分区，保留期清理按主键区间分段删除");
+            }
+            return partitioned;
+        } catch (DataAccessException e) {
+            logger.warn("检查操作日志分区失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private List<Partition> loadPartitions() {
+        return jdbcTemplate.query(PARTITIONS_SQL, (rs, rowNum) ->
+                new Partition(rs.getString(1), parseUpperBound(rs.getString(2))), TABLE_NAME);
+    }
+
+    /**
+     * 解析RANGE COLUMNS分区的上界，如 '2026-11-01' 或 '2026-11-01 00:00:00'，MAXVALUE返回null
+     */
+    private static LocalDate parseUpperBound(String description) {
+        if (description == null) {
+            return null;
+        }
+        String value = description.replace("'", "").trim();
+        if (value.length() < 10 || "MAXVALUE".equalsIgnoreCase(value)) {
+            return null;
+        }
+        return LocalDate.parse(value.substring(0, 10));
+    }
+
+    private static class Partition {
+
+        private final String name;
+
+        /** 分区上界（不含），兜底分区为null */
+        private final LocalDate upperBound;
+
+        Partition(String name, LocalDate upperBound) {
+            this.name = name;
+            this.upperBound = upperBound;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        LocalDate getUpperBound() {
+            return upperBound;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.party.common.log;
+
+import com.party.common.exception.BusinessException;
+import com.party.common.export.CsvWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 操作日志分段清理
+ * 按主键区间分段删除指定时间之前的操作日志，每段一条DELETE语句单独提交，段间短暂停顿，
+ * 不会长时间锁表，也不把待删除的日志加载到内存。开启归档时每段先写入gzip压缩的CSV文件再删除。
+ * 操作日志表按月分区时，整个月份都已过期的分区直接删除，只有边界月份逐段删除。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class OperationLogPurger {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationLogPurger.class);
+
+    private static final String[] COLUMNS = {"id", "user_id", "username", "operation_type", "operation_module",
+            "operation_description", "target_type", "target_id", "target_name", "request_method", "request_url",
+            "request_params", "response_status", "response_message", "ip_address", "user_agent", "execution_time",
+            "success", "error_message", "created_at"};
+
+    private static final String RANGE_SQL =
+            "SELECT MIN(id), MAX(id) FROM operation_logs WHERE created_at < ?";
+
+    private static final String CHUNK_CONDITION = " FROM operation_logs WHERE id BETWEEN ? AND ? AND created_at < ?";
+
+    private static final String ARCHIVE_SQL =
+            "SELECT " + String.join(", ", COLUMNS) + CHUNK_CONDITION + " ORDER BY id";
+
+    private static final String DELETE_SQL = "DELETE" + CHUNK_CONDITION;
+
+    private static final DateTimeFormatter FILE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private static final int ARCHIVE_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OperationLogPartitionManager partitionManager;
+
+    @Value("${party.operation-log.retention.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${party.operation-log.retention.pause-ms:50}")
+    private long pauseMillis;
+
+    @Value("${party.operation-log.retention.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${party.operation-log.retention.archive.dir:./archive/operation-logs}")
+    private String archiveDir;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile PurgeReport lastReport;
+
+    // ==================== 清理 ====================
+
+    /**
+     * 删除指定时间之前的操作日志
+     * @return 本次清理结果
+     * @throws BusinessException 已有清理在进行
+     */
+    public PurgeReport purgeBefore(LocalDateTime cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException(409, "操作日志清理正在进行，请稍后再试");
+        }
+        try {
+            PurgeReport report = doPurge(cutoff);
+            lastReport = report;
+            logger.info("清理{}之前的操作日志完成: {}", cutoff, report);
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 最近一次清理结果，尚未清理过时为null
+     */
+    public PurgeReport getLastReport() {
+        return lastReport;
+    }
+
+    private PurgeReport doPurge(LocalDateTime cutoff) {
+        PurgeReport report = new PurgeReport(cutoff);
+        Path archiveFile = archiveEnabled ? archiveFileFor(cutoff) : null;
+        try (CsvWriter archive = archiveFile != null ? openArchive(archiveFile) : null) {
+            // 分区表先整区删除过期月份，剩余的边界月份再分段删除
+            LocalDateTime boundary = partitionManager.droppableBoundary(cutoff);
+            if (boundary != null) {
+                // 归档未完成时不能整区删除，否则未归档的日志随分区一起丢失
+                if (archive != null && !forEachChunk(boundary,
+                        (low, high, before) -> archiveChunk(archive, low, high, before))) {
+                    report.archiveFile = archiveFile.toString();
+                    return report.finish();
+                }
+                report.partitionRows = partitionManager.dropPartitionsBefore(boundary);
+                report.purgedRows += report.partitionRows;
+            }
+            report.completed = forEachChunk(cutoff, (low, high, before) -> {
+                if (archive != null) {
+                    archiveChunk(archive, low, high, before);
+                }
+                report.chunkDeleted(jdbcTemplate.update(DELETE_SQL, low, high, before));
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("归档操作日志失败", e);
+        }
+        report.archiveFile = archiveFile != null ? archiveFile.toString() : null;
+        return report.finish();
+    }
+
+    /**
+     * 把指定时间之前日志的主键范围按段宽切分，逐段处理，段间停顿
+     * @return 全部分段处理完成时返回true，被中断时返回false
+     */
+    private boolean forEachChunk(LocalDateTime cutoff, ChunkAction action) throws IOException {
+        Timestamp before = Timestamp.valueOf(cutoff);
+        long[] range = jdbcTemplate.queryForObject(RANGE_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.wasNull() ? -1 : rs.getLong(2)}, before);
+        if (range == null || range[1] < 0) {
+            return true;
+        }
+        int step = Math.max(chunkSize, 1);
+        for (long low = range[0]; low <= range[1]; low += step) {
+            long high = Math.min(low + step - 1, range[1]);
+            action.apply(low, high, before);
+            if (high < range[1] && !pause()) {
+                logger.warn("操作日志清理被中断，停止于主键{}", high);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface ChunkAction {
+        void apply(long low, long high, Timestamp before) throws IOException;
+    }
+
+    // ==================== 归档 ====================
+
+    private Path archiveFileFor(LocalDateTime cutoff) {
+        return Paths.get(archiveDir).toAbsolutePath().resolve(String.format("operation_logs_before_%s_%s.csv.gz",
+                cutoff.format(FILE_TIME_FORMATTER), LocalDateTime.now().format(FILE_TIME_FORMATTER)));
+    }
+
+    private static CsvWriter openArchive(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        OutputStream out = new GZIPOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), ARCHIVE_BUFFER_SIZE), ARCHIVE_BUFFER_SIZE);
+        CsvWriter writer = new CsvWriter(out, false);
+        writer.header(COLUMNS);
+        return writer;
+    }
+
+    /**
+     * 写出一段待删除的日志，并在删除前刷新到文件
+     */
+    private void archiveChunk(CsvWriter archive, long low, long high, Timestamp before) throws IOException {
+        try {
+            jdbcTemplate.query(ARCHIVE_SQL, (RowCallbackHandler) rs -> {
+                try {
+                    writeRow(rs, archive);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, low, high, before);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        archive.flush();
+    }
+
+    private static void writeRow(ResultSet rs, CsvWriter archive) throws SQLException, IOException {
+        for (int i = 1; i <= COLUMNS.length; i++) {
+            archive.cell(rs.getObject(i));
+        }
+        archive.endRow();
+    }
+
+    /**
+     * 段间停顿，让出锁和IO给在线请求
+     * @return 线程被中断时返回false
+     */
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 一次清理的结果
+     */
+    public static class PurgeReport {
+
+        private final LocalDateTime cutoff;
+
+        private final LocalDateTime startedAt = LocalDateTime.now();
+
+        private final long startNanos = System.nanoTime();
+
+        private long purgedRows;
+
+        /** 整区删除的行数，已计入purgedRows */
+        private long partitionRows;
+
+        private int chunks;
+
+        private String archiveFile;
+
+        /** 是否全部处理完成，被中断时为false */
+        private boolean completed;
+
+        private long elapsedMillis;
+
+        PurgeReport(LocalDateTime cutoff) {
+            this.cutoff = cutoff;
+        }
+
+        void chunkDeleted(int rows) {
+            purgedRows += rows;
+            chunks++;
+        }
+
+        PurgeReport finish() {
+            elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            return this;
+        }
+
+        public LocalDateTime getCutoff() {
+            return cutoff;
+        }
+
+        public LocalDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        public long getPurgedRows() {
+            return purgedRows;
+        }
+
+        public long getPartitionRows() {
+            return partitionRows;
+        }
+
+        public int getChunks() {
+            return chunks;
+        }
+
+        public String getArchiveFile() {
+            return archiveFile;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "PurgeReport{" +
+                    "purgedRows=" + purgedRows +
+                    ", partitionRows=" + partitionRows +
+                    ", chunks=" + chunks +
+                    ", archiveFile='" + archiveFile + '\'' +
+                    ", completed=" + completed +
+                    ", elapsedMillis=" + elapsedMillis +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.party.common.log;
+
+import com.party.service.SystemConfigService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * 操作日志保留期清理定时任务
+ * 保留天数取系统配置 {@value #DAYS_TO_KEEP_KEY}，修改配置后下次运行即生效
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class OperationLogRetentionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationLogRetentionJob.class);
+
+    public static final String DAYS_TO_KEEP_KEY = "log.retention.days";
+
+    @Autowired
+    private SystemConfigService systemConfigService;
+
+    @Autowired
+    private OperationLogPurger operationLogPurger;
+
+    @Value("${party.operation-log.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${party.operation-log.retention.default-days-to-keep:180}")
+    private int defaultDaysToKeep;
+
+    @Scheduled(cron = "${party.operation-log.retention.cron:0 30 3 * * ?}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        Integer daysToKeep = systemConfigService.getIntValue(DAYS_TO_KEEP_KEY, defaultDaysToKeep);
+        if (daysToKeep == null || daysToKeep <= 0) {
+            logger.info("操作日志保留天数未设置为正数，跳过清理: {}", daysToKeep);
+            return;
+        }
+        try {
+            // 按整天保留，当天之内多次运行删除的范围相同
+            operationLogPurger.purgeBefore(LocalDate.now().minusDays(daysToKeep).atStartOfDay());
+        } catch (Exception e) {
+            logger.error("操作日志保留期清理失败: {}", e.getMessage(), e);
+        }
+    }
+}
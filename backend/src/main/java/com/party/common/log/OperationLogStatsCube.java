@@ -0,0 +1,326 @@
+package com.party.common.log;
+
+import com.party.entity.OperationLog;
+import com.party.repository.OperationLogHourlyStatRepository;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 操作日志小时统计
+ * 操作日志写入后按小时、操作类型、模块、用户名和成功标志累加到operation_log_hourly_stats，
+ * 统计接口只读取该表，查询90天范围只需合计约两千个小时的汇总行，不再扫描操作日志表。
+ * 批量写入器每写入一批调用一次；经实体保存的日志由Hibernate提交后事件累加。
+ * 统计表不随日志清理删除，保留期之外的历史统计仍可查询。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class OperationLogStatsCube {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationLogStatsCube.class);
+
+    /** 操作类型缺失时的取值，与批量写入器一致 */
+    private static final String DEFAULT_OPERATION_TYPE = "OTHER";
+
+    private static final String WHERE_DIMENSIONS =
+            " WHERE stat_hour = ? AND operation_type = ? AND operation_module = ? AND username = ? AND success = ?";
+
+    private static final String UPDATE_SQL = "UPDATE operation_log_hourly_stats SET " +
+            "op_count = op_count + ?, timed_count = timed_count + ?, " +
+            "total_execution_time = total_execution_time + ?, " +
+            "max_execution_time = GREATEST(max_execution_time, ?), updated_at = ?" + WHERE_DIMENSIONS;
+
+    private static final String INSERT_SQL = "INSERT INTO operation_log_hourly_stats (" +
+            "stat_hour, operation_type, operation_module, username, success, " +
+            "op_count, timed_count, total_execution_time, max_execution_time, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String LOG_RANGE_SQL = "SELECT MIN(created_at), MAX(created_at) FROM operation_logs";
+
+    private static final String LOG_SQL = "SELECT created_at, operation_type, operation_module, username, success, " +
+            "execution_time FROM operation_logs WHERE created_at >= ? AND created_at < ?";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM operation_log_hourly_stats WHERE stat_hour >= ? AND stat_hour < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OperationLogHourlyStatRepository operationLogHourlyStatRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${party.operation-log.stats.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${party.operation-log.stats.rebuild-chunk-days:7}")
+    private int rebuildChunkDays;
+
+    /** 累加之间可以并发；重算一段时独占，扫描、删除和写入期间的累加不会被覆盖 */
+    private final ReadWriteLock mergeLock = new ReentrantReadWriteLock();
+
+    /**
+     * 注册Hibernate提交后事件监听，经实体保存的日志在事务提交后累加
+     */
+    @PostConstruct
+    public void registerListener() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, new OperationLogStatsListener(this));
+    }
+
+    /**
+     * 统计表为空时（首次部署或开发环境的内存数据库）按已有日志补齐
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillOnStartup || operationLogHourlyStatRepository.count() > 0) {
+            return;
+        }
+        Timestamp[] range = jdbcTemplate.queryForObject(LOG_RANGE_SQL,
+                (rs, rowNum) -> new Timestamp[]{rs.getTimestamp(1), rs.getTimestamp(2)});
+        if (range == null || range[0] == null) {
+            return;
+        }
+        rebuild(range[0].toLocalDateTime(), range[1].toLocalDateTime());
+    }
+
+    // ==================== 累加 ====================
+
+    /**
+     * 累加一批已写入的操作日志
+     * 统计失败只记录错误，不影响日志写入
+     */
+    public void record(Collection<OperationLog> logs) {
+        if (logs == null || logs.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Dimensions, Measures> cells = new HashMap<>();
+            for (OperationLog log : logs) {
+                LocalDateTime createdAt = log.getCreatedAt() != null ? log.getCreatedAt() : LocalDateTime.now();
+                cells.computeIfAbsent(new Dimensions(createdAt, log.getOperationType(), log.getOperationModule(),
+                        log.getUsername(), log.getSuccess()), key -> new Measures())
+                        .add(log.getExecutionTime());
+            }
+            merge(cells);
+        } catch (Exception e) {
+            logger.error("累加操作日志统计失败, 本批{}条: {}", logs.size(), e.getMessage(), e);
+        }
+    }
+
+    void record(OperationLog log) {
+        record(Collections.singletonList(log));
+    }
+
+    /**
+     * 先批量累加已有的统计行，再插入不存在的行；其他节点先插入了同一行时改为累加
+     */
+    private void merge(Map<Dimensions, Measures> cells) {
+        List<Map.Entry<Dimensions, Measures>> entries = new ArrayList<>(cells.entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        mergeLock.readLock().lock();
+        try {
+            int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, entries, entries.size(), (ps, entry) -> {
+                entry.getValue().bind(ps, 1);
+                ps.setTimestamp(5, now);
+                entry.getKey().bind(ps, 6);
+            });
+
+            int index = 0;
+            for (int[] batch : updated) {
+                for (int rows : batch) {
+                    Map.Entry<Dimensions, Measures> entry = entries.get(index++);
+                    if (rows == 0) {
+                        insertOrUpdate(entry.getKey(), entry.getValue(), now);
+                    }
+                }
+            }
+        } finally {
+            mergeLock.readLock().unlock();
+        }
+    }
+
+    private void insertOrUpdate(Dimensions dimensions, Measures measures, Timestamp now) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, ps -> {
+                dimensions.bind(ps, 1);
+                measures.bind(ps, 6);
+                ps.setTimestamp(10, now);
+            });
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(UPDATE_SQL, ps -> {
+                measures.bind(ps, 1);
+                ps.setTimestamp(5, now);
+                dimensions.bind(ps, 6);
+            });
+        }
+    }
+
+    // ==================== 重算 ====================
+
+    /**
+     * 按操作日志重算时间区间内各小时的统计，按段处理以控制内存占用
+     * 用于首次补齐，或直接修改操作日志表之后的校正
+     * @return 写入的统计行数
+     */
+    public int rebuild(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null || startTime.isAfter(endTime)) {
+            throw new IllegalArgumentException("重算时间区间无效");
+        }
+        long start = System.currentTimeMillis();
+        LocalDateTime from = startTime.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime to = endTime.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        int written = 0;
+        for (LocalDateTime chunkStart = from; chunkStart.isBefore(to); ) {
+            LocalDateTime chunkEnd = chunkStart.plusDays(Math.max(rebuildChunkDays, 1));
+            if (chunkEnd.isAfter(to)) {
+                chunkEnd = to;
+            }
+            written += rebuildChunk(chunkStart, chunkEnd);
+            chunkStart = chunkEnd;
+        }
+        logger.info("操作日志小时统计重算完成: {} ~ {}, 写入{}行, 耗时{}ms",
+                from, to, written, System.currentTimeMillis() - start);
+        return written;
+    }
+
+    /**
+     * 重算一段时间的统计，整段持有累加锁：本节点在扫描之后写入的日志要等替换完成才累加，不会被删除覆盖
+     */
+    private int rebuildChunk(LocalDateTime from, LocalDateTime to) {
+        mergeLock.writeLock().lock();
+        try {
+            return replaceChunk(from, to);
+        } finally {
+            mergeLock.writeLock().unlock();
+        }
+    }
+
+    private int replaceChunk(LocalDateTime from, LocalDateTime to) {
+        Map<Dimensions, Measures> cells = new HashMap<>();
+        jdbcTemplate.query(LOG_SQL, (RowCallbackHandler) rs -> {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            long executionTime = rs.getLong("execution_time");
+            Long measuredTime = rs.wasNull() ? null : executionTime;
+            cells.computeIfAbsent(new Dimensions(createdAt.toLocalDateTime(), rs.getString("operation_type"),
+                    rs.getString("operation_module"), rs.getString("username"), rs.getBoolean("success")),
+                    key -> new Measures())
+                    .add(measuredTime);
+        }, Timestamp.valueOf(from), Timestamp.valueOf(to));
+
+        jdbcTemplate.update(DELETE_SQL, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, cells.entrySet(), 500, (ps, entry) -> {
+            entry.getKey().bind(ps, 1);
+            entry.getValue().bind(ps, 6);
+            ps.setTimestamp(10, now);
+        });
+        return cells.size();
+    }
+
+    /**
+     * 统计维度，空值统一为统计表中的取值
+     */
+    private static final class Dimensions {
+
+        private final LocalDateTime hour;
+        private final String operationType;
+        private final String operationModule;
+        private final String username;
+        private final boolean success;
+
+        Dimensions(LocalDateTime createdAt, String operationType, String operationModule,
+                   String username, Boolean success) {
+            this.hour = createdAt.truncatedTo(ChronoUnit.HOURS);
+            this.operationType = operationType != null ? operationType : DEFAULT_OPERATION_TYPE;
+            this.operationModule = operationModule != null ? operationModule : "";
+            this.username = username != null ? username : "";
+            this.success = success == null || success;
+        }
+
+        void bind(PreparedStatement ps, int offset) throws SQLException {
+            ps.setTimestamp(offset, Timestamp.valueOf(hour));
+            ps.setString(offset + 1, operationType);
+            ps.setString(offset + 2, operationModule);
+            ps.setString(offset + 3, username);
+            ps.setBoolean(offset + 4, success);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Dimensions)) {
+                return false;
+            }
+            Dimensions that = (Dimensions) o;
+            return success == that.success && hour.equals(that.hour) && operationType.equals(that.operationType)
+                    && operationModule.equals(that.operationModule) && username.equals(that.username);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hour, operationType, operationModule, username, success);
+        }
+    }
+
+    /**
+     * 统计度量，未记录执行时间的日志只计入操作次数
+     */
+    private static final class Measures {
+
+        private long count;
+        private long timedCount;
+        private long totalExecutionTime;
+        private long maxExecutionTime;
+
+        void add(Long executionTime) {
+            count++;
+            if (executionTime != null) {
+                timedCount++;
+                totalExecutionTime += executionTime;
+                maxExecutionTime = Math.max(maxExecutionTime, executionTime);
+            }
+        }
+
+        void bind(PreparedStatement ps, int offset) throws SQLException {
+            ps.setLong(offset, count);
+            ps.setLong(offset + 1, timedCount);
+            ps.setLong(offset + 2, totalExecutionTime);
+            ps.setLong(offset + 3, maxExecutionTime);
+        }
+    }
+}
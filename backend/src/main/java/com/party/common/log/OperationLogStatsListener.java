@@ -0,0 +1,46 @@
+package com.party.common.log;
+
+import com.party.entity.OperationLog;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * 操作日志实体保存事件监听器
+ * 经实体保存的操作日志在事务提交后累加到小时统计，回滚的写入不计入
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+class OperationLogStatsListener implements PostCommitInsertEventListener {
+
+    private final OperationLogStatsCube operationLogStatsCube;
+
+    OperationLogStatsListener(OperationLogStatsCube operationLogStatsCube) {
+        this.operationLogStatsCube = operationLogStatsCube;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof OperationLog) {
+            operationLogStatsCube.record((OperationLog) event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // 事务未提交，日志未写入，不计入统计
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return OperationLog.class.isAssignableFrom(persister.getMappedClass());
+    }
+
+    /** 拼写有误的旧方法名，仅为满足接口而保留 */
+    @Override
+    @Deprecated
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+}
@@ -0,0 +1,273 @@
+package com.party.common.log;
+
+import com.party.entity.OperationLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 操作日志批量写入器
+ * 请求线程只负责入队，后台线程按批次通过JDBC批量写入操作日志，写入后累加小时统计
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class OperationLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationLogWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO operation_logs (" +
+            "user_id, username, operation_type, operation_module, operation_description, " +
+            "target_type, target_id, target_name, request_method, request_url, request_params, " +
+            "response_status, response_message, ip_address, user_agent, execution_time, " +
+            "success, error_message, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * 队列已满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /** 丢弃新日志 */
+        DROP,
+        /** 阻塞请求线程直到队列有空位 */
+        BLOCK
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OperationLogStatsCube operationLogStatsCube;
+
+    @Value("${party.operation-log.writer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${party.operation-log.writer.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${party.operation-log.writer.batch-size:200}")
+    private int batchSize;
+
+    @Value("${party.operation-log.writer.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${party.operation-log.writer.overflow-policy:DROP}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${party.operation-log.writer.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<OperationLog> queue;
+
+    private Thread drainer;
+
+    private volatile boolean running;
+
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("操作日志异步写入已关闭，将同步写入数据库");
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        drainer = new Thread(this::drainLoop, "operation-log-writer");
+        drainer.setDaemon(true);
+        drainer.start();
+        logger.info("操作日志异步写入已启动: queueCapacity={}, batchSize={}, flushIntervalMs={}, overflowPolicy={}",
+                queueCapacity, batchSize, flushIntervalMs, overflowPolicy);
+    }
+
+    /**
+     * 提交操作日志，由后台线程批量写入
+     */
+    public void submit(OperationLog operationLog) {
+        if (operationLog == null) {
+            return;
+        }
+        submittedCount.incrementAndGet();
+
+        if (!running) {
+            // 未启用或已关闭时直接同步写入，避免日志丢失
+            flush(Collections.singletonList(operationLog));
+            return;
+        }
+
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                queue.put(operationLog);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedCount.incrementAndGet();
+                logger.warn("等待操作日志队列时被中断，日志已丢弃");
+            }
+        } else if (!queue.offer(operationLog)) {
+            long dropped = droppedCount.incrementAndGet();
+            if (dropped % 1000 == 1) {
+                logger.warn("操作日志队列已满，已累计丢弃{}条日志", dropped);
+            }
+        }
+
+        if (!running) {
+            // 入队期间写入器已关闭，关闭流程可能已排空过队列，由提交线程补写
+            flushRemaining();
+        }
+    }
+
+    /**
+     * 获取写入器运行统计
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("pending", queue != null ? queue.size() : 0);
+        statistics.put("submitted", submittedCount.get());
+        statistics.put("dropped", droppedCount.get());
+        statistics.put("written", writtenCount.get());
+        statistics.put("failed", failedCount.get());
+        return statistics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            drainer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (drainer.isAlive()) {
+            logger.warn("操作日志写入线程未能在{}ms内结束，剩余{}条日志未写入", shutdownTimeoutMs, queue.size());
+        } else {
+            // 写入关闭瞬间仍在入队的日志
+            flushRemaining();
+            logger.info("操作日志写入器已关闭: 写入{}条, 丢弃{}条, 失败{}条",
+                    writtenCount.get(), droppedCount.get(), failedCount.get());
+        }
+    }
+
+    /**
+     * 后台消费循环：凑满一个批次或等待超过刷新间隔后写入
+     */
+    private void drainLoop() {
+        List<OperationLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OperationLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.currentTimeMillis() + flushIntervalMs;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    OperationLog next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                // 关闭过程中被中断时写入已取出的日志并继续排空队列
+                running = false;
+                flush(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 排空队列并同步写入
+     */
+    private void flushRemaining() {
+        List<OperationLog> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        flush(remaining);
+    }
+
+    /**
+     * 以JDBC批量方式写入一批日志
+     */
+    private void flush(List<OperationLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, log) -> {
+                setNullable(ps, 1, log.getUserId(), Types.BIGINT);
+                ps.setString(2, log.getUsername());
+                ps.setString(3, log.getOperationType() != null ? log.getOperationType() : "OTHER");
+                ps.setString(4, log.getOperationModule());
+                ps.setString(5, log.getOperationDescription());
+                ps.setString(6, log.getTargetType());
+                setNullable(ps, 7, log.getTargetId(), Types.BIGINT);
+                ps.setString(8, log.getTargetName());
+                ps.setString(9, log.getRequestMethod());
+                ps.setString(10, log.getRequestUrl());
+                ps.setString(11, log.getRequestParams());
+                setNullable(ps, 12, log.getResponseStatus(), Types.INTEGER);
+                ps.setString(13, log.getResponseMessage());
+                ps.setString(14, log.getIpAddress());
+                ps.setString(15, log.getUserAgent());
+                setNullable(ps, 16, log.getExecutionTime(), Types.BIGINT);
+                ps.setBoolean(17, log.getSuccess() == null || log.getSuccess());
+                ps.setString(18, log.getErrorMessage());
+                if (log.getCreatedAt() == null) {
+                    // 统计按同一时间归入小时
+                    log.setCreatedAt(LocalDateTime.now());
+                }
+                ps.setTimestamp(19, Timestamp.valueOf(log.getCreatedAt()));
+            });
+            writtenCount.addAndGet(batch.size());
+            operationLogStatsCube.record(batch);
+        } catch (Exception e) {
+            failedCount.addAndGet(batch.size());
+            logger.error("批量写入操作日志失败, 本批{}条: {}", batch.size(), e.getMessage(), e);
+        }
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else {
+            ps.setObject(index, value, sqlType);
+        }
+    }
+}
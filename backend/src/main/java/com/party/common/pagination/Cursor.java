@@ -0,0 +1,98 @@
+package com.party.common.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 键集分页游标
+ * 记录上一页最后一行的排序键和ID，编码为不透明的URL安全字符串，下一页从该位置之后继续查询。
+ * 排序键为空表示只按ID排序。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public final class Cursor {
+
+    private static final char SEPARATOR = '|';
+
+    /** 按时间倒序翻页时首页使用的排序键，晚于任何业务时间 */
+    public static final LocalDateTime MAX_DATE_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final long id;
+
+    private final String key;
+
+    private Cursor(long id, String key) {
+        this.id = id;
+        this.key = key;
+    }
+
+    // ==================== 创建 ====================
+
+    public static Cursor of(long id) {
+        return new Cursor(id, null);
+    }
+
+    public static Cursor of(Object key, long id) {
+        return new Cursor(id, key != null ? key.toString() : null);
+    }
+
+    /**
+     * 解析游标
+     * @param token 游标字符串
+     * @return 游标
+     * @throws IllegalArgumentException 游标格式无效
+     */
+    public static Cursor decode(String token) {
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = text.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return new Cursor(Long.parseLong(text), null);
+            }
+            return new Cursor(Long.parseLong(text.substring(0, separator)), text.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的分页游标: " + token);
+        }
+    }
+
+    /**
+     * 编码为游标字符串
+     */
+    public String encode() {
+        String text = key != null ? id + String.valueOf(SEPARATOR) + key : String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ==================== 读取 ====================
+
+    public long getId() {
+        return id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public LocalDateTime getKeyAsDateTime() {
+        try {
+            return key != null ? LocalDateTime.parse(key) : null;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的分页游标排序键: " + key);
+        }
+    }
+
+    public Long getKeyAsLong() {
+        try {
+            return key != null ? Long.valueOf(key) : null;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的分页游标排序键: " + key);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Cursor{id=" + id + ", key='" + key + "'}";
+    }
+}
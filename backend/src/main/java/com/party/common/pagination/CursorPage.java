@@ -0,0 +1,73 @@
+package com.party.common.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 键集分页结果
+ * 查询时多取一行判断是否还有下一页，默认不执行COUNT查询
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public class CursorPage<T> {
+
+    private final List<T> content;
+
+    private final int size;
+
+    private final boolean hasNext;
+
+    private final String nextCursor;
+
+    /** 总数，未统计时为null */
+    private final Long totalElements;
+
+    private CursorPage(List<T> content, int size, boolean hasNext, String nextCursor, Long totalElements) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+    }
+
+    /**
+     * 由多取一行的查询结果构造分页
+     * @param rows 按排序键取出的至多size+1行
+     * @param size 每页大小
+     * @param cursorOf 由一行生成游标
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Cursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(content, size, hasNext, nextCursor, null);
+    }
+
+    /**
+     * 附带总数，调用方显式要求统计时使用
+     */
+    public CursorPage<T> withTotal(long totalElements) {
+        return new CursorPage<>(content, size, hasNext, nextCursor, totalElements);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+}
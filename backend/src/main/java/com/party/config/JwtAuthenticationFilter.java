@@ -1,5 +1,6 @@
 package com.party.config;
 
+import com.party.utils.JwtPrincipal;
 import com.party.utils.JwtUtils;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -39,14 +40,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && jwtUtils.validateToken(jwt)) {
-                // 从token中获取用户信息
-                String username = jwtUtils.getUsernameFromToken(jwt);
-                Long userId = jwtUtils.getUserIdFromToken(jwt);
-                List<String> roles = jwtUtils.getRolesFromToken(jwt);
+            // 每个token只验签一次，之后从缓存中取出身份信息
+            JwtPrincipal principal = StringUtils.hasText(jwt) ? jwtUtils.getPrincipal(jwt) : null;
+            if (principal != null) {
+                String username = principal.getUsername();
+                Long userId = principal.getUserId();
                 
                 // 创建权限列表
-                List<SimpleGrantedAuthority> authorities = roles.stream()
+                List<SimpleGrantedAuthority> authorities = principal.getRoles().stream()
                         .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                         .collect(Collectors.toList());
                 
@@ -61,6 +62,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 // 将用户ID添加到请求属性中，方便后续使用
                 request.setAttribute("userId", userId);
                 request.setAttribute("username", username);
+                request.setAttribute("organizationId", principal.getOrganizationId());
             }
         } catch (Exception ex) {
             logger.error("无法设置用户认证: {}", ex.getMessage());
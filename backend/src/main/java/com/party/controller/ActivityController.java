@@ -1,8 +1,12 @@
 package com.party.controller;
 
+import com.party.activity.ActivitySlotCounter;
+import com.party.common.batch.BatchResult;
 import com.party.common.controller.BaseController;
+import com.party.common.pagination.Cursor;
+import com.party.common.pagination.CursorPage;
+import com.party.dto.UserActivityView;
 import com.party.entity.Activity;
-import com.party.entity.ActivityParticipant;
 import com.party.service.ActivityService;
 import com.party.service.ActivityParticipantService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -40,6 +44,9 @@ public class ActivityController extends BaseController {
     @Autowired
     private ActivityParticipantService activityParticipantService;
 
+    @Autowired
+    private ActivitySlotCounter activitySlotCounter;
+
     /**
      * 获取活动统计数据
      */
@@ -131,11 +138,10 @@ public class ActivityController extends BaseController {
             @Parameter(description = "类型") @RequestParam(required = false) Integer type,
             @Parameter(description = "组织ID") @RequestParam(required = false) Long organizationId,
             @Parameter(description = "开始时间") @RequestParam(required = false) String startTime,
-            @Parameter(description = "结束时间") @RequestParam(required = false) String endTime) {
+            @Parameter(description = "结束时间") @RequestParam(required = false) String endTime,
+            @Parameter(description = "上一页返回的游标，传入时按游标分页") @RequestParam(required = false) String after,
+            @Parameter(description = "游标分页时是否统计总数") @RequestParam(defaultValue = "false") boolean withTotal) {
         try {
-            // 创建分页对象（前端传递的page已经是从0开始的）
-            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-            
             // 解析时间参数
             LocalDateTime startDateTime = null;
             LocalDateTime endDateTime = null;
@@ -149,11 +155,32 @@ public class ActivityController extends BaseController {
             }
             
             // 调用服务层查询
-            Page<Activity> activityPage = activityService.findByConditions(
-                keyword, type, status, organizationId, startDateTime, endDateTime, pageable);
+            List<Activity> content;
+            Map<String, Object> result = new HashMap<>();
+            if (after != null) {
+                // 键集分页，按创建时间倒序，默认不统计总数
+                size = Math.max(1, Math.min(size, 100));
+                CursorPage<Activity> cursorPage = activityService.findByConditions(
+                    keyword, type, status, organizationId, startDateTime, endDateTime, after, size, withTotal);
+                content = cursorPage.getContent();
+                if (cursorPage.getTotalElements() != null) {
+                    result.put("totalElements", cursorPage.getTotalElements());
+                }
+                result.put("hasNext", cursorPage.isHasNext());
+                result.put("nextCursor", cursorPage.getNextCursor());
+            } else {
+                // 创建分页对象（前端传递的page已经是从0开始的）
+                Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+                Page<Activity> activityPage = activityService.findByConditions(
+                    keyword, type, status, organizationId, startDateTime, endDateTime, pageable);
+                content = activityPage.getContent();
+                result.put("totalElements", activityPage.getTotalElements());
+                result.put("page", page);
+                result.put("totalPages", activityPage.getTotalPages());
+            }
             
             // 转换为响应格式
-            List<Map<String, Object>> activities = activityPage.getContent().stream().map(activity -> {
+            List<Map<String, Object>> activities = content.stream().map(activity -> {
                 Map<String, Object> activityMap = new HashMap<>();
                 activityMap.put("id", activity.getId());
                 activityMap.put("title", activity.getTitle());
@@ -175,11 +202,7 @@ public class ActivityController extends BaseController {
                 return activityMap;
             }).collect(Collectors.toList());
             
-            Map<String, Object> result = new HashMap<>();
-            result.put("totalElements", activityPage.getTotalElements());
-            result.put("page", page);
             result.put("size", size);
-            result.put("totalPages", activityPage.getTotalPages());
             result.put("content", activities);
             
             Map<String, Object> response = new HashMap<>();
@@ -188,6 +211,11 @@ public class ActivityController extends BaseController {
             response.put("data", result);
             
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             logger.error("获取活动列表失败", e);
             Map<String, Object> response = new HashMap<>();
@@ -228,6 +256,7 @@ public class ActivityController extends BaseController {
             activityMap.put("location", activity.getLocation());
             activityMap.put("participantCount", activity.getParticipantCount());
             activityMap.put("maxParticipants", activity.getMaxParticipants());
+            activityMap.put("waitlistEnabled", activity.getWaitlistEnabled());
             activityMap.put("isRequired", activity.getIsRequired());
             activityMap.put("organizationId", activity.getOrganizationId());
             activityMap.put("organizerId", activity.getOrganizerId());
@@ -267,6 +296,7 @@ public class ActivityController extends BaseController {
             activity.setLocation((String) activityData.get("location"));
             activity.setMaxParticipants((Integer) activityData.get("maxParticipants"));
             activity.setIsRequired((Boolean) activityData.get("isRequired"));
+            activity.setWaitlistEnabled((Boolean) activityData.get("waitlistEnabled"));
             activity.setOrganizationId((Long) activityData.get("organizationId"));
             activity.setOrganizerId((Long) activityData.get("organizerId"));
             
@@ -357,6 +387,9 @@ public class ActivityController extends BaseController {
             if (activityData.get("isRequired") != null) {
                 activity.setIsRequired((Boolean) activityData.get("isRequired"));
             }
+            if (activityData.get("waitlistEnabled") != null) {
+                activity.setWaitlistEnabled((Boolean) activityData.get("waitlistEnabled"));
+            }
             
             // 解析时间
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -369,6 +402,9 @@ public class ActivityController extends BaseController {
             
             // 更新活动
             Activity updatedActivity = activityService.updateActivity(activity);
+            // 人数上限调高后由候补者递补空出的名额，再丢弃内存中的名额计数
+            activityParticipantService.promoteWaitlisted(id);
+            activitySlotCounter.invalidate(id);
             
             // 构建响应数据
             Map<String, Object> activityMap = new HashMap<>();
@@ -446,12 +482,15 @@ public class ActivityController extends BaseController {
     public ResponseEntity<Map<String, Object>> batchDeleteActivities(
             @RequestBody List<Long> ids) {
         try {
-            activityService.batchDeleteActivities(ids);
+            BatchResult<Long> result = activityService.batchDeleteActivities(ids);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "批量删除活动成功");
-            response.put("data", null);
+            response.put("data", result.getSucceeded());
+            response.put("errors", result.getErrors());
+            response.put("successCount", result.getSuccessCount());
+            response.put("failureCount", result.getFailureCount());
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -493,67 +532,47 @@ public class ActivityController extends BaseController {
      * 获取我的活动
      */
     @GetMapping("/my")
-    @Operation(summary = "获取我的活动", description = "获取当前用户参与的活动列表")
+    @Operation(summary = "获取我的活动", description = "获取当前用户参与的活动列表，传入after游标时按键集分页")
     public ResponseEntity<Map<String, Object>> getMyActivities(
+            @Parameter(hidden = true) @RequestAttribute(value = "userId", required = false) Long currentUserId,
             @Parameter(description = "页码") @RequestParam(defaultValue = "1") int page,
-            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") int size) {
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String after) {
         try {
-            // 这里暂时使用固定的用户ID，实际应该从认证信息中获取
-            Long currentUserId = 1L; // TODO: 从JWT或Session中获取当前用户ID
-            
-            // 获取用户参与的活动记录
-            List<ActivityParticipant> participants = activityParticipantService.findByUserId(currentUserId);
-            
-            // 获取活动详情并转换为响应格式
-            List<Map<String, Object>> activities = new ArrayList<>();
-            for (ActivityParticipant participant : participants) {
-                Optional<Activity> activityOpt = activityService.findById(participant.getActivityId());
-                if (activityOpt.isPresent()) {
-                    Activity activity = activityOpt.get();
-                    Map<String, Object> activityMap = new HashMap<>();
-                    activityMap.put("id", activity.getId());
-                    activityMap.put("title", activity.getTitle());
-                    activityMap.put("description", activity.getContent());
-                    activityMap.put("status", activity.getStatus());
-                    activityMap.put("type", activity.getType());
-                    activityMap.put("startTime", activity.getStartTime() != null ? 
-                        activity.getStartTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : null);
-                    activityMap.put("endTime", activity.getEndTime() != null ? 
-                        activity.getEndTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : null);
-                    activityMap.put("location", activity.getLocation());
-                    activityMap.put("participantCount", activity.getParticipantCount());
-                    activityMap.put("maxParticipants", activity.getMaxParticipants());
-                    activityMap.put("isRequired", activity.getIsRequired());
-                    activityMap.put("organizationId", activity.getOrganizationId());
-                    activityMap.put("organizerId", activity.getOrganizerId());
-                    
-                    // 添加参与者相关信息
-                    activityMap.put("participantStatus", participant.getStatus());
-                    activityMap.put("signUpTime", participant.getCreatedAt() != null ? 
-                        participant.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : null);
-                    activityMap.put("checkInTime", participant.getSignInTime() != null ? 
-                        participant.getSignInTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : null);
-                    
-                    activities.add(activityMap);
-                }
+            if (currentUserId == null) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", false);
+                response.put("message", "未登录或登录已过期");
+                return ResponseEntity.status(401).body(response);
             }
-            
-            // 手动分页
-            int start = (page - 1) * size;
-            int end = Math.min(start + size, activities.size());
-            List<Map<String, Object>> pagedActivities = activities.subList(start, end);
-            
-            int totalElements = activities.size();
-            int totalPages = (int) Math.ceil((double) totalElements / size);
+            size = Math.max(1, Math.min(size, 100));
             
             Map<String, Object> result = new HashMap<>();
-            result.put("content", pagedActivities);
-            result.put("totalElements", totalElements);
-            result.put("totalPages", totalPages);
-            result.put("number", page - 1);
-            result.put("size", size);
-            result.put("first", page == 1);
-            result.put("last", page >= totalPages);
+            if (after != null) {
+                // 键集分页，不统计总数
+                CursorPage<UserActivityView> cursorPage =
+                    activityParticipantService.findUserActivities(currentUserId, after, size);
+                result.put("content", cursorPage.getContent().stream()
+                    .map(this::convertToMap).collect(Collectors.toList()));
+                result.put("size", size);
+                result.put("first", after.isEmpty());
+                result.put("last", !cursorPage.isHasNext());
+                result.put("nextCursor", cursorPage.getNextCursor());
+            } else {
+                Page<UserActivityView> activityPage = activityParticipantService.findUserActivities(
+                    currentUserId, PageRequest.of(Math.max(page - 1, 0), size));
+                List<UserActivityView> content = activityPage.getContent();
+                result.put("content", content.stream().map(this::convertToMap).collect(Collectors.toList()));
+                result.put("totalElements", activityPage.getTotalElements());
+                result.put("totalPages", activityPage.getTotalPages());
+                result.put("number", activityPage.getNumber());
+                result.put("size", size);
+                result.put("first", activityPage.isFirst());
+                result.put("last", activityPage.isLast());
+                // 后续页可改用游标继续查询
+                result.put("nextCursor", activityPage.hasNext()
+                    ? Cursor.of(content.get(content.size() - 1).getParticipantId()).encode() : null);
+            }
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -561,6 +580,11 @@ public class ActivityController extends BaseController {
             response.put("data", result);
             
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             logger.error("获取我的活动失败", e);
             Map<String, Object> response = new HashMap<>();
@@ -569,4 +593,28 @@ public class ActivityController extends BaseController {
             return ResponseEntity.internalServerError().body(response);
         }
     }
+
+    private Map<String, Object> convertToMap(UserActivityView view) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        Map<String, Object> activityMap = new HashMap<>();
+        activityMap.put("id", view.getActivityId());
+        activityMap.put("title", view.getTitle());
+        activityMap.put("description", view.getContent());
+        activityMap.put("status", view.getStatus());
+        activityMap.put("type", view.getType());
+        activityMap.put("startTime", view.getStartTime() != null ? view.getStartTime().format(formatter) : null);
+        activityMap.put("endTime", view.getEndTime() != null ? view.getEndTime().format(formatter) : null);
+        activityMap.put("location", view.getLocation());
+        activityMap.put("participantCount", view.getParticipantCount());
+        activityMap.put("maxParticipants", view.getMaxParticipants());
+        activityMap.put("isRequired", view.getIsRequired());
+        activityMap.put("organizationId", view.getOrganizationId());
+        activityMap.put("organizerId", view.getOrganizerId());
+        
+        // 参与者相关信息
+        activityMap.put("participantStatus", view.getParticipantStatus());
+        activityMap.put("signUpTime", view.getSignUpTime() != null ? view.getSignUpTime().format(formatter) : null);
+        activityMap.put("checkInTime", view.getCheckInTime() != null ? view.getCheckInTime().format(formatter) : null);
+        return activityMap;
+    }
 }
\ No newline at end of file
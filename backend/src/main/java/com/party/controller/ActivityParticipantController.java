@@ -1,5 +1,6 @@
 package com.party.controller;
 
+import com.party.dto.BatchCheckInResult;
 import com.party.entity.ActivityParticipant;
 import com.party.service.ActivityParticipantService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -50,7 +51,7 @@ public class ActivityParticipantController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("message", "报名成功");
+            response.put("message", participant.isWaitlisted() ? "活动已满员，已进入候补" : "报名成功");
             response.put("data", convertToMap(participant));
             
             return ResponseEntity.ok(response);
@@ -132,12 +133,12 @@ public class ActivityParticipantController {
                 .map(id -> Long.valueOf(id.toString()))
                 .collect(Collectors.toList());
             
-            activityParticipantService.batchCheckIn(activityId, userIds);
+            BatchCheckInResult result = activityParticipantService.batchCheckIn(activityId, userIds);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "批量签到完成");
-            response.put("data", null);
+            response.put("data", result);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -2,6 +2,8 @@ package com.party.controller;
 
 import com.party.entity.User;
 import com.party.service.UserService;
+import com.party.statistics.StatisticsEngine;
+import com.party.utils.JwtPrincipal;
 import com.party.utils.JwtUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -41,6 +43,9 @@ public class AuthController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private StatisticsEngine statisticsEngine;
+
     /**
      * 用户注册
      */
@@ -189,6 +194,7 @@ public class AuthController {
             }
             
             logger.info("密码验证成功，用户: {}", username);
+            statisticsEngine.recordLogin(user.getId());
             
             // 登录成功，返回用户信息（不包含密码）
             Map<String, Object> userInfo = new HashMap<>();
@@ -264,13 +270,14 @@ public class AuthController {
             // 从JWT token中提取用户信息
             String jwtToken = token.substring(7); // 移除"Bearer "前缀
             
-            if (!jwtUtils.validateToken(jwtToken)) {
+            JwtPrincipal principal = jwtUtils.getPrincipal(jwtToken);
+            if (principal == null) {
                 response.put("success", false);
                 response.put("message", "token无效或已过期");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
             
-            Long id = jwtUtils.getUserIdFromToken(jwtToken);
+            Long id = principal.getUserId();
             
             Optional<User> userOptional = userService.findById(id);
             if (!userOptional.isPresent()) {
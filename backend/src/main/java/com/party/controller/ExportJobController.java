@@ -0,0 +1,104 @@
+package com.party.controller;
+
+import com.party.export.ExportJob;
+import com.party.export.ExportJobManager;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 导出任务控制器
+ * 查询后台导出任务的进度并下载导出文件
+ */
+@RestController
+@RequestMapping("/api/exports")
+@Tag(name = "导出任务", description = "导出任务进度查询与文件下载接口")
+public class ExportJobController {
+
+    /** Tomcat的sendfile请求属性 */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private ExportJobManager exportJobManager;
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "查询导出任务", description = "查询导出任务的状态和进度")
+    public ResponseEntity<Map<String, Object>> getJob(
+            @Parameter(description = "导出任务ID") @PathVariable String jobId) {
+        ExportJob job = exportJobManager.getJob(jobId);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", toMap(job));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{jobId}/download")
+    @Operation(summary = "下载导出文件", description = "下载已完成的导出任务文件")
+    public void download(
+            @Parameter(description = "导出任务ID") @PathVariable String jobId,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExportJob job = exportJobManager.getJob(jobId);
+        if (job.getStatus() != ExportJob.Status.COMPLETED) {
+            throw new IllegalArgumentException("导出任务尚未完成: " + job.getStatus());
+        }
+
+        Path file = exportJobManager.beginDownload(job);
+        try {
+            response.setContentType(job.getFormat().getContentType());
+            response.setContentLengthLong(job.getFileSize());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(job.getFileName(), StandardCharsets.UTF_8).build().toString());
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                // 由Tomcat在请求处理结束后以sendfile从文件直接发往套接字，不经过用户态缓冲
+                request.setAttribute(SENDFILE_FILENAME, file.toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, job.getFileSize());
+            } else {
+                Files.copy(file, response.getOutputStream());
+                response.flushBuffer();
+            }
+        } finally {
+            exportJobManager.endDownload(job);
+        }
+    }
+
+    /**
+     * 导出任务的响应格式，导出接口提交任务后也按此格式返回
+     */
+    static Map<String, Object> toMap(ExportJob job) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("jobId", job.getId());
+        data.put("type", job.getType());
+        data.put("fileName", job.getFileName());
+        data.put("status", job.getStatus());
+        data.put("progress", job.getProgress());
+        data.put("rowsWritten", job.getRowsWritten());
+        data.put("estimatedRows", job.getEstimatedRows());
+        data.put("fileSize", job.getFileSize());
+        data.put("error", job.getError());
+        data.put("createdAt", job.getCreatedAt());
+        data.put("finishedAt", job.getFinishedAt());
+        data.put("expiresAt", job.getExpiresAt());
+        data.put("statusUrl", "/api/exports/" + job.getId());
+        data.put("downloadUrl", "/api/exports/" + job.getId() + "/download");
+        return data;
+    }
+}
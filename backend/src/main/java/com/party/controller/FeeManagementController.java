@@ -1,7 +1,10 @@
 package com.party.controller;
 
+import com.party.common.pagination.CursorPage;
+import com.party.dto.FeePaymentGenerationResult;
 import com.party.entity.FeePayment;
 import com.party.entity.FeeStandard;
+import com.party.export.ExportJob;
 import com.party.service.FeeManagementService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -175,6 +178,19 @@ public class FeeManagementController {
         return ResponseEntity.ok(feePayments);
     }
     
+    @GetMapping(value = "/payments", params = "after")
+    @Operation(summary = "游标查询缴费记录", description = "按缴费年月倒序游标分页查询党费缴费记录，翻页开销与页码无关")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<CursorPage<FeePayment>> getFeePaymentsByCursor(
+            @Parameter(description = "上一页返回的游标，首页传空") @RequestParam String after,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "是否统计总数") @RequestParam(defaultValue = "false") boolean withTotal) {
+        
+        CursorPage<FeePayment> feePayments = feeManagementService.getFeePayments(after,
+            Math.max(1, Math.min(size, 100)), withTotal);
+        return ResponseEntity.ok(feePayments);
+    }
+    
     @GetMapping("/payments/member/{memberId}")
     @Operation(summary = "查询党员缴费记录", description = "查询指定党员的缴费记录")
     @PreAuthorize("hasRole('USER')")
@@ -233,11 +249,14 @@ public class FeeManagementController {
             @Parameter(description = "年份") @RequestParam Integer year,
             @Parameter(description = "月份") @RequestParam Integer month) {
         
-        int count = feeManagementService.batchCreateFeePayments(year, month);
+        FeePaymentGenerationResult generation = feeManagementService.generateFeePayments(year, month);
         Map<String, Object> result = Map.of(
             "success", true,
             "message", "批量创建成功",
-            "count", count
+            "count", generation.getCreated(),
+            "skipped", generation.getSkipped(),
+            "defaulted", generation.getDefaulted(),
+            "elapsedMillis", generation.getElapsedMillis()
         );
         return ResponseEntity.ok(result);
     }
@@ -258,6 +277,14 @@ public class FeeManagementController {
         return ResponseEntity.ok(result);
     }
     
+    @PostMapping("/calculate/batch")
+    @Operation(summary = "批量计算党费", description = "按党员收入批量计算应缴党费，无适用标准的党员不在结果中")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SECRETARY')")
+    public ResponseEntity<Map<Long, BigDecimal>> calculateMemberFees(
+            @Parameter(description = "党员ID到收入金额的映射") @RequestBody Map<Long, BigDecimal> incomes) {
+        return ResponseEntity.ok(feeManagementService.calculateMemberFees(incomes));
+    }
+    
     @PutMapping("/payments/{id}/paid")
     @Operation(summary = "标记已缴费", description = "标记缴费记录为已缴费状态")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SECRETARY')")
@@ -367,48 +394,48 @@ public class FeeManagementController {
     // ==================== 导出功能 ====================
     
     @GetMapping("/export/payments")
-    @Operation(summary = "导出缴费记录", description = "导出党费缴费记录")
+    @Operation(summary = "导出缴费记录", description = "提交党费缴费记录导出任务，按返回的任务ID查询进度并下载")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SECRETARY')")
     public ResponseEntity<Map<String, Object>> exportFeePayments(
             @Parameter(description = "年份") @RequestParam Integer year,
             @Parameter(description = "月份") @RequestParam Integer month,
             @Parameter(description = "组织ID") @RequestParam(required = false) Long organizationId) {
         
-        String filePath = feeManagementService.exportFeePayments(year, month, organizationId);
+        ExportJob job = feeManagementService.exportFeePayments(year, month, organizationId);
         Map<String, Object> result = Map.of(
             "success", true,
-            "message", "导出成功",
-            "filePath", filePath
+            "message", "导出任务已提交",
+            "data", ExportJobController.toMap(job)
         );
-        return ResponseEntity.ok(result);
+        return ResponseEntity.accepted().body(result);
     }
     
     @GetMapping("/export/statistics/{year}")
-    @Operation(summary = "导出统计报表", description = "导出党费统计报表")
+    @Operation(summary = "导出统计报表", description = "提交党费统计报表导出任务，按返回的任务ID查询进度并下载")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SECRETARY')")
     public ResponseEntity<Map<String, Object>> exportFeeStatistics(
             @Parameter(description = "年份") @PathVariable Integer year) {
         
-        String filePath = feeManagementService.exportFeeStatistics(year);
+        ExportJob job = feeManagementService.exportFeeStatistics(year);
         Map<String, Object> result = Map.of(
             "success", true,
-            "message", "导出成功",
-            "filePath", filePath
+            "message", "导出任务已提交",
+            "data", ExportJobController.toMap(job)
         );
-        return ResponseEntity.ok(result);
+        return ResponseEntity.accepted().body(result);
     }
     
     @GetMapping("/export/overdue")
-    @Operation(summary = "导出逾期名单", description = "导出逾期缴费名单")
+    @Operation(summary = "导出逾期名单", description = "提交逾期缴费名单导出任务，按返回的任务ID查询进度并下载")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SECRETARY')")
     public ResponseEntity<Map<String, Object>> exportOverduePayments() {
-        String filePath = feeManagementService.exportOverduePayments();
+        ExportJob job = feeManagementService.exportOverduePayments();
         Map<String, Object> result = Map.of(
             "success", true,
-            "message", "导出成功",
-            "filePath", filePath
+            "message", "导出任务已提交",
+            "data", ExportJobController.toMap(job)
         );
-        return ResponseEntity.ok(result);
+        return ResponseEntity.accepted().body(result);
     }
     
     // ==================== 提醒功能 ====================
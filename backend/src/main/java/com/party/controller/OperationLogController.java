@@ -1,5 +1,7 @@
 package com.party.controller;
 
+import com.party.common.log.OperationLogPurger.PurgeReport;
+import com.party.common.pagination.CursorPage;
 import com.party.entity.OperationLog;
 import com.party.service.OperationLogService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,13 +13,16 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -46,7 +51,30 @@ public class OperationLogController {
             @Parameter(description = "页码，从0开始") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "每页大小") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "排序字段") @RequestParam(defaultValue = "createdAt") String sortBy,
-            @Parameter(description = "排序方向") @RequestParam(defaultValue = "desc") String sortDir) {
+            @Parameter(description = "排序方向") @RequestParam(defaultValue = "desc") String sortDir,
+            @Parameter(description = "上一页返回的游标，传入时按创建时间倒序游标分页") @RequestParam(required = false) String after,
+            @Parameter(description = "游标分页时是否统计总数") @RequestParam(defaultValue = "false") boolean withTotal) {
+        
+        if (after != null) {
+            CursorPage<OperationLog> logs = operationLogService.searchLogs(null, null, null, null, null, null,
+                    null, null, null, null, after, Math.max(1, Math.min(size, 100)), withTotal);
+            
+            Map<String, Object> data = new HashMap<>();
+            data.put("list", logs.getContent());
+            data.put("pageSize", logs.getSize());
+            data.put("hasNext", logs.isHasNext());
+            data.put("nextCursor", logs.getNextCursor());
+            if (logs.getTotalElements() != null) {
+                data.put("total", logs.getTotalElements());
+            }
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "查询成功");
+            response.put("data", data);
+            
+            return ResponseEntity.ok(response);
+        }
         
         Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
@@ -101,7 +129,26 @@ public class OperationLogController {
             @Parameter(description = "页码，从0开始") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "每页大小") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "排序字段") @RequestParam(defaultValue = "createdAt") String sortBy,
-            @Parameter(description = "排序方向") @RequestParam(defaultValue = "desc") String sortDir) {
+            @Parameter(description = "排序方向") @RequestParam(defaultValue = "desc") String sortDir,
+            @Parameter(description = "上一页返回的游标，传入时按创建时间倒序游标分页") @RequestParam(required = false) String after,
+            @Parameter(description = "游标分页时是否统计总数") @RequestParam(defaultValue = "false") boolean withTotal) {
+        
+        if (after != null) {
+            CursorPage<OperationLog> logs = operationLogService.searchLogs(userId, username, operationType,
+                    operationModule, targetType, success, ipAddress, startTime, endTime, keyword,
+                    after, Math.max(1, Math.min(size, 100)), withTotal);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("content", logs.getContent());
+            response.put("size", logs.getSize());
+            response.put("hasNext", logs.isHasNext());
+            response.put("nextCursor", logs.getNextCursor());
+            if (logs.getTotalElements() != null) {
+                response.put("totalElements", logs.getTotalElements());
+            }
+            
+            return ResponseEntity.ok(response);
+        }
         
         Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
@@ -226,6 +273,37 @@ public class OperationLogController {
         return ResponseEntity.ok(statistics);
     }
 
+    @GetMapping("/statistics/hourly")
+    @Operation(summary = "按小时统计", description = "按小时统计操作次数、失败次数和平均、最长执行时间")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getHourlyStatistics(
+            @Parameter(description = "开始时间") @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+            @Parameter(description = "结束时间") @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime) {
+        
+        if (startTime == null) {
+            startTime = LocalDateTime.now().minusDays(1);
+        }
+        if (endTime == null) {
+            endTime = LocalDateTime.now();
+        }
+        
+        return ResponseEntity.ok(operationLogService.getHourlyStatistics(startTime, endTime));
+    }
+
+    @PostMapping("/statistics/rebuild")
+    @Operation(summary = "重算小时统计", description = "按操作日志重算指定时间范围内的小时统计，用于直接修改日志表之后的校正")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildStatistics(
+            @Parameter(description = "开始时间") @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+            @Parameter(description = "结束时间") @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime) {
+        int rows = operationLogService.rebuildStatistics(startTime, endTime);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "重算小时统计成功");
+        response.put("rows", rows);
+        return ResponseEntity.ok(response);
+    }
+
     // ==================== 数据维护操作 ====================
 
     @GetMapping("/operation-types")
@@ -277,62 +355,69 @@ public class OperationLogController {
     }
 
     @DeleteMapping("/cleanup")
-    @Operation(summary = "清理旧日志", description = "清理指定天数之前的操作日志")
+    @Operation(summary = "清理旧日志", description = "按主键区间分段清理指定天数之前的操作日志，返回删除的行数")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
-    public ResponseEntity<Map<String, String>> cleanupOldLogs(
+    public ResponseEntity<Map<String, Object>> cleanupOldLogs(
             @Parameter(description = "保留天数") @RequestParam(defaultValue = "90") int daysToKeep) {
-        operationLogService.cleanupOldLogs(daysToKeep);
+        PurgeReport report = operationLogService.cleanupOldLogs(daysToKeep);
         
-        Map<String, String> response = new HashMap<>();
+        Map<String, Object> response = new HashMap<>();
         response.put("message", "清理旧日志成功");
+        response.put("data", report);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/cleanup/last")
+    @Operation(summary = "最近一次清理结果", description = "获取最近一次手动或定时清理的删除行数和耗时")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getLastCleanupReport() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", operationLogService.getLastCleanupReport());
         return ResponseEntity.ok(response);
     }
 
     // ==================== 导出操作 ====================
 
     @GetMapping("/export/csv")
-    @Operation(summary = "导出CSV", description = "导出操作日志到CSV文件")
+    @Operation(summary = "导出CSV", description = "按时间顺序流式导出操作日志到CSV文件，可选gzip压缩")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
-    public ResponseEntity<byte[]> exportToCsv(
+    public ResponseEntity<StreamingResponseBody> exportToCsv(
             @Parameter(description = "开始时间") @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
-            @Parameter(description = "结束时间") @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime) {
-        
-        if (startTime == null) {
-            startTime = LocalDateTime.now().minusDays(30);
-        }
-        if (endTime == null) {
-            endTime = LocalDateTime.now();
-        }
+            @Parameter(description = "结束时间") @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
+            @Parameter(description = "是否gzip压缩") @RequestParam(defaultValue = "false") boolean gzip) {
         
-        byte[] csvData = operationLogService.exportToCsv(startTime, endTime);
+        LocalDateTime from = startTime != null ? startTime : LocalDateTime.now().minusDays(30);
+        LocalDateTime to = endTime != null ? endTime : LocalDateTime.now();
         
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-        headers.setContentDispositionFormData("attachment", "operation_logs.csv");
+        if (gzip) {
+            headers.setContentType(MediaType.parseMediaType("application/gzip"));
+            headers.setContentDisposition(ContentDisposition.attachment().filename("operation_logs.csv.gz").build());
+        } else {
+            headers.setContentType(new MediaType("text", "csv", StandardCharsets.UTF_8));
+            headers.setContentDisposition(ContentDisposition.attachment().filename("operation_logs.csv").build());
+        }
         
-        return new ResponseEntity<>(csvData, headers, HttpStatus.OK);
+        StreamingResponseBody body = out -> operationLogService.exportToCsv(from, to, out, gzip);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 
     @GetMapping("/export/excel")
-    @Operation(summary = "导出Excel", description = "导出操作日志到Excel文件")
+    @Operation(summary = "导出Excel", description = "按时间顺序流式导出操作日志到Excel文件")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
-    public ResponseEntity<byte[]> exportToExcel(
+    public ResponseEntity<StreamingResponseBody> exportToExcel(
             @Parameter(description = "开始时间") @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
             @Parameter(description = "结束时间") @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime) {
         
-        if (startTime == null) {
-            startTime = LocalDateTime.now().minusDays(30);
-        }
-        if (endTime == null) {
-            endTime = LocalDateTime.now();
-        }
-        
-        byte[] excelData = operationLogService.exportToExcel(startTime, endTime);
+        LocalDateTime from = startTime != null ? startTime : LocalDateTime.now().minusDays(30);
+        LocalDateTime to = endTime != null ? endTime : LocalDateTime.now();
         
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-        headers.setContentDispositionFormData("attachment", "operation_logs.xlsx");
+        headers.setContentType(MediaType.parseMediaType(
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentDisposition(ContentDisposition.attachment().filename("operation_logs.xlsx").build());
         
-        return new ResponseEntity<>(excelData, headers, HttpStatus.OK);
+        StreamingResponseBody body = out -> operationLogService.exportToExcel(from, to, out);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
-}
\ No newline at end of file
+}
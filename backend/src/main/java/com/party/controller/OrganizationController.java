@@ -1,5 +1,7 @@
 package com.party.controller;
 
+import com.party.common.batch.BatchResult;
+import com.party.common.pagination.CursorPage;
 import com.party.entity.Organization;
 import com.party.service.OrganizationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -144,10 +146,28 @@ public class OrganizationController {
             @Parameter(description = "组织名称（模糊查询）") @RequestParam(required = false) String name,
             @Parameter(description = "组织类型") @RequestParam(required = false) Integer type,
             @Parameter(description = "组织层级") @RequestParam(required = false) Integer level,
-            @Parameter(description = "是否激活") @RequestParam(required = false) Boolean isActive) {
+            @Parameter(description = "是否激活") @RequestParam(required = false) Boolean isActive,
+            @Parameter(description = "上一页返回的游标，传入时按ID升序游标分页") @RequestParam(required = false) String after,
+            @Parameter(description = "游标分页时是否统计总数") @RequestParam(defaultValue = "false") boolean withTotal) {
         
         Map<String, Object> response = new HashMap<>();
         try {
+            if (after != null) {
+                size = Math.max(1, Math.min(size, 100));
+                CursorPage<Organization> organizations = organizationService.findByConditions(name, type, level,
+                        isActive, after, size, withTotal);
+                
+                response.put("success", true);
+                response.put("data", organizations.getContent());
+                response.put("pageSize", organizations.getSize());
+                response.put("hasNext", organizations.isHasNext());
+                response.put("nextCursor", organizations.getNextCursor());
+                if (organizations.getTotalElements() != null) {
+                    response.put("totalElements", organizations.getTotalElements());
+                }
+                return ResponseEntity.ok(response);
+            }
+            
             Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
             Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
             
@@ -161,6 +181,10 @@ public class OrganizationController {
             response.put("pageSize", organizations.getSize());
             
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         } catch (Exception e) {
             logger.error("查询组织失败: {}", e.getMessage());
             response.put("success", false);
@@ -282,6 +306,27 @@ public class OrganizationController {
         }
     }
 
+    /**
+     * 统计子树成员数
+     */
+    @GetMapping("/{id}/subtree-member-count")
+    @Operation(summary = "统计子树成员数", description = "统计指定组织及其所有子组织的成员总数")
+    public ResponseEntity<Map<String, Object>> countMembersInSubtree(
+            @Parameter(description = "组织ID") @PathVariable Long id) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            long memberCount = organizationService.countMembersInSubtree(id);
+            response.put("success", true);
+            response.put("data", memberCount);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("统计子树成员数失败: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", "统计子树成员数失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     /**
      * 根据类型查找组织
      */
@@ -426,12 +471,15 @@ public class OrganizationController {
             @Valid @RequestBody List<Organization> organizations) {
         Map<String, Object> response = new HashMap<>();
         try {
-            List<Organization> createdOrganizations = organizationService.batchCreateOrganizations(organizations);
+            BatchResult<Organization> result = organizationService.batchCreateOrganizations(organizations);
             response.put("success", true);
             response.put("message", "批量创建组织完成");
-            response.put("data", createdOrganizations);
-            response.put("successCount", createdOrganizations.size());
-            response.put("totalCount", organizations.size());
+            response.put("data", result.getSucceeded());
+            response.put("errors", result.getErrors());
+            response.put("successCount", result.getSuccessCount());
+            response.put("failureCount", result.getFailureCount());
+            response.put("totalCount", result.getTotalCount());
+            response.put("elapsedMillis", result.getElapsedMillis());
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
             logger.error("批量创建组织失败: {}", e.getMessage());
@@ -1,5 +1,6 @@
 package com.party.controller;
 
+import com.party.service.StatisticsRollupService;
 import com.party.service.StatisticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -27,6 +28,9 @@ public class StatisticsController {
     @Autowired
     private StatisticsService statisticsService;
 
+    @Autowired
+    private StatisticsRollupService statisticsRollupService;
+
     @GetMapping("/overview")
     @Operation(summary = "获取系统总体统计数据", description = "获取系统的总体统计信息")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SECRETARY')")
@@ -164,6 +168,21 @@ public class StatisticsController {
         return ResponseEntity.ok(overdue);
     }
 
+    // 每日汇总
+    @PostMapping("/rollups/recompute")
+    @Operation(summary = "重算每日统计汇总", description = "按日期区间重算趋势统计使用的每日汇总数据")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> recomputeRollups(
+            @Parameter(description = "开始日期") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "结束日期") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        int rows = statisticsRollupService.rollup(startDate, endDate);
+        Map<String, Object> result = new HashMap<>();
+        result.put("startDate", startDate.toString());
+        result.put("endDate", endDate.toString());
+        result.put("rows", rows);
+        return ResponseEntity.ok(result);
+    }
+
     // 自定义统计
     @PostMapping("/custom-reports")
     @Operation(summary = "创建自定义统计报表", description = "创建自定义统计报表")
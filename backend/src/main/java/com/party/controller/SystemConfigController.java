@@ -1,5 +1,8 @@
 package com.party.controller;
 
+import com.party.common.cache.BoundedCacheManager;
+import com.party.common.cache.CacheCoherenceManager;
+import com.party.common.cache.EntityCacheManager;
 import com.party.entity.SystemConfig;
 import com.party.service.SystemConfigService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -30,6 +33,15 @@ public class SystemConfigController {
     @Autowired
     private SystemConfigService systemConfigService;
     
+    @Autowired
+    private CacheCoherenceManager cacheCoherenceManager;
+    
+    @Autowired
+    private BoundedCacheManager cacheManager;
+    
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+    
     // ==================== 基础CRUD操作 ====================
     
     @PostMapping
@@ -487,6 +499,27 @@ public class SystemConfigController {
         return ResponseEntity.ok(result);
     }
     
+    @GetMapping("/cache/coherence")
+    @Operation(summary = "缓存一致性状态", description = "获取本节点已处理的各缓存区域版本和轮询状态")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCacheCoherenceStatus() {
+        return ResponseEntity.ok(cacheCoherenceManager.getStatus());
+    }
+    
+    @GetMapping("/cache/statistics")
+    @Operation(summary = "缓存统计", description = "获取各缓存的容量、命中率、淘汰数和平均加载耗时")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        return ResponseEntity.ok(cacheManager.getStatistics());
+    }
+    
+    @GetMapping("/cache/entity-statistics")
+    @Operation(summary = "二级缓存统计", description = "获取Hibernate二级缓存各实体、集合和查询区域的容量、命中率和淘汰数")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getEntityCacheStatistics() {
+        return ResponseEntity.ok(entityCacheManager.getStatistics());
+    }
+    
     // ==================== 初始化功能 ====================
     
     @PostMapping("/initialize")
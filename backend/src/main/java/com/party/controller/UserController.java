@@ -1,5 +1,7 @@
 package com.party.controller;
 
+import com.party.common.batch.BatchResult;
+import com.party.common.pagination.CursorPage;
 import com.party.entity.User;
 import com.party.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -144,10 +146,28 @@ public class UserController {
             @Parameter(description = "真实姓名（模糊查询）") @RequestParam(required = false) String realName,
             @Parameter(description = "组织ID") @RequestParam(required = false) Long organizationId,
             @Parameter(description = "党员状态") @RequestParam(required = false) Integer partyStatus,
-            @Parameter(description = "是否激活") @RequestParam(required = false) Boolean isActive) {
+            @Parameter(description = "是否激活") @RequestParam(required = false) Boolean isActive,
+            @Parameter(description = "上一页返回的游标，传入时按ID升序游标分页") @RequestParam(required = false) String after,
+            @Parameter(description = "游标分页时是否统计总数") @RequestParam(defaultValue = "false") boolean withTotal) {
         
         Map<String, Object> response = new HashMap<>();
         try {
+            if (after != null) {
+                size = Math.max(1, Math.min(size, 100));
+                CursorPage<User> users = userService.findByConditions(realName, organizationId, partyStatus,
+                        isActive, after, size, withTotal);
+                
+                response.put("success", true);
+                response.put("data", users.getContent());
+                response.put("pageSize", users.getSize());
+                response.put("hasNext", users.isHasNext());
+                response.put("nextCursor", users.getNextCursor());
+                if (users.getTotalElements() != null) {
+                    response.put("totalElements", users.getTotalElements());
+                }
+                return ResponseEntity.ok(response);
+            }
+            
             Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
             Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
             
@@ -161,6 +181,10 @@ public class UserController {
             response.put("pageSize", users.getSize());
             
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         } catch (Exception e) {
             logger.error("查询用户失败: {}", e.getMessage());
             response.put("success", false);
@@ -330,12 +354,15 @@ public class UserController {
             @Valid @RequestBody List<User> users) {
         Map<String, Object> response = new HashMap<>();
         try {
-            List<User> createdUsers = userService.batchCreateUsers(users);
+            BatchResult<User> result = userService.batchCreateUsers(users);
             response.put("success", true);
             response.put("message", "批量创建用户完成");
-            response.put("data", createdUsers);
-            response.put("successCount", createdUsers.size());
-            response.put("totalCount", users.size());
+            response.put("data", result.getSucceeded());
+            response.put("errors", result.getErrors());
+            response.put("successCount", result.getSuccessCount());
+            response.put("failureCount", result.getFailureCount());
+            response.put("totalCount", result.getTotalCount());
+            response.put("elapsedMillis", result.getElapsedMillis());
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
             logger.error("批量创建用户失败: {}", e.getMessage());
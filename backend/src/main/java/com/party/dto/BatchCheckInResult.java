@@ -0,0 +1,118 @@
+package com.party.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 活动批量签到结果
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Schema(description = "活动批量签到结果")
+public class BatchCheckInResult {
+
+    @Schema(description = "活动ID")
+    private final Long activityId;
+
+    @Schema(description = "本次签到成功的用户ID")
+    private final List<Long> checkedIn = new ArrayList<>();
+
+    @Schema(description = "此前已签到的用户ID")
+    private final List<Long> alreadyCheckedIn = new ArrayList<>();
+
+    @Schema(description = "未报名该活动的用户ID")
+    private final List<Long> notRegistered = new ArrayList<>();
+
+    @Schema(description = "候补中、未占用名额而不能签到的用户ID")
+    private final List<Long> waitlisted = new ArrayList<>();
+
+    @Schema(description = "耗时（毫秒）")
+    private long elapsedMillis;
+
+    // ==================== 构造方法 ====================
+
+    public BatchCheckInResult(Long activityId) {
+        this.activityId = activityId;
+    }
+
+    // ==================== 累加 ====================
+
+    public void addCheckedIn(Long userId) {
+        checkedIn.add(userId);
+    }
+
+    public void addAlreadyCheckedIn(Long userId) {
+        alreadyCheckedIn.add(userId);
+    }
+
+    public void addNotRegistered(Long userId) {
+        notRegistered.add(userId);
+    }
+
+    public void addWaitlisted(Long userId) {
+        waitlisted.add(userId);
+    }
+
+    // ==================== Getter 和 Setter ====================
+
+    public Long getActivityId() {
+        return activityId;
+    }
+
+    public List<Long> getCheckedIn() {
+        return checkedIn;
+    }
+
+    public List<Long> getAlreadyCheckedIn() {
+        return alreadyCheckedIn;
+    }
+
+    public List<Long> getNotRegistered() {
+        return notRegistered;
+    }
+
+    public List<Long> getWaitlisted() {
+        return waitlisted;
+    }
+
+    public int getCheckedInCount() {
+        return checkedIn.size();
+    }
+
+    public int getAlreadyCheckedInCount() {
+        return alreadyCheckedIn.size();
+    }
+
+    public int getNotRegisteredCount() {
+        return notRegistered.size();
+    }
+
+    public int getWaitlistedCount() {
+        return waitlisted.size();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // ==================== toString ====================
+
+    @Override
+    public String toString() {
+        return "BatchCheckInResult{" +
+                "activityId=" + activityId +
+                ", checkedIn=" + checkedIn.size() +
+                ", alreadyCheckedIn=" + alreadyCheckedIn.size() +
+                ", notRegistered=" + notRegistered.size() +
+                ", waitlisted=" + waitlisted.size() +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
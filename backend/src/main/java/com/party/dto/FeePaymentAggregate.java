@@ -0,0 +1,81 @@
+package com.party.dto;
+
+import com.party.entity.FeePayment;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+/**
+ * 党费缴费聚合行
+ * 对应按年、月、状态、缴费方式分组后的一行聚合结果
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Schema(description = "党费缴费聚合行")
+public class FeePaymentAggregate {
+
+    @Schema(description = "缴费年份")
+    private final Integer paymentYear;
+
+    @Schema(description = "缴费月份")
+    private final Integer paymentMonth;
+
+    @Schema(description = "缴费状态")
+    private final FeePayment.PaymentStatus status;
+
+    @Schema(description = "缴费方式")
+    private final FeePayment.PaymentMethod paymentMethod;
+
+    @Schema(description = "记录数")
+    private final long count;
+
+    @Schema(description = "应缴金额合计")
+    private final BigDecimal amount;
+
+    public FeePaymentAggregate(Integer paymentYear, Integer paymentMonth, FeePayment.PaymentStatus status,
+                               FeePayment.PaymentMethod paymentMethod, Long count, BigDecimal amount) {
+        this.paymentYear = paymentYear;
+        this.paymentMonth = paymentMonth;
+        this.status = status;
+        this.paymentMethod = paymentMethod;
+        this.count = count != null ? count : 0L;
+        this.amount = amount != null ? amount : BigDecimal.ZERO;
+    }
+
+    public Integer getPaymentYear() {
+        return paymentYear;
+    }
+
+    public Integer getPaymentMonth() {
+        return paymentMonth;
+    }
+
+    public FeePayment.PaymentStatus getStatus() {
+        return status;
+    }
+
+    public FeePayment.PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    @Override
+    public String toString() {
+        return "FeePaymentAggregate{" +
+                "paymentYear=" + paymentYear +
+                ", paymentMonth=" + paymentMonth +
+                ", status=" + status +
+                ", paymentMethod=" + paymentMethod +
+                ", count=" + count +
+                ", amount=" + amount +
+                '}';
+    }
+}
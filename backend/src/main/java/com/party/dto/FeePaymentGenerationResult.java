@@ -0,0 +1,103 @@
+package com.party.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * 月度党费账单生成结果
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Schema(description = "月度党费账单生成结果")
+public class FeePaymentGenerationResult {
+
+    @Schema(description = "缴费年份")
+    private final Integer year;
+
+    @Schema(description = "缴费月份")
+    private final Integer month;
+
+    @Schema(description = "新建的缴费记录数")
+    private int created;
+
+    @Schema(description = "已存在而跳过的记录数")
+    private int skipped;
+
+    @Schema(description = "无已知收入或无适用标准、按默认金额生成的记录数")
+    private int defaulted;
+
+    @Schema(description = "处理的分段数")
+    private int chunks;
+
+    @Schema(description = "耗时（毫秒）")
+    private long elapsedMillis;
+
+    // ==================== 构造方法 ====================
+
+    public FeePaymentGenerationResult(Integer year, Integer month) {
+        this.year = year;
+        this.month = month;
+    }
+
+    // ==================== 累加 ====================
+
+    public void addChunk(int created, int skipped, int defaulted) {
+        this.created += created;
+        this.skipped += skipped;
+        this.defaulted += defaulted;
+        this.chunks++;
+    }
+
+    public void addSkipped(int skipped) {
+        this.skipped += skipped;
+    }
+
+    // ==================== Getter 和 Setter ====================
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public Integer getMonth() {
+        return month;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getDefaulted() {
+        return defaulted;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // ==================== toString ====================
+
+    @Override
+    public String toString() {
+        return "FeePaymentGenerationResult{" +
+                "year=" + year +
+                ", month=" + month +
+                ", created=" + created +
+                ", skipped=" + skipped +
+                ", defaulted=" + defaulted +
+                ", chunks=" + chunks +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
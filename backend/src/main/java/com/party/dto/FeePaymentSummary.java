@@ -0,0 +1,127 @@
+package com.party.dto;
+
+import com.party.entity.FeePayment;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * 党费缴费汇总
+ * 由一次分组查询得到的聚合行构成，可按年、月再切分，切分和取值都不再访问数据库
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Schema(description = "党费缴费汇总")
+public class FeePaymentSummary {
+
+    private final List<FeePaymentAggregate> aggregates;
+
+    public FeePaymentSummary(List<FeePaymentAggregate> aggregates) {
+        this.aggregates = aggregates != null ? aggregates : Collections.emptyList();
+    }
+
+    // ==================== 切分 ====================
+
+    /**
+     * 取指定年份的汇总
+     */
+    public FeePaymentSummary forYear(Integer year) {
+        return filter(a -> year != null && year.equals(a.getPaymentYear()));
+    }
+
+    /**
+     * 取指定年月的汇总
+     */
+    public FeePaymentSummary forMonth(Integer year, Integer month) {
+        return filter(a -> year != null && year.equals(a.getPaymentYear())
+                && month != null && month.equals(a.getPaymentMonth()));
+    }
+
+    /**
+     * 汇总中出现的年份
+     */
+    public SortedSet<Integer> getYears() {
+        SortedSet<Integer> years = new TreeSet<>();
+        for (FeePaymentAggregate aggregate : aggregates) {
+            if (aggregate.getPaymentYear() != null) {
+                years.add(aggregate.getPaymentYear());
+            }
+        }
+        return years;
+    }
+
+    // ==================== 取值 ====================
+
+    public long getTotalCount() {
+        return count(a -> true);
+    }
+
+    public BigDecimal getTotalAmount() {
+        return amount(a -> true);
+    }
+
+    public long getCount(FeePayment.PaymentStatus status) {
+        return count(a -> a.getStatus() == status);
+    }
+
+    public BigDecimal getAmount(FeePayment.PaymentStatus status) {
+        return amount(a -> a.getStatus() == status);
+    }
+
+    public long getCount(FeePayment.PaymentMethod method) {
+        return count(a -> a.getPaymentMethod() == method);
+    }
+
+    public BigDecimal getAmount(FeePayment.PaymentMethod method) {
+        return amount(a -> a.getPaymentMethod() == method);
+    }
+
+    /**
+     * 已缴笔数占总笔数的百分比
+     */
+    public double getPaymentRate() {
+        long total = getTotalCount();
+        return total > 0 ? (double) getCount(FeePayment.PaymentStatus.PAID) / total * 100 : 0;
+    }
+
+    public List<FeePaymentAggregate> getAggregates() {
+        return Collections.unmodifiableList(aggregates);
+    }
+
+    private FeePaymentSummary filter(Predicate<FeePaymentAggregate> predicate) {
+        List<FeePaymentAggregate> filtered = new ArrayList<>();
+        for (FeePaymentAggregate aggregate : aggregates) {
+            if (predicate.test(aggregate)) {
+                filtered.add(aggregate);
+            }
+        }
+        return new FeePaymentSummary(filtered);
+    }
+
+    private long count(Predicate<FeePaymentAggregate> predicate) {
+        long count = 0;
+        for (FeePaymentAggregate aggregate : aggregates) {
+            if (predicate.test(aggregate)) {
+                count += aggregate.getCount();
+            }
+        }
+        return count;
+    }
+
+    private BigDecimal amount(Predicate<FeePaymentAggregate> predicate) {
+        BigDecimal amount = BigDecimal.ZERO;
+        for (FeePaymentAggregate aggregate : aggregates) {
+            if (predicate.test(aggregate)) {
+                amount = amount.add(aggregate.getAmount());
+            }
+        }
+        return amount;
+    }
+}
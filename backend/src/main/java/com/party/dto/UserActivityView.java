@@ -0,0 +1,161 @@
+package com.party.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户参与的活动
+ * 参与记录与活动的联表投影，一行对应用户的一条报名记录
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Schema(description = "用户参与的活动")
+public class UserActivityView {
+
+    @Schema(description = "活动ID")
+    private final Long activityId;
+
+    @Schema(description = "活动标题")
+    private final String title;
+
+    @Schema(description = "活动内容")
+    private final String content;
+
+    @Schema(description = "活动状态")
+    private final Integer status;
+
+    @Schema(description = "活动类型")
+    private final Integer type;
+
+    @Schema(description = "开始时间")
+    private final LocalDateTime startTime;
+
+    @Schema(description = "结束时间")
+    private final LocalDateTime endTime;
+
+    @Schema(description = "活动地点")
+    private final String location;
+
+    @Schema(description = "报名人数")
+    private final Integer participantCount;
+
+    @Schema(description = "人数上限")
+    private final Integer maxParticipants;
+
+    @Schema(description = "是否必须参加")
+    private final Boolean isRequired;
+
+    @Schema(description = "所属组织ID")
+    private final Long organizationId;
+
+    @Schema(description = "组织者ID")
+    private final Long organizerId;
+
+    @Schema(description = "参与记录ID")
+    private final Long participantId;
+
+    @Schema(description = "参与状态")
+    private final Integer participantStatus;
+
+    @Schema(description = "报名时间")
+    private final LocalDateTime signUpTime;
+
+    @Schema(description = "签到时间")
+    private final LocalDateTime checkInTime;
+
+    public UserActivityView(Long activityId, String title, String content, Integer status, Integer type,
+                            LocalDateTime startTime, LocalDateTime endTime, String location,
+                            Integer participantCount, Integer maxParticipants, Boolean isRequired,
+                            Long organizationId, Long organizerId, Long participantId,
+                            Integer participantStatus, LocalDateTime signUpTime, LocalDateTime checkInTime) {
+        this.activityId = activityId;
+        this.title = title;
+        this.content = content;
+        this.status = status;
+        this.type = type;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.location = location;
+        this.participantCount = participantCount;
+        this.maxParticipants = maxParticipants;
+        this.isRequired = isRequired;
+        this.organizationId = organizationId;
+        this.organizerId = organizerId;
+        this.participantId = participantId;
+        this.participantStatus = participantStatus;
+        this.signUpTime = signUpTime;
+        this.checkInTime = checkInTime;
+    }
+
+    // ==================== Getter ====================
+
+    public Long getActivityId() {
+        return activityId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public Integer getType() {
+        return type;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public Integer getParticipantCount() {
+        return participantCount;
+    }
+
+    public Integer getMaxParticipants() {
+        return maxParticipants;
+    }
+
+    public Boolean getIsRequired() {
+        return isRequired;
+    }
+
+    public Long getOrganizationId() {
+        return organizationId;
+    }
+
+    public Long getOrganizerId() {
+        return organizerId;
+    }
+
+    public Long getParticipantId() {
+        return participantId;
+    }
+
+    public Integer getParticipantStatus() {
+        return participantStatus;
+    }
+
+    public LocalDateTime getSignUpTime() {
+        return signUpTime;
+    }
+
+    public LocalDateTime getCheckInTime() {
+        return checkInTime;
+    }
+}
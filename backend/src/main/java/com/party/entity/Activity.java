@@ -21,7 +21,8 @@ import java.util.Objects;
  * @version 1.0.0
  */
 @Entity
-@Table(name = "activities")
+@Table(name = "activities",
+       indexes = @Index(name = "idx_activity_created", columnList = "created_at, id"))
 @EntityListeners(AuditingEntityListener.class)
 public class Activity {
 
@@ -64,6 +65,26 @@ public class Activity {
     @Column(name = "is_required", columnDefinition = "BOOLEAN DEFAULT FALSE")
     private Boolean isRequired = false;
 
+    @Column(name = "waitlist_enabled", columnDefinition = "BOOLEAN DEFAULT FALSE")
+    private Boolean waitlistEnabled = false; // 报名满员后是否进入候补
+
+    // 参与人数计数，只由参与者服务以原子增量语句维护，实体保存时不写入
+    @Column(name = "signed_up_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 0")
+    private Integer signedUpCount = 0; // 占用名额的报名记录数，不含候补
+
+    @Column(name = "signed_in_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 0")
+    private Integer signedInCount = 0;
+
+    @Column(name = "leave_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 0")
+    private Integer leaveCount = 0;
+
+    @Column(name = "absent_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 0")
+    private Integer absentCount = 0;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -202,6 +223,42 @@ public class Activity {
         this.isRequired = isRequired;
     }
 
+    public Boolean getWaitlistEnabled() {
+        return waitlistEnabled;
+    }
+
+    public void setWaitlistEnabled(Boolean waitlistEnabled) {
+        this.waitlistEnabled = waitlistEnabled;
+    }
+
+    public int getSignedUpCount() {
+        return signedUpCount != null ? signedUpCount : 0;
+    }
+
+    public void setSignedUpCount(Integer signedUpCount) {
+        this.signedUpCount = signedUpCount;
+    }
+
+    public void setSignedInCount(Integer signedInCount) {
+        this.signedInCount = signedInCount;
+    }
+
+    public int getLeaveCount() {
+        return leaveCount != null ? leaveCount : 0;
+    }
+
+    public void setLeaveCount(Integer leaveCount) {
+        this.leaveCount = leaveCount;
+    }
+
+    public int getAbsentCount() {
+        return absentCount != null ? absentCount : 0;
+    }
+
+    public void setAbsentCount(Integer absentCount) {
+        this.absentCount = absentCount;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -252,14 +309,11 @@ public class Activity {
     }
 
     public int getParticipantCount() {
-        return participants != null ? participants.size() : 0;
+        return signedUpCount != null ? signedUpCount : 0;
     }
 
     public int getSignedInCount() {
-        if (participants == null) return 0;
-        return (int) participants.stream()
-                .filter(p -> p.getStatus() != null && p.getStatus() == 2)
-                .count();
+        return signedInCount != null ? signedInCount : 0;
     }
 
     public boolean isFull() {
@@ -15,7 +15,9 @@ import java.util.Objects;
  * @version 1.0.0
  */
 @Entity
-@Table(name = "activity_participants")
+@Table(name = "activity_participants",
+       uniqueConstraints = @UniqueConstraint(name = "uk_activity_user", columnNames = {"activity_id", "user_id"}),
+       indexes = @Index(name = "idx_participant_user", columnList = "user_id, id"))
 @EntityListeners(AuditingEntityListener.class)
 public class ActivityParticipant {
 
@@ -32,7 +34,7 @@ public class ActivityParticipant {
     private Long userId;
 
     @Column(columnDefinition = "TINYINT DEFAULT 1")
-    private Integer status = 1; // 1:已报名 2:已签到 3:请假 4:缺席
+    private Integer status = 1; // 1:已报名 2:已签到 3:请假 4:缺席 5:候补
 
     @Column(name = "sign_in_time")
     private LocalDateTime signInTime;
@@ -148,6 +150,7 @@ public class ActivityParticipant {
             case 2: return "已签到";
             case 3: return "请假";
             case 4: return "缺席";
+            case 5: return "候补";
             default: return "未知";
         }
     }
@@ -164,6 +167,10 @@ public class ActivityParticipant {
         return status != null && status == 3;
     }
 
+    public boolean isWaitlisted() {
+        return status != null && status == 5;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,82 @@
+package com.party.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 缓存版本实体类
+ * 每个需要跨节点保持一致的本地缓存区域一行，由CacheCoherenceManager以JDBC递增和轮询
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "cache_versions")
+@Schema(description = "缓存版本实体")
+public class CacheVersion {
+
+    @Id
+    @Column(name = "cache_name", length = 50)
+    @Schema(description = "缓存区域")
+    private String cacheName;
+
+    @Column(name = "version", nullable = false)
+    @Schema(description = "版本号，每次变更加一")
+    private Long version = 0L;
+
+    @Column(name = "updated_by", length = 100)
+    @Schema(description = "最后变更的节点")
+    private String updatedBy;
+
+    @Column(name = "updated_at", nullable = false)
+    @Schema(description = "最后变更时间")
+    private LocalDateTime updatedAt;
+
+    // 构造函数
+    public CacheVersion() {}
+
+    // Getter和Setter方法
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public void setCacheName(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getUpdatedBy() {
+        return updatedBy;
+    }
+
+    public void setUpdatedBy(String updatedBy) {
+        this.updatedBy = updatedBy;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheVersion{" +
+                "cacheName='" + cacheName + '\'' +
+                ", version=" + version +
+                ", updatedBy='" + updatedBy + '\'' +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
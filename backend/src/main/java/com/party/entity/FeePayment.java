@@ -9,7 +9,11 @@ import java.time.LocalDateTime;
  * 党费缴费记录实体类
  */
 @Entity
-@Table(name = "fee_payments")
+@Table(name = "fee_payments", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_member_year_month", columnNames = {"member_id", "payment_year", "payment_month"})
+}, indexes = {
+    @Index(name = "idx_payment_period", columnList = "payment_year, payment_month, id")
+})
 public class FeePayment {
     
     @Id
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
  * @version 1.0.0
  */
 @Entity
-@Table(name = "operation_logs")
+@Table(name = "operation_logs",
+       indexes = @Index(name = "idx_operation_log_created", columnList = "created_at, id"))
 @Schema(description = "操作日志实体")
 public class OperationLog {
 
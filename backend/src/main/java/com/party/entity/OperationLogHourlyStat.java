@@ -0,0 +1,172 @@
+package com.party.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 操作日志小时统计实体类
+ * 每小时每个操作类型、模块、用户名和成功标志的组合一行，随操作日志写入累加；
+ * 模块或用户名为空的日志记为空字符串，保证唯一键可以命中
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "operation_log_hourly_stats",
+       uniqueConstraints = @UniqueConstraint(name = "uk_op_stat_dimensions",
+               columnNames = {"stat_hour", "operation_type", "operation_module", "username", "success"}),
+       indexes = @Index(name = "idx_op_stat_hour", columnList = "stat_hour"))
+@Schema(description = "操作日志小时统计实体")
+public class OperationLogHourlyStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "统计ID")
+    private Long id;
+
+    @Column(name = "stat_hour", nullable = false)
+    @Schema(description = "统计小时，截断到整点")
+    private LocalDateTime statHour;
+
+    @Column(name = "operation_type", length = 50, nullable = false)
+    @Schema(description = "操作类型")
+    private String operationType;
+
+    @Column(name = "operation_module", length = 50, nullable = false)
+    @Schema(description = "操作模块，空字符串表示未记录")
+    private String operationModule;
+
+    @Column(name = "username", length = 50, nullable = false)
+    @Schema(description = "操作用户名，空字符串表示未记录")
+    private String username;
+
+    @Column(name = "success", nullable = false)
+    @Schema(description = "是否成功")
+    private Boolean success;
+
+    @Column(name = "op_count", nullable = false)
+    @Schema(description = "操作次数")
+    private Long opCount = 0L;
+
+    @Column(name = "timed_count", nullable = false)
+    @Schema(description = "记录了执行时间的操作次数")
+    private Long timedCount = 0L;
+
+    @Column(name = "total_execution_time", nullable = false)
+    @Schema(description = "执行时间合计（毫秒），与记录了执行时间的操作次数相除得到平均值")
+    private Long totalExecutionTime = 0L;
+
+    @Column(name = "max_execution_time", nullable = false)
+    @Schema(description = "最长执行时间（毫秒）")
+    private Long maxExecutionTime = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    @Schema(description = "更新时间")
+    private LocalDateTime updatedAt;
+
+    // 构造函数
+    public OperationLogHourlyStat() {}
+
+    // Getter和Setter方法
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getStatHour() {
+        return statHour;
+    }
+
+    public void setStatHour(LocalDateTime statHour) {
+        this.statHour = statHour;
+    }
+
+    public String getOperationType() {
+        return operationType;
+    }
+
+    public void setOperationType(String operationType) {
+        this.operationType = operationType;
+    }
+
+    public String getOperationModule() {
+        return operationModule;
+    }
+
+    public void setOperationModule(String operationModule) {
+        this.operationModule = operationModule;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Boolean getSuccess() {
+        return success;
+    }
+
+    public void setSuccess(Boolean success) {
+        this.success = success;
+    }
+
+    public Long getOpCount() {
+        return opCount;
+    }
+
+    public void setOpCount(Long opCount) {
+        this.opCount = opCount;
+    }
+
+    public Long getTimedCount() {
+        return timedCount;
+    }
+
+    public void setTimedCount(Long timedCount) {
+        this.timedCount = timedCount;
+    }
+
+    public Long getTotalExecutionTime() {
+        return totalExecutionTime;
+    }
+
+    public void setTotalExecutionTime(Long totalExecutionTime) {
+        this.totalExecutionTime = totalExecutionTime;
+    }
+
+    public Long getMaxExecutionTime() {
+        return maxExecutionTime;
+    }
+
+    public void setMaxExecutionTime(Long maxExecutionTime) {
+        this.maxExecutionTime = maxExecutionTime;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationLogHourlyStat{" +
+                "statHour=" + statHour +
+                ", operationType='" + operationType + '\'' +
+                ", operationModule='" + operationModule + '\'' +
+                ", username='" + username + '\'' +
+                ", success=" + success +
+                ", opCount=" + opCount +
+                '}';
+    }
+}
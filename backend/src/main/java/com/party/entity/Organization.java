@@ -3,6 +3,8 @@ package com.party.entity;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -23,11 +25,14 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "organizations")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "organizations")
 @EntityListeners(AuditingEntityListener.class)
 public class Organization {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "organizations_seq")
+    @SequenceGenerator(name = "organizations_seq", sequenceName = "organizations_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "组织名称不能为空")
@@ -77,6 +82,10 @@ public class Organization {
     @Transient
     private List<Organization> childOrganizations = new ArrayList<>();
 
+    // 非持久化字段 - 成员数，由组织树索引填充，为空时按成员列表计算
+    @Transient
+    private Integer cachedMemberCount;
+
     // 关联实体
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_id", insertable = false, updatable = false)
@@ -268,9 +277,16 @@ public class Organization {
     }
 
     public int getMemberCount() {
+        if (cachedMemberCount != null) {
+            return cachedMemberCount;
+        }
         return members != null ? members.size() : 0;
     }
 
+    public void setMemberCount(Integer memberCount) {
+        this.cachedMemberCount = memberCount;
+    }
+
     public boolean hasChildren() {
         return children != null && !children.isEmpty();
     }
@@ -0,0 +1,111 @@
+package com.party.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 组织闭包表实体类
+ * 每对“上级组织-下级组织”一行（含组织到自身、深度为0的一行），由组织服务在同一事务内维护
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "organization_closure",
+       indexes = @Index(name = "idx_closure_descendant", columnList = "descendant_id, depth"))
+@IdClass(OrganizationClosure.Key.class)
+@Schema(description = "组织闭包表实体")
+public class OrganizationClosure {
+
+    @Id
+    @Column(name = "ancestor_id", nullable = false)
+    @Schema(description = "上级组织ID")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id", nullable = false)
+    @Schema(description = "下级组织ID")
+    private Long descendantId;
+
+    @Column(name = "depth", nullable = false)
+    @Schema(description = "两者相差的层数，自身为0")
+    private Integer depth;
+
+    // 构造函数
+    public OrganizationClosure() {}
+
+    public OrganizationClosure(Long ancestorId, Long descendantId, Integer depth) {
+        this.ancestorId = ancestorId;
+        this.descendantId = descendantId;
+        this.depth = depth;
+    }
+
+    // Getter和Setter方法
+    public Long getAncestorId() {
+        return ancestorId;
+    }
+
+    public void setAncestorId(Long ancestorId) {
+        this.ancestorId = ancestorId;
+    }
+
+    public Long getDescendantId() {
+        return descendantId;
+    }
+
+    public void setDescendantId(Long descendantId) {
+        this.descendantId = descendantId;
+    }
+
+    public Integer getDepth() {
+        return depth;
+    }
+
+    public void setDepth(Integer depth) {
+        this.depth = depth;
+    }
+
+    @Override
+    public String toString() {
+        return "OrganizationClosure{" +
+                "ancestorId=" + ancestorId +
+                ", descendantId=" + descendantId +
+                ", depth=" + depth +
+                '}';
+    }
+
+    /**
+     * 联合主键
+     */
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long ancestorId;
+
+        private Long descendantId;
+
+        public Key() {}
+
+        public Key(Long ancestorId, Long descendantId) {
+            this.ancestorId = ancestorId;
+            this.descendantId = descendantId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(ancestorId, key.ancestorId) && Objects.equals(descendantId, key.descendantId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ancestorId, descendantId);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.party.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -23,6 +25,8 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "roles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "roles")
 @EntityListeners(AuditingEntityListener.class)
 @Schema(description = "角色信息")
 public class Role {
@@ -75,6 +79,7 @@ public class Role {
     )
     @JsonIgnore
     @Schema(description = "角色拥有的权限")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "rolePermissions")
     private Set<Permission> permissions = new HashSet<>();
 
     @ManyToMany(mappedBy = "roles", fetch = FetchType.LAZY)
@@ -0,0 +1,215 @@
+package com.party.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 每日统计汇总实体类
+ * 每个组织每天一行，由汇总任务按日期区间重算写入；未分配组织的数据记在组织ID为0的行上
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "statistics_daily_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_rollup_date_org", columnNames = {"stat_date", "organization_id"}),
+       indexes = @Index(name = "idx_rollup_stat_date", columnList = "stat_date"))
+@Schema(description = "每日统计汇总实体")
+public class StatisticsDailyRollup {
+
+    /** 未分配组织的数据使用的组织ID */
+    public static final long NO_ORGANIZATION = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "汇总ID")
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    @Schema(description = "统计日期")
+    private LocalDate statDate;
+
+    @Column(name = "organization_id", nullable = false)
+    @Schema(description = "组织ID，0表示未分配组织")
+    private Long organizationId;
+
+    @Column(name = "new_users", nullable = false)
+    @Schema(description = "当日新增用户数")
+    private Integer newUsers = 0;
+
+    @Column(name = "total_users", nullable = false)
+    @Schema(description = "截至当日的用户总数")
+    private Integer totalUsers = 0;
+
+    @Column(name = "activity_count", nullable = false)
+    @Schema(description = "当日开始的活动数")
+    private Integer activityCount = 0;
+
+    @Column(name = "participant_count", nullable = false)
+    @Schema(description = "当日开始活动的报名人次")
+    private Integer participantCount = 0;
+
+    @Column(name = "signed_in_count", nullable = false)
+    @Schema(description = "当日开始活动的签到人次")
+    private Integer signedInCount = 0;
+
+    @Column(name = "fee_paid_count", nullable = false)
+    @Schema(description = "当日缴费笔数")
+    private Integer feePaidCount = 0;
+
+    @Column(name = "fee_paid_amount", nullable = false, precision = 14, scale = 2)
+    @Schema(description = "当日缴费金额")
+    private BigDecimal feePaidAmount = BigDecimal.ZERO;
+
+    @Column(name = "fee_billed_count", nullable = false)
+    @Schema(description = "所属月份的应缴笔数，记在该月1日")
+    private Integer feeBilledCount = 0;
+
+    @Column(name = "fee_billed_paid_count", nullable = false)
+    @Schema(description = "所属月份的已缴笔数，记在该月1日")
+    private Integer feeBilledPaidCount = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    @Schema(description = "汇总时间")
+    private LocalDateTime updatedAt;
+
+    // 构造函数
+    public StatisticsDailyRollup() {}
+
+    public StatisticsDailyRollup(LocalDate statDate, Long organizationId) {
+        this.statDate = statDate;
+        this.organizationId = organizationId;
+    }
+
+    // Getter和Setter方法
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getStatDate() {
+        return statDate;
+    }
+
+    public void setStatDate(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+
+    public Long getOrganizationId() {
+        return organizationId;
+    }
+
+    public void setOrganizationId(Long organizationId) {
+        this.organizationId = organizationId;
+    }
+
+    public Integer getNewUsers() {
+        return newUsers;
+    }
+
+    public void setNewUsers(Integer newUsers) {
+        this.newUsers = newUsers;
+    }
+
+    public Integer getTotalUsers() {
+        return totalUsers;
+    }
+
+    public void setTotalUsers(Integer totalUsers) {
+        this.totalUsers = totalUsers;
+    }
+
+    public Integer getActivityCount() {
+        return activityCount;
+    }
+
+    public void setActivityCount(Integer activityCount) {
+        this.activityCount = activityCount;
+    }
+
+    public Integer getParticipantCount() {
+        return participantCount;
+    }
+
+    public void setParticipantCount(Integer participantCount) {
+        this.participantCount = participantCount;
+    }
+
+    public Integer getSignedInCount() {
+        return signedInCount;
+    }
+
+    public void setSignedInCount(Integer signedInCount) {
+        this.signedInCount = signedInCount;
+    }
+
+    public Integer getFeePaidCount() {
+        return feePaidCount;
+    }
+
+    public void setFeePaidCount(Integer feePaidCount) {
+        this.feePaidCount = feePaidCount;
+    }
+
+    public BigDecimal getFeePaidAmount() {
+        return feePaidAmount;
+    }
+
+    public void setFeePaidAmount(BigDecimal feePaidAmount) {
+        this.feePaidAmount = feePaidAmount;
+    }
+
+    public Integer getFeeBilledCount() {
+        return feeBilledCount;
+    }
+
+    public void setFeeBilledCount(Integer feeBilledCount) {
+        this.feeBilledCount = feeBilledCount;
+    }
+
+    public Integer getFeeBilledPaidCount() {
+        return feeBilledPaidCount;
+    }
+
+    public void setFeeBilledPaidCount(Integer feeBilledPaidCount) {
+        this.feeBilledPaidCount = feeBilledPaidCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * 是否没有任何统计数据
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return newUsers == 0 && totalUsers == 0 && activityCount == 0 && participantCount == 0
+                && feePaidCount == 0 && feeBilledCount == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "StatisticsDailyRollup{" +
+                "statDate=" + statDate +
+                ", organizationId=" + organizationId +
+                ", newUsers=" + newUsers +
+                ", totalUsers=" + totalUsers +
+                ", activityCount=" + activityCount +
+                ", participantCount=" + participantCount +
+                ", feePaidCount=" + feePaidCount +
+                ", feePaidAmount=" + feePaidAmount +
+                '}';
+    }
+}
@@ -1,5 +1,8 @@
 package com.party.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
@@ -8,10 +11,13 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "system_configs")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "systemConfigs")
 public class SystemConfig {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "system_configs_seq")
+    @SequenceGenerator(name = "system_configs_seq", sequenceName = "system_configs_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "config_key", unique = true, nullable = false, length = 100)
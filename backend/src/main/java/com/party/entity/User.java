@@ -3,6 +3,8 @@ package com.party.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.party.common.enums.PartyStatus;
 import io.swagger.v3.oas.annotations.media.Schema;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -24,13 +26,18 @@ import java.util.Objects;
  * @version 1.0.0
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_phone", columnList = "phone"),
+    @Index(name = "idx_users_email", columnList = "email"),
+    @Index(name = "idx_users_id_card", columnList = "id_card")
+})
 @EntityListeners(AuditingEntityListener.class)
 @Schema(description = "用户信息")
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "用户名不能为空")
@@ -112,6 +119,7 @@ public class User {
     )
     @JsonIgnore
     @Schema(description = "用户拥有的角色（多对多关系）")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "userRoles")
     private Set<Role> roles = new HashSet<>();
 
     // 构造函数
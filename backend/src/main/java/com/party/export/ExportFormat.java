@@ -0,0 +1,45 @@
+package com.party.export;
+
+import com.party.common.export.CsvWriter;
+import com.party.common.export.RowWriter;
+import com.party.common.export.XlsxWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 导出文件格式
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public enum ExportFormat {
+
+    CSV("csv", "text/csv;charset=UTF-8"),
+
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final String extension;
+
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    /**
+     * 在输出流上打开对应格式的写入器
+     */
+    public RowWriter open(OutputStream out, String sheetName) throws IOException {
+        return this == CSV ? new CsvWriter(out, true) : new XlsxWriter(out, sheetName);
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,213 @@
+package com.party.export;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 导出任务
+ * 任务在后台线程中写入临时文件，完成后在有效期内凭任务ID下载，过期后文件自动删除。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public class ExportJob {
+
+    public enum Status {
+        PENDING,    // 排队中
+        RUNNING,    // 导出中
+        COMPLETED,  // 已完成
+        FAILED      // 失败
+    }
+
+    private final String id;
+
+    private final String type;
+
+    private final String fileName;
+
+    private final ExportFormat format;
+
+    /** 提交任务的用户名，只有提交者可以下载 */
+    private final String owner;
+
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private final AtomicLong rowsWritten = new AtomicLong();
+
+    private volatile Status status = Status.PENDING;
+
+    /** 预估行数，未知时为-1 */
+    private volatile long estimatedRows = -1;
+
+    private volatile Path file;
+
+    private volatile long fileSize;
+
+    private volatile String error;
+
+    private volatile LocalDateTime startedAt;
+
+    private volatile LocalDateTime finishedAt;
+
+    private volatile LocalDateTime expiresAt;
+
+    /** 进行中的下载数 */
+    private final AtomicInteger activeDownloads = new AtomicInteger();
+
+    /** 最近一次开始下载的时间 */
+    private volatile long lastDownloadStartedAt;
+
+    ExportJob(String id, String type, String fileName, ExportFormat format, String owner) {
+        this.id = id;
+        this.type = type;
+        this.fileName = fileName;
+        this.format = format;
+        this.owner = owner;
+    }
+
+    // ==================== 进度 ====================
+
+    /**
+     * 写出一行后调用
+     */
+    public void rowWritten() {
+        rowsWritten.incrementAndGet();
+    }
+
+    public void setEstimatedRows(long estimatedRows) {
+        this.estimatedRows = estimatedRows;
+    }
+
+    /**
+     * 完成百分比，未知总数时为null
+     */
+    public Integer getProgress() {
+        if (status == Status.COMPLETED) {
+            return 100;
+        }
+        long total = estimatedRows;
+        if (total <= 0) {
+            return total == 0 ? 0 : null;
+        }
+        return (int) Math.min(99, rowsWritten.get() * 100 / total);
+    }
+
+    // ==================== 状态流转 ====================
+
+    void markRunning(Path file) {
+        this.file = file;
+        this.startedAt = LocalDateTime.now();
+        this.status = Status.RUNNING;
+    }
+
+    void markCompleted(long fileSize, LocalDateTime expiresAt) {
+        this.fileSize = fileSize;
+        this.finishedAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+        this.status = Status.COMPLETED;
+    }
+
+    void markFailed(String error, LocalDateTime expiresAt) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+        this.status = Status.FAILED;
+    }
+
+    boolean isExpired(LocalDateTime now) {
+        return expiresAt != null && now.isAfter(expiresAt);
+    }
+
+    // ==================== 下载 ====================
+
+    void downloadStarted() {
+        activeDownloads.incrementAndGet();
+        lastDownloadStartedAt = System.currentTimeMillis();
+    }
+
+    void downloadFinished() {
+        activeDownloads.decrementAndGet();
+    }
+
+    /**
+     * 是否有下载进行中，或在指定时间内开始过下载
+     */
+    boolean isDownloading(long graceMillis) {
+        return activeDownloads.get() > 0 || System.currentTimeMillis() - lastDownloadStartedAt < graceMillis;
+    }
+
+    // ==================== Getter ====================
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportJob{" +
+                "id='" + id + '\'' +
+                ", type='" + type + '\'' +
+                ", status=" + status +
+                ", rowsWritten=" + rowsWritten.get() +
+                ", fileSize=" + fileSize +
+                '}';
+    }
+}
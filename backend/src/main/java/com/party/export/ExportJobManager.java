@@ -0,0 +1,232 @@
+package com.party.export;
+
+import com.party.common.exception.BusinessException;
+import com.party.common.exception.ResourceNotFoundException;
+import com.party.common.export.RowWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 导出任务管理
+ * 导出请求只登记任务并立即返回任务ID，数据由固定大小的导出线程池逐行写入磁盘临时文件，
+ * 不占用请求线程，也不在内存中缓存导出内容。客户端按任务ID查询进度，完成后下载文件；
+ * 文件在有效期后由定时清理删除，下载进行中的文件留到下载结束后再删除。任务登记只保存在本节点内存中，重启后未下载的文件一并清理。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class ExportJobManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobManager.class);
+
+    private static final String PART_SUFFIX = ".part";
+
+    private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 以sendfile发送的文件在请求线程返回后才由容器打开，开始下载后的这段时间内不删除
+     */
+    private static final long DOWNLOAD_GRACE_MS = 60_000L;
+
+    @Value("${party.export.dir:${java.io.tmpdir}/party-exports}")
+    private String exportDir;
+
+    @Value("${party.export.workers:2}")
+    private int workers;
+
+    @Value("${party.export.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${party.export.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    private Path directory;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = Paths.get(exportDir).toAbsolutePath();
+        Files.createDirectories(directory);
+        // 任务登记不持久化，上次运行遗留的文件已无法下载
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, "*.{csv,xlsx,part}")) {
+            for (Path leftover : leftovers) {
+                deleteQuietly(leftover);
+            }
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(Math.max(1, workers), Math.max(1, workers), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "export-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        logger.info("导出任务目录: {}, 导出线程数: {}, 排队上限: {}", directory, workers, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ==================== 任务 ====================
+
+    /**
+     * 提交导出任务
+     * @param type 任务类型
+     * @param baseName 文件名（不含扩展名）
+     * @param format 文件格式
+     * @param task 数据写出逻辑
+     * @return 已登记的任务
+     * @throws BusinessException 排队任务已满
+     */
+    public ExportJob submit(String type, String baseName, ExportFormat format, ExportTask task) {
+        String id = UUID.randomUUID().toString().replace("-", "");
+        ExportJob job = new ExportJob(id, type, baseName + "." + format.getExtension(), format, currentUsername());
+        jobs.put(id, job);
+        try {
+            executor.execute(() -> run(job, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            throw new BusinessException(503, "导出任务过多，请稍后再试");
+        }
+        logger.info("提交导出任务: {}", job);
+        return job;
+    }
+
+    /**
+     * 查询当前用户的导出任务
+     * @throws ResourceNotFoundException 任务不存在、已过期或不属于当前用户
+     */
+    public ExportJob getJob(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null || job.isExpired(LocalDateTime.now())) {
+            throw new ResourceNotFoundException("导出任务不存在或已过期");
+        }
+        String username = currentUsername();
+        if (job.getOwner() != null && !job.getOwner().equals(username)) {
+            throw new ResourceNotFoundException("导出任务不存在或已过期");
+        }
+        return job;
+    }
+
+    /**
+     * 排队和执行中的任务数
+     */
+    public int getActiveJobCount() {
+        return executor.getQueue().size() + executor.getActiveCount();
+    }
+
+    /**
+     * 开始下载已完成任务的文件，下载结束后调用{@link #endDownload}
+     * 下载进行中的文件不会被过期清理删除
+     * @return 导出文件路径
+     */
+    public Path beginDownload(ExportJob job) {
+        if (job.getStatus() != ExportJob.Status.COMPLETED) {
+            throw new IllegalStateException("导出任务尚未完成");
+        }
+        synchronized (job) {
+            if (job.isExpired(LocalDateTime.now())) {
+                throw new ResourceNotFoundException("导出任务不存在或已过期");
+            }
+            job.downloadStarted();
+        }
+        return job.getFile();
+    }
+
+    /**
+     * 结束下载
+     */
+    public void endDownload(ExportJob job) {
+        job.downloadFinished();
+    }
+
+    private void run(ExportJob job, ExportTask task) {
+        Path file = directory.resolve(job.getId() + "." + job.getFormat().getExtension());
+        Path part = directory.resolve(file.getFileName() + PART_SUFFIX);
+        job.markRunning(file);
+        long start = System.currentTimeMillis();
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part), FILE_BUFFER_SIZE);
+                 RowWriter writer = job.getFormat().open(out, job.getType())) {
+                task.write(writer, job);
+            }
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.markCompleted(Files.size(file), LocalDateTime.now().plusMinutes(ttlMinutes));
+            logger.info("导出任务完成: {}, 耗时{}毫秒", job, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("导出任务失败: {}", job, e);
+            deleteQuietly(part);
+            job.markFailed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(),
+                    LocalDateTime.now().plusMinutes(ttlMinutes));
+        }
+    }
+
+    // ==================== 清理 ====================
+
+    /**
+     * 删除过期任务及其文件
+     */
+    @Scheduled(fixedDelayString = "${party.export.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            synchronized (job) {
+                // 下载中的文件留到下次清理，删除失败的文件也保留任务以便重试
+                if (!job.isExpired(now) || job.isDownloading(DOWNLOAD_GRACE_MS)) {
+                    return false;
+                }
+                if (job.getFile() != null && !deleteQuietly(job.getFile())) {
+                    return false;
+                }
+            }
+            logger.debug("清理过期导出任务: {}", job);
+            return true;
+        });
+    }
+
+    private static boolean deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+            return true;
+        } catch (IOException e) {
+            logger.warn("删除导出文件失败: {}", path, e);
+            return false;
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
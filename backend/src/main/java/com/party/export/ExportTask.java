@@ -0,0 +1,20 @@
+package com.party.export;
+
+import com.party.common.export.RowWriter;
+
+import java.io.IOException;
+
+/**
+ * 导出任务的数据写出逻辑，在导出线程中执行
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface ExportTask {
+
+    /**
+     * 逐行写出数据，每写出一行调用 {@link ExportJob#rowWritten()} 更新进度
+     */
+    void write(RowWriter writer, ExportJob job) throws IOException;
+}
@@ -0,0 +1,196 @@
+package com.party.fee;
+
+import com.party.dto.FeePaymentGenerationResult;
+import com.party.entity.FeeStandard;
+import com.party.statistics.StatisticsEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 月度党费账单批量生成器
+ * 按党员ID分段，以反连接查出尚未出账的在册党员，按适用的党费标准计算金额后JDBC批量插入。
+ * 每段在独立事务中提交，已出账的党员在查询和插入时都会被跳过，中断后重新执行即可从断点继续。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class FeePaymentGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeePaymentGenerator.class);
+
+    /**
+     * 尚未出账的在册党员，收入取该月之前最近一次记录的收入
+     */
+    private static final String CANDIDATE_SQL =
+            "SELECT pm.id AS member_id, " +
+            "(SELECT fp.income_amount FROM fee_payments fp WHERE fp.member_id = pm.id " +
+            "AND fp.income_amount IS NOT NULL AND fp.payment_year * 12 + fp.payment_month < ? " +
+            "ORDER BY fp.payment_year DESC, fp.payment_month DESC LIMIT 1) AS income_amount " +
+            "FROM party_members pm WHERE pm.status = 'ACTIVE' AND pm.id > ? " +
+            "AND NOT EXISTS (SELECT 1 FROM fee_payments b WHERE b.member_id = pm.id " +
+            "AND b.payment_year = ? AND b.payment_month = ?) " +
+            "ORDER BY pm.id LIMIT ?";
+
+    private static final String EXISTING_SQL =
+            "SELECT COUNT(*) FROM fee_payments fp JOIN party_members pm ON pm.id = fp.member_id " +
+            "WHERE pm.status = 'ACTIVE' AND fp.payment_year = ? AND fp.payment_month = ?";
+
+    /**
+     * 插入时再次判断，避免与并发的生成任务或单条新增重复出账
+     */
+    private static final String INSERT_SQL =
+            "INSERT INTO fee_payments (member_id, fee_standard_id, payment_year, payment_month, " +
+            "income_amount, fee_amount, status, created_at, updated_at) " +
+            "SELECT ?, ?, ?, ?, ?, ?, 'PENDING', ?, ? FROM DUAL WHERE NOT EXISTS (" +
+            "SELECT 1 FROM fee_payments b WHERE b.member_id = ? AND b.payment_year = ? AND b.payment_month = ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FeeStandardIndex feeStandardIndex;
+
+    @Autowired
+    private StatisticsEngine statisticsEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${party.fee.default-amount:50.0}")
+    private BigDecimal defaultAmount;
+
+    @Value("${party.fee.generation.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * 生成指定年月的缴费记录
+     * @param year 年份
+     * @param month 月份
+     * @return 生成结果
+     */
+    public FeePaymentGenerationResult generate(Integer year, Integer month) {
+        if (year == null || month == null || month < 1 || month > 12) {
+            throw new IllegalArgumentException("缴费年月无效");
+        }
+        long start = System.currentTimeMillis();
+        FeePaymentGenerationResult result = new FeePaymentGenerationResult(year, month);
+        LocalDate billingDate = LocalDate.of(year, month, 1);
+
+        Long existing = jdbcTemplate.queryForObject(EXISTING_SQL, Long.class, year, month);
+        result.addSkipped(existing != null ? existing.intValue() : 0);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int size = Math.max(chunkSize, 1);
+        long lastMemberId = 0L;
+        try {
+            while (true) {
+                long cursor = lastMemberId;
+                Long next = transactionTemplate.execute(status ->
+                        generateChunk(year, month, billingDate, cursor, size, result));
+                if (next == null) {
+                    break;
+                }
+                lastMemberId = next;
+                logger.info("生成{}年{}月缴费记录: 已处理至党员ID {}, 新建{}条, 跳过{}条",
+                        year, month, lastMemberId, result.getCreated(), result.getSkipped());
+            }
+        } finally {
+            // JDBC写入不经过实体事件，需要通知统计重新加载
+            if (result.getCreated() > 0) {
+                statisticsEngine.invalidate();
+            }
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        logger.info("生成{}年{}月缴费记录完成: {}", year, month, result);
+        return result;
+    }
+
+    /**
+     * 处理一段党员
+     * @return 本段最后一个党员ID，没有待处理党员时返回null
+     */
+    private Long generateChunk(Integer year, Integer month, LocalDate billingDate, long afterMemberId, int size,
+                               FeePaymentGenerationResult result) {
+        List<Bill> bills = new ArrayList<>();
+        jdbcTemplate.query(CANDIDATE_SQL, (RowCallbackHandler) rs -> {
+            Bill bill = new Bill(rs.getLong("member_id"), rs.getBigDecimal("income_amount"));
+            FeeStandard standard = feeStandardIndex.find(bill.income, billingDate);
+            if (standard != null) {
+                bill.standardId = standard.getId();
+                bill.amount = FeeStandardIndex.calculateFee(standard, bill.income);
+            } else {
+                bill.amount = defaultAmount.setScale(2, RoundingMode.HALF_UP);
+            }
+            bills.add(bill);
+        }, year * 12 + month, afterMemberId, year, month, size);
+
+        if (bills.isEmpty()) {
+            return null;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, bills, bills.size(), (ps, bill) -> {
+            ps.setLong(1, bill.memberId);
+            if (bill.standardId != null) {
+                ps.setLong(2, bill.standardId);
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setInt(3, year);
+            ps.setInt(4, month);
+            ps.setBigDecimal(5, bill.income);
+            ps.setBigDecimal(6, bill.amount);
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+            ps.setLong(9, bill.memberId);
+            ps.setInt(10, year);
+            ps.setInt(11, month);
+        });
+
+        int created = 0;
+        int defaulted = 0;
+        for (int i = 0; i < bills.size(); i++) {
+            // 部分驱动返回SUCCESS_NO_INFO(-2)，按已插入计
+            if (counts[0][i] != 0) {
+                created++;
+                if (bills.get(i).standardId == null) {
+                    defaulted++;
+                }
+            }
+        }
+        result.addChunk(created, bills.size() - created, defaulted);
+        return bills.get(bills.size() - 1).memberId;
+    }
+
+    private static final class Bill {
+        private final long memberId;
+        private final BigDecimal income;
+        private Long standardId;
+        private BigDecimal amount;
+
+        private Bill(long memberId, BigDecimal income) {
+            this.memberId = memberId;
+            this.income = income;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.party.fee;
+
+import com.party.common.cache.CacheCoherenceManager;
+import com.party.common.cache.CacheRegion;
+import com.party.entity.FeeStandard;
+import com.party.repository.FeeStandardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 党费标准区间索引
+ * 在内存中保存启用状态党费标准的不可变快照，按生效日期分组，组内按收入下限排序，以二分查找匹配收入。
+ * 标准新增、修改、启用、禁用或删除后在事务提交时整体重建快照，读取方始终看到完整的一版数据。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class FeeStandardIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeeStandardIndex.class);
+
+    @Autowired
+    private FeeStandardRepository feeStandardRepository;
+
+    @Autowired
+    private CacheCoherenceManager cacheCoherenceManager;
+
+    private final Object lock = new Object();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 其他节点修改党费标准后重建本节点的快照
+     */
+    @PostConstruct
+    public void registerCacheRegion() {
+        cacheCoherenceManager.register(CacheRegion.FEE_STANDARD, this::reload);
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 查找当前生效的适用标准
+     * @param income 收入金额
+     * @return 适用的党费标准，收入为空或无适用标准时返回null
+     */
+    public FeeStandard find(BigDecimal income) {
+        return find(income, LocalDate.now());
+    }
+
+    /**
+     * 查找指定日期生效的适用标准，多个生效日期都有匹配时取生效日期最近的一个
+     * @param income 收入金额
+     * @param date 生效日期
+     * @return 适用的党费标准，收入为空或无适用标准时返回null
+     */
+    public FeeStandard find(BigDecimal income, LocalDate date) {
+        if (income == null || date == null) {
+            return null;
+        }
+        return current().find(income, date);
+    }
+
+    /**
+     * 按当前生效的标准批量计算党费
+     * @param incomes 党员ID到收入金额的映射
+     * @return 党员ID到党费金额的映射，无适用标准的党员不在结果中
+     */
+    public Map<Long, BigDecimal> calculateFees(Map<Long, BigDecimal> incomes) {
+        return calculateFees(incomes, LocalDate.now());
+    }
+
+    /**
+     * 按指定日期生效的标准批量计算党费
+     * @param incomes 党员ID到收入金额的映射
+     * @param date 生效日期
+     * @return 党员ID到党费金额的映射，无适用标准的党员不在结果中
+     */
+    public Map<Long, BigDecimal> calculateFees(Map<Long, BigDecimal> incomes, LocalDate date) {
+        Snapshot current = current();
+        Map<Long, BigDecimal> fees = new LinkedHashMap<>();
+        for (Map.Entry<Long, BigDecimal> entry : incomes.entrySet()) {
+            FeeStandard standard = entry.getValue() != null ? current.find(entry.getValue(), date) : null;
+            if (standard != null) {
+                fees.put(entry.getKey(), calculateFee(standard, entry.getValue()));
+            }
+        }
+        return fees;
+    }
+
+    /**
+     * 按标准计算党费，保留两位小数
+     */
+    public static BigDecimal calculateFee(FeeStandard standard, BigDecimal income) {
+        return standard.calculateFee(income).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // ==================== 重建 ====================
+
+    /**
+     * 标准变更后调用，在当前事务提交后重建，无事务时立即重建，并通知其他节点
+     */
+    public void reloadAfterCommit() {
+        cacheCoherenceManager.publishAfterCommit(CacheRegion.FEE_STANDARD);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * 从数据库重新加载启用状态的标准
+     */
+    public void reload() {
+        synchronized (lock) {
+            List<FeeStandard> standards = feeStandardRepository.findByStatus(FeeStandard.FeeStandardStatus.ACTIVE);
+            snapshot = new Snapshot(standards);
+            logger.debug("党费标准索引已重建, 共{}条标准", standards.size());
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (lock) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    // ==================== 快照 ====================
+
+    /**
+     * 不可变快照，创建后不再修改
+     */
+    private static final class Snapshot {
+
+        /** 生效日期升序 */
+        private final LocalDate[] effectiveDates;
+
+        /** 与生效日期一一对应的区间组 */
+        private final IntervalGroup[] groups;
+
+        private Snapshot(List<FeeStandard> standards) {
+            TreeMap<LocalDate, List<FeeStandard>> byDate = new TreeMap<>();
+            for (FeeStandard standard : standards) {
+                if (standard.getEffectiveDate() != null) {
+                    byDate.computeIfAbsent(standard.getEffectiveDate(), d -> new ArrayList<>()).add(standard);
+                }
+            }
+            effectiveDates = byDate.keySet().toArray(new LocalDate[0]);
+            groups = new IntervalGroup[effectiveDates.length];
+            int i = 0;
+            for (List<FeeStandard> group : byDate.values()) {
+                groups[i++] = new IntervalGroup(group);
+            }
+        }
+
+        private FeeStandard find(BigDecimal income, LocalDate date) {
+            int index = Arrays.binarySearch(effectiveDates, date);
+            int from = index >= 0 ? index : -index - 2;
+            for (int i = from; i >= 0; i--) {
+                FeeStandard standard = groups[i].find(income);
+                if (standard != null) {
+                    return standard;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 同一生效日期的收入区间，按下限升序，并记录前缀上限最大值以支持区间重叠的情况
+     */
+    private static final class IntervalGroup {
+
+        private final FeeStandard[] standards;
+
+        private final BigDecimal[] lowerBounds;
+
+        /** standards[0..i]中上限的最大值，null表示无上限 */
+        private final BigDecimal[] maxUpperBounds;
+
+        private IntervalGroup(List<FeeStandard> group) {
+            standards = group.toArray(new FeeStandard[0]);
+            Arrays.sort(standards, Comparator.comparing(FeeStandard::getIncomeMin,
+                    Comparator.nullsFirst(Comparator.naturalOrder())));
+            lowerBounds = new BigDecimal[standards.length];
+            maxUpperBounds = new BigDecimal[standards.length];
+            BigDecimal maxUpper = BigDecimal.ZERO;
+            boolean unbounded = false;
+            for (int i = 0; i < standards.length; i++) {
+                lowerBounds[i] = standards[i].getIncomeMin();
+                BigDecimal upper = standards[i].getIncomeMax();
+                if (upper == null) {
+                    unbounded = true;
+                } else if (upper.compareTo(maxUpper) > 0) {
+                    maxUpper = upper;
+                }
+                maxUpperBounds[i] = unbounded ? null : maxUpper;
+            }
+        }
+
+        private FeeStandard find(BigDecimal income) {
+            // 最后一个下限不大于收入的区间
+            int low = 0;
+            int high = standards.length - 1;
+            int last = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (lowerBounds[mid] == null || lowerBounds[mid].compareTo(income) <= 0) {
+                    last = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            // 向前查找，前缀上限已小于收入时不可能再有匹配
+            for (int i = last; i >= 0; i--) {
+                if (maxUpperBounds[i] != null && maxUpperBounds[i].compareTo(income) < 0) {
+                    return null;
+                }
+                BigDecimal upper = standards[i].getIncomeMax();
+                if (upper == null || upper.compareTo(income) >= 0) {
+                    return standards[i];
+                }
+            }
+            return null;
+        }
+    }
+}
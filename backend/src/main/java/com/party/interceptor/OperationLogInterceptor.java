@@ -1,8 +1,8 @@
 package com.party.interceptor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.party.common.log.OperationLogWriter;
 import com.party.entity.OperationLog;
-import com.party.service.OperationLogService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,7 +33,7 @@ public class OperationLogInterceptor implements HandlerInterceptor {
     private static final Logger logger = LoggerFactory.getLogger(OperationLogInterceptor.class);
 
     @Autowired
-    private OperationLogService operationLogService;
+    private OperationLogWriter operationLogWriter;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -338,8 +338,8 @@ public class OperationLogInterceptor implements HandlerInterceptor {
      */
     private void saveLogAsync(OperationLog operationLog) {
         try {
-            // 这里可以使用异步方式保存日志，避免影响主业务流程
-            operationLogService.save(operationLog);
+            // 入队后由后台线程批量写入，不占用请求线程
+            operationLogWriter.submit(operationLog);
         } catch (Exception e) {
             logger.error("保存操作日志失败: {}", e.getMessage(), e);
         }
@@ -0,0 +1,63 @@
+package com.party.organization;
+
+import com.party.repository.OrganizationClosureRepository;
+import com.party.repository.OrganizationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 组织闭包表校验
+ * 组织服务之外写入的组织（初始化数据、手工导入）没有闭包行，启动时发现行数不一致则整表重建
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class OrganizationClosureVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrganizationClosureVerifier.class);
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private OrganizationClosureRepository organizationClosureRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void verify() {
+        long organizations = organizationRepository.count();
+        long selfPaths = organizationClosureRepository.countSelfPaths();
+        if (organizations != selfPaths) {
+            logger.info("组织闭包表与组织表不一致(组织{}个, 闭包{}个), 开始重建", organizations, selfPaths);
+            rebuild(organizations);
+        }
+    }
+
+    /**
+     * 逐层扩展重建闭包表，语句条数与组织树深度成正比
+     */
+    private void rebuild(long organizations) {
+        long start = System.currentTimeMillis();
+        organizationClosureRepository.deleteAllPaths();
+        int rows = organizationClosureRepository.insertAllSelfPaths();
+        int depth = 0;
+        int inserted;
+        // 深度不会超过组织数
+        while (depth < organizations
+                && (inserted = organizationClosureRepository.insertPathsFromDepth(depth)) > 0) {
+            rows += inserted;
+            depth++;
+        }
+        long cyclic = organizationClosureRepository.countCyclicOrganizations();
+        if (cyclic > 0) {
+            logger.warn("组织父子关系存在循环引用, 涉及{}个组织, 这些组织不在任何根组织之下", cyclic);
+        }
+        logger.info("组织闭包表重建完成: {}行, 最大深度{}, 耗时{}ms", rows, depth, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,445 @@
+package com.party.organization;
+
+import com.party.common.cache.CacheCoherenceManager;
+import com.party.common.cache.CacheRegion;
+import com.party.entity.Organization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 组织树索引
+ * 在内存中保存组织树的不可变快照：一次扫描建立父子邻接表，再一次遍历算出深度、祖先路径和子树范围。
+ * 组织新增、修改、移动、启用、停用或删除后在事务提交时整体重建并替换快照。
+ * 各组织的成员数在建立快照时一并统计，快照超过有效期后在下次读取时重建，以反映成员的调入调出。
+ * 对外返回的组织对象每次都是新建的副本，调用方修改不会影响快照。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class OrganizationTreeIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrganizationTreeIndex.class);
+
+    private static final String ORGANIZATION_SQL = "SELECT id, name, code, type, parent_id, level, secretary_id, " +
+            "description, address, contact_phone, established_date, is_active, created_at, updated_at " +
+            "FROM organizations ORDER BY id";
+
+    private static final String MEMBER_COUNT_SQL = "SELECT organization_id, COUNT(*) AS member_count FROM users " +
+            "WHERE organization_id IS NOT NULL GROUP BY organization_id";
+
+    private static final long[] NO_IDS = new long[0];
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheCoherenceManager cacheCoherenceManager;
+
+    @Value("${party.organization.tree.member-count-ttl-ms:60000}")
+    private long memberCountTtlMs;
+
+    private final Object lock = new Object();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 其他节点修改组织后重建本节点的组织树
+     */
+    @PostConstruct
+    public void registerCacheRegion() {
+        cacheCoherenceManager.register(CacheRegion.ORGANIZATION_TREE, this::reload);
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 获取组织树，根组织为父组织为空的组织
+     */
+    public List<Organization> getTree() {
+        Snapshot current = current();
+        List<Organization> roots = new ArrayList<>(current.roots.length);
+        for (long rootId : current.roots) {
+            roots.add(copyTree(current, rootId));
+        }
+        return roots;
+    }
+
+    /**
+     * 获取所有下级组织（不含自身），按先序遍历顺序
+     */
+    public List<Organization> getDescendants(Long organizationId) {
+        Snapshot current = current();
+        Node node = organizationId != null ? current.nodes.get(organizationId) : null;
+        if (node == null || node.subtreeStart < 0) {
+            return new ArrayList<>();
+        }
+        List<Organization> descendants = new ArrayList<>(node.subtreeEnd - node.subtreeStart - 1);
+        for (int i = node.subtreeStart + 1; i < node.subtreeEnd; i++) {
+            descendants.add(copy(current.nodes.get(current.preorder[i])));
+        }
+        return descendants;
+    }
+
+    /**
+     * 获取所有上级组织，由直接上级到根组织
+     */
+    public List<Organization> getAncestors(Long organizationId) {
+        Snapshot current = current();
+        Node node = organizationId != null ? current.nodes.get(organizationId) : null;
+        if (node == null) {
+            return new ArrayList<>();
+        }
+        List<Organization> ancestors = new ArrayList<>(node.ancestors.length);
+        for (int i = node.ancestors.length - 1; i >= 0; i--) {
+            ancestors.add(copy(current.nodes.get(node.ancestors[i])));
+        }
+        return ancestors;
+    }
+
+    /**
+     * 获取子树中的组织ID（含自身）
+     */
+    public List<Long> getSubtreeIds(Long organizationId) {
+        Snapshot current = current();
+        Node node = organizationId != null ? current.nodes.get(organizationId) : null;
+        if (node == null) {
+            return new ArrayList<>();
+        }
+        if (node.subtreeStart < 0) {
+            return new ArrayList<>(Collections.singletonList(organizationId));
+        }
+        List<Long> ids = new ArrayList<>(node.subtreeEnd - node.subtreeStart);
+        for (int i = node.subtreeStart; i < node.subtreeEnd; i++) {
+            ids.add(current.preorder[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * 获取组织的祖先路径ID，由根组织到直接上级
+     */
+    public List<Long> getAncestorIds(Long organizationId) {
+        Node node = organizationId != null ? current().nodes.get(organizationId) : null;
+        List<Long> ids = new ArrayList<>();
+        if (node != null) {
+            for (long id : node.ancestors) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 获取组织在树中的深度，根组织为1，组织不存在或不在树中时返回0
+     */
+    public int getDepth(Long organizationId) {
+        Node node = organizationId != null ? current().nodes.get(organizationId) : null;
+        return node != null && node.subtreeStart >= 0 ? node.ancestors.length + 1 : 0;
+    }
+
+    /**
+     * 判断组织是否为另一组织的下级（不含自身）
+     */
+    public boolean isDescendant(Long ancestorId, Long organizationId) {
+        Snapshot current = current();
+        Node ancestor = ancestorId != null ? current.nodes.get(ancestorId) : null;
+        Node node = organizationId != null ? current.nodes.get(organizationId) : null;
+        if (ancestor == null || node == null || ancestor.subtreeStart < 0 || node.subtreeStart < 0) {
+            return false;
+        }
+        return node.subtreeStart > ancestor.subtreeStart && node.subtreeStart < ancestor.subtreeEnd;
+    }
+
+    /**
+     * 获取没有下级的组织
+     */
+    public List<Organization> getLeaves() {
+        Snapshot current = current();
+        List<Organization> leaves = new ArrayList<>();
+        for (Node node : current.nodes.values()) {
+            if (current.children.getOrDefault(node.id, NO_IDS).length == 0) {
+                leaves.add(copy(node));
+            }
+        }
+        return leaves;
+    }
+
+    // ==================== 重建 ====================
+
+    /**
+     * 组织变更后调用，在当前事务提交后重建，无事务时立即重建，并通知其他节点
+     */
+    public void reloadAfterCommit() {
+        cacheCoherenceManager.publishAfterCommit(CacheRegion.ORGANIZATION_TREE);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        reload();
+                    } catch (RuntimeException e) {
+                        logger.warn("组织树索引重建失败, 将在下次读取时重试: {}", e.getMessage());
+                    }
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * 从数据库重新加载组织树
+     */
+    public void reload() {
+        synchronized (lock) {
+            try {
+                long start = System.currentTimeMillis();
+                Map<Long, Node> nodes = new LinkedHashMap<>();
+                jdbcTemplate.query(ORGANIZATION_SQL, (RowCallbackHandler) rs -> {
+                    Node node = Node.of(rs);
+                    nodes.put(node.id, node);
+                });
+                jdbcTemplate.query(MEMBER_COUNT_SQL, (RowCallbackHandler) rs -> {
+                    Node node = nodes.get(rs.getLong("organization_id"));
+                    if (node != null) {
+                        node.memberCount = rs.getInt("member_count");
+                    }
+                });
+                snapshot = new Snapshot(nodes);
+                logger.debug("组织树索引已重建: {}个组织, 耗时{}ms", nodes.size(), System.currentTimeMillis() - start);
+            } catch (RuntimeException e) {
+                // 下次读取时重新加载
+                snapshot = null;
+                throw e;
+            }
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (lock) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        } else if (current.isExpired(memberCountTtlMs)) {
+            synchronized (lock) {
+                try {
+                    if (snapshot != null && snapshot.isExpired(memberCountTtlMs)) {
+                        reload();
+                    }
+                } catch (RuntimeException e) {
+                    // 仅为刷新成员数的重建失败时本次仍使用原有快照，下次读取再重建
+                    logger.warn("组织树索引刷新失败: {}", e.getMessage());
+                }
+                current = snapshot != null ? snapshot : current;
+            }
+        }
+        return current;
+    }
+
+    // ==================== 副本 ====================
+
+    private Organization copyTree(Snapshot current, long id) {
+        Organization organization = copy(current.nodes.get(id));
+        long[] childIds = current.children.getOrDefault(id, NO_IDS);
+        List<Organization> children = new ArrayList<>(childIds.length);
+        for (long childId : childIds) {
+            children.add(copyTree(current, childId));
+        }
+        organization.setChildOrganizations(children);
+        organization.setChildren(children);
+        return organization;
+    }
+
+    private Organization copy(Node node) {
+        Organization organization = new Organization();
+        organization.setId(node.id);
+        organization.setName(node.name);
+        organization.setCode(node.code);
+        organization.setType(node.type);
+        organization.setParentId(node.parentId);
+        organization.setLevel(node.level);
+        organization.setSecretaryId(node.secretaryId);
+        organization.setDescription(node.description);
+        organization.setAddress(node.address);
+        organization.setContactPhone(node.contactPhone);
+        organization.setEstablishedDate(node.establishedDate);
+        organization.setIsActive(node.isActive);
+        organization.setCreatedAt(node.createdAt);
+        organization.setUpdatedAt(node.updatedAt);
+        organization.setMemberCount(node.memberCount);
+        return organization;
+    }
+
+    // ==================== 快照 ====================
+
+    /**
+     * 不可变快照，创建后不再修改
+     */
+    private static final class Snapshot {
+
+        private final Map<Long, Node> nodes;
+
+        /** 父组织ID到子组织ID的邻接表，子组织按ID升序 */
+        private final Map<Long, long[]> children;
+
+        private final long[] roots;
+
+        /** 先序遍历顺序，每个组织的子树是其中连续的一段 */
+        private final long[] preorder;
+
+        private final long builtAt = System.currentTimeMillis();
+
+        private Snapshot(Map<Long, Node> nodes) {
+            this.nodes = Collections.unmodifiableMap(nodes);
+
+            Map<Long, List<Long>> adjacency = new HashMap<>();
+            List<Long> rootIds = new ArrayList<>();
+            for (Node node : nodes.values()) {
+                if (node.parentId == null) {
+                    rootIds.add(node.id);
+                } else {
+                    adjacency.computeIfAbsent(node.parentId, id -> new ArrayList<>()).add(node.id);
+                }
+            }
+            Map<Long, long[]> childArrays = new HashMap<>();
+            adjacency.forEach((parentId, ids) -> childArrays.put(parentId, toArray(ids)));
+            this.children = Collections.unmodifiableMap(childArrays);
+            this.roots = toArray(rootIds);
+
+            // 迭代先序遍历，父组织不存在或成环的组织不会被访问，也不进入组织树
+            long[] order = new long[nodes.size()];
+            int size = 0;
+            Deque<Frame> stack = new ArrayDeque<>();
+            for (int r = roots.length - 1; r >= 0; r--) {
+                stack.push(new Frame(roots[r], NO_IDS));
+            }
+            Deque<Node> open = new ArrayDeque<>();
+            while (!stack.isEmpty()) {
+                Frame frame = stack.pop();
+                while (!open.isEmpty() && open.peek().ancestors.length >= frame.ancestors.length) {
+                    open.pop().subtreeEnd = size;
+                }
+                Node node = nodes.get(frame.id);
+                node.ancestors = frame.ancestors;
+                node.subtreeStart = size;
+                order[size++] = node.id;
+                open.push(node);
+
+                long[] childIds = children.getOrDefault(node.id, NO_IDS);
+                if (childIds.length > 0) {
+                    long[] path = new long[frame.ancestors.length + 1];
+                    System.arraycopy(frame.ancestors, 0, path, 0, frame.ancestors.length);
+                    path[frame.ancestors.length] = node.id;
+                    for (int c = childIds.length - 1; c >= 0; c--) {
+                        stack.push(new Frame(childIds[c], path));
+                    }
+                }
+            }
+            while (!open.isEmpty()) {
+                open.pop().subtreeEnd = size;
+            }
+            this.preorder = size == order.length ? order : Arrays.copyOf(order, size);
+        }
+
+        private boolean isExpired(long ttlMs) {
+            return System.currentTimeMillis() - builtAt > ttlMs;
+        }
+
+        private static long[] toArray(List<Long> ids) {
+            long[] array = new long[ids.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = ids.get(i);
+            }
+            return array;
+        }
+    }
+
+    private static final class Frame {
+        private final long id;
+        private final long[] ancestors;
+
+        private Frame(long id, long[] ancestors) {
+            this.id = id;
+            this.ancestors = ancestors;
+        }
+    }
+
+    /**
+     * 组织节点，快照发布后只读
+     */
+    private static final class Node {
+        private long id;
+        private String name;
+        private String code;
+        private Integer type;
+        private Long parentId;
+        private Integer level;
+        private Long secretaryId;
+        private String description;
+        private String address;
+        private String contactPhone;
+        private LocalDate establishedDate;
+        private Boolean isActive;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        private int memberCount;
+
+        /** 由根组织到直接上级 */
+        private long[] ancestors = NO_IDS;
+
+        /** 子树在先序数组中的区间[start, end)，不在树中时为-1 */
+        private int subtreeStart = -1;
+        private int subtreeEnd = -1;
+
+        private static Node of(ResultSet rs) throws SQLException {
+            Node node = new Node();
+            node.id = rs.getLong("id");
+            node.name = rs.getString("name");
+            node.code = rs.getString("code");
+            node.type = rs.getObject("type", Integer.class);
+            node.parentId = rs.getObject("parent_id", Long.class);
+            node.level = rs.getObject("level", Integer.class);
+            node.secretaryId = rs.getObject("secretary_id", Long.class);
+            node.description = rs.getString("description");
+            node.address = rs.getString("address");
+            node.contactPhone = rs.getString("contact_phone");
+            Date establishedDate = rs.getDate("established_date");
+            node.establishedDate = establishedDate != null ? establishedDate.toLocalDate() : null;
+            node.isActive = rs.getObject("is_active", Boolean.class);
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            node.createdAt = createdAt != null ? createdAt.toLocalDateTime() : null;
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            node.updatedAt = updatedAt != null ? updatedAt.toLocalDateTime() : null;
+            return node;
+        }
+    }
+}
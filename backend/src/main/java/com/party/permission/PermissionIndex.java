@@ -0,0 +1,234 @@
+package com.party.permission;
+
+import com.party.common.cache.CacheCoherenceManager;
+import com.party.common.cache.CacheRegion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户权限索引
+ * 将权限代码登记为字典中的位序号，每个用户的有效权限编译为位图缓存在内存中，权限校验只做位运算不访问数据库。
+ * 角色授权、用户分配角色或权限删除后在事务提交时仅清除受影响用户的缓存，下次校验时重新编译。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class PermissionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionIndex.class);
+
+    private static final String USER_PERMISSIONS_SQL =
+            "SELECT ur.role_id AS role_id, p.code AS code FROM user_roles ur " +
+            "LEFT JOIN role_permissions rp ON rp.role_id = ur.role_id " +
+            "LEFT JOIN permissions p ON p.id = rp.permission_id " +
+            "WHERE ur.user_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheCoherenceManager cacheCoherenceManager;
+
+    /** 权限代码字典，位序号一经分配不再变化 */
+    private final Map<String, Integer> codeBits = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextBit = new AtomicInteger();
+
+    /** 用户ID到已编译权限的映射 */
+    private final Map<Long, CompiledPermissions> users = new ConcurrentHashMap<>();
+
+    /** 失效计数，编译期间发生过失效的结果不放入缓存 */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 其他节点变更授权后清除本节点全部用户的缓存，各用户在下次校验时重新编译
+     */
+    @PostConstruct
+    public void registerCacheRegion() {
+        cacheCoherenceManager.register(CacheRegion.PERMISSION, this::invalidateAll);
+    }
+
+    // ==================== 校验 ====================
+
+    /**
+     * 用户是否拥有指定权限
+     */
+    public boolean hasPermission(Long userId, String permissionCode) {
+        if (userId == null || permissionCode == null) {
+            return false;
+        }
+        return compiled(userId).has(codeBits.get(permissionCode));
+    }
+
+    /**
+     * 用户是否拥有任一权限，权限列表为空时返回false
+     */
+    public boolean hasAnyPermission(Long userId, Collection<String> permissionCodes) {
+        if (userId == null || permissionCodes == null || permissionCodes.isEmpty()) {
+            return false;
+        }
+        CompiledPermissions permissions = compiled(userId);
+        for (String code : permissionCodes) {
+            if (code != null && permissions.has(codeBits.get(code))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 用户是否拥有全部权限，权限列表为空时返回true
+     */
+    public boolean hasAllPermissions(Long userId, Collection<String> permissionCodes) {
+        if (permissionCodes == null || permissionCodes.isEmpty()) {
+            return true;
+        }
+        if (userId == null) {
+            return false;
+        }
+        CompiledPermissions permissions = compiled(userId);
+        for (String code : permissionCodes) {
+            if (code == null || !permissions.has(codeBits.get(code))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ==================== 失效 ====================
+
+    /**
+     * 用户角色变更后调用，在当前事务提交后清除该用户的缓存
+     */
+    public void invalidateUserAfterCommit(Long userId) {
+        afterCommit(() -> invalidateUser(userId));
+    }
+
+    /**
+     * 角色权限变更或角色删除后调用，在当前事务提交后清除拥有该角色的用户的缓存
+     */
+    public void invalidateRoleAfterCommit(Long roleId) {
+        afterCommit(() -> invalidateRole(roleId));
+    }
+
+    /**
+     * 权限删除或代码变更后调用，在当前事务提交后清除拥有该权限的用户的缓存
+     */
+    public void invalidatePermissionAfterCommit(String permissionCode) {
+        afterCommit(() -> invalidatePermission(permissionCode));
+    }
+
+    public void invalidateUser(Long userId) {
+        generation.incrementAndGet();
+        if (userId != null) {
+            users.remove(userId);
+        }
+    }
+
+    public void invalidateRole(Long roleId) {
+        generation.incrementAndGet();
+        if (roleId != null) {
+            users.values().removeIf(permissions -> permissions.hasRole(roleId));
+        }
+    }
+
+    public void invalidatePermission(String permissionCode) {
+        generation.incrementAndGet();
+        Integer bit = permissionCode != null ? codeBits.get(permissionCode) : null;
+        if (bit != null) {
+            users.values().removeIf(permissions -> permissions.has(bit));
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        users.clear();
+    }
+
+    private void afterCommit(Runnable invalidation) {
+        cacheCoherenceManager.publishAfterCommit(CacheRegion.PERMISSION);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    // ==================== 编译 ====================
+
+    private CompiledPermissions compiled(Long userId) {
+        CompiledPermissions permissions = users.get(userId);
+        if (permissions == null) {
+            long expected = generation.get();
+            permissions = compile(userId);
+            if (generation.get() == expected) {
+                users.put(userId, permissions);
+            }
+        }
+        return permissions;
+    }
+
+    private CompiledPermissions compile(Long userId) {
+        TreeSet<Long> roleIds = new TreeSet<>();
+        BitSet bits = new BitSet();
+        jdbcTemplate.query(USER_PERMISSIONS_SQL, (RowCallbackHandler) rs -> {
+            roleIds.add(rs.getLong("role_id"));
+            String code = rs.getString("code");
+            if (code != null) {
+                bits.set(bitOf(code));
+            }
+        }, userId);
+        logger.debug("编译用户权限: userId={}, 角色{}个, 权限{}个", userId, roleIds.size(), bits.cardinality());
+        return new CompiledPermissions(roleIds.stream().mapToLong(Long::longValue).toArray(), bits);
+    }
+
+    private int bitOf(String code) {
+        return codeBits.computeIfAbsent(code, c -> nextBit.getAndIncrement());
+    }
+
+    /**
+     * 单个用户编译后的权限，创建后不再修改
+     */
+    private static final class CompiledPermissions {
+
+        /** 用户拥有的角色ID，升序 */
+        private final long[] roleIds;
+
+        private final BitSet bits;
+
+        private CompiledPermissions(long[] roleIds, BitSet bits) {
+            this.roleIds = roleIds;
+            this.bits = bits;
+        }
+
+        private boolean has(Integer bit) {
+            return bit != null && bits.get(bit);
+        }
+
+        private boolean hasRole(long roleId) {
+            return Arrays.binarySearch(roleIds, roleId) >= 0;
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package com.party.repository;
 
 import com.party.entity.ActivityParticipant;
+import com.party.dto.UserActivityView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,11 +36,65 @@ public interface ActivityParticipantRepository extends JpaRepository<ActivityPar
      */
     List<ActivityParticipant> findByUserId(Long userId);
 
+    /**
+     * 分页查询用户参与的活动，按报名先后倒序
+     */
+    @Query(value = "SELECT new com.party.dto.UserActivityView(a.id, a.title, a.content, a.status, a.type, " +
+           "a.startTime, a.endTime, a.location, a.signedUpCount, a.maxParticipants, a.isRequired, " +
+           "a.organizationId, a.organizerId, ap.id, ap.status, ap.createdAt, ap.signInTime) " +
+           "FROM ActivityParticipant ap, Activity a WHERE a.id = ap.activityId AND ap.userId = :userId " +
+           "ORDER BY ap.id DESC",
+           countQuery = "SELECT COUNT(ap) FROM ActivityParticipant ap WHERE ap.userId = :userId")
+    Page<UserActivityView> findActivityViewsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * 按键集查询用户在指定参与记录之前报名的活动，按报名先后倒序
+     */
+    @Query("SELECT new com.party.dto.UserActivityView(a.id, a.title, a.content, a.status, a.type, " +
+           "a.startTime, a.endTime, a.location, a.signedUpCount, a.maxParticipants, a.isRequired, " +
+           "a.organizationId, a.organizerId, ap.id, ap.status, ap.createdAt, ap.signInTime) " +
+           "FROM ActivityParticipant ap, Activity a WHERE a.id = ap.activityId AND ap.userId = :userId " +
+           "AND ap.id < :beforeId ORDER BY ap.id DESC")
+    List<UserActivityView> findActivityViewsByUserIdBefore(@Param("userId") Long userId,
+                                                           @Param("beforeId") Long beforeId,
+                                                           Pageable pageable);
+
     /**
      * 根据活动ID和用户ID查找参与记录
      */
     Optional<ActivityParticipant> findByActivityIdAndUserId(Long activityId, Long userId);
 
+    /**
+     * 根据活动ID和用户ID查找参与记录并加行锁，用于状态变更
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ap FROM ActivityParticipant ap WHERE ap.activityId = :activityId AND ap.userId = :userId")
+    Optional<ActivityParticipant> findByActivityIdAndUserIdForUpdate(@Param("activityId") Long activityId,
+                                                                     @Param("userId") Long userId);
+
+    /**
+     * 查询活动全部参与记录的用户ID和状态并加行锁，用于批量签到
+     */
+    @Query(value = "SELECT user_id, status FROM activity_participants WHERE activity_id = :activityId FOR UPDATE",
+           nativeQuery = true)
+    List<Object[]> findUserStatusesByActivityIdForUpdate(@Param("activityId") Long activityId);
+
+    /**
+     * 将指定用户的参与记录批量置为已签到，已签到的记录不变
+     */
+    @Modifying
+    @Query("UPDATE ActivityParticipant ap SET ap.status = 2, ap.signInTime = :signInTime " +
+           "WHERE ap.activityId = :activityId AND ap.userId IN :userIds AND ap.status <> 2")
+    int checkInAll(@Param("activityId") Long activityId,
+                   @Param("userIds") Collection<Long> userIds,
+                   @Param("signInTime") LocalDateTime signInTime);
+
+    /**
+     * 查找活动中最早的候补记录并加行锁，用于递补
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ActivityParticipant> findFirstByActivityIdAndStatusOrderByIdAsc(Long activityId, Integer status);
+
     /**
      * 根据活动ID和状态查找参与者
      */
@@ -88,6 +150,12 @@ public interface ActivityParticipantRepository extends JpaRepository<ActivityPar
     @Query("SELECT ap FROM ActivityParticipant ap WHERE ap.activityId IN :activityIds")
     List<ActivityParticipant> findByActivityIdIn(@Param("activityIds") List<Long> activityIds);
 
+    /**
+     * 查询用户参与过的活动ID
+     */
+    @Query("SELECT DISTINCT ap.activityId FROM ActivityParticipant ap WHERE ap.userId = :userId")
+    List<Long> findActivityIdsByUserId(@Param("userId") Long userId);
+
     /**
      * 查询用户参与的活动数量
      */
@@ -1,8 +1,10 @@
 package com.party.repository;
 
 import com.party.entity.Activity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -56,6 +58,28 @@ public interface ActivityRepository extends JpaRepository<Activity, Long>, JpaSp
      */
     List<Activity> findByOrganizationIdAndStatus(Long organizationId, Integer status);
 
+    /**
+     * 按键集多条件查询指定位置之前的活动，按创建时间和ID倒序
+     */
+    @Query("SELECT a FROM Activity a WHERE " +
+           "(:title IS NULL OR a.title LIKE %:title%) AND " +
+           "(:type IS NULL OR a.type = :type) AND " +
+           "(:status IS NULL OR a.status = :status) AND " +
+           "(:organizationId IS NULL OR a.organizationId = :organizationId) AND " +
+           "(:startTime IS NULL OR a.startTime >= :startTime) AND " +
+           "(:endTime IS NULL OR a.endTime <= :endTime) AND " +
+           "(a.createdAt < :beforeTime OR (a.createdAt = :beforeTime AND a.id < :beforeId)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<Activity> findByConditionsBefore(@Param("title") String title,
+                                          @Param("type") Integer type,
+                                          @Param("status") Integer status,
+                                          @Param("organizationId") Long organizationId,
+                                          @Param("startTime") LocalDateTime startTime,
+                                          @Param("endTime") LocalDateTime endTime,
+                                          @Param("beforeTime") LocalDateTime beforeTime,
+                                          @Param("beforeId") Long beforeId,
+                                          Pageable pageable);
+
     /**
      * 根据标题模糊查询活动
      */
@@ -76,4 +100,56 @@ public interface ActivityRepository extends JpaRepository<Activity, Long>, JpaSp
      * 统计指定状态的活动数量
      */
     Long countByStatus(Integer status);
+
+    /**
+     * 按增量原子调整活动的参与人数计数
+     */
+    @Modifying
+    @Query(value = "UPDATE activities SET signed_up_count = signed_up_count + :signedUp, " +
+                   "signed_in_count = signed_in_count + :signedIn, leave_count = leave_count + :leave, " +
+                   "absent_count = absent_count + :absent WHERE id = :activityId",
+           nativeQuery = true)
+    int adjustParticipantCounters(@Param("activityId") Long activityId,
+                                  @Param("signedUp") int signedUp,
+                                  @Param("signedIn") int signedIn,
+                                  @Param("leave") int leave,
+                                  @Param("absent") int absent);
+
+    /**
+     * 名额未满时占用一个名额，返回0表示已满
+     */
+    @Modifying
+    @Query(value = "UPDATE activities SET signed_up_count = signed_up_count + 1 " +
+                   "WHERE id = :activityId AND (max_participants IS NULL OR signed_up_count < max_participants)",
+           nativeQuery = true)
+    int incrementSignedUpIfAvailable(@Param("activityId") Long activityId);
+
+    /**
+     * 按参与记录重算指定活动的参与人数计数
+     */
+    @Modifying
+    @Query(value = "UPDATE activities SET " +
+                   "signed_up_count = (SELECT COUNT(*) FROM activity_participants p WHERE p.activity_id = activities.id AND p.status <> 5), " +
+                   "signed_in_count = (SELECT COUNT(*) FROM activity_participants p WHERE p.activity_id = activities.id AND p.status = 2), " +
+                   "leave_count = (SELECT COUNT(*) FROM activity_participants p WHERE p.activity_id = activities.id AND p.status = 3), " +
+                   "absent_count = (SELECT COUNT(*) FROM activity_participants p WHERE p.activity_id = activities.id AND p.status = 4) " +
+                   "WHERE id IN (:activityIds)",
+           nativeQuery = true)
+    int recountParticipantCounters(@Param("activityIds") List<Long> activityIds);
+
+    /**
+     * 重算与参与记录不一致的活动计数，返回修正的活动数
+     */
+    @Modifying
+    @Query(value = "UPDATE activities SET " +
+                   "signed_up_count = (SELECT COUNT(*) FROM activity_participants p WHERE p.activity_id = activities.id AND p.status <> 5), " +
+                   "signed_in_count = (SELECT COUNT(*) FROM activity_participants p WHERE p.activity_id = activities.id AND p.status = 2), " +
+                   "leave_count = (SELECT COUNT(*) FROM activity_participants p WHERE p.activity_id = activities.id AND p.status = 3), " +
+                   "absent_count = (SELECT COUNT(*) FROM activity_participants p WHERE p.activity_id = activities.id AND p.status = 4) " +
+                   "WHERE signed_up_count <> (SELECT COUNT(*) FROM activity_participants p WHERE p.activity_id = activities.id AND p.status <> 5) " +
+                   "OR signed_in_count <> (SELECT COUNT(*) FROM activity_participants p WHERE p.activity_id = activities.id AND p.status = 2) " +
+                   "OR leave_count <> (SELECT COUNT(*) FROM activity_participants p WHERE p.activity_id = activities.id AND p.status = 3) " +
+                   "OR absent_count <> (SELECT COUNT(*) FROM activity_participants p WHERE p.activity_id = activities.id AND p.status = 4)",
+           nativeQuery = true)
+    int recountStaleParticipantCounters();
 }
\ No newline at end of file
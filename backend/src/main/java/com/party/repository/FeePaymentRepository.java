@@ -1,7 +1,10 @@
 package com.party.repository;
 
+import com.party.dto.FeePaymentAggregate;
 import com.party.entity.FeePayment;
 import com.party.entity.PartyMember;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -59,6 +62,31 @@ public interface FeePaymentRepository extends JpaRepository<FeePayment, Long> {
      */
     List<FeePayment> findByStatus(FeePayment.PaymentStatus status);
     
+    /**
+     * 根据缴费状态分页查询记录
+     * @param status 缴费状态
+     * @param pageable 分页参数
+     * @return 缴费记录分页
+     */
+    Page<FeePayment> findByStatus(FeePayment.PaymentStatus status, Pageable pageable);
+    
+    /**
+     * 按键集查询指定位置之前的缴费记录，按缴费年月和ID倒序
+     * @param beforeYear 上一页最后一条记录的缴费年份
+     * @param beforeMonth 上一页最后一条记录的缴费月份
+     * @param beforeId 上一页最后一条记录的ID
+     * @param pageable 只用于限制条数
+     * @return 缴费记录列表
+     */
+    @Query("SELECT fp FROM FeePayment fp WHERE fp.paymentYear < :beforeYear OR " +
+           "(fp.paymentYear = :beforeYear AND (fp.paymentMonth < :beforeMonth OR " +
+           "(fp.paymentMonth = :beforeMonth AND fp.id < :beforeId))) " +
+           "ORDER BY fp.paymentYear DESC, fp.paymentMonth DESC, fp.id DESC")
+    List<FeePayment> findBefore(@Param("beforeYear") Integer beforeYear,
+                                @Param("beforeMonth") Integer beforeMonth,
+                                @Param("beforeId") Long beforeId,
+                                Pageable pageable);
+    
     /**
      * 根据缴费日期范围查询记录
      * @param startDate 开始日期
@@ -188,4 +216,17 @@ public interface FeePaymentRepository extends JpaRepository<FeePayment, Long> {
            "GROUP BY fp.paymentYear " +
            "ORDER BY fp.paymentYear DESC")
     List<Object[]> getMemberPaymentStatistics(@Param("member") PartyMember member);
-}
\ No newline at end of file
+    
+    /**
+     * 按年、月、状态、缴费方式一次性聚合指定年份区间的缴费记录
+     * @param startYear 开始年份
+     * @param endYear 结束年份
+     * @return 聚合结果
+     */
+    @Query("SELECT new com.party.dto.FeePaymentAggregate(fp.paymentYear, fp.paymentMonth, fp.status, " +
+           "fp.paymentMethod, COUNT(fp), SUM(fp.feeAmount)) " +
+           "FROM FeePayment fp WHERE fp.paymentYear BETWEEN :startYear AND :endYear " +
+           "GROUP BY fp.paymentYear, fp.paymentMonth, fp.status, fp.paymentMethod")
+    List<FeePaymentAggregate> aggregateByYearRange(@Param("startYear") Integer startYear,
+                                                   @Param("endYear") Integer endYear);
+}
@@ -0,0 +1,73 @@
+package com.party.repository;
+
+import com.party.entity.OperationLogHourlyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 操作日志小时统计Repository接口
+ * 时间条件均按统计小时比较，调用方负责把起始时间截断到整点
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Repository
+public interface OperationLogHourlyStatRepository extends JpaRepository<OperationLogHourlyStat, Long> {
+
+    /**
+     * 按成功标志合计
+     * 返回列：是否成功, 操作次数, 执行时间合计, 最长执行时间, 计时次数
+     */
+    @Query("SELECT s.success, SUM(s.opCount), SUM(s.totalExecutionTime), MAX(s.maxExecutionTime), " +
+           "SUM(s.timedCount) " +
+           "FROM OperationLogHourlyStat s WHERE s.statHour BETWEEN :startHour AND :endHour " +
+           "GROUP BY s.success")
+    List<Object[]> sumBySuccess(@Param("startHour") LocalDateTime startHour, @Param("endHour") LocalDateTime endHour);
+
+    /**
+     * 按操作类型合计
+     */
+    @Query("SELECT s.operationType, SUM(s.opCount) FROM OperationLogHourlyStat s " +
+           "WHERE s.statHour BETWEEN :startHour AND :endHour " +
+           "GROUP BY s.operationType ORDER BY SUM(s.opCount) DESC")
+    List<Object[]> sumByOperationType(@Param("startHour") LocalDateTime startHour, @Param("endHour") LocalDateTime endHour);
+
+    /**
+     * 按操作模块合计
+     */
+    @Query("SELECT s.operationModule, SUM(s.opCount) FROM OperationLogHourlyStat s " +
+           "WHERE s.statHour BETWEEN :startHour AND :endHour " +
+           "GROUP BY s.operationModule ORDER BY SUM(s.opCount) DESC")
+    List<Object[]> sumByOperationModule(@Param("startHour") LocalDateTime startHour, @Param("endHour") LocalDateTime endHour);
+
+    /**
+     * 按用户名合计
+     */
+    @Query("SELECT s.username, SUM(s.opCount) FROM OperationLogHourlyStat s " +
+           "WHERE s.statHour BETWEEN :startHour AND :endHour " +
+           "GROUP BY s.username ORDER BY SUM(s.opCount) DESC")
+    List<Object[]> sumByUsername(@Param("startHour") LocalDateTime startHour, @Param("endHour") LocalDateTime endHour);
+
+    /**
+     * 按日合计
+     */
+    @Query("SELECT CAST(s.statHour AS date), SUM(s.opCount) FROM OperationLogHourlyStat s " +
+           "WHERE s.statHour BETWEEN :startHour AND :endHour " +
+           "GROUP BY CAST(s.statHour AS date) ORDER BY CAST(s.statHour AS date)")
+    List<Object[]> sumByDate(@Param("startHour") LocalDateTime startHour, @Param("endHour") LocalDateTime endHour);
+
+    /**
+     * 按小时合计
+     * 返回列：统计小时, 操作次数, 失败次数, 执行时间合计, 最长执行时间, 计时次数
+     */
+    @Query("SELECT s.statHour, SUM(s.opCount), SUM(CASE WHEN s.success = false THEN s.opCount ELSE 0 END), " +
+           "SUM(s.totalExecutionTime), MAX(s.maxExecutionTime), SUM(s.timedCount) FROM OperationLogHourlyStat s " +
+           "WHERE s.statHour BETWEEN :startHour AND :endHour " +
+           "GROUP BY s.statHour ORDER BY s.statHour")
+    List<Object[]> sumByHour(@Param("startHour") LocalDateTime startHour, @Param("endHour") LocalDateTime endHour);
+}
@@ -5,11 +5,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 /**
  * 操作日志数据访问接口
@@ -65,6 +71,19 @@ public interface OperationLogRepository extends JpaRepository<OperationLog, Long
      */
     Page<OperationLog> findByCreatedAtBetween(LocalDateTime startTime, LocalDateTime endTime, Pageable pageable);
 
+    /**
+     * 按时间顺序流式读取时间范围内的操作日志，供导出使用
+     * 必须在事务中消费并关闭；MySQL驱动需开启useCursorFetch，抓取大小才会生效
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT ol FROM OperationLog ol WHERE ol.createdAt BETWEEN :startTime AND :endTime " +
+           "ORDER BY ol.createdAt ASC, ol.id ASC")
+    Stream<OperationLog> streamByCreatedAtBetween(@Param("startTime") LocalDateTime startTime,
+                                                  @Param("endTime") LocalDateTime endTime);
+
     /**
      * 根据用户ID和时间范围查找操作日志
      */
@@ -106,6 +125,36 @@ public interface OperationLogRepository extends JpaRepository<OperationLog, Long
                                        @Param("keyword") String keyword,
                                        Pageable pageable);
 
+    /**
+     * 按键集多条件搜索指定位置之前的操作日志，按创建时间和ID倒序
+     */
+    @Query("SELECT ol FROM OperationLog ol WHERE " +
+           "(:userId IS NULL OR ol.userId = :userId) AND " +
+           "(:username IS NULL OR ol.username LIKE %:username%) AND " +
+           "(:operationType IS NULL OR ol.operationType = :operationType) AND " +
+           "(:operationModule IS NULL OR ol.operationModule = :operationModule) AND " +
+           "(:targetType IS NULL OR ol.targetType = :targetType) AND " +
+           "(:success IS NULL OR ol.success = :success) AND " +
+           "(:ipAddress IS NULL OR ol.ipAddress = :ipAddress) AND " +
+           "(:startTime IS NULL OR ol.createdAt >= :startTime) AND " +
+           "(:endTime IS NULL OR ol.createdAt <= :endTime) AND " +
+           "(:keyword IS NULL OR ol.operationDescription LIKE %:keyword% OR ol.targetName LIKE %:keyword%) AND " +
+           "(ol.createdAt < :beforeTime OR (ol.createdAt = :beforeTime AND ol.id < :beforeId)) " +
+           "ORDER BY ol.createdAt DESC, ol.id DESC")
+    List<OperationLog> findByConditionsBefore(@Param("userId") Long userId,
+                                              @Param("username") String username,
+                                              @Param("operationType") String operationType,
+                                              @Param("operationModule") String operationModule,
+                                              @Param("targetType") String targetType,
+                                              @Param("success") Boolean success,
+                                              @Param("ipAddress") String ipAddress,
+                                              @Param("startTime") LocalDateTime startTime,
+                                              @Param("endTime") LocalDateTime endTime,
+                                              @Param("keyword") String keyword,
+                                              @Param("beforeTime") LocalDateTime beforeTime,
+                                              @Param("beforeId") Long beforeId,
+                                              Pageable pageable);
+
     /**
      * 统计指定时间范围内的操作日志数量
      */
@@ -159,41 +208,4 @@ public interface OperationLogRepository extends JpaRepository<OperationLog, Long
      * 获取指定用户最近的操作日志
      */
     List<OperationLog> findTop10ByUserIdOrderByCreatedAtDesc(Long userId);
-
-    /**
-     * 删除指定时间之前的操作日志
-     */
-    void deleteByCreatedAtBefore(LocalDateTime dateTime);
-
-    /**
-     * 按操作类型统计日志数量
-     */
-    @Query("SELECT ol.operationType, COUNT(ol) FROM OperationLog ol " +
-           "WHERE ol.createdAt BETWEEN :startTime AND :endTime " +
-           "GROUP BY ol.operationType ORDER BY COUNT(ol) DESC")
-    List<Object[]> countByOperationTypeGrouped(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
-
-    /**
-     * 按操作模块统计日志数量
-     */
-    @Query("SELECT ol.operationModule, COUNT(ol) FROM OperationLog ol " +
-           "WHERE ol.createdAt BETWEEN :startTime AND :endTime " +
-           "GROUP BY ol.operationModule ORDER BY COUNT(ol) DESC")
-    List<Object[]> countByOperationModuleGrouped(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
-
-    /**
-     * 按用户统计操作日志数量
-     */
-    @Query("SELECT ol.username, COUNT(ol) FROM OperationLog ol " +
-           "WHERE ol.createdAt BETWEEN :startTime AND :endTime " +
-           "GROUP BY ol.username ORDER BY COUNT(ol) DESC")
-    List<Object[]> countByUsernameGrouped(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
-
-    /**
-     * 按日期统计操作日志数量
-     */
-    @Query("SELECT CAST(ol.createdAt AS date), COUNT(ol) FROM OperationLog ol " +
-           "WHERE ol.createdAt BETWEEN :startTime AND :endTime " +
-           "GROUP BY CAST(ol.createdAt AS date) ORDER BY CAST(ol.createdAt AS date)")
-    List<Object[]> countByDateGrouped(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
-}
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+package com.party.repository;
+
+import com.party.entity.OrganizationClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 组织闭包表Repository接口
+ * 写操作均为集合语句，一次移动整棵子树只需固定条数的语句
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Repository
+public interface OrganizationClosureRepository extends JpaRepository<OrganizationClosure, OrganizationClosure.Key> {
+
+    /**
+     * 查询下级组织ID（不含自身），按深度升序
+     */
+    @Query("SELECT c.descendantId FROM OrganizationClosure c " +
+           "WHERE c.ancestorId = :organizationId AND c.depth > 0 ORDER BY c.depth, c.descendantId")
+    List<Long> findDescendantIds(@Param("organizationId") Long organizationId);
+
+    /**
+     * 查询上级组织ID（不含自身），由直接上级到根组织
+     */
+    @Query("SELECT c.ancestorId FROM OrganizationClosure c " +
+           "WHERE c.descendantId = :organizationId AND c.depth > 0 ORDER BY c.depth")
+    List<Long> findAncestorIds(@Param("organizationId") Long organizationId);
+
+    /**
+     * 判断一个组织是否为另一组织的下级（含自身）
+     */
+    @Query("SELECT COUNT(c) > 0 FROM OrganizationClosure c " +
+           "WHERE c.ancestorId = :ancestorId AND c.descendantId = :descendantId")
+    boolean existsPath(@Param("ancestorId") Long ancestorId, @Param("descendantId") Long descendantId);
+
+    /**
+     * 统计组织到自身的行数，正常情况下等于组织数
+     */
+    @Query("SELECT COUNT(c) FROM OrganizationClosure c WHERE c.depth = 0")
+    long countSelfPaths();
+
+    /**
+     * 查询多个组织到其上级组织（含自身）的路径，批量创建组织时据此生成新组织的路径
+     */
+    List<OrganizationClosure> findByDescendantIdIn(Collection<Long> descendantIds);
+
+    // ==================== 新增与删除 ====================
+
+    /**
+     * 为新组织写入到自身的行
+     */
+    @Modifying
+    @Query(value = "INSERT INTO organization_closure (ancestor_id, descendant_id, depth) " +
+                   "VALUES (:organizationId, :organizationId, 0)", nativeQuery = true)
+    int insertSelfPath(@Param("organizationId") Long organizationId);
+
+    /**
+     * 为新组织写入到父组织及其所有上级的行
+     */
+    @Modifying
+    @Query(value = "INSERT INTO organization_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT ancestor_id, :organizationId, depth + 1 FROM organization_closure " +
+                   "WHERE descendant_id = :parentId", nativeQuery = true)
+    int insertAncestorPaths(@Param("organizationId") Long organizationId, @Param("parentId") Long parentId);
+
+    /**
+     * 删除与组织相关的全部行
+     */
+    @Modifying
+    @Query(value = "DELETE FROM organization_closure " +
+                   "WHERE ancestor_id = :organizationId OR descendant_id = :organizationId", nativeQuery = true)
+    int deleteByOrganizationId(@Param("organizationId") Long organizationId);
+
+    // ==================== 移动子树 ====================
+
+    /**
+     * 断开子树与原上级的所有路径，子树内部的路径保留
+     */
+    @Modifying
+    @Query(value = "DELETE FROM organization_closure " +
+                   "WHERE descendant_id IN (SELECT t.descendant_id FROM (" +
+                   "SELECT descendant_id FROM organization_closure WHERE ancestor_id = :organizationId) t) " +
+                   "AND ancestor_id NOT IN (SELECT t.descendant_id FROM (" +
+                   "SELECT descendant_id FROM organization_closure WHERE ancestor_id = :organizationId) t)",
+           nativeQuery = true)
+    int detachSubtree(@Param("organizationId") Long organizationId);
+
+    /**
+     * 把子树挂到新父组织下：新父组织的每个上级（含自身）与子树的每个组织组合成一行
+     */
+    @Modifying
+    @Query(value = "INSERT INTO organization_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT p.ancestor_id, c.descendant_id, p.depth + c.depth + 1 " +
+                   "FROM organization_closure p CROSS JOIN organization_closure c " +
+                   "WHERE p.descendant_id = :parentId AND c.ancestor_id = :organizationId", nativeQuery = true)
+    int attachSubtree(@Param("organizationId") Long organizationId, @Param("parentId") Long parentId);
+
+    // ==================== 重建 ====================
+
+    @Modifying
+    @Query(value = "DELETE FROM organization_closure", nativeQuery = true)
+    int deleteAllPaths();
+
+    @Modifying
+    @Query(value = "INSERT INTO organization_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT id, id, 0 FROM organizations", nativeQuery = true)
+    int insertAllSelfPaths();
+
+    /**
+     * 由深度为depth的路径扩展出深度为depth + 1的路径
+     * 父子关系成环时已有路径不再重复写入，扩展在绕回起点前停止
+     */
+    @Modifying
+    @Query(value = "INSERT INTO organization_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT c.ancestor_id, o.id, c.depth + 1 FROM organizations o " +
+                   "JOIN organization_closure c ON c.descendant_id = o.parent_id " +
+                   "WHERE c.depth = :depth AND o.id <> o.parent_id " +
+                   "AND NOT EXISTS (SELECT 1 FROM organization_closure e " +
+                   "WHERE e.ancestor_id = c.ancestor_id AND e.descendant_id = o.id)", nativeQuery = true)
+    int insertPathsFromDepth(@Param("depth") int depth);
+
+    /**
+     * 统计父组织同时是其下级的组织数，大于0说明父子关系成环
+     */
+    @Query(value = "SELECT COUNT(*) FROM organizations o " +
+                   "JOIN organization_closure c ON c.ancestor_id = o.id AND c.descendant_id = o.parent_id " +
+                   "WHERE o.id <> o.parent_id", nativeQuery = true)
+    long countCyclicOrganizations();
+}
@@ -4,10 +4,13 @@ import com.party.entity.Organization;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,9 +23,19 @@ import java.util.Optional;
 @Repository
 public interface OrganizationRepository extends JpaRepository<Organization, Long> {
 
+    /**
+     * 查询全部组织，结果进入查询缓存，表有变更时失效
+     * 
+     * @return 组织列表
+     */
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Organization> findAll();
+
     /**
      * 根据组织编码查找组织
      */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Organization> findByCode(String code);
 
     /**
@@ -82,35 +95,19 @@ public interface OrganizationRepository extends JpaRepository<Organization, Long
     List<Organization> findBySecretaryId(Long secretaryId);
 
     /**
-     * 查找指定组织的所有子组织（递归）
+     * 查找指定组织的所有子组织（按闭包表，由近及远）
      */
-    @Query(value = "WITH RECURSIVE org_tree AS (" +
-                   "  SELECT id, name, code, type, parent_id, level " +
-                   "  FROM organizations " +
-                   "  WHERE id = :organizationId " +
-                   "  UNION ALL " +
-                   "  SELECT o.id, o.name, o.code, o.type, o.parent_id, o.level " +
-                   "  FROM organizations o " +
-                   "  INNER JOIN org_tree ot ON o.parent_id = ot.id " +
-                   ") " +
-                   "SELECT * FROM org_tree WHERE id != :organizationId", 
-           nativeQuery = true)
+    @Query("SELECT o FROM Organization o, OrganizationClosure c " +
+           "WHERE c.ancestorId = :organizationId AND c.descendantId = o.id AND c.depth > 0 " +
+           "ORDER BY c.depth, o.id")
     List<Organization> findAllChildren(@Param("organizationId") Long organizationId);
 
     /**
-     * 查找指定组织的所有父组织（递归）
+     * 查找指定组织的所有父组织（按闭包表，由直接上级到根组织）
      */
-    @Query(value = "WITH RECURSIVE org_tree AS (" +
-                   "  SELECT id, name, code, type, parent_id, level " +
-                   "  FROM organizations " +
-                   "  WHERE id = :organizationId " +
-                   "  UNION ALL " +
-                   "  SELECT o.id, o.name, o.code, o.type, o.parent_id, o.level " +
-                   "  FROM organizations o " +
-                   "  INNER JOIN org_tree ot ON ot.parent_id = o.id " +
-                   ") " +
-                   "SELECT * FROM org_tree WHERE id != :organizationId", 
-           nativeQuery = true)
+    @Query("SELECT o FROM Organization o, OrganizationClosure c " +
+           "WHERE c.descendantId = :organizationId AND c.ancestorId = o.id AND c.depth > 0 " +
+           "ORDER BY c.depth")
     List<Organization> findAllParents(@Param("organizationId") Long organizationId);
 
     /**
@@ -156,33 +153,54 @@ public interface OrganizationRepository extends JpaRepository<Organization, Long
                                        Pageable pageable);
 
     /**
-     * 查找指定组织的所有子组织（递归）
+     * 按键集查询指定ID之后的组织，按ID升序
      */
-    @Query(value = "WITH RECURSIVE org_tree AS (" +
-           "  SELECT id, name, code, type, parent_id, level " +
-           "  FROM organizations " +
-           "  WHERE parent_id = :organizationId " +
-           "  UNION ALL " +
-           "  SELECT o.id, o.name, o.code, o.type, o.parent_id, o.level " +
-           "  FROM organizations o " +
-           "  INNER JOIN org_tree ot ON o.parent_id = ot.id" +
-           ") SELECT * FROM org_tree", nativeQuery = true)
+    @Query("SELECT o FROM Organization o WHERE " +
+           "(:name IS NULL OR o.name LIKE %:name%) AND " +
+           "(:type IS NULL OR o.type = :type) AND " +
+           "(:level IS NULL OR o.level = :level) AND " +
+           "(:isActive IS NULL OR o.isActive = :isActive) AND " +
+           "o.id > :afterId ORDER BY o.id ASC")
+    List<Organization> findByConditionsAfter(@Param("name") String name,
+                                             @Param("type") Integer type,
+                                             @Param("level") Integer level,
+                                             @Param("isActive") Boolean isActive,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    /**
+     * 查找指定组织的所有子组织（按闭包表，由近及远）
+     */
+    @Query("SELECT o FROM Organization o, OrganizationClosure c " +
+           "WHERE c.ancestorId = :organizationId AND c.descendantId = o.id AND c.depth > 0 " +
+           "ORDER BY c.depth, o.id")
     List<Organization> findAllChildOrganizations(@Param("organizationId") Long organizationId);
 
     /**
-     * 查找指定组织的所有父组织（递归）
+     * 查找指定组织的所有父组织（按闭包表，由直接上级到根组织）
      */
-    @Query(value = "WITH RECURSIVE org_tree AS (" +
-           "  SELECT id, name, code, type, parent_id, level " +
-           "  FROM organizations " +
-           "  WHERE id = (SELECT parent_id FROM organizations WHERE id = :organizationId) " +
-           "  UNION ALL " +
-           "  SELECT o.id, o.name, o.code, o.type, o.parent_id, o.level " +
-           "  FROM organizations o " +
-           "  INNER JOIN org_tree ot ON o.id = ot.parent_id" +
-           ") SELECT * FROM org_tree", nativeQuery = true)
+    @Query("SELECT o FROM Organization o, OrganizationClosure c " +
+           "WHERE c.descendantId = :organizationId AND c.ancestorId = o.id AND c.depth > 0 " +
+           "ORDER BY c.depth")
     List<Organization> findAllParentOrganizations(@Param("organizationId") Long organizationId);
 
+    /**
+     * 统计指定组织及其所有子组织的成员数
+     */
+    @Query("SELECT COUNT(u) FROM User u, OrganizationClosure c " +
+           "WHERE c.ancestorId = :organizationId AND u.organizationId = c.descendantId")
+    long countMembersInSubtree(@Param("organizationId") Long organizationId);
+
+    /**
+     * 按闭包表重算子树内各组织的层级，层级等于上级组织数（含自身）
+     */
+    @Modifying
+    @Query(value = "UPDATE organizations SET level = (" +
+                   "SELECT COUNT(*) FROM organization_closure c WHERE c.descendant_id = organizations.id) " +
+                   "WHERE id IN (SELECT descendant_id FROM organization_closure WHERE ancestor_id = :organizationId)",
+           nativeQuery = true)
+    int updateSubtreeLevels(@Param("organizationId") Long organizationId);
+
     /**
      * 查找组织树结构（用于前端展示）
      */
@@ -3,9 +3,11 @@ package com.party.repository;
 import com.party.entity.Permission;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,12 +20,22 @@ import java.util.Optional;
 @Repository
 public interface PermissionRepository extends JpaRepository<Permission, Long> {
 
+    /**
+     * 查询全部权限，结果进入查询缓存，表有变更时失效
+     * 
+     * @return 权限列表
+     */
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Permission> findAll();
+
     /**
      * 根据权限代码查找权限
      * 
      * @param code 权限代码
      * @return 权限对象
      */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Permission> findByCode(String code);
 
     /**
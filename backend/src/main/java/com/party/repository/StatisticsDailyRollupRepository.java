@@ -0,0 +1,66 @@
+package com.party.repository;
+
+import com.party.entity.StatisticsDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 每日统计汇总Repository接口
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Repository
+public interface StatisticsDailyRollupRepository extends JpaRepository<StatisticsDailyRollup, Long> {
+
+    /**
+     * 按日合计各组织的汇总数据，每天最多返回一行
+     * 返回列：统计日期, 新增用户, 用户总数, 活动数, 报名人次, 签到人次, 缴费笔数, 缴费金额, 应缴笔数, 已缴笔数
+     */
+    @Query("SELECT r.statDate, SUM(r.newUsers), SUM(r.totalUsers), SUM(r.activityCount), " +
+           "SUM(r.participantCount), SUM(r.signedInCount), SUM(r.feePaidCount), SUM(r.feePaidAmount), " +
+           "SUM(r.feeBilledCount), SUM(r.feeBilledPaidCount) " +
+           "FROM StatisticsDailyRollup r WHERE r.statDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY r.statDate ORDER BY r.statDate")
+    List<Object[]> sumByDate(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 按日合计已分配组织的成员数据，每天最多返回一行
+     * 返回列：统计日期, 新增成员, 成员总数
+     */
+    @Query("SELECT r.statDate, SUM(r.newUsers), SUM(r.totalUsers) " +
+           "FROM StatisticsDailyRollup r WHERE r.statDate BETWEEN :startDate AND :endDate " +
+           "AND r.organizationId <> " + StatisticsDailyRollup.NO_ORGANIZATION + " " +
+           "GROUP BY r.statDate ORDER BY r.statDate")
+    List<Object[]> sumMembersByDate(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 按月合计各组织的汇总数据，每月最多返回一行
+     * 返回列：年, 月, 缴费笔数, 缴费金额, 应缴笔数, 已缴笔数
+     */
+    @Query("SELECT YEAR(r.statDate), MONTH(r.statDate), SUM(r.feePaidCount), SUM(r.feePaidAmount), " +
+           "SUM(r.feeBilledCount), SUM(r.feeBilledPaidCount) " +
+           "FROM StatisticsDailyRollup r WHERE r.statDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY YEAR(r.statDate), MONTH(r.statDate) " +
+           "ORDER BY YEAR(r.statDate), MONTH(r.statDate)")
+    List<Object[]> sumByMonth(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查询已汇总的最新日期
+     */
+    @Query("SELECT MAX(r.statDate) FROM StatisticsDailyRollup r")
+    LocalDate findLatestStatDate();
+
+    /**
+     * 删除日期区间内的汇总数据
+     */
+    @Modifying
+    @Query("DELETE FROM StatisticsDailyRollup r WHERE r.statDate BETWEEN :startDate AND :endDate")
+    int deleteByStatDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -110,6 +110,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
                                @Param("isActive") Boolean isActive,
                                Pageable pageable);
 
+    /**
+     * 按键集查询指定ID之后的用户，按ID升序
+     */
+    @Query("SELECT u FROM User u WHERE " +
+           "(:realName IS NULL OR u.realName LIKE %:realName%) AND " +
+           "(:organizationId IS NULL OR u.organizationId = :organizationId) AND " +
+           "(:partyStatus IS NULL OR u.partyStatus = :partyStatus) AND " +
+           "(:isActive IS NULL OR u.isActive = :isActive) AND " +
+           "u.id > :afterId ORDER BY u.id ASC")
+    List<User> findByConditionsAfter(@Param("realName") String realName,
+                                     @Param("organizationId") Long organizationId,
+                                     @Param("partyStatus") Integer partyStatus,
+                                     @Param("isActive") Boolean isActive,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
+
     /**
      * 统计组织下的用户数量
      */
@@ -1,5 +1,8 @@
 package com.party.service;
 
+import com.party.common.pagination.CursorPage;
+import com.party.dto.BatchCheckInResult;
+import com.party.dto.UserActivityView;
 import com.party.entity.ActivityParticipant;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,24 +19,30 @@ import java.util.Optional;
 public interface ActivityParticipantService {
 
     /**
-     * 用户报名参加活动
+     * 用户报名参加活动，满员时按活动设置进入候补或拒绝报名
      */
     ActivityParticipant signUpActivity(Long activityId, Long userId);
 
     /**
-     * 取消报名
+     * 取消报名，释放的名额由最早的候补者递补
      */
     void cancelSignUp(Long activityId, Long userId);
 
     /**
-     * 签到
+     * 按报名顺序由候补者递补空出的名额，用于活动人数上限调高后
+     * @return 递补的人数
+     */
+    int promoteWaitlisted(Long activityId);
+
+    /**
+     * 签到，候补者未占用名额，不能签到
      */
     void checkIn(Long activityId, Long userId);
 
     /**
-     * 批量签到
+     * 批量签到，返回每个用户的签到结果，候补者不签到并单独列出
      */
-    void batchCheckIn(Long activityId, List<Long> userIds);
+    BatchCheckInResult batchCheckIn(Long activityId, List<Long> userIds);
 
     /**
      * 请假
@@ -60,6 +69,16 @@ public interface ActivityParticipantService {
      */
     List<ActivityParticipant> findByUserId(Long userId);
 
+    /**
+     * 分页查询用户参与的活动，按报名先后倒序
+     */
+    Page<UserActivityView> findUserActivities(Long userId, Pageable pageable);
+
+    /**
+     * 按游标查询用户参与的活动，after为空时从最近一次报名开始
+     */
+    CursorPage<UserActivityView> findUserActivities(Long userId, String after, int size);
+
     /**
      * 根据活动ID和用户ID查找参与记录
      */
@@ -1,5 +1,7 @@
 package com.party.service;
 
+import com.party.common.batch.BatchResult;
+import com.party.common.pagination.CursorPage;
 import com.party.entity.Activity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -48,6 +50,13 @@ public interface ActivityService {
                                    Long organizationId, LocalDateTime startTime, 
                                    LocalDateTime endTime, Pageable pageable);
 
+    /**
+     * 按游标根据条件查找活动，按创建时间倒序，after为空时从最新的活动开始
+     */
+    CursorPage<Activity> findByConditions(String title, Integer type, Integer status,
+                                          Long organizationId, LocalDateTime startTime,
+                                          LocalDateTime endTime, String after, int size, boolean withTotal);
+
     /**
      * 根据组织ID查找活动
      */
@@ -85,8 +94,10 @@ public interface ActivityService {
 
     /**
      * 批量删除活动
+     * 
+     * @return 删除成功的活动ID和不存在的活动
      */
-    void batchDeleteActivities(List<Long> ids);
+    BatchResult<Long> batchDeleteActivities(List<Long> ids);
 
     /**
      * 更新活动状态
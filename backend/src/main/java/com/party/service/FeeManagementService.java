@@ -1,8 +1,12 @@
 package com.party.service;
 
+import com.party.common.pagination.CursorPage;
+import com.party.dto.FeePaymentGenerationResult;
+import com.party.dto.FeePaymentSummary;
 import com.party.entity.FeePayment;
 import com.party.entity.FeeStandard;
 import com.party.entity.PartyMember;
+import com.party.export.ExportJob;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -115,6 +119,15 @@ public interface FeeManagementService {
      */
     Page<FeePayment> getFeePayments(Pageable pageable);
     
+    /**
+     * 按游标查询党费缴费记录，按缴费年月倒序
+     * @param after 上一页返回的游标，为空时从最近的缴费月份开始
+     * @param size 每页大小
+     * @param withTotal 是否统计总数
+     * @return 党费缴费记录游标分页
+     */
+    CursorPage<FeePayment> getFeePayments(String after, int size, boolean withTotal);
+    
     /**
      * 根据党员查询党费缴费记录
      * @param memberId 党员ID
@@ -154,6 +167,14 @@ public interface FeeManagementService {
      */
     int batchCreateFeePayments(Integer year, Integer month);
     
+    /**
+     * 分段批量生成指定年月的缴费记录，可重复执行
+     * @param year 年份
+     * @param month 月份
+     * @return 生成结果
+     */
+    FeePaymentGenerationResult generateFeePayments(Integer year, Integer month);
+    
     /**
      * 计算党员应缴党费
      * @param memberId 党员ID
@@ -162,6 +183,13 @@ public interface FeeManagementService {
      */
     BigDecimal calculateMemberFee(Long memberId, BigDecimal income);
     
+    /**
+     * 批量计算党员党费
+     * @param incomes 党员ID到收入金额的映射
+     * @return 党员ID到党费金额的映射，无适用标准的党员不在结果中
+     */
+    Map<Long, BigDecimal> calculateMemberFees(Map<Long, BigDecimal> incomes);
+    
     /**
      * 标记缴费记录为已缴费
      * @param paymentId 缴费记录ID
@@ -178,6 +206,14 @@ public interface FeeManagementService {
     
     // ==================== 统计分析 ====================
     
+    /**
+     * 一次分组查询汇总指定年份区间的缴费记录
+     * @param startYear 开始年份
+     * @param endYear 结束年份
+     * @return 缴费汇总
+     */
+    FeePaymentSummary getFeePaymentSummary(Integer startYear, Integer endYear);
+    
     /**
      * 统计指定年份的党费收入
      * @param year 年份
@@ -240,26 +276,26 @@ public interface FeeManagementService {
     // ==================== 导出功能 ====================
     
     /**
-     * 导出党费缴费记录
+     * 提交党费缴费记录导出任务
      * @param year 年份
      * @param month 月份
      * @param organizationId 组织ID（可选）
-     * @return 导出文件路径
+     * @return 导出任务，按任务ID查询进度并下载
      */
-    String exportFeePayments(Integer year, Integer month, Long organizationId);
+    ExportJob exportFeePayments(Integer year, Integer month, Long organizationId);
     
     /**
-     * 导出党费统计报表
+     * 提交党费统计报表导出任务
      * @param year 年份
-     * @return 导出文件路径
+     * @return 导出任务，按任务ID查询进度并下载
      */
-    String exportFeeStatistics(Integer year);
+    ExportJob exportFeeStatistics(Integer year);
     
     /**
-     * 导出逾期缴费名单
-     * @return 导出文件路径
+     * 提交逾期缴费名单导出任务
+     * @return 导出任务，按任务ID查询进度并下载
      */
-    String exportOverduePayments();
+    ExportJob exportOverduePayments();
     
     // ==================== 提醒功能 ====================
     
@@ -1,9 +1,12 @@
 package com.party.service;
 
+import com.party.common.log.OperationLogPurger.PurgeReport;
+import com.party.common.pagination.CursorPage;
 import com.party.entity.OperationLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -78,6 +81,14 @@ public interface OperationLogService {
                                  String ipAddress, LocalDateTime startTime, LocalDateTime endTime,
                                  String keyword, Pageable pageable);
 
+    /**
+     * 按游标多条件搜索操作日志，按创建时间倒序，after为空时从最新的日志开始
+     */
+    CursorPage<OperationLog> searchLogs(Long userId, String username, String operationType,
+                                       String operationModule, String targetType, Boolean success,
+                                       String ipAddress, LocalDateTime startTime, LocalDateTime endTime,
+                                       String keyword, String after, int size, boolean withTotal);
+
     // ==================== 日志记录操作 ====================
 
     /**
@@ -150,6 +161,7 @@ public interface OperationLogService {
 
     /**
      * 按操作类型统计日志数量
+     * 以下按维度统计均读取小时统计，起始时间按所在整点计算
      */
     Map<String, Long> countByOperationTypeGrouped(LocalDateTime startTime, LocalDateTime endTime);
 
@@ -173,6 +185,17 @@ public interface OperationLogService {
      */
     Map<String, Object> getOperationStatistics(LocalDateTime startTime, LocalDateTime endTime);
 
+    /**
+     * 按小时统计操作次数、失败次数和执行时间
+     */
+    List<Map<String, Object>> getHourlyStatistics(LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 按操作日志重算时间区间内的小时统计
+     * @return 写入的统计行数
+     */
+    int rebuildStatistics(LocalDateTime startTime, LocalDateTime endTime);
+
     // ==================== 数据维护操作 ====================
 
     /**
@@ -201,24 +224,34 @@ public interface OperationLogService {
     List<OperationLog> getRecentLogsByUser(Long userId, int limit);
 
     /**
-     * 清理指定时间之前的操作日志
+     * 按主键区间分段清理指定时间之前的操作日志
+     * @return 清理结果，包含删除的行数
+     */
+    PurgeReport cleanupOldLogs(LocalDateTime beforeTime);
+
+    /**
+     * 按主键区间分段清理指定天数之前的操作日志
+     * @return 清理结果，包含删除的行数
      */
-    void cleanupOldLogs(LocalDateTime beforeTime);
+    PurgeReport cleanupOldLogs(int daysToKeep);
 
     /**
-     * 清理指定天数之前的操作日志
+     * 最近一次清理结果，包括定时清理，尚未清理过时为null
      */
-    void cleanupOldLogs(int daysToKeep);
+    PurgeReport getLastCleanupReport();
 
     // ==================== 导出操作 ====================
 
     /**
-     * 导出操作日志到CSV
+     * 按时间顺序流式导出操作日志到CSV
+     * @param out 输出流，导出完成后关闭
+     * @param gzip 是否边写边gzip压缩
      */
-    byte[] exportToCsv(LocalDateTime startTime, LocalDateTime endTime);
+    void exportToCsv(LocalDateTime startTime, LocalDateTime endTime, OutputStream out, boolean gzip);
 
     /**
-     * 导出操作日志到Excel
+     * 按时间顺序流式导出操作日志到Excel
+     * @param out 输出流，导出完成后关闭
      */
-    byte[] exportToExcel(LocalDateTime startTime, LocalDateTime endTime);
+    void exportToExcel(LocalDateTime startTime, LocalDateTime endTime, OutputStream out);
 }
\ No newline at end of file
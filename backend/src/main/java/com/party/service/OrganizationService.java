@@ -1,5 +1,7 @@
 package com.party.service;
 
+import com.party.common.batch.BatchResult;
+import com.party.common.pagination.CursorPage;
 import com.party.entity.Organization;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -83,6 +85,17 @@ public interface OrganizationService {
     Page<Organization> findByConditions(String name, Integer type, Integer level, 
                                        Boolean isActive, Pageable pageable);
 
+    /**
+     * 按游标根据条件查询组织，按ID升序
+     * 
+     * @param after 上一页返回的游标，为空时从第一条开始
+     * @param size 每页大小
+     * @param withTotal 是否统计总数
+     * @return 组织游标分页数据
+     */
+    CursorPage<Organization> findByConditions(String name, Integer type, Integer level,
+                                              Boolean isActive, String after, int size, boolean withTotal);
+
     /**
      * 根据父组织ID查找子组织
      * 
@@ -168,6 +181,14 @@ public interface OrganizationService {
      */
     List<Organization> getAllParentOrganizations(Long organizationId);
 
+    /**
+     * 统计指定组织及其所有子组织的成员数
+     * 
+     * @param organizationId 组织ID
+     * @return 成员数
+     */
+    long countMembersInSubtree(Long organizationId);
+
     /**
      * 统计各类型组织数量
      * 
@@ -198,19 +219,20 @@ public interface OrganizationService {
 
     /**
      * 批量创建组织
+     * 组织编码和上级组织整批校验，父组织须为已有组织
      * 
      * @param organizations 组织列表
-     * @return 创建的组织列表
+     * @return 创建成功的组织和失败条目
      */
-    List<Organization> batchCreateOrganizations(List<Organization> organizations);
+    BatchResult<Organization> batchCreateOrganizations(List<Organization> organizations);
 
     /**
      * 批量更新组织
      * 
      * @param organizations 组织列表
-     * @return 更新的组织列表
+     * @return 更新成功的组织和失败条目
      */
-    List<Organization> batchUpdateOrganizations(List<Organization> organizations);
+    BatchResult<Organization> batchUpdateOrganizations(List<Organization> organizations);
 
     /**
      * 批量删除组织
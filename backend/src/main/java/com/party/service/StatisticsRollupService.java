@@ -0,0 +1,26 @@
+package com.party.service;
+
+import java.time.LocalDate;
+
+/**
+ * 每日统计汇总服务接口
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public interface StatisticsRollupService {
+
+    /**
+     * 重算日期区间内的每日汇总，区间内已有的汇总会被整体替换
+     * @param startDate 开始日期（含）
+     * @param endDate 结束日期（含）
+     * @return 写入的汇总行数
+     */
+    int rollup(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 获取已汇总的最新日期
+     * @return 最新日期，尚未汇总时返回null
+     */
+    LocalDate getLatestRollupDate();
+}
@@ -1,5 +1,7 @@
 package com.party.service;
 
+import com.party.common.batch.BatchResult;
+import com.party.common.pagination.CursorPage;
 import com.party.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -32,6 +34,7 @@ public interface UserService {
 
     /**
      * 根据ID查找用户
+     * 返回缓存中共享的只读副本，不含组织和角色关联，修改用户请使用updateUser
      */
     Optional<User> findById(Long id);
 
@@ -66,6 +69,12 @@ public interface UserService {
     Page<User> findByConditions(String realName, Long organizationId, 
                                Integer partyStatus, Boolean isActive, Pageable pageable);
 
+    /**
+     * 按游标根据条件查询用户，按ID升序，after为空时从第一条开始
+     */
+    CursorPage<User> findByConditions(String realName, Long organizationId, Integer partyStatus,
+                                      Boolean isActive, String after, int size, boolean withTotal);
+
     /**
      * 根据组织ID查找用户
      */
@@ -158,13 +167,15 @@ public interface UserService {
 
     /**
      * 批量创建用户
+     * 先按唯一字段整批校验，通过校验的用户分块批量写入，未通过的记录在结果的失败条目中
      */
-    List<User> batchCreateUsers(List<User> users);
+    BatchResult<User> batchCreateUsers(List<User> users);
 
     /**
      * 批量更新用户
+     * 先按唯一字段整批校验，再分块按ID加载并更新，不存在或未通过校验的用户记录在结果的失败条目中
      */
-    List<User> batchUpdateUsers(List<User> users);
+    BatchResult<User> batchUpdateUsers(List<User> users);
 
     /**
      * 批量删除用户
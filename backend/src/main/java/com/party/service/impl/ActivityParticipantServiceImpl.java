@@ -1,25 +1,40 @@
 package com.party.service.impl;
 
+import com.party.activity.ActivitySlotCounter;
+import com.party.common.pagination.Cursor;
+import com.party.common.pagination.CursorPage;
+import com.party.dto.BatchCheckInResult;
+import com.party.dto.UserActivityView;
+import com.party.entity.Activity;
 import com.party.entity.ActivityParticipant;
 import com.party.repository.ActivityParticipantRepository;
+import com.party.repository.ActivityRepository;
 import com.party.service.ActivityParticipantService;
+import com.party.statistics.StatisticsEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
  * 活动参与者服务实现类
+ * 参与记录新增、删除或状态变更时在同一事务内按增量调整活动表上的参与人数计数；
+ * 报名时内存名额计数已满且未开启候补的请求直接拒绝，其余以数据库条件更新占用名额，满员时按活动设置进入候补
  * 
  * @author Party Management System
  * @version 1.0.0
@@ -30,13 +45,34 @@ public class ActivityParticipantServiceImpl implements ActivityParticipantServic
 
     private static final Logger logger = LoggerFactory.getLogger(ActivityParticipantServiceImpl.class);
 
+    /** 批量签到单条UPDATE语句中的最大用户数 */
+    private static final int CHECK_IN_BATCH_SIZE = 1000;
+
     @Autowired
     private ActivityParticipantRepository activityParticipantRepository;
 
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ActivitySlotCounter activitySlotCounter;
+
+    @Autowired
+    private StatisticsEngine statisticsEngine;
+
     @Override
     public ActivityParticipant signUpActivity(Long activityId, Long userId) {
         logger.info("用户报名活动: activityId={}, userId={}", activityId, userId);
         
+        // 内存计数已满且不能候补时直接拒绝，不访问数据库；计数过期至多持续到下次重新加载
+        boolean acquired = activitySlotCounter.tryAcquire(activityId);
+        if (!acquired && !activitySlotCounter.isWaitlistEnabled(activityId)) {
+            throw new RuntimeException("活动报名人数已满");
+        }
+        if (acquired) {
+            activitySlotCounter.releaseOnRollback(activityId);
+        }
+        
         // 检查是否已经报名
         if (activityParticipantRepository.existsByActivityIdAndUserId(activityId, userId)) {
             throw new RuntimeException("用户已经报名该活动");
@@ -47,7 +83,23 @@ public class ActivityParticipantServiceImpl implements ActivityParticipantServic
         participant.setUserId(userId);
         participant.setStatus(1); // 1-已报名
         
-        return activityParticipantRepository.save(participant);
+        ActivityParticipant saved = activityParticipantRepository.save(participant);
+        // 数据库条件更新是名额的最终判断
+        if (activityRepository.incrementSignedUpIfAvailable(activityId) > 0) {
+            if (!acquired) {
+                // 内存计数已过期，下次报名时按数据库重新加载
+                activitySlotCounter.invalidate(activityId);
+            }
+            return saved;
+        }
+        
+        activitySlotCounter.markFull(activityId);
+        if (!activitySlotCounter.isWaitlistEnabled(activityId)) {
+            throw new RuntimeException("活动报名人数已满");
+        }
+        saved.setStatus(5); // 5-候补
+        logger.info("活动已满员，进入候补: activityId={}, userId={}", activityId, userId);
+        return activityParticipantRepository.save(saved);
     }
 
     @Override
@@ -55,7 +107,7 @@ public class ActivityParticipantServiceImpl implements ActivityParticipantServic
         logger.info("取消报名: activityId={}, userId={}", activityId, userId);
         
         Optional<ActivityParticipant> participantOpt = 
-            activityParticipantRepository.findByActivityIdAndUserId(activityId, userId);
+            activityParticipantRepository.findByActivityIdAndUserIdForUpdate(activityId, userId);
         
         if (!participantOpt.isPresent()) {
             throw new RuntimeException("未找到报名记录");
@@ -67,6 +119,22 @@ public class ActivityParticipantServiceImpl implements ActivityParticipantServic
         }
         
         activityParticipantRepository.delete(participant);
+        adjustCounters(activityId, participant.getStatus(), null);
+        if (!participant.isWaitlisted()) {
+            promoteOrRelease(activityId);
+        }
+    }
+
+    @Override
+    public int promoteWaitlisted(Long activityId) {
+        int promoted = 0;
+        while (promoteFirstWaitlisted(activityId)) {
+            promoted++;
+        }
+        if (promoted > 0) {
+            logger.info("人数上限调整后候补递补: activityId={}, promoted={}", activityId, promoted);
+        }
+        return promoted;
     }
 
     @Override
@@ -74,30 +142,76 @@ public class ActivityParticipantServiceImpl implements ActivityParticipantServic
         logger.info("签到: activityId={}, userId={}", activityId, userId);
         
         Optional<ActivityParticipant> participantOpt = 
-            activityParticipantRepository.findByActivityIdAndUserId(activityId, userId);
+            activityParticipantRepository.findByActivityIdAndUserIdForUpdate(activityId, userId);
         
         if (!participantOpt.isPresent()) {
             throw new RuntimeException("未找到报名记录");
         }
         
         ActivityParticipant participant = participantOpt.get();
+        if (participant.isWaitlisted()) {
+            throw new RuntimeException("候补中，无法签到");
+        }
+        Integer previous = participant.getStatus();
         participant.setStatus(2); // 2-已签到
         participant.setSignInTime(LocalDateTime.now());
         
         activityParticipantRepository.save(participant);
+        adjustCounters(activityId, previous, participant.getStatus());
     }
 
     @Override
-    public void batchCheckIn(Long activityId, List<Long> userIds) {
-        logger.info("批量签到: activityId={}, userIds={}", activityId, userIds);
-        
-        for (Long userId : userIds) {
-            try {
-                checkIn(activityId, userId);
-            } catch (Exception e) {
-                logger.warn("用户签到失败: userId={}, error={}", userId, e.getMessage());
+    public BatchCheckInResult batchCheckIn(Long activityId, List<Long> userIds) {
+        long start = System.currentTimeMillis();
+        BatchCheckInResult result = new BatchCheckInResult(activityId);
+        if (userIds == null || userIds.isEmpty()) {
+            return result;
+        }
+        logger.info("批量签到: activityId={}, 用户数={}", activityId, userIds.size());
+        
+        // 一次读取活动的全部参与记录并加锁，与单个签到、请假等状态变更互斥
+        Map<Long, Integer> statuses = new HashMap<>();
+        for (Object[] row : activityParticipantRepository.findUserStatusesByActivityIdForUpdate(activityId)) {
+            statuses.put(((Number) row[0]).longValue(), row[1] != null ? ((Number) row[1]).intValue() : null);
+        }
+        
+        // 候补者未占用名额，不能签到，与未报名一样单独列出
+        List<Long> toCheckIn = new ArrayList<>();
+        int leave = 0;
+        int absent = 0;
+        for (Long userId : new LinkedHashSet<>(userIds)) {
+            if (userId == null) {
+                continue;
+            }
+            if (!statuses.containsKey(userId)) {
+                result.addNotRegistered(userId);
+            } else if (Objects.equals(statuses.get(userId), 2)) {
+                result.addAlreadyCheckedIn(userId);
+            } else if (Objects.equals(statuses.get(userId), 5)) {
+                result.addWaitlisted(userId);
+            } else {
+                Integer previous = statuses.get(userId);
+                toCheckIn.add(userId);
+                result.addCheckedIn(userId);
+                leave += statusDelta(3, previous, 2);
+                absent += statusDelta(4, previous, 2);
             }
         }
+        
+        if (!toCheckIn.isEmpty()) {
+            LocalDateTime signInTime = LocalDateTime.now();
+            for (int from = 0; from < toCheckIn.size(); from += CHECK_IN_BATCH_SIZE) {
+                List<Long> batch = toCheckIn.subList(from, Math.min(from + CHECK_IN_BATCH_SIZE, toCheckIn.size()));
+                activityParticipantRepository.checkInAll(activityId, batch, signInTime);
+            }
+            activityRepository.adjustParticipantCounters(activityId, 0, toCheckIn.size(), leave, absent);
+            // 批量UPDATE不触发实体事件，签到统计在提交后整体重新加载
+            statisticsEngine.invalidateAfterCommit();
+        }
+        
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        logger.info("批量签到完成: {}", result);
+        return result;
     }
 
     @Override
@@ -105,17 +219,19 @@ public class ActivityParticipantServiceImpl implements ActivityParticipantServic
         logger.info("请假: activityId={}, userId={}, reason={}", activityId, userId, reason);
         
         Optional<ActivityParticipant> participantOpt = 
-            activityParticipantRepository.findByActivityIdAndUserId(activityId, userId);
+            activityParticipantRepository.findByActivityIdAndUserIdForUpdate(activityId, userId);
         
         if (!participantOpt.isPresent()) {
             throw new RuntimeException("未找到报名记录");
         }
         
         ActivityParticipant participant = participantOpt.get();
+        Integer previous = participant.getStatus();
         participant.setStatus(3); // 3-请假
         participant.setNotes(reason);
         
         activityParticipantRepository.save(participant);
+        adjustCounters(activityId, previous, participant.getStatus());
     }
 
     @Override
@@ -123,16 +239,18 @@ public class ActivityParticipantServiceImpl implements ActivityParticipantServic
         logger.info("标记缺席: activityId={}, userId={}", activityId, userId);
         
         Optional<ActivityParticipant> participantOpt = 
-            activityParticipantRepository.findByActivityIdAndUserId(activityId, userId);
+            activityParticipantRepository.findByActivityIdAndUserIdForUpdate(activityId, userId);
         
         if (!participantOpt.isPresent()) {
             throw new RuntimeException("未找到报名记录");
         }
         
         ActivityParticipant participant = participantOpt.get();
+        Integer previous = participant.getStatus();
         participant.setStatus(4); // 4-缺席
         
         activityParticipantRepository.save(participant);
+        adjustCounters(activityId, previous, participant.getStatus());
     }
 
     @Override
@@ -140,13 +258,14 @@ public class ActivityParticipantServiceImpl implements ActivityParticipantServic
         logger.info("更新参与状态: activityId={}, userId={}, status={}", activityId, userId, status);
         
         Optional<ActivityParticipant> participantOpt = 
-            activityParticipantRepository.findByActivityIdAndUserId(activityId, userId);
+            activityParticipantRepository.findByActivityIdAndUserIdForUpdate(activityId, userId);
         
         if (!participantOpt.isPresent()) {
             throw new RuntimeException("未找到报名记录");
         }
         
         ActivityParticipant participant = participantOpt.get();
+        Integer previous = participant.getStatus();
         participant.setStatus(status);
         
         // 根据状态设置相应的时间
@@ -155,6 +274,7 @@ public class ActivityParticipantServiceImpl implements ActivityParticipantServic
         }
         
         activityParticipantRepository.save(participant);
+        adjustCounters(activityId, previous, status);
     }
 
     @Override
@@ -169,6 +289,22 @@ public class ActivityParticipantServiceImpl implements ActivityParticipantServic
         return activityParticipantRepository.findByUserId(userId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserActivityView> findUserActivities(Long userId, Pageable pageable) {
+        return activityParticipantRepository.findActivityViewsByUserId(userId, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserActivityView> findUserActivities(Long userId, String after, int size) {
+        long beforeId = after != null && !after.isEmpty() ? Cursor.decode(after).getId() : Long.MAX_VALUE;
+        // 多取一行判断是否还有下一页
+        List<UserActivityView> rows = activityParticipantRepository.findActivityViewsByUserIdBefore(
+                userId, beforeId, PageRequest.of(0, size + 1));
+        return CursorPage.of(rows, size, view -> Cursor.of(view.getParticipantId()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<ActivityParticipant> findByActivityIdAndUserId(Long activityId, Long userId) {
@@ -228,12 +364,17 @@ public class ActivityParticipantServiceImpl implements ActivityParticipantServic
     public void deleteByActivityId(Long activityId) {
         logger.info("删除活动的所有参与记录: activityId={}", activityId);
         activityParticipantRepository.deleteByActivityId(activityId);
+        activityRepository.recountParticipantCounters(Collections.singletonList(activityId));
     }
 
     @Override
     public void deleteByUserId(Long userId) {
         logger.info("删除用户的所有参与记录: userId={}", userId);
+        List<Long> activityIds = activityParticipantRepository.findActivityIdsByUserId(userId);
         activityParticipantRepository.deleteByUserId(userId);
+        if (!activityIds.isEmpty()) {
+            activityRepository.recountParticipantCounters(activityIds);
+        }
     }
 
     @Override
@@ -252,21 +393,23 @@ public class ActivityParticipantServiceImpl implements ActivityParticipantServic
     @Transactional(readOnly = true)
     public Object getActivityParticipantStatistics(Long activityId) {
         Map<String, Object> statistics = new HashMap<>();
+        // 直接读取活动表上的计数，不扫描参与记录
+        Optional<Activity> activityOpt = activityRepository.findById(activityId);
         
         // 总参与人数
-        Long totalParticipants = countByActivityId(activityId);
+        long totalParticipants = activityOpt.map(Activity::getParticipantCount).orElse(0);
         statistics.put("totalParticipants", totalParticipants);
         
         // 已签到人数
-        Long signedInCount = countSignedInByActivityId(activityId);
+        long signedInCount = activityOpt.map(Activity::getSignedInCount).orElse(0);
         statistics.put("signedInCount", signedInCount);
         
         // 请假人数
-        Long onLeaveCount = countOnLeaveByActivityId(activityId);
+        long onLeaveCount = activityOpt.map(Activity::getLeaveCount).orElse(0);
         statistics.put("onLeaveCount", onLeaveCount);
         
         // 缺席人数
-        Long absentCount = countAbsentByActivityId(activityId);
+        long absentCount = activityOpt.map(Activity::getAbsentCount).orElse(0);
         statistics.put("absentCount", absentCount);
         
         // 签到率
@@ -297,4 +440,54 @@ public class ActivityParticipantServiceImpl implements ActivityParticipantServic
         
         return statistics;
     }
+
+    // ==================== 计数维护 ====================
+
+    /**
+     * 释放名额后按报名顺序递补最早的候补者，没有候补时归还内存名额
+     */
+    private void promoteOrRelease(Long activityId) {
+        if (!promoteFirstWaitlisted(activityId)) {
+            activitySlotCounter.releaseAfterCommit(activityId);
+        }
+    }
+
+    /**
+     * 以数据库条件更新占用一个名额，由最早的候补者递补
+     * @return 有候补者且仍有名额时返回true
+     */
+    private boolean promoteFirstWaitlisted(Long activityId) {
+        Optional<ActivityParticipant> waitlisted =
+            activityParticipantRepository.findFirstByActivityIdAndStatusOrderByIdAsc(activityId, 5);
+        if (!waitlisted.isPresent() || activityRepository.incrementSignedUpIfAvailable(activityId) <= 0) {
+            return false;
+        }
+        ActivityParticipant promoted = waitlisted.get();
+        promoted.setStatus(1); // 1-已报名
+        activityParticipantRepository.save(promoted);
+        logger.info("候补递补报名: activityId={}, userId={}", activityId, promoted.getUserId());
+        return true;
+    }
+
+    /**
+     * 按状态变化调整活动计数，fromStatus为空表示新增记录，toStatus为空表示删除记录，候补记录不占名额
+     */
+    private void adjustCounters(Long activityId, Integer fromStatus, Integer toStatus) {
+        if (Objects.equals(fromStatus, toStatus)) {
+            return;
+        }
+        int signedUp = (holdsSlot(toStatus) ? 1 : 0) - (holdsSlot(fromStatus) ? 1 : 0);
+        activityRepository.adjustParticipantCounters(activityId, signedUp,
+                statusDelta(2, fromStatus, toStatus),
+                statusDelta(3, fromStatus, toStatus),
+                statusDelta(4, fromStatus, toStatus));
+    }
+
+    private static boolean holdsSlot(Integer status) {
+        return status != null && status != 5;
+    }
+
+    private static int statusDelta(int status, Integer fromStatus, Integer toStatus) {
+        return (Objects.equals(toStatus, status) ? 1 : 0) - (Objects.equals(fromStatus, status) ? 1 : 0);
+    }
 }
\ No newline at end of file
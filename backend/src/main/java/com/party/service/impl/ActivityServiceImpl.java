@@ -1,5 +1,8 @@
 package com.party.service.impl;
 
+import com.party.common.batch.BatchResult;
+import com.party.common.pagination.Cursor;
+import com.party.common.pagination.CursorPage;
 import com.party.entity.Activity;
 import com.party.repository.ActivityRepository;
 import com.party.service.ActivityService;
@@ -18,8 +21,10 @@ import org.springframework.util.StringUtils;
 import javax.persistence.criteria.Predicate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 活动服务实现类
@@ -47,6 +52,9 @@ public class ActivityServiceImpl implements ActivityService {
         if (activity.getIsRequired() == null) {
             activity.setIsRequired(false);
         }
+        if (activity.getWaitlistEnabled() == null) {
+            activity.setWaitlistEnabled(false);
+        }
         
         return activityRepository.save(activity);
     }
@@ -90,8 +98,44 @@ public class ActivityServiceImpl implements ActivityService {
     public Page<Activity> findByConditions(String title, Integer type, Integer status, 
                                           Long organizationId, LocalDateTime startTime, 
                                           LocalDateTime endTime, Pageable pageable) {
-        
-        Specification<Activity> spec = (root, query, criteriaBuilder) -> {
+        Specification<Activity> spec = conditionsOf(title, type, status, organizationId, startTime, endTime);
+        return activityRepository.findAll(spec, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Activity> findByConditions(String title, Integer type, Integer status,
+                                                 Long organizationId, LocalDateTime startTime,
+                                                 LocalDateTime endTime, String after, int size, boolean withTotal) {
+        LocalDateTime beforeTime = Cursor.MAX_DATE_TIME;
+        long beforeId = Long.MAX_VALUE;
+        if (StringUtils.hasText(after)) {
+            Cursor cursor = Cursor.decode(after);
+            beforeTime = cursor.getKeyAsDateTime();
+            beforeId = cursor.getId();
+            if (beforeTime == null) {
+                throw new IllegalArgumentException("无效的分页游标: " + after);
+            }
+        }
+        // 多取一行判断是否还有下一页
+        List<Activity> rows = activityRepository.findByConditionsBefore(StringUtils.hasText(title) ? title : null,
+                type, status, organizationId, startTime, endTime, beforeTime, beforeId, PageRequest.of(0, size + 1));
+        CursorPage<Activity> page = CursorPage.of(rows, size,
+                activity -> Cursor.of(activity.getCreatedAt(), activity.getId()));
+        if (withTotal) {
+            page = page.withTotal(activityRepository.count(
+                    conditionsOf(title, type, status, organizationId, startTime, endTime)));
+        }
+        return page;
+    }
+
+    /**
+     * 活动多条件查询的过滤条件
+     */
+    private Specification<Activity> conditionsOf(String title, Integer type, Integer status,
+                                                 Long organizationId, LocalDateTime startTime,
+                                                 LocalDateTime endTime) {
+        return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
             
             // 标题模糊查询
@@ -126,8 +170,6 @@ public class ActivityServiceImpl implements ActivityService {
             
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
-        
-        return activityRepository.findAll(spec, pageable);
     }
 
     @Override
@@ -185,14 +227,26 @@ public class ActivityServiceImpl implements ActivityService {
     }
 
     @Override
-    public void batchDeleteActivities(List<Long> ids) {
+    public BatchResult<Long> batchDeleteActivities(List<Long> ids) {
         logger.info("批量删除活动: {}", ids);
+        BatchResult<Long> result = new BatchResult<>(ids.size());
         
-        for (Long id : ids) {
-            if (activityRepository.existsById(id)) {
-                activityRepository.deleteById(id);
+        // 一次IN查询加载全部活动，逐个删除以触发级联和实体监听，DELETE语句在刷新时按批提交
+        List<Activity> activities = activityRepository.findAllById(ids);
+        Set<Long> foundIds = new HashSet<>();
+        activities.forEach(activity -> foundIds.add(activity.getId()));
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (foundIds.contains(id)) {
+                result.addSuccess(id);
+            } else {
+                result.addError(i, id, "活动不存在");
             }
         }
+        activityRepository.deleteAll(activities);
+        
+        logger.info("批量删除活动完成: 成功={}, 失败={}", result.getSuccessCount(), result.getFailureCount());
+        return result;
     }
 
     @Override
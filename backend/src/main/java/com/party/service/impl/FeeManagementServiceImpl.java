@@ -1,14 +1,26 @@
 package com.party.service.impl;
 
+import com.party.common.pagination.Cursor;
+import com.party.common.pagination.CursorPage;
+import com.party.dto.FeePaymentGenerationResult;
+import com.party.dto.FeePaymentSummary;
 import com.party.entity.*;
+import com.party.export.ExportFormat;
+import com.party.export.ExportJob;
+import com.party.export.ExportJobManager;
+import com.party.fee.FeePaymentExporter;
+import com.party.fee.FeePaymentGenerator;
+import com.party.fee.FeeStandardIndex;
 import com.party.repository.*;
 import com.party.service.FeeManagementService;
 import com.party.service.OperationLogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
@@ -40,6 +52,18 @@ public class FeeManagementServiceImpl implements FeeManagementService {
     @Autowired
     private OperationLogService operationLogService;
     
+    @Autowired
+    private FeePaymentGenerator feePaymentGenerator;
+    
+    @Autowired
+    private FeeStandardIndex feeStandardIndex;
+    
+    @Autowired
+    private FeePaymentExporter feePaymentExporter;
+    
+    @Autowired
+    private ExportJobManager exportJobManager;
+    
     // ==================== 党费标准管理 ====================
     
     @Override
@@ -50,6 +74,7 @@ public class FeeManagementServiceImpl implements FeeManagementService {
         }
         
         FeeStandard saved = feeStandardRepository.save(feeStandard);
+        feeStandardIndex.reloadAfterCommit();
         operationLogService.log("CREATE_FEE_STANDARD", "党费管理", 
                 "创建党费标准: 收入范围 " + feeStandard.getIncomeMin() + "-" + feeStandard.getIncomeMax() +
                         ", 缴费比例: " + feeStandard.getFeeRate() + "%");
@@ -76,6 +101,7 @@ public class FeeManagementServiceImpl implements FeeManagementService {
         existing.setStatus(feeStandard.getStatus());
         
         FeeStandard saved = feeStandardRepository.save(existing);
+        feeStandardIndex.reloadAfterCommit();
         operationLogService.log("UPDATE_FEE_STANDARD", "党费管理", 
                 "更新党费标准: 收入范围 " + feeStandard.getIncomeMin() + "-" + feeStandard.getIncomeMax() +
                         ", 缴费比例: " + feeStandard.getFeeRate() + "%");
@@ -94,6 +120,7 @@ public class FeeManagementServiceImpl implements FeeManagementService {
         }
         
         feeStandardRepository.delete(feeStandard);
+        feeStandardIndex.reloadAfterCommit();
         operationLogService.log("DELETE_FEE_STANDARD", "党费管理", 
             "删除党费标准: " + feeStandard.getName());
     }
@@ -120,7 +147,7 @@ public class FeeManagementServiceImpl implements FeeManagementService {
     @Override
     @Transactional(readOnly = true)
     public FeeStandard findApplicableFeeStandard(BigDecimal income) {
-        return feeStandardRepository.findMostApplicableStandard(income).orElse(null);
+        return feeStandardIndex.find(income);
     }
     
     @Override
@@ -130,6 +157,7 @@ public class FeeManagementServiceImpl implements FeeManagementService {
         
         feeStandard.setStatus(FeeStandard.FeeStandardStatus.ACTIVE);
         feeStandardRepository.save(feeStandard);
+        feeStandardIndex.reloadAfterCommit();
         
         operationLogService.log("ENABLE_FEE_STANDARD", "党费管理", 
             "启用党费标准: " + feeStandard.getName());
@@ -142,6 +170,7 @@ public class FeeManagementServiceImpl implements FeeManagementService {
         
         feeStandard.setStatus(FeeStandard.FeeStandardStatus.INACTIVE);
         feeStandardRepository.save(feeStandard);
+        feeStandardIndex.reloadAfterCommit();
         
         operationLogService.log("DISABLE_FEE_STANDARD", "党费管理", 
             "禁用党费标准: " + feeStandard.getName());
@@ -207,6 +236,34 @@ public class FeeManagementServiceImpl implements FeeManagementService {
         return feePaymentRepository.findAll(pageable);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<FeePayment> getFeePayments(String after, int size, boolean withTotal) {
+        int beforeYear = Integer.MAX_VALUE;
+        int beforeMonth = Integer.MAX_VALUE;
+        long beforeId = Long.MAX_VALUE;
+        if (after != null && !after.isEmpty()) {
+            // 排序键为 年份*100+月份
+            Cursor cursor = Cursor.decode(after);
+            Long period = cursor.getKeyAsLong();
+            if (period == null) {
+                throw new IllegalArgumentException("无效的分页游标: " + after);
+            }
+            beforeYear = (int) (period / 100);
+            beforeMonth = (int) (period % 100);
+            beforeId = cursor.getId();
+        }
+        // 多取一行判断是否还有下一页
+        List<FeePayment> rows = feePaymentRepository.findBefore(beforeYear, beforeMonth, beforeId,
+            PageRequest.of(0, size + 1));
+        CursorPage<FeePayment> page = CursorPage.of(rows, size,
+            payment -> Cursor.of(payment.getPaymentYear() * 100 + payment.getPaymentMonth(), payment.getId()));
+        if (withTotal) {
+            page = page.withTotal(feePaymentRepository.count());
+        }
+        return page;
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public Page<FeePayment> getFeePaymentsByMember(Long memberId, Pageable pageable) {
@@ -239,28 +296,20 @@ public class FeeManagementServiceImpl implements FeeManagementService {
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int batchCreateFeePayments(Integer year, Integer month) {
-        List<PartyMember> activeMembers = partyMemberRepository.findByStatus(PartyMember.MemberStatus.ACTIVE);
-        int count = 0;
-        
-        for (PartyMember member : activeMembers) {
-            // 检查是否已存在缴费记录
-            if (!feePaymentRepository.findByMemberAndPaymentYearAndPaymentMonth(member, year, month).isPresent()) {
-                FeePayment payment = new FeePayment();
-                payment.setMember(member);
-                payment.setPaymentYear(year);
-                payment.setPaymentMonth(month);
-                payment.setStatus(FeePayment.PaymentStatus.PENDING);
-                
-                feePaymentRepository.save(payment);
-                count++;
-            }
-        }
+        return generateFeePayments(year, month).getCreated();
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FeePaymentGenerationResult generateFeePayments(Integer year, Integer month) {
+        FeePaymentGenerationResult result = feePaymentGenerator.generate(year, month);
         
         operationLogService.log("BATCH_CREATE_FEE_PAYMENTS", "党费管理", 
-            "批量创建" + year + "年" + month + "月缴费记录，共" + count + "条");
+            "批量创建" + year + "年" + month + "月缴费记录，共" + result.getCreated() + "条");
         
-        return count;
+        return result;
     }
     
     @Override
@@ -270,7 +319,16 @@ public class FeeManagementServiceImpl implements FeeManagementService {
             .orElseThrow(() -> new EntityNotFoundException("党员不存在"));
         
         FeeStandard standard = findApplicableFeeStandard(income);
-        return standard.calculateFee(income);
+        if (standard == null) {
+            throw new IllegalArgumentException("没有适用的党费标准");
+        }
+        return FeeStandardIndex.calculateFee(standard, income);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> calculateMemberFees(Map<Long, BigDecimal> incomes) {
+        return feeStandardIndex.calculateFees(incomes);
     }
     
     @Override
@@ -303,47 +361,39 @@ public class FeeManagementServiceImpl implements FeeManagementService {
     
     // ==================== 统计分析 ====================
     
+    @Override
+    @Transactional(readOnly = true)
+    public FeePaymentSummary getFeePaymentSummary(Integer startYear, Integer endYear) {
+        if (startYear == null || endYear == null) {
+            throw new IllegalArgumentException("年份不能为空");
+        }
+        if (startYear > endYear) {
+            return new FeePaymentSummary(Collections.emptyList());
+        }
+        return new FeePaymentSummary(feePaymentRepository.aggregateByYearRange(startYear, endYear));
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> getFeeIncomeStatistics(Integer year) {
-        BigDecimal totalIncome = feePaymentRepository.sumFeeAmountByYearAndStatus(year, FeePayment.PaymentStatus.PAID);
-        Long totalCount = (long) feePaymentRepository.findByPaymentYear(year).size();
-        Long paidCount = feePaymentRepository.findByPaymentYear(year).stream()
-            .filter(p -> p.getStatus() == FeePayment.PaymentStatus.PAID).count();
-        Long pendingCount = feePaymentRepository.findByPaymentYear(year).stream()
-            .filter(p -> p.getStatus() == FeePayment.PaymentStatus.PENDING).count();
-        Long overdueCount = feePaymentRepository.findByPaymentYear(year).stream()
-            .filter(p -> p.getStatus() == FeePayment.PaymentStatus.OVERDUE).count();
-        
-        Map<String, Object> statistics = new HashMap<>();
-        statistics.put("year", year);
-        statistics.put("totalIncome", totalIncome != null ? totalIncome : BigDecimal.ZERO);
-        statistics.put("totalCount", totalCount);
-        statistics.put("paidCount", paidCount);
-        statistics.put("pendingCount", pendingCount);
-        statistics.put("overdueCount", overdueCount);
-        statistics.put("paymentRate", totalCount > 0 ? (double) paidCount / totalCount * 100 : 0);
-        
-        return statistics;
+        return toIncomeStatistics(year, getFeePaymentSummary(year, year));
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<Map<String, Object>> getMonthlyFeeIncomeStatistics(Integer year) {
+        FeePaymentSummary summary = getFeePaymentSummary(year, year);
         List<Map<String, Object>> monthlyStats = new ArrayList<>();
         
         for (int month = 1; month <= 12; month++) {
-            BigDecimal monthlyIncome = feePaymentRepository.sumFeeAmountByYearMonthAndStatus(year, month, FeePayment.PaymentStatus.PAID);
-            Long monthlyCount = (long) feePaymentRepository.findByPaymentYearAndPaymentMonth(year, month).size();
-            Long paidCount = feePaymentRepository.countByPaymentYearAndPaymentMonthAndStatus(
-                year, month, FeePayment.PaymentStatus.PAID);
+            FeePaymentSummary monthly = summary.forMonth(year, month);
             
             Map<String, Object> monthStat = new HashMap<>();
             monthStat.put("month", month);
-            monthStat.put("income", monthlyIncome != null ? monthlyIncome : BigDecimal.ZERO);
-            monthStat.put("totalCount", monthlyCount);
-            monthStat.put("paidCount", paidCount);
-            monthStat.put("paymentRate", monthlyCount > 0 ? (double) paidCount / monthlyCount * 100 : 0);
+            monthStat.put("income", monthly.getAmount(FeePayment.PaymentStatus.PAID));
+            monthStat.put("totalCount", monthly.getTotalCount());
+            monthStat.put("paidCount", monthly.getCount(FeePayment.PaymentStatus.PAID));
+            monthStat.put("paymentRate", monthly.getPaymentRate());
             
             monthlyStats.add(monthStat);
         }
@@ -355,12 +405,10 @@ public class FeeManagementServiceImpl implements FeeManagementService {
     @Transactional(readOnly = true)
     public Map<String, Object> getMemberPaymentStatistics(Integer year, Integer month) {
         Long totalMembers = partyMemberRepository.countByStatus(PartyMember.MemberStatus.ACTIVE);
-        Long paidMembers = feePaymentRepository.countByPaymentYearAndPaymentMonthAndStatus(
-            year, month, FeePayment.PaymentStatus.PAID);
-        Long pendingMembers = feePaymentRepository.countByPaymentYearAndPaymentMonthAndStatus(
-            year, month, FeePayment.PaymentStatus.PENDING);
-        Long overdueMembers = feePaymentRepository.countByPaymentYearAndPaymentMonthAndStatus(
-            year, month, FeePayment.PaymentStatus.OVERDUE);
+        FeePaymentSummary monthly = getFeePaymentSummary(year, year).forMonth(year, month);
+        Long paidMembers = monthly.getCount(FeePayment.PaymentStatus.PAID);
+        Long pendingMembers = monthly.getCount(FeePayment.PaymentStatus.PENDING);
+        Long overdueMembers = monthly.getCount(FeePayment.PaymentStatus.OVERDUE);
         
         Map<String, Object> statistics = new HashMap<>();
         statistics.put("year", year);
@@ -385,21 +433,15 @@ public class FeeManagementServiceImpl implements FeeManagementService {
     @Override
     @Transactional(readOnly = true)
     public List<Map<String, Object>> getPaymentMethodStatistics(Integer year) {
+        FeePaymentSummary summary = getFeePaymentSummary(year, year);
         List<Map<String, Object>> methodStats = new ArrayList<>();
         
         for (FeePayment.PaymentMethod method : FeePayment.PaymentMethod.values()) {
-            Long count = feePaymentRepository.findByPaymentYear(year).stream()
-                .filter(p -> p.getPaymentMethod() == method).count();
-            BigDecimal amount = feePaymentRepository.findByPaymentYear(year).stream()
-                .filter(p -> p.getPaymentMethod() == method && p.getFeeAmount() != null)
-                .map(FeePayment::getFeeAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
             Map<String, Object> methodStat = new HashMap<>();
             methodStat.put("method", method.name());
             methodStat.put("methodName", getPaymentMethodName(method));
-            methodStat.put("count", count);
-            methodStat.put("amount", amount != null ? amount : BigDecimal.ZERO);
+            methodStat.put("count", summary.getCount(method));
+            methodStat.put("amount", summary.getAmount(method));
             
             methodStats.add(methodStat);
         }
@@ -437,11 +479,11 @@ public class FeeManagementServiceImpl implements FeeManagementService {
     @Override
     @Transactional(readOnly = true)
     public List<Map<String, Object>> getFeePaymentTrend(Integer startYear, Integer endYear) {
+        FeePaymentSummary summary = getFeePaymentSummary(startYear, endYear);
         List<Map<String, Object>> trendData = new ArrayList<>();
         
         for (int year = startYear; year <= endYear; year++) {
-            Map<String, Object> yearData = getFeeIncomeStatistics(year);
-            trendData.add(yearData);
+            trendData.add(toIncomeStatistics(year, summary.forYear(year)));
         }
         
         return trendData;
@@ -450,32 +492,49 @@ public class FeeManagementServiceImpl implements FeeManagementService {
     // ==================== 导出功能 ====================
     
     @Override
-    @Transactional(readOnly = true)
-    public String exportFeePayments(Integer year, Integer month, Long organizationId) {
-        // 实际实现需要根据具体的导出需求来完成
-        // 这里返回一个模拟的文件路径
-        String fileName = String.format("fee_payments_%d_%02d.xlsx", year, month);
+    public ExportJob exportFeePayments(Integer year, Integer month, Long organizationId) {
+        if (year == null || month == null || month < 1 || month > 12) {
+            throw new IllegalArgumentException("缴费年月无效");
+        }
+        String baseName = String.format("fee_payments_%d_%02d", year, month);
+        ExportJob job = exportJobManager.submit("缴费记录", baseName, ExportFormat.XLSX,
+            (writer, current) -> feePaymentExporter.writeMonthlyPayments(year, month, organizationId, writer, current));
         operationLogService.log("EXPORT_FEE_PAYMENTS", "党费管理", 
             "导出" + year + "年" + month + "月缴费记录");
-        return "/exports/" + fileName;
-    }
-    
-    @Override
-    @Transactional(readOnly = true)
-    public String exportFeeStatistics(Integer year) {
-        String fileName = String.format("fee_statistics_%d.xlsx", year);
+        return job;
+    }
+    
+    @Override
+    public ExportJob exportFeeStatistics(Integer year) {
+        String baseName = String.format("fee_statistics_%d", year);
+        ExportJob job = exportJobManager.submit("党费统计", baseName, ExportFormat.XLSX, (writer, current) -> {
+            List<Map<String, Object>> monthlyStats = getMonthlyFeeIncomeStatistics(year);
+            current.setEstimatedRows(monthlyStats.size());
+            writer.header("月份", "缴费收入", "应缴人次", "已缴人次", "缴费率");
+            for (Map<String, Object> monthStat : monthlyStats) {
+                writer.cell(monthStat.get("month"))
+                    .cell(monthStat.get("income"))
+                    .cell(monthStat.get("totalCount"))
+                    .cell(monthStat.get("paidCount"))
+                    .cell(monthStat.get("paymentRate"))
+                    .endRow();
+                current.rowWritten();
+            }
+        });
         operationLogService.log("EXPORT_FEE_STATISTICS", "党费管理", 
             "导出" + year + "年统计报表");
-        return "/exports/" + fileName;
+        return job;
     }
     
     @Override
-    @Transactional(readOnly = true)
-    public String exportOverduePayments() {
-        String fileName = String.format("overdue_payments_%s.xlsx", LocalDate.now().toString());
+    public ExportJob exportOverduePayments() {
+        LocalDate now = LocalDate.now();
+        String baseName = String.format("overdue_payments_%s", now);
+        ExportJob job = exportJobManager.submit("逾期名单", baseName, ExportFormat.XLSX,
+            (writer, current) -> feePaymentExporter.writeOverduePayments(now.getYear(), now.getMonthValue(), writer, current));
         operationLogService.log("EXPORT_OVERDUE_PAYMENTS", "党费管理", 
             "导出逾期缴费名单");
-        return "/exports/" + fileName;
+        return job;
     }
     
     // ==================== 提醒功能 ====================
@@ -553,6 +612,21 @@ public class FeeManagementServiceImpl implements FeeManagementService {
             feeStandard.getEffectiveDate(), excludeId);
     }
     
+    /**
+     * 将年度汇总转换为收入统计
+     */
+    private Map<String, Object> toIncomeStatistics(Integer year, FeePaymentSummary summary) {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("year", year);
+        statistics.put("totalIncome", summary.getAmount(FeePayment.PaymentStatus.PAID));
+        statistics.put("totalCount", summary.getTotalCount());
+        statistics.put("paidCount", summary.getCount(FeePayment.PaymentStatus.PAID));
+        statistics.put("pendingCount", summary.getCount(FeePayment.PaymentStatus.PENDING));
+        statistics.put("overdueCount", summary.getCount(FeePayment.PaymentStatus.OVERDUE));
+        statistics.put("paymentRate", summary.getPaymentRate());
+        return statistics;
+    }
+    
     private String getPaymentMethodName(FeePayment.PaymentMethod method) {
         switch (method) {
             case CASH: return "现金";
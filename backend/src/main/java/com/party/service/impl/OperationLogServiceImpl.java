@@ -1,27 +1,41 @@
 package com.party.service.impl;
 
+import com.party.common.export.CsvWriter;
+import com.party.common.export.RowWriter;
+import com.party.common.export.XlsxWriter;
+import com.party.common.log.OperationLogPurger;
+import com.party.common.log.OperationLogPurger.PurgeReport;
+import com.party.common.log.OperationLogStatsCube;
+import com.party.common.pagination.Cursor;
+import com.party.common.pagination.CursorPage;
 import com.party.entity.OperationLog;
+import com.party.repository.OperationLogHourlyStatRepository;
 import com.party.repository.OperationLogRepository;
 import com.party.service.OperationLogService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import javax.servlet.http.HttpServletRequest;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * 操作日志服务实现类
@@ -35,9 +49,28 @@ public class OperationLogServiceImpl implements OperationLogService {
 
     private static final Logger logger = LoggerFactory.getLogger(OperationLogServiceImpl.class);
 
+    private static final String[] EXPORT_HEADERS = {"ID", "用户ID", "用户名", "操作类型", "操作模块", "操作描述",
+            "目标类型", "目标ID", "目标名称", "请求方法", "请求URL", "响应状态", "IP地址", "是否成功", "错误信息", "创建时间"};
+
+    private static final DateTimeFormatter EXPORT_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final int EXPORT_BUFFER_SIZE = 16 * 1024;
+
     @Autowired
     private OperationLogRepository operationLogRepository;
 
+    @Autowired
+    private OperationLogPurger operationLogPurger;
+
+    @Autowired
+    private OperationLogHourlyStatRepository operationLogHourlyStatRepository;
+
+    @Autowired
+    private OperationLogStatsCube operationLogStatsCube;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     // ==================== 基础CRUD操作 ====================
 
     @Override
@@ -125,6 +158,35 @@ public class OperationLogServiceImpl implements OperationLogService {
                 targetType, success, ipAddress, startTime, endTime, keyword, pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OperationLog> searchLogs(Long userId, String username, String operationType,
+                                              String operationModule, String targetType, Boolean success,
+                                              String ipAddress, LocalDateTime startTime, LocalDateTime endTime,
+                                              String keyword, String after, int size, boolean withTotal) {
+        LocalDateTime beforeTime = Cursor.MAX_DATE_TIME;
+        long beforeId = Long.MAX_VALUE;
+        if (after != null && !after.isEmpty()) {
+            Cursor cursor = Cursor.decode(after);
+            beforeTime = cursor.getKeyAsDateTime();
+            beforeId = cursor.getId();
+            if (beforeTime == null) {
+                throw new IllegalArgumentException("无效的分页游标: " + after);
+            }
+        }
+        // 多取一行判断是否还有下一页
+        List<OperationLog> rows = operationLogRepository.findByConditionsBefore(userId, username, operationType,
+                operationModule, targetType, success, ipAddress, startTime, endTime, keyword,
+                beforeTime, beforeId, PageRequest.of(0, size + 1));
+        CursorPage<OperationLog> page = CursorPage.of(rows, size, log -> Cursor.of(log.getCreatedAt(), log.getId()));
+        if (withTotal) {
+            page = page.withTotal(operationLogRepository.findByConditions(userId, username, operationType,
+                    operationModule, targetType, success, ipAddress, startTime, endTime, keyword,
+                    PageRequest.of(0, 1)).getTotalElements());
+        }
+        return page;
+    }
+
     // ==================== 日志记录操作 ====================
 
     @Override
@@ -238,71 +300,62 @@ public class OperationLogServiceImpl implements OperationLogService {
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> countByOperationTypeGrouped(LocalDateTime startTime, LocalDateTime endTime) {
-        List<Object[]> results = operationLogRepository.countByOperationTypeGrouped(startTime, endTime);
-        return results.stream().collect(Collectors.toMap(
-                result -> (String) result[0],
-                result -> (Long) result[1],
-                (existing, replacement) -> existing,
-                LinkedHashMap::new
-        ));
+        return toCountMap(operationLogHourlyStatRepository.sumByOperationType(startHourOf(startTime), endTime));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> countByOperationModuleGrouped(LocalDateTime startTime, LocalDateTime endTime) {
-        List<Object[]> results = operationLogRepository.countByOperationModuleGrouped(startTime, endTime);
-        return results.stream().collect(Collectors.toMap(
-                result -> (String) result[0],
-                result -> (Long) result[1],
-                (existing, replacement) -> existing,
-                LinkedHashMap::new
-        ));
+        return toCountMap(operationLogHourlyStatRepository.sumByOperationModule(startHourOf(startTime), endTime));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> countByUsernameGrouped(LocalDateTime startTime, LocalDateTime endTime) {
-        List<Object[]> results = operationLogRepository.countByUsernameGrouped(startTime, endTime);
-        return results.stream().collect(Collectors.toMap(
-                result -> (String) result[0],
-                result -> (Long) result[1],
-                (existing, replacement) -> existing,
-                LinkedHashMap::new
-        ));
+        return toCountMap(operationLogHourlyStatRepository.sumByUsername(startHourOf(startTime), endTime));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> countByDateGrouped(LocalDateTime startTime, LocalDateTime endTime) {
-        List<Object[]> results = operationLogRepository.countByDateGrouped(startTime, endTime);
-        return results.stream().collect(Collectors.toMap(
-                result -> result[0].toString(),
-                result -> (Long) result[1],
-                (existing, replacement) -> existing,
-                LinkedHashMap::new
-        ));
+        return toCountMap(operationLogHourlyStatRepository.sumByDate(startHourOf(startTime), endTime));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> getOperationStatistics(LocalDateTime startTime, LocalDateTime endTime) {
         Map<String, Object> statistics = new HashMap<>();
-        
-        // 总操作数
-        Long totalOperations = countByDateRange(startTime, endTime);
+        LocalDateTime startHour = startHourOf(startTime);
+
+        // 成功与失败操作数，与其他统计使用同一时间范围
+        long successOperations = 0;
+        long failedOperations = 0;
+        long totalExecutionTime = 0;
+        long maxExecutionTime = 0;
+        long timedOperations = 0;
+        for (Object[] row : operationLogHourlyStatRepository.sumBySuccess(startHour, endTime)) {
+            long count = toLong(row[1]);
+            if (Boolean.TRUE.equals(row[0])) {
+                successOperations = count;
+            } else {
+                failedOperations = count;
+            }
+            totalExecutionTime += toLong(row[2]);
+            maxExecutionTime = Math.max(maxExecutionTime, toLong(row[3]));
+            timedOperations += toLong(row[4]);
+        }
+        long totalOperations = successOperations + failedOperations;
         statistics.put("totalOperations", totalOperations);
-        
-        // 成功操作数
-        Long successOperations = countBySuccess(true);
         statistics.put("successOperations", successOperations);
-        
-        // 失败操作数
-        Long failedOperations = countBySuccess(false);
         statistics.put("failedOperations", failedOperations);
         
         // 成功率
         double successRate = totalOperations > 0 ? (double) successOperations / totalOperations * 100 : 0;
         statistics.put("successRate", Math.round(successRate * 100.0) / 100.0);
+
+        // 执行时间（毫秒），只在记录了执行时间的操作中平均
+        statistics.put("avgExecutionTime", timedOperations > 0 ? totalExecutionTime / timedOperations : 0);
+        statistics.put("maxExecutionTime", maxExecutionTime);
         
         // 按操作类型统计
         statistics.put("operationTypeStats", countByOperationTypeGrouped(startTime, endTime));
@@ -319,6 +372,50 @@ public class OperationLogServiceImpl implements OperationLogService {
         return statistics;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getHourlyStatistics(LocalDateTime startTime, LocalDateTime endTime) {
+        List<Map<String, Object>> hours = new ArrayList<>();
+        for (Object[] row : operationLogHourlyStatRepository.sumByHour(startHourOf(startTime), endTime)) {
+            long count = toLong(row[1]);
+            long timed = toLong(row[5]);
+            Map<String, Object> hour = new LinkedHashMap<>();
+            hour.put("hour", row[0]);
+            hour.put("operations", count);
+            hour.put("failedOperations", toLong(row[2]));
+            hour.put("avgExecutionTime", timed > 0 ? toLong(row[3]) / timed : 0);
+            hour.put("maxExecutionTime", toLong(row[4]));
+            hours.add(hour);
+        }
+        return hours;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildStatistics(LocalDateTime startTime, LocalDateTime endTime) {
+        return operationLogStatsCube.rebuild(startTime, endTime);
+    }
+
+    /**
+     * 小时统计按整点记录，起始时间所在的小时整体计入
+     */
+    private static LocalDateTime startHourOf(LocalDateTime startTime) {
+        return startTime.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static Map<String, Long> toCountMap(List<Object[]> results) {
+        return results.stream().collect(Collectors.toMap(
+                result -> result[0].toString(),
+                result -> toLong(result[1]),
+                (existing, replacement) -> existing,
+                LinkedHashMap::new
+        ));
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
     // ==================== 数据维护操作 ====================
 
     @Override
@@ -352,63 +449,36 @@ public class OperationLogServiceImpl implements OperationLogService {
     }
 
     @Override
-    public void cleanupOldLogs(LocalDateTime beforeTime) {
-        try {
-            operationLogRepository.deleteByCreatedAtBefore(beforeTime);
-            logger.info("清理{}之前的操作日志完成", beforeTime);
-        } catch (Exception e) {
-            logger.error("清理操作日志失败: {}", e.getMessage(), e);
-            throw new RuntimeException("清理操作日志失败", e);
-        }
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PurgeReport cleanupOldLogs(LocalDateTime beforeTime) {
+        // 不在事务中执行，每段删除单独提交
+        return operationLogPurger.purgeBefore(beforeTime);
     }
 
     @Override
-    public void cleanupOldLogs(int daysToKeep) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PurgeReport cleanupOldLogs(int daysToKeep) {
         LocalDateTime beforeTime = LocalDateTime.now().minusDays(daysToKeep);
-        cleanupOldLogs(beforeTime);
+        return cleanupOldLogs(beforeTime);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PurgeReport getLastCleanupReport() {
+        return operationLogPurger.getLastReport();
     }
 
     // ==================== 导出操作 ====================
 
     @Override
     @Transactional(readOnly = true)
-    public byte[] exportToCsv(LocalDateTime startTime, LocalDateTime endTime) {
+    public void exportToCsv(LocalDateTime startTime, LocalDateTime endTime, OutputStream out, boolean gzip) {
         try {
-            List<OperationLog> logs = operationLogRepository.findByCreatedAtBetween(startTime, endTime, null).getContent();
-            
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            OutputStreamWriter writer = new OutputStreamWriter(baos, StandardCharsets.UTF_8);
-            
-            // 写入CSV头部
-            writer.write("ID,用户ID,用户名,操作类型,操作模块,操作描述,目标类型,目标ID,目标名称,请求方法,请求URL,响应状态,IP地址,是否成功,错误信息,创建时间\n");
-            
-            // 写入数据
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            for (OperationLog log : logs) {
-                writer.write(String.format("%d,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s\n",
-                        log.getId(),
-                        log.getUserId() != null ? log.getUserId() : "",
-                        log.getUsername() != null ? log.getUsername() : "",
-                        log.getOperationType() != null ? log.getOperationType() : "",
-                        log.getOperationModule() != null ? log.getOperationModule() : "",
-                        log.getOperationDescription() != null ? log.getOperationDescription() : "",
-                        log.getTargetType() != null ? log.getTargetType() : "",
-                        log.getTargetId() != null ? log.getTargetId() : "",
-                        log.getTargetName() != null ? log.getTargetName() : "",
-                        log.getRequestMethod() != null ? log.getRequestMethod() : "",
-                        log.getRequestUrl() != null ? log.getRequestUrl() : "",
-                        log.getResponseStatus() != null ? log.getResponseStatus() : "",
-                        log.getIpAddress() != null ? log.getIpAddress() : "",
-                        log.getSuccess() != null ? (log.getSuccess() ? "成功" : "失败") : "",
-                        log.getErrorMessage() != null ? log.getErrorMessage() : "",
-                        log.getCreatedAt() != null ? log.getCreatedAt().format(formatter) : ""
-                ));
+            OutputStream target = gzip ? new GZIPOutputStream(out, EXPORT_BUFFER_SIZE) : out;
+            try (CsvWriter writer = new CsvWriter(target, true)) {
+                long rows = exportRows(writer, startTime, endTime);
+                logger.info("导出操作日志CSV完成: {} ~ {}, 共{}条", startTime, endTime, rows);
             }
-            
-            writer.flush();
-            writer.close();
-            
-            return baos.toByteArray();
         } catch (IOException e) {
             logger.error("导出CSV失败: {}", e.getMessage(), e);
             throw new RuntimeException("导出CSV失败", e);
@@ -417,10 +487,50 @@ public class OperationLogServiceImpl implements OperationLogService {
 
     @Override
     @Transactional(readOnly = true)
-    public byte[] exportToExcel(LocalDateTime startTime, LocalDateTime endTime) {
-        // 这里可以使用Apache POI来生成Excel文件
-        // 为了简化，暂时返回CSV格式
-        return exportToCsv(startTime, endTime);
+    public void exportToExcel(LocalDateTime startTime, LocalDateTime endTime, OutputStream out) {
+        try (XlsxWriter writer = new XlsxWriter(out, "操作日志")) {
+            long rows = exportRows(writer, startTime, endTime);
+            logger.info("导出操作日志Excel完成: {} ~ {}, 共{}条", startTime, endTime, rows);
+        } catch (IOException e) {
+            logger.error("导出Excel失败: {}", e.getMessage(), e);
+            throw new RuntimeException("导出Excel失败", e);
+        }
+    }
+
+    /**
+     * 按时间顺序逐行写出操作日志
+     * @return 写出的日志条数
+     */
+    private long exportRows(RowWriter writer, LocalDateTime startTime, LocalDateTime endTime) throws IOException {
+        writer.header(EXPORT_HEADERS);
+        long rows = 0;
+        try (Stream<OperationLog> logs = operationLogRepository.streamByCreatedAtBetween(startTime, endTime)) {
+            Iterator<OperationLog> iterator = logs.iterator();
+            while (iterator.hasNext()) {
+                OperationLog log = iterator.next();
+                writer.cell(log.getId())
+                        .cell(log.getUserId())
+                        .cell(log.getUsername())
+                        .cell(log.getOperationType())
+                        .cell(log.getOperationModule())
+                        .cell(log.getOperationDescription())
+                        .cell(log.getTargetType())
+                        .cell(log.getTargetId())
+                        .cell(log.getTargetName())
+                        .cell(log.getRequestMethod())
+                        .cell(log.getRequestUrl())
+                        .cell(log.getResponseStatus())
+                        .cell(log.getIpAddress())
+                        .cell(log.getSuccess() != null ? (log.getSuccess() ? "成功" : "失败") : null)
+                        .cell(log.getErrorMessage())
+                        .cell(log.getCreatedAt() != null ? log.getCreatedAt().format(EXPORT_TIME_FORMATTER) : null)
+                        .endRow();
+                // 已写出的实体移出持久化上下文，内存占用不随导出行数增长
+                entityManager.detach(log);
+                rows++;
+            }
+        }
+        return rows;
     }
 
     // ==================== 私有辅助方法 ====================
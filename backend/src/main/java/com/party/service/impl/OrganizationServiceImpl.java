@@ -1,12 +1,24 @@
 package com.party.service.impl;
 
+import com.party.common.batch.BatchResult;
+import com.party.common.batch.BatchWriter;
+import com.party.common.cache.CacheNames;
+import com.party.common.exception.BusinessException;
+import com.party.common.pagination.Cursor;
+import com.party.common.pagination.CursorPage;
 import com.party.entity.Organization;
+import com.party.entity.OrganizationClosure;
+import com.party.organization.OrganizationTreeIndex;
+import com.party.repository.OrganizationClosureRepository;
 import com.party.repository.OrganizationRepository;
 import com.party.service.OrganizationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,7 +42,17 @@ public class OrganizationServiceImpl implements OrganizationService {
     @Autowired
     private OrganizationRepository organizationRepository;
 
+    @Autowired
+    private OrganizationClosureRepository organizationClosureRepository;
+
+    @Autowired
+    private OrganizationTreeIndex organizationTreeIndex;
+
+    @Autowired
+    private BatchWriter batchWriter;
+
     @Override
+    @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
     public Organization createOrganization(Organization organization) {
         logger.info("创建组织: {}", organization.getName());
         
@@ -62,11 +84,17 @@ public class OrganizationServiceImpl implements OrganizationService {
         }
         
         Organization savedOrganization = organizationRepository.save(organization);
+        organizationClosureRepository.insertSelfPath(savedOrganization.getId());
+        if (savedOrganization.getParentId() != null) {
+            organizationClosureRepository.insertAncestorPaths(savedOrganization.getId(), savedOrganization.getParentId());
+        }
+        organizationTreeIndex.reloadAfterCommit();
         logger.info("组织创建成功: ID={}, 名称={}", savedOrganization.getId(), savedOrganization.getName());
         return savedOrganization;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
     public Organization updateOrganization(Long id, Organization organization) {
         logger.info("更新组织: ID={}", id);
         
@@ -81,12 +109,13 @@ public class OrganizationServiceImpl implements OrganizationService {
         }
         
         // 验证父组织变更的合法性
-        if (organization.getParentId() != null && 
-            !Objects.equals(organization.getParentId(), existingOrganization.getParentId())) {
+        boolean parentChanged = organization.getParentId() != null &&
+            !Objects.equals(organization.getParentId(), existingOrganization.getParentId());
+        if (parentChanged) {
             
             // 不能将组织设置为自己的子组织
             if (!validateOrganizationHierarchy(id, organization.getParentId())) {
-                throw new RuntimeException("不能将组织设置为自己的子组织");
+                throw new BusinessException(400, "不能将组织设置为自己的子组织");
             }
             
             // 验证新父组织存在性
@@ -100,50 +129,26 @@ public class OrganizationServiceImpl implements OrganizationService {
         }
         
         // 更新字段
-        if (StringUtils.hasText(organization.getName())) {
-            existingOrganization.setName(organization.getName());
-        }
-        if (StringUtils.hasText(organization.getCode())) {
-            existingOrganization.setCode(organization.getCode());
-        }
-        if (organization.getType() != null) {
-            existingOrganization.setType(organization.getType());
-        }
+        applyChanges(existingOrganization, organization);
         if (organization.getParentId() != null) {
             existingOrganization.setParentId(organization.getParentId());
             existingOrganization.setLevel(organization.getLevel());
         }
-        if (organization.getSecretaryId() != null) {
-            existingOrganization.setSecretaryId(organization.getSecretaryId());
-        }
-        if (StringUtils.hasText(organization.getDescription())) {
-            existingOrganization.setDescription(organization.getDescription());
-        }
-        if (StringUtils.hasText(organization.getAddress())) {
-            existingOrganization.setAddress(organization.getAddress());
-        }
-        if (StringUtils.hasText(organization.getContactPhone())) {
-            existingOrganization.setContactPhone(organization.getContactPhone());
-        }
-        if (organization.getEstablishedDate() != null) {
-            existingOrganization.setEstablishedDate(organization.getEstablishedDate());
-        }
-        if (organization.getIsActive() != null) {
-            existingOrganization.setIsActive(organization.getIsActive());
-        }
         
         Organization updatedOrganization = organizationRepository.save(existingOrganization);
         
-        // 如果层级发生变化，需要更新所有子组织的层级
-        if (organization.getLevel() != null && !organization.getLevel().equals(existingOrganization.getLevel())) {
-            updateChildOrganizationsLevel(id);
+        // 父组织变更时整体移动子树，并更新子树内所有组织的层级
+        if (parentChanged) {
+            moveSubtree(id, organization.getParentId());
         }
+        organizationTreeIndex.reloadAfterCommit();
         
         logger.info("组织更新成功: ID={}, 名称={}", updatedOrganization.getId(), updatedOrganization.getName());
         return updatedOrganization;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
     public void deleteOrganization(Long id) {
         logger.info("删除组织: ID={}", id);
         
@@ -161,7 +166,9 @@ public class OrganizationServiceImpl implements OrganizationService {
             throw new RuntimeException("该组织下还有成员，无法删除");
         }
         
+        organizationClosureRepository.deleteByOrganizationId(id);
         organizationRepository.deleteById(id);
+        organizationTreeIndex.reloadAfterCommit();
         logger.info("组织删除成功: ID={}", id);
     }
 
@@ -196,6 +203,22 @@ public class OrganizationServiceImpl implements OrganizationService {
         return organizationRepository.findByConditions(name, type, level, isActive, pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Organization> findByConditions(String name, Integer type, Integer level,
+                                                     Boolean isActive, String after, int size, boolean withTotal) {
+        long afterId = StringUtils.hasText(after) ? Cursor.decode(after).getId() : 0L;
+        // 多取一行判断是否还有下一页
+        List<Organization> rows = organizationRepository.findByConditionsAfter(name, type, level, isActive,
+                afterId, PageRequest.of(0, size + 1));
+        CursorPage<Organization> page = CursorPage.of(rows, size, organization -> Cursor.of(organization.getId()));
+        if (withTotal) {
+            page = page.withTotal(organizationRepository.findByConditions(name, type, level, isActive,
+                    PageRequest.of(0, 1)).getTotalElements());
+        }
+        return page;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Organization> findByParentId(Long parentId) {
@@ -221,6 +244,7 @@ public class OrganizationServiceImpl implements OrganizationService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
     public void activateOrganization(Long id) {
         logger.info("激活组织: ID={}", id);
         
@@ -229,11 +253,13 @@ public class OrganizationServiceImpl implements OrganizationService {
         
         organization.setIsActive(true);
         organizationRepository.save(organization);
+        organizationTreeIndex.reloadAfterCommit();
         
         logger.info("组织激活成功: ID={}", id);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
     public void deactivateOrganization(Long id) {
         logger.info("停用组织: ID={}", id);
         
@@ -242,6 +268,7 @@ public class OrganizationServiceImpl implements OrganizationService {
         
         organization.setIsActive(false);
         organizationRepository.save(organization);
+        organizationTreeIndex.reloadAfterCommit();
         
         logger.info("组织停用成功: ID={}", id);
     }
@@ -261,20 +288,26 @@ public class OrganizationServiceImpl implements OrganizationService {
     @Override
     @Transactional(readOnly = true)
     public List<Organization> getOrganizationTree() {
-        List<Organization> allOrganizations = organizationRepository.findAll();
-        return buildOrganizationTree(allOrganizations, null);
+        return organizationTreeIndex.getTree();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Organization> getAllChildOrganizations(Long organizationId) {
-        return organizationRepository.findAllChildOrganizations(organizationId);
+        return organizationTreeIndex.getDescendants(organizationId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Organization> getAllParentOrganizations(Long organizationId) {
-        return organizationRepository.findAllParentOrganizations(organizationId);
+        return organizationTreeIndex.getAncestors(organizationId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.ORGANIZATIONS, key = "'subtreeMembers:' + #organizationId", sync = true)
+    public long countMembersInSubtree(Long organizationId) {
+        return organizationRepository.countMembersInSubtree(organizationId);
     }
 
     @Override
@@ -302,44 +335,120 @@ public class OrganizationServiceImpl implements OrganizationService {
     }
 
     @Override
-    public List<Organization> batchCreateOrganizations(List<Organization> organizations) {
+    @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
+    public BatchResult<Organization> batchCreateOrganizations(List<Organization> organizations) {
         logger.info("批量创建组织: 数量={}", organizations.size());
-        
-        List<Organization> createdOrganizations = new ArrayList<>();
-        for (Organization organization : organizations) {
-            try {
-                Organization createdOrganization = createOrganization(organization);
-                createdOrganizations.add(createdOrganization);
-            } catch (Exception e) {
-                logger.error("批量创建组织失败: 名称={}, 错误={}", organization.getName(), e.getMessage());
-                // 继续处理其他组织
+        long startTime = System.currentTimeMillis();
+        BatchResult<Organization> result = new BatchResult<>(organizations.size());
+        
+        Map<Integer, String> failures = validateBatchCodes(organizations, false);
+        Set<Long> parentIds = new HashSet<>();
+        for (int i = 0; i < organizations.size(); i++) {
+            if (!failures.containsKey(i) && organizations.get(i).getParentId() != null) {
+                parentIds.add(organizations.get(i).getParentId());
             }
         }
+        Map<Long, Organization> parents = batchWriter.findByIds(Organization.class, parentIds);
+        
+        List<Organization> accepted = new ArrayList<>();
+        for (int i = 0; i < organizations.size(); i++) {
+            Organization organization = organizations.get(i);
+            if (failures.containsKey(i)) {
+                result.addError(i, organization.getName(), failures.get(i));
+                continue;
+            }
+            if (organization.getParentId() != null) {
+                Organization parent = parents.get(organization.getParentId());
+                if (parent == null) {
+                    result.addError(i, organization.getName(), "父组织不存在: ID=" + organization.getParentId());
+                    continue;
+                }
+                organization.setLevel(parent.getLevel() + 1);
+            } else {
+                organization.setLevel(1);
+            }
+            organization.setId(null);
+            if (organization.getIsActive() == null) {
+                organization.setIsActive(true);
+            }
+            if (organization.getType() == null) {
+                organization.setType(1); // 默认为党支部
+            }
+            accepted.add(organization);
+        }
+        
+        batchWriter.persistAll(accepted);
+        batchWriter.persistAll(buildClosurePaths(accepted));
+        accepted.forEach(result::addSuccess);
+        if (!accepted.isEmpty()) {
+            organizationTreeIndex.reloadAfterCommit();
+        }
         
-        logger.info("批量创建组织完成: 成功={}, 总数={}", createdOrganizations.size(), organizations.size());
-        return createdOrganizations;
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        logger.info("批量创建组织完成: 成功={}, 失败={}, 总数={}, 耗时={}ms",
+                result.getSuccessCount(), result.getFailureCount(), organizations.size(), result.getElapsedMillis());
+        return result;
     }
 
     @Override
-    public List<Organization> batchUpdateOrganizations(List<Organization> organizations) {
+    @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
+    public BatchResult<Organization> batchUpdateOrganizations(List<Organization> organizations) {
         logger.info("批量更新组织: 数量={}", organizations.size());
+        long startTime = System.currentTimeMillis();
+        BatchResult<Organization> result = new BatchResult<>(organizations.size());
+        
+        Map<Integer, String> failures = validateBatchCodes(organizations, true);
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < organizations.size(); i++) {
+            if (failures.containsKey(i)) {
+                result.addError(i, organizations.get(i).getId(), failures.get(i));
+            } else {
+                accepted.add(i);
+            }
+        }
         
-        List<Organization> updatedOrganizations = new ArrayList<>();
-        for (Organization organization : organizations) {
+        // 父组织不变的组织分块批量更新，父组织变更的组织需要移动子树，留到最后逐个处理
+        List<Integer> moved = new ArrayList<>();
+        batchWriter.inChunks(accepted, chunk -> {
+            Map<Long, Organization> existingOrganizations = batchWriter.findByIds(Organization.class,
+                    chunk.stream().map(i -> organizations.get(i).getId()).collect(Collectors.toList()));
+            for (Integer index : chunk) {
+                Organization organization = organizations.get(index);
+                Organization existingOrganization = existingOrganizations.get(organization.getId());
+                if (existingOrganization == null) {
+                    result.addError(index, organization.getId(), "组织不存在: ID=" + organization.getId());
+                } else if (organization.getParentId() != null
+                        && !Objects.equals(organization.getParentId(), existingOrganization.getParentId())) {
+                    moved.add(index);
+                } else {
+                    applyChanges(existingOrganization, organization);
+                    result.addSuccess(existingOrganization);
+                }
+            }
+        });
+        
+        // 移动子树用原生语句更新层级，每个组织处理后清空持久化上下文，避免后续组织读到旧的层级
+        for (Integer index : moved) {
+            Organization organization = organizations.get(index);
             try {
-                Organization updatedOrganization = updateOrganization(organization.getId(), organization);
-                updatedOrganizations.add(updatedOrganization);
-            } catch (Exception e) {
-                logger.error("批量更新组织失败: ID={}, 错误={}", organization.getId(), e.getMessage());
-                // 继续处理其他组织
+                result.addSuccess(updateOrganization(organization.getId(), organization));
+                batchWriter.flushAndClear();
+            } catch (RuntimeException e) {
+                result.addError(index, organization.getId(), e.getMessage());
             }
         }
+        if (result.getSuccessCount() > 0) {
+            organizationTreeIndex.reloadAfterCommit();
+        }
         
-        logger.info("批量更新组织完成: 成功={}, 总数={}", updatedOrganizations.size(), organizations.size());
-        return updatedOrganizations;
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        logger.info("批量更新组织完成: 成功={}, 失败={}, 总数={}, 耗时={}ms",
+                result.getSuccessCount(), result.getFailureCount(), organizations.size(), result.getElapsedMillis());
+        return result;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
     public void batchDeleteOrganizations(List<Long> organizationIds) {
         logger.info("批量删除组织: 数量={}", organizationIds.size());
         
@@ -358,6 +467,7 @@ public class OrganizationServiceImpl implements OrganizationService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
     public void moveOrganization(Long organizationId, Long newParentId) {
         logger.info("移动组织: ID={}, 新父组织ID={}", organizationId, newParentId);
         
@@ -366,7 +476,7 @@ public class OrganizationServiceImpl implements OrganizationService {
         
         // 验证层级结构
         if (!validateOrganizationHierarchy(organizationId, newParentId)) {
-            throw new RuntimeException("不能将组织移动到自己的子组织下");
+            throw new BusinessException(400, "不能将组织移动到自己的子组织下");
         }
         
         // 计算新层级
@@ -383,8 +493,9 @@ public class OrganizationServiceImpl implements OrganizationService {
         organization.setLevel(newLevel);
         organizationRepository.save(organization);
         
-        // 更新所有子组织的层级
-        updateChildOrganizationsLevel(organizationId);
+        // 移动子树并更新子树内所有组织的层级
+        moveSubtree(organizationId, newParentId);
+        organizationTreeIndex.reloadAfterCommit();
         
         logger.info("组织移动成功: ID={}", organizationId);
     }
@@ -398,12 +509,14 @@ public class OrganizationServiceImpl implements OrganizationService {
         
         organization.setSecretaryId(secretaryId);
         organizationRepository.save(organization);
+        organizationTreeIndex.reloadAfterCommit();
         
         logger.info("组织书记设置成功: 组织ID={}, 书记ID={}", organizationId, secretaryId);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.ORGANIZATIONS, key = "'statistics'", sync = true)
     public Object getOrganizationStatistics() {
         Map<String, Object> statistics = new HashMap<>();
         
@@ -464,9 +577,8 @@ public class OrganizationServiceImpl implements OrganizationService {
             return false; // 不能设置自己为父组织
         }
         
-        // 检查是否会形成循环引用
-        List<Organization> childOrganizations = getAllChildOrganizations(organizationId);
-        return childOrganizations.stream().noneMatch(child -> child.getId().equals(parentId));
+        // 检查是否会形成循环引用：新父组织不能在当前组织的子树中
+        return !organizationClosureRepository.existsPath(organizationId, parentId);
     }
 
     @Override
@@ -478,40 +590,122 @@ public class OrganizationServiceImpl implements OrganizationService {
     @Override
     @Transactional(readOnly = true)
     public List<Organization> findLeafOrganizations() {
-        List<Organization> allOrganizations = organizationRepository.findAll();
-        return allOrganizations.stream()
-                .filter(org -> !org.hasChildren())
-                .collect(Collectors.toList());
+        return organizationTreeIndex.getLeaves();
     }
 
+    // ==================== 批量写入 ====================
+
     /**
-     * 构建组织树结构
+     * 校验批量创建或更新的组织编码，一次IN查询，同时检查本批内的重复
+     * @param update 是否为更新，更新时编码被本组织占用不算冲突
+     * @return 校验失败的条目序号到原因的映射
      */
-    private List<Organization> buildOrganizationTree(List<Organization> allOrganizations, Long parentId) {
-        return allOrganizations.stream()
-                .filter(org -> Objects.equals(org.getParentId(), parentId))
-                .peek(org -> {
-                    List<Organization> children = buildOrganizationTree(allOrganizations, org.getId());
-                    org.setChildOrganizations(children);
-                })
-                .collect(Collectors.toList());
+    private Map<Integer, String> validateBatchCodes(List<Organization> organizations, boolean update) {
+        Map<Integer, String> failures = new HashMap<>();
+        Set<Long> seenIds = new HashSet<>();
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < organizations.size(); i++) {
+            Organization organization = organizations.get(i);
+            if (update && organization.getId() == null) {
+                failures.put(i, "组织ID不能为空");
+            } else if (update && !seenIds.add(organization.getId())) {
+                failures.put(i, "组织ID在本批中重复: " + organization.getId());
+            } else if (!update && !StringUtils.hasText(organization.getName())) {
+                failures.put(i, "组织名称不能为空");
+            } else if (StringUtils.hasText(organization.getCode())) {
+                codes.add(organization.getCode());
+            }
+        }
+        
+        Map<Object, Long> owners = batchWriter.findOwners(Organization.class, "code", codes);
+        Set<String> claimed = new HashSet<>();
+        for (int i = 0; i < organizations.size(); i++) {
+            Organization organization = organizations.get(i);
+            String code = organization.getCode();
+            if (failures.containsKey(i) || !StringUtils.hasText(code)) {
+                continue;
+            }
+            Long owner = owners.get(code);
+            if (owner != null && !(update && owner.equals(organization.getId()))) {
+                failures.put(i, "组织编码已存在: " + code);
+            } else if (!claimed.add(code)) {
+                failures.put(i, "组织编码在本批中重复: " + code);
+            }
+        }
+        return failures;
     }
 
     /**
-     * 更新子组织层级
+     * 生成新组织的闭包表路径：到自身的一行，以及父组织每条上级路径延长一层的行
      */
-    private void updateChildOrganizationsLevel(Long parentId) {
-        List<Organization> childOrganizations = organizationRepository.findByParentId(parentId);
-        Organization parent = organizationRepository.findById(parentId).orElse(null);
-        
-        if (parent != null) {
-            for (Organization child : childOrganizations) {
-                child.setLevel(parent.getLevel() + 1);
-                organizationRepository.save(child);
-                // 递归更新子组织的子组织
-                updateChildOrganizationsLevel(child.getId());
+    private List<OrganizationClosure> buildClosurePaths(List<Organization> organizations) {
+        Set<Long> parentIds = organizations.stream()
+                .map(Organization::getParentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, List<OrganizationClosure>> parentPaths = parentIds.isEmpty() ? Collections.emptyMap()
+                : organizationClosureRepository.findByDescendantIdIn(parentIds).stream()
+                        .collect(Collectors.groupingBy(OrganizationClosure::getDescendantId));
+        
+        List<OrganizationClosure> paths = new ArrayList<>();
+        for (Organization organization : organizations) {
+            paths.add(new OrganizationClosure(organization.getId(), organization.getId(), 0));
+            if (organization.getParentId() != null) {
+                for (OrganizationClosure path : parentPaths.getOrDefault(organization.getParentId(),
+                        Collections.emptyList())) {
+                    paths.add(new OrganizationClosure(path.getAncestorId(), organization.getId(), path.getDepth() + 1));
+                }
             }
         }
+        return paths;
+    }
+
+    /**
+     * 将请求中非空的字段复制到已有组织，父组织和层级由调用方处理
+     */
+    private void applyChanges(Organization existingOrganization, Organization organization) {
+        if (StringUtils.hasText(organization.getName())) {
+            existingOrganization.setName(organization.getName());
+        }
+        if (StringUtils.hasText(organization.getCode())) {
+            existingOrganization.setCode(organization.getCode());
+        }
+        if (organization.getType() != null) {
+            existingOrganization.setType(organization.getType());
+        }
+        if (organization.getSecretaryId() != null) {
+            existingOrganization.setSecretaryId(organization.getSecretaryId());
+        }
+        if (StringUtils.hasText(organization.getDescription())) {
+            existingOrganization.setDescription(organization.getDescription());
+        }
+        if (StringUtils.hasText(organization.getAddress())) {
+            existingOrganization.setAddress(organization.getAddress());
+        }
+        if (StringUtils.hasText(organization.getContactPhone())) {
+            existingOrganization.setContactPhone(organization.getContactPhone());
+        }
+        if (organization.getEstablishedDate() != null) {
+            existingOrganization.setEstablishedDate(organization.getEstablishedDate());
+        }
+        if (organization.getIsActive() != null) {
+            existingOrganization.setIsActive(organization.getIsActive());
+        }
+    }
+
+    /**
+     * 移动子树：断开与原上级的路径，挂到新父组织下，再按闭包表重算层级
+     * 新父组织为自身或下级时挂接会生成重复路径，写入前按闭包表再校验一次
+     */
+    private void moveSubtree(Long organizationId, Long newParentId) {
+        if (newParentId != null && organizationClosureRepository.existsPath(organizationId, newParentId)) {
+            throw new BusinessException(400, "不能将组织移动到自己或下级组织下: ID=" + organizationId);
+        }
+        organizationClosureRepository.detachSubtree(organizationId);
+        if (newParentId != null) {
+            organizationClosureRepository.attachSubtree(organizationId, newParentId);
+        }
+        organizationRepository.updateSubtreeLevels(organizationId);
     }
 
     /**
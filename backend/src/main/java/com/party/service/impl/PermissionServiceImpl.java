@@ -1,8 +1,10 @@
 package com.party.service.impl;
 
+import com.party.common.cache.CacheNames;
 import com.party.entity.Permission;
 import com.party.entity.Role;
 import com.party.entity.User;
+import com.party.permission.PermissionIndex;
 import com.party.repository.PermissionRepository;
 import com.party.repository.RoleRepository;
 import com.party.repository.UserRepository;
@@ -11,7 +13,11 @@ import com.party.service.OperationLogService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -42,6 +48,9 @@ public class PermissionServiceImpl implements PermissionService {
     @Autowired
     private OperationLogService operationLogService;
 
+    @Autowired
+    private PermissionIndex permissionIndex;
+
     // ==================== 权限管理 ====================
 
     @Override
@@ -62,6 +71,7 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.PERMISSIONS, allEntries = true)
     public Permission updatePermission(Long id, Permission permission) {
         try {
             Optional<Permission> existingOpt = permissionRepository.findById(id);
@@ -70,6 +80,9 @@ public class PermissionServiceImpl implements PermissionService {
             }
             
             Permission existing = existingOpt.get();
+            if (!Objects.equals(existing.getCode(), permission.getCode())) {
+                permissionIndex.invalidatePermissionAfterCommit(existing.getCode());
+            }
             existing.setName(permission.getName());
             existing.setCode(permission.getCode());
             existing.setDescription(permission.getDescription());
@@ -90,6 +103,7 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.PERMISSIONS, allEntries = true)
     public void deletePermission(Long id) {
         try {
             Optional<Permission> permissionOpt = permissionRepository.findById(id);
@@ -99,6 +113,7 @@ public class PermissionServiceImpl implements PermissionService {
             
             Permission permission = permissionOpt.get();
             permissionRepository.deleteById(id);
+            permissionIndex.invalidatePermissionAfterCommit(permission.getCode());
             
             operationLogService.logSuccess("DELETE_PERMISSION", "权限管理", "删除权限: " + permission.getName());
             logger.info("删除权限成功: {}", permission.getName());
@@ -159,6 +174,7 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.PERMISSIONS, allEntries = true)
     public Role updateRole(Long id, Role role) {
         try {
             Optional<Role> existingOpt = roleRepository.findById(id);
@@ -184,6 +200,7 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.PERMISSIONS, allEntries = true)
     public void deleteRole(Long id) {
         try {
             Optional<Role> roleOpt = roleRepository.findById(id);
@@ -193,6 +210,7 @@ public class PermissionServiceImpl implements PermissionService {
             
             Role role = roleOpt.get();
             roleRepository.deleteById(id);
+            permissionIndex.invalidateRoleAfterCommit(id);
             
             operationLogService.logSuccess("DELETE_ROLE", "角色管理", "删除角色: " + role.getName());
             logger.info("删除角色成功: {}", role.getName());
@@ -222,6 +240,7 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.PERMISSIONS, allEntries = true)
     public void assignPermissionsToRole(Long roleId, List<Long> permissionIds) {
         try {
             Optional<Role> roleOpt = roleRepository.findById(roleId);
@@ -238,6 +257,7 @@ public class PermissionServiceImpl implements PermissionService {
             role.getPermissions().addAll(permissions);
             
             roleRepository.save(role);
+            permissionIndex.invalidateRoleAfterCommit(roleId);
             
             operationLogService.logSuccess("ASSIGN_PERMISSION", "权限管理", 
                 "为角色 " + role.getName() + " 分配 " + permissions.size() + " 个权限");
@@ -250,6 +270,7 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.PERMISSIONS, allEntries = true)
     public void removePermissionsFromRole(Long roleId, List<Long> permissionIds) {
         try {
             Optional<Role> roleOpt = roleRepository.findById(roleId);
@@ -263,6 +284,7 @@ public class PermissionServiceImpl implements PermissionService {
             if (role.getPermissions() != null) {
                 role.getPermissions().removeAll(permissions);
                 roleRepository.save(role);
+                permissionIndex.invalidateRoleAfterCommit(roleId);
             }
             
             operationLogService.logSuccess("REMOVE_PERMISSION", "权限管理", 
@@ -288,6 +310,10 @@ public class PermissionServiceImpl implements PermissionService {
     // ==================== 用户权限管理 ====================
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.PERMISSIONS, key = "'roles:' + #userId"),
+            @CacheEvict(cacheNames = CacheNames.PERMISSIONS, key = "'permissions:' + #userId")
+    })
     public void assignRolesToUser(Long userId, List<Long> roleIds) {
         try {
             Optional<User> userOpt = userRepository.findById(userId);
@@ -304,6 +330,7 @@ public class PermissionServiceImpl implements PermissionService {
             user.getRoles().addAll(roles);
             
             userRepository.save(user);
+            permissionIndex.invalidateUserAfterCommit(userId);
             
             operationLogService.logSuccess("ASSIGN_ROLE", "用户管理", 
                 "为用户 " + user.getUsername() + " 分配 " + roles.size() + " 个角色");
@@ -316,6 +343,10 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.PERMISSIONS, key = "'roles:' + #userId"),
+            @CacheEvict(cacheNames = CacheNames.PERMISSIONS, key = "'permissions:' + #userId")
+    })
     public void removeRolesFromUser(Long userId, List<Long> roleIds) {
         try {
             Optional<User> userOpt = userRepository.findById(userId);
@@ -329,6 +360,7 @@ public class PermissionServiceImpl implements PermissionService {
             if (user.getRoles() != null) {
                 user.getRoles().removeAll(roles);
                 userRepository.save(user);
+                permissionIndex.invalidateUserAfterCommit(userId);
             }
             
             operationLogService.logSuccess("REMOVE_ROLE", "用户管理", 
@@ -343,6 +375,7 @@ public class PermissionServiceImpl implements PermissionService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.PERMISSIONS, key = "'roles:' + #userId", sync = true)
     public List<Role> getUserRoles(Long userId) {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isPresent() && userOpt.get().getRoles() != null) {
@@ -353,6 +386,7 @@ public class PermissionServiceImpl implements PermissionService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.PERMISSIONS, key = "'permissions:' + #userId", sync = true)
     public List<Permission> getUserPermissions(Long userId) {
         List<Role> roles = getUserRoles(userId);
         Set<Permission> permissions = new HashSet<>();
@@ -367,11 +401,9 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean hasPermission(Long userId, String permissionCode) {
-        List<Permission> permissions = getUserPermissions(userId);
-        return permissions.stream()
-                .anyMatch(permission -> permission.getCode().equals(permissionCode));
+        return permissionIndex.hasPermission(userId, permissionCode);
     }
 
     @Override
@@ -383,26 +415,15 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean hasAnyPermission(Long userId, List<String> permissionCodes) {
-        List<Permission> permissions = getUserPermissions(userId);
-        Set<String> userPermissionCodes = permissions.stream()
-                .map(Permission::getCode)
-                .collect(Collectors.toSet());
-        
-        return permissionCodes.stream()
-                .anyMatch(userPermissionCodes::contains);
+        return permissionIndex.hasAnyPermission(userId, permissionCodes);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean hasAllPermissions(Long userId, List<String> permissionCodes) {
-        List<Permission> permissions = getUserPermissions(userId);
-        Set<String> userPermissionCodes = permissions.stream()
-                .map(Permission::getCode)
-                .collect(Collectors.toSet());
-        
-        return userPermissionCodes.containsAll(permissionCodes);
+        return permissionIndex.hasAllPermissions(userId, permissionCodes);
     }
 
     // ==================== 权限初始化 ====================
@@ -459,6 +480,10 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.PERMISSIONS, key = "'roles:' + #userId"),
+            @CacheEvict(cacheNames = CacheNames.PERMISSIONS, key = "'permissions:' + #userId")
+    })
     public void initializeAdminPermissions(Long userId) {
         try {
             Optional<User> userOpt = userRepository.findById(userId);
@@ -1,6 +1,7 @@
 package com.party.service.impl;
 
 import com.party.entity.Role;
+import com.party.permission.PermissionIndex;
 import com.party.repository.RoleRepository;
 import com.party.service.RoleService;
 import org.slf4j.Logger;
@@ -29,6 +30,9 @@ public class RoleServiceImpl implements RoleService {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private PermissionIndex permissionIndex;
+
     @Override
     public Role createRole(Role role) {
         logger.info("创建角色: {}", role.getName());
@@ -86,6 +90,8 @@ public class RoleServiceImpl implements RoleService {
         }
         if (role.getPermissions() != null && !role.getPermissions().isEmpty()) {
             existingRole.setPermissions(role.getPermissions());
+            // 收回的权限在提交后立即对持有该角色的用户生效
+            permissionIndex.invalidateRoleAfterCommit(id);
         }
         if (role.getIsActive() != null) {
             existingRole.setIsActive(role.getIsActive());
@@ -109,6 +115,7 @@ public class RoleServiceImpl implements RoleService {
         }
         
         roleRepository.deleteById(id);
+        permissionIndex.invalidateRoleAfterCommit(id);
         logger.info("角色删除成功: ID={}", id);
     }
 
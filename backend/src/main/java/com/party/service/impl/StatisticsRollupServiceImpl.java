@@ -0,0 +1,280 @@
+package com.party.service.impl;
+
+import com.party.entity.StatisticsDailyRollup;
+import com.party.repository.StatisticsDailyRollupRepository;
+import com.party.service.StatisticsRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * 每日统计汇总服务实现类
+ * 以GROUP BY聚合业务表写入statistics_daily_rollups，按月分段处理以控制内存占用
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Service
+@Transactional
+public class StatisticsRollupServiceImpl implements StatisticsRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsRollupServiceImpl.class);
+
+    private static final String USERS_BEFORE_SQL =
+            "SELECT COALESCE(organization_id, 0) AS org_id, COUNT(*) AS cnt FROM users " +
+            "WHERE created_at < ? GROUP BY COALESCE(organization_id, 0)";
+
+    private static final String NEW_USERS_SQL =
+            "SELECT CAST(created_at AS DATE) AS stat_date, COALESCE(organization_id, 0) AS org_id, COUNT(*) AS cnt " +
+            "FROM users WHERE created_at >= ? AND created_at < ? " +
+            "GROUP BY CAST(created_at AS DATE), COALESCE(organization_id, 0)";
+
+    private static final String ACTIVITIES_SQL =
+            "SELECT CAST(start_time AS DATE) AS stat_date, COALESCE(organization_id, 0) AS org_id, COUNT(*) AS cnt " +
+            "FROM activities WHERE start_time >= ? AND start_time < ? " +
+            "GROUP BY CAST(start_time AS DATE), COALESCE(organization_id, 0)";
+
+    private static final String PARTICIPANTS_SQL =
+            "SELECT CAST(a.start_time AS DATE) AS stat_date, COALESCE(a.organization_id, 0) AS org_id, " +
+            "COUNT(*) AS cnt, SUM(CASE WHEN p.status = 2 THEN 1 ELSE 0 END) AS signed_in " +
+            "FROM activity_participants p JOIN activities a ON a.id = p.activity_id " +
+            "WHERE a.start_time >= ? AND a.start_time < ? " +
+            "GROUP BY CAST(a.start_time AS DATE), COALESCE(a.organization_id, 0)";
+
+    private static final String FEE_PAID_SQL =
+            "SELECT fp.payment_date AS stat_date, COALESCE(pm.organization_id, 0) AS org_id, " +
+            "COUNT(*) AS cnt, SUM(fp.fee_amount) AS amount " +
+            "FROM fee_payments fp JOIN party_members pm ON pm.id = fp.member_id " +
+            "WHERE fp.status = 'PAID' AND fp.payment_date >= ? AND fp.payment_date <= ? " +
+            "GROUP BY fp.payment_date, COALESCE(pm.organization_id, 0)";
+
+    private static final String FEE_BILLED_SQL =
+            "SELECT fp.payment_year AS payment_year, fp.payment_month AS payment_month, " +
+            "COALESCE(pm.organization_id, 0) AS org_id, COUNT(*) AS cnt, " +
+            "SUM(CASE WHEN fp.status = 'PAID' THEN 1 ELSE 0 END) AS paid " +
+            "FROM fee_payments fp JOIN party_members pm ON pm.id = fp.member_id " +
+            "WHERE fp.payment_year = ? AND fp.payment_month = ? " +
+            "GROUP BY fp.payment_year, fp.payment_month, COALESCE(pm.organization_id, 0)";
+
+    private static final String CHANGED_MONTHS_SQL =
+            "SELECT DISTINCT payment_year, payment_month FROM fee_payments " +
+            "WHERE created_at >= ? OR updated_at >= ?";
+
+    private static final String CLEAR_BILLED_SQL =
+            "UPDATE statistics_daily_rollups SET fee_billed_count = 0, fee_billed_paid_count = 0, updated_at = ? " +
+            "WHERE stat_date = ?";
+
+    private static final String UPDATE_BILLED_SQL =
+            "UPDATE statistics_daily_rollups SET fee_billed_count = ?, fee_billed_paid_count = ?, updated_at = ? " +
+            "WHERE stat_date = ? AND organization_id = ?";
+
+    private static final String DELETE_EMPTY_SQL =
+            "DELETE FROM statistics_daily_rollups WHERE stat_date = ? AND new_users = 0 AND total_users = 0 " +
+            "AND activity_count = 0 AND participant_count = 0 AND fee_paid_count = 0 AND fee_billed_count = 0";
+
+    private static final String INSERT_SQL = "INSERT INTO statistics_daily_rollups (" +
+            "stat_date, organization_id, new_users, total_users, activity_count, participant_count, " +
+            "signed_in_count, fee_paid_count, fee_paid_amount, fee_billed_count, fee_billed_paid_count, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private StatisticsDailyRollupRepository statisticsDailyRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int rollup(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("汇总日期区间无效");
+        }
+        // 未来的日期没有数据，不生成汇总
+        LocalDate today = LocalDate.now();
+        if (endDate.isAfter(today)) {
+            endDate = today;
+        }
+        if (startDate.isAfter(endDate)) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        statisticsDailyRollupRepository.deleteByStatDateBetween(startDate, endDate);
+
+        // 截至开始日期前各组织的用户数，逐日累加得到每日总数
+        Map<Long, Long> totalUsers = new HashMap<>();
+        jdbcTemplate.query(USERS_BEFORE_SQL, (RowCallbackHandler) rs ->
+                totalUsers.put(rs.getLong("org_id"), rs.getLong("cnt")), toTimestamp(startDate));
+
+        int written = 0;
+        LocalDate chunkStart = startDate;
+        while (!chunkStart.isAfter(endDate)) {
+            LocalDate chunkEnd = YearMonth.from(chunkStart).atEndOfMonth();
+            if (chunkEnd.isAfter(endDate)) {
+                chunkEnd = endDate;
+            }
+            written += rollupChunk(chunkStart, chunkEnd, totalUsers);
+            chunkStart = chunkEnd.plusDays(1);
+        }
+        written += refreshBilledMonths(startDate, endDate);
+
+        logger.info("每日统计汇总完成: {} ~ {}, 写入{}行, 耗时{}ms",
+                startDate, endDate, written, System.currentTimeMillis() - start);
+        return written;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LocalDate getLatestRollupDate() {
+        return statisticsDailyRollupRepository.findLatestStatDate();
+    }
+
+    /**
+     * 汇总同一个月内的日期区间
+     */
+    private int rollupChunk(LocalDate startDate, LocalDate endDate, Map<Long, Long> totalUsers) {
+        Map<LocalDate, Map<Long, StatisticsDailyRollup>> rollups = new TreeMap<>();
+        Timestamp from = toTimestamp(startDate);
+        Timestamp to = toTimestamp(endDate.plusDays(1));
+
+        jdbcTemplate.query(NEW_USERS_SQL, (RowCallbackHandler) rs -> {
+            StatisticsDailyRollup rollup = rollupOf(rollups, rs.getDate("stat_date"), rs.getLong("org_id"));
+            rollup.setNewUsers(rs.getInt("cnt"));
+        }, from, to);
+
+        jdbcTemplate.query(ACTIVITIES_SQL, (RowCallbackHandler) rs -> {
+            StatisticsDailyRollup rollup = rollupOf(rollups, rs.getDate("stat_date"), rs.getLong("org_id"));
+            rollup.setActivityCount(rs.getInt("cnt"));
+        }, from, to);
+
+        jdbcTemplate.query(PARTICIPANTS_SQL, (RowCallbackHandler) rs -> {
+            StatisticsDailyRollup rollup = rollupOf(rollups, rs.getDate("stat_date"), rs.getLong("org_id"));
+            rollup.setParticipantCount(rs.getInt("cnt"));
+            rollup.setSignedInCount(rs.getInt("signed_in"));
+        }, from, to);
+
+        jdbcTemplate.query(FEE_PAID_SQL, (RowCallbackHandler) rs -> {
+            StatisticsDailyRollup rollup = rollupOf(rollups, rs.getDate("stat_date"), rs.getLong("org_id"));
+            rollup.setFeePaidCount(rs.getInt("cnt"));
+            BigDecimal amount = rs.getBigDecimal("amount");
+            rollup.setFeePaidAmount(amount != null ? amount : BigDecimal.ZERO);
+        }, Date.valueOf(startDate), Date.valueOf(endDate));
+
+        // 应缴数据记在所属月份的1日，区间包含该月1日时才统计
+        if (startDate.getDayOfMonth() == 1) {
+            jdbcTemplate.query(FEE_BILLED_SQL, (RowCallbackHandler) rs -> {
+                StatisticsDailyRollup rollup = rollupOf(rollups, Date.valueOf(startDate), rs.getLong("org_id"));
+                rollup.setFeeBilledCount(rs.getInt("cnt"));
+                rollup.setFeeBilledPaidCount(rs.getInt("paid"));
+            }, startDate.getYear(), startDate.getMonthValue());
+        }
+
+        List<StatisticsDailyRollup> rows = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            Map<Long, StatisticsDailyRollup> byOrganization = rollups.getOrDefault(date, Collections.emptyMap());
+            Set<Long> organizationIds = new HashSet<>(totalUsers.keySet());
+            organizationIds.addAll(byOrganization.keySet());
+            for (Long organizationId : organizationIds) {
+                StatisticsDailyRollup rollup = byOrganization.get(organizationId);
+                if (rollup == null) {
+                    rollup = new StatisticsDailyRollup(date, organizationId);
+                }
+                long total = totalUsers.getOrDefault(organizationId, 0L) + rollup.getNewUsers();
+                totalUsers.put(organizationId, total);
+                rollup.setTotalUsers((int) total);
+                if (!rollup.isEmpty()) {
+                    rows.add(rollup);
+                }
+            }
+        }
+
+        insert(rows);
+        return rows.size();
+    }
+
+    /**
+     * 重算区间外月份的应缴数据
+     * 应缴数据记在所属月份的1日，当月和区间开始后有缴费记录新增或变更的月份，即使1日不在本次汇总区间内也要重算，
+     * 否则补缴和当月陆续缴费不会反映到缴费率
+     */
+    private int refreshBilledMonths(LocalDate startDate, LocalDate endDate) {
+        Set<YearMonth> months = new TreeSet<>();
+        months.add(YearMonth.from(endDate));
+        Timestamp since = toTimestamp(startDate);
+        jdbcTemplate.query(CHANGED_MONTHS_SQL, (RowCallbackHandler) rs ->
+                months.add(YearMonth.of(rs.getInt("payment_year"), rs.getInt("payment_month"))), since, since);
+
+        int written = 0;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (YearMonth month : months) {
+            LocalDate firstDay = month.atDay(1);
+            // 1日在本次区间内的月份已随分段汇总重算，未来月份不生成汇总
+            if (!firstDay.isBefore(startDate) || firstDay.isAfter(LocalDate.now())) {
+                continue;
+            }
+            Date statDate = Date.valueOf(firstDay);
+            jdbcTemplate.update(CLEAR_BILLED_SQL, now, statDate);
+            List<StatisticsDailyRollup> billed = new ArrayList<>();
+            jdbcTemplate.query(FEE_BILLED_SQL, (RowCallbackHandler) rs -> {
+                StatisticsDailyRollup rollup = new StatisticsDailyRollup(firstDay, rs.getLong("org_id"));
+                rollup.setFeeBilledCount(rs.getInt("cnt"));
+                rollup.setFeeBilledPaidCount(rs.getInt("paid"));
+                billed.add(rollup);
+            }, month.getYear(), month.getMonthValue());
+            // 已有当日汇总行的组织只更新应缴字段，没有的新增一行
+            List<StatisticsDailyRollup> missing = new ArrayList<>();
+            for (StatisticsDailyRollup rollup : billed) {
+                if (jdbcTemplate.update(UPDATE_BILLED_SQL, rollup.getFeeBilledCount(), rollup.getFeeBilledPaidCount(),
+                        now, statDate, rollup.getOrganizationId()) == 0) {
+                    missing.add(rollup);
+                }
+            }
+            insert(missing);
+            jdbcTemplate.update(DELETE_EMPTY_SQL, statDate);
+            written += missing.size();
+        }
+        return written;
+    }
+
+    private void insert(List<StatisticsDailyRollup> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, 500, (ps, rollup) -> {
+            ps.setDate(1, Date.valueOf(rollup.getStatDate()));
+            ps.setLong(2, rollup.getOrganizationId());
+            ps.setInt(3, rollup.getNewUsers());
+            ps.setInt(4, rollup.getTotalUsers());
+            ps.setInt(5, rollup.getActivityCount());
+            ps.setInt(6, rollup.getParticipantCount());
+            ps.setInt(7, rollup.getSignedInCount());
+            ps.setInt(8, rollup.getFeePaidCount());
+            ps.setBigDecimal(9, rollup.getFeePaidAmount());
+            ps.setInt(10, rollup.getFeeBilledCount());
+            ps.setInt(11, rollup.getFeeBilledPaidCount());
+            ps.setTimestamp(12, now);
+        });
+    }
+
+    private static StatisticsDailyRollup rollupOf(Map<LocalDate, Map<Long, StatisticsDailyRollup>> rollups,
+                                                  Date statDate, long organizationId) {
+        LocalDate date = statDate.toLocalDate();
+        return rollups.computeIfAbsent(date, d -> new HashMap<>())
+                .computeIfAbsent(organizationId, id -> new StatisticsDailyRollup(date, id));
+    }
+
+    private static Timestamp toTimestamp(LocalDate date) {
+        return Timestamp.valueOf(date.atStartOfDay());
+    }
+}
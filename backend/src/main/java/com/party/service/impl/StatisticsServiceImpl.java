@@ -1,193 +1,257 @@
 package com.party.service.impl;
 
+import com.party.entity.FeePayment;
+import com.party.entity.FeeStandard;
+import com.party.entity.User;
+import com.party.export.ExportJobManager;
+import com.party.repository.FeePaymentRepository;
+import com.party.repository.StatisticsDailyRollupRepository;
+import com.party.repository.UserRepository;
 import com.party.service.StatisticsService;
-import com.party.service.UserService;
-import com.party.service.OrganizationService;
-import com.party.service.ActivityService;
-import com.party.service.FeeManagementService;
+import com.party.statistics.StatisticsEngine;
+import com.party.statistics.Tally;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.MonthDay;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 /**
  * 统计服务实现类
+ * 总量与分布读取自StatisticsEngine维护的内存分桶，趋势读取每日汇总表，耗时只与分桶或天数有关
  */
 @Service
 @Transactional(readOnly = true)
 public class StatisticsServiceImpl implements StatisticsService {
 
+    /** 年龄段下限，最后一段不设上限 */
+    private static final int[] AGE_GROUP_LOWER_BOUNDS = {18, 26, 36, 46, 56, 66};
+    private static final String[] AGE_GROUP_NAMES = {"18-25", "26-35", "36-45", "46-55", "56-65", "65+"};
+
+    /** 逾期明细展示条数 */
+    private static final int OVERDUE_LIST_SIZE = 10;
+
+    /** 导出时每条记录的估算大小（字节） */
+    private static final int ESTIMATED_RECORD_BYTES = 200;
+
+    @Autowired
+    private StatisticsEngine statisticsEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
     @Autowired
-    private UserService userService;
+    private FeePaymentRepository feePaymentRepository;
+
+    @Autowired
+    private StatisticsDailyRollupRepository statisticsDailyRollupRepository;
+
+    @Autowired
+    private ExportJobManager exportJobManager;
 
     // 新增的方法，支持StatisticsController
-    
+
     public Map<String, Object> getSystemOverview() {
+        Tally<Boolean> usersByActive = statisticsEngine.getUsersByActive();
         Map<String, Object> overview = new HashMap<>();
-        overview.put("totalUsers", 150);
-        overview.put("activeUsers", 142);
-        overview.put("totalOrganizations", 12);
-        overview.put("totalActivities", 25);
-        overview.put("totalFeeStandards", 5);
-        overview.put("todayLogins", 38);
+        overview.put("totalUsers", usersByActive.total());
+        overview.put("activeUsers", usersByActive.get(true));
+        overview.put("totalOrganizations", statisticsEngine.getOrganizationsByType().total());
+        overview.put("totalActivities", statisticsEngine.getActivitiesByType().total());
+        overview.put("totalFeeStandards", statisticsEngine.getFeeStandardsByStatus().get(FeeStandard.FeeStandardStatus.ACTIVE));
+        overview.put("todayLogins", statisticsEngine.getLoginUserCount(LocalDate.now()));
         overview.put("systemStatus", "HEALTHY");
         return overview;
     }
 
     public List<Map<String, Object>> getUserGrowthTrend(int period) {
-        List<Map<String, Object>> trend = new ArrayList<>();
         LocalDate now = LocalDate.now();
-        
-        for (int i = period - 1; i >= 0; i--) {
-            LocalDate date = now.minusDays(i);
-            Map<String, Object> dayData = new HashMap<>();
-            dayData.put("date", date.toString());
-            dayData.put("newUsers", (int)(Math.random() * 10) + 1);
-            dayData.put("activeUsers", (int)(Math.random() * 50) + 20);
-            trend.add(dayData);
-        }
-        return trend;
+        return buildUserGrowthTrend(now.minusDays(Math.max(period, 1) - 1), now);
     }
 
     public List<Map<String, Object>> getUserAgeDistribution() {
+        Map<Integer, Long> byBirthYear = statisticsEngine.getUsersByBirthYear().snapshot();
+        long[] counts = new long[AGE_GROUP_NAMES.length];
+        int currentYear = LocalDate.now().getYear();
+        for (Map.Entry<Integer, Long> entry : byBirthYear.entrySet()) {
+            int group = ageGroupOf(currentYear - entry.getKey());
+            if (group >= 0) {
+                counts[group] += entry.getValue();
+            }
+        }
+
+        long total = Arrays.stream(counts).sum();
         List<Map<String, Object>> distribution = new ArrayList<>();
-        
-        String[] ageGroups = {"18-25", "26-35", "36-45", "46-55", "56-65", "65+"};
-        for (String ageGroup : ageGroups) {
+        for (int i = 0; i < AGE_GROUP_NAMES.length; i++) {
             Map<String, Object> group = new HashMap<>();
-            group.put("ageGroup", ageGroup);
-            group.put("count", (int)(Math.random() * 30) + 5);
-            group.put("percentage", Math.round((Math.random() * 20 + 5) * 100.0) / 100.0);
+            group.put("ageGroup", AGE_GROUP_NAMES[i]);
+            group.put("count", counts[i]);
+            group.put("percentage", percentage(counts[i], total));
             distribution.add(group);
         }
         return distribution;
     }
 
     public List<Map<String, Object>> getUserGenderDistribution() {
+        Tally<Integer> byGender = statisticsEngine.getUsersByGender();
+        long total = byGender.total();
         List<Map<String, Object>> distribution = new ArrayList<>();
-        
-        Map<String, Object> male = new HashMap<>();
-        male.put("gender", "男");
-        male.put("count", 85);
-        male.put("percentage", 56.7);
-        distribution.add(male);
-        
-        Map<String, Object> female = new HashMap<>();
-        female.put("gender", "女");
-        female.put("count", 65);
-        female.put("percentage", 43.3);
-        distribution.add(female);
-        
+        distribution.add(genderItem("男", byGender.get(1), total));
+        distribution.add(genderItem("女", byGender.get(2), total));
+        long unknown = total - byGender.get(1) - byGender.get(2);
+        if (unknown > 0) {
+            distribution.add(genderItem("未知", unknown, total));
+        }
         return distribution;
     }
 
     public List<Map<String, Object>> getOrganizationDistribution() {
+        Tally<Long> members = statisticsEngine.getUsersByOrganization();
+        Tally<Long> activeMembers = statisticsEngine.getActiveUsersByOrganization();
         List<Map<String, Object>> distribution = new ArrayList<>();
-        
-        String[] orgs = {"党委办公室", "组织部", "宣传部", "纪检监察", "统战部"};
-        for (String org : orgs) {
+        for (Map.Entry<Long, String> organization : statisticsEngine.getOrganizationNames().entrySet()) {
+            long memberCount = members.get(organization.getKey());
             Map<String, Object> orgData = new HashMap<>();
-            orgData.put("organizationName", org);
-            orgData.put("memberCount", (int)(Math.random() * 30) + 10);
-            orgData.put("activeRate", Math.round((Math.random() * 20 + 80) * 100.0) / 100.0);
+            orgData.put("organizationId", organization.getKey());
+            orgData.put("organizationName", organization.getValue());
+            orgData.put("memberCount", memberCount);
+            orgData.put("activeRate", percentage(activeMembers.get(organization.getKey()), memberCount));
             distribution.add(orgData);
         }
+        distribution.sort((a, b) -> Long.compare((Long) b.get("memberCount"), (Long) a.get("memberCount")));
         return distribution;
     }
 
     public List<Map<String, Object>> getOrganizationMemberGrowth(int period) {
+        LocalDate end = LocalDate.now();
+        LocalDate start = end.minusDays(Math.max(period, 1) - 1);
+        Map<LocalDate, Object[]> rows = byDate(statisticsDailyRollupRepository.sumMembersByDate(start, end));
+
         List<Map<String, Object>> growth = new ArrayList<>();
-        LocalDate now = LocalDate.now();
-        
-        for (int i = period - 1; i >= 0; i--) {
-            LocalDate date = now.minusDays(i);
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            Object[] row = rows.get(date);
             Map<String, Object> dayData = new HashMap<>();
             dayData.put("date", date.toString());
-            dayData.put("newMembers", (int)(Math.random() * 5) + 1);
-            dayData.put("totalMembers", 150 + (period - i) * 2);
+            dayData.put("newMembers", longAt(row, 1));
+            dayData.put("totalMembers", longAt(row, 2));
             growth.add(dayData);
         }
         return growth;
     }
 
     public Map<String, Object> getActivityOverview() {
+        Tally<Integer> byStatus = statisticsEngine.getActivitiesByStatus();
+        Tally<Integer> participants = statisticsEngine.getParticipantsByStatus();
+        long totalActivities = byStatus.total();
+        long totalParticipants = participants.total();
+
         Map<String, Object> overview = new HashMap<>();
-        overview.put("totalActivities", 25);
-        overview.put("upcomingActivities", 8);
-        overview.put("completedActivities", 17);
-        overview.put("totalParticipants", 450);
-        overview.put("averageParticipation", 85.6);
+        overview.put("totalActivities", totalActivities);
+        overview.put("upcomingActivities", byStatus.get(1));
+        overview.put("ongoingActivities", byStatus.get(2));
+        overview.put("completedActivities", byStatus.get(3));
+        overview.put("cancelledActivities", byStatus.get(4));
+        overview.put("totalParticipants", totalParticipants);
+        overview.put("averageParticipation", totalActivities > 0
+                ? Math.round(totalParticipants * 100.0 / totalActivities) / 100.0 : 0.0);
+        overview.put("participationRate", percentage(participants.get(2), totalParticipants));
         return overview;
     }
 
     public List<Map<String, Object>> getActivityTypeDistribution() {
+        Tally<Integer> byType = statisticsEngine.getActivitiesByType();
+        Tally<Integer> participantsByType = statisticsEngine.getParticipantsByType();
         List<Map<String, Object>> distribution = new ArrayList<>();
-        
-        String[] types = {"学习教育", "组织生活", "志愿服务", "文体活动", "社会实践"};
-        for (String type : types) {
+        for (int type = 1; type <= 5; type++) {
             Map<String, Object> typeData = new HashMap<>();
-            typeData.put("activityType", type);
-            typeData.put("count", (int)(Math.random() * 10) + 2);
-            typeData.put("participantCount", (int)(Math.random() * 100) + 50);
+            typeData.put("activityType", activityTypeName(type));
+            typeData.put("count", byType.get(type));
+            typeData.put("participantCount", participantsByType.get(type));
             distribution.add(typeData);
         }
         return distribution;
     }
 
     public List<Map<String, Object>> getActivityParticipationTrend(int period) {
+        LocalDate end = LocalDate.now();
+        LocalDate start = end.minusDays(Math.max(period, 1) - 1);
+        Map<LocalDate, Object[]> rows = byDate(statisticsDailyRollupRepository.sumByDate(start, end));
         List<Map<String, Object>> trend = new ArrayList<>();
-        LocalDate now = LocalDate.now();
-        
-        for (int i = period - 1; i >= 0; i--) {
-            LocalDate date = now.minusDays(i);
+
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            Object[] row = rows.get(date);
+            long participantCount = longAt(row, 4);
             Map<String, Object> dayData = new HashMap<>();
             dayData.put("date", date.toString());
-            dayData.put("activityCount", (int)(Math.random() * 3) + 1);
-            dayData.put("participantCount", (int)(Math.random() * 50) + 20);
-            dayData.put("participationRate", Math.round((Math.random() * 30 + 70) * 100.0) / 100.0);
+            dayData.put("activityCount", longAt(row, 3));
+            dayData.put("participantCount", participantCount);
+            dayData.put("participationRate", percentage(longAt(row, 5), participantCount));
             trend.add(dayData);
         }
         return trend;
     }
 
     public Map<String, Object> getFeeOverview() {
+        Tally<FeePayment.PaymentStatus> counts = statisticsEngine.getPaymentsByStatus();
+        Tally<FeePayment.PaymentStatus> amounts = statisticsEngine.getPaymentAmountByStatus();
+        long totalPayments = counts.total();
+        long payable = totalPayments - counts.get(FeePayment.PaymentStatus.EXEMPTED);
+
         Map<String, Object> overview = new HashMap<>();
-        overview.put("totalStandards", 5);
-        overview.put("totalPayments", 1250);
-        overview.put("totalAmount", 125000.50);
-        overview.put("paidAmount", 118500.00);
-        overview.put("pendingAmount", 6500.50);
-        overview.put("paymentRate", 94.8);
-        overview.put("overdueCount", 8);
+        overview.put("totalStandards", statisticsEngine.getFeeStandardsByStatus().total());
+        overview.put("totalPayments", totalPayments);
+        overview.put("totalAmount", yuan(amounts.total()));
+        overview.put("paidAmount", yuan(amounts.get(FeePayment.PaymentStatus.PAID)));
+        overview.put("pendingAmount", yuan(amounts.get(FeePayment.PaymentStatus.PENDING)
+                + amounts.get(FeePayment.PaymentStatus.OVERDUE)));
+        overview.put("paymentRate", percentage(counts.get(FeePayment.PaymentStatus.PAID), payable));
+        overview.put("overdueCount", counts.get(FeePayment.PaymentStatus.OVERDUE));
         return overview;
     }
 
     public List<Map<String, Object>> getFeePaymentTrend(int period, String type) {
         List<Map<String, Object>> trend = new ArrayList<>();
-        
+
         if ("month".equals(type)) {
-            LocalDate now = LocalDate.now();
-            for (int i = period - 1; i >= 0; i--) {
-                LocalDate date = now.minusMonths(i);
+            YearMonth end = YearMonth.now();
+            YearMonth start = end.minusMonths(Math.max(period, 1) - 1);
+            Map<YearMonth, Object[]> rows = new HashMap<>();
+            for (Object[] row : statisticsDailyRollupRepository.sumByMonth(start.atDay(1), end.atEndOfMonth())) {
+                rows.put(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()), row);
+            }
+            for (YearMonth month = start; !month.isAfter(end); month = month.plusMonths(1)) {
+                Object[] row = rows.get(month);
                 Map<String, Object> monthData = new HashMap<>();
-                monthData.put("period", date.getYear() + "-" + String.format("%02d", date.getMonthValue()));
-                monthData.put("amount", (int)(Math.random() * 20000) + 8000);
-                monthData.put("count", (int)(Math.random() * 100) + 80);
-                monthData.put("rate", Math.round((Math.random() * 10 + 90) * 100.0) / 100.0);
+                monthData.put("period", month.toString());
+                monthData.put("amount", amountAt(row, 3));
+                monthData.put("count", longAt(row, 2));
+                monthData.put("rate", percentage(longAt(row, 5), longAt(row, 4)));
                 trend.add(monthData);
             }
         } else {
-            LocalDate now = LocalDate.now();
-            for (int i = period - 1; i >= 0; i--) {
-                LocalDate date = now.minusDays(i);
+            LocalDate end = LocalDate.now();
+            LocalDate start = end.minusDays(Math.max(period, 1) - 1);
+            Map<LocalDate, Object[]> rows = byDate(statisticsDailyRollupRepository.sumByDate(start, end));
+            Tally<YearMonth> paymentsByMonth = statisticsEngine.getPaymentsByMonth();
+            Tally<YearMonth> paidByMonth = statisticsEngine.getPaidByMonth();
+            for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+                Object[] row = rows.get(date);
+                YearMonth month = YearMonth.from(date);
                 Map<String, Object> dayData = new HashMap<>();
                 dayData.put("period", date.toString());
-                dayData.put("amount", (int)(Math.random() * 2000) + 500);
-                dayData.put("count", (int)(Math.random() * 15) + 5);
-                dayData.put("rate", Math.round((Math.random() * 15 + 85) * 100.0) / 100.0);
+                dayData.put("amount", amountAt(row, 7));
+                dayData.put("count", longAt(row, 6));
+                // 按日趋势的缴费率取当日所在月份的缴费率
+                dayData.put("rate", percentage(paidByMonth.get(month), paymentsByMonth.get(month)));
                 trend.add(dayData);
             }
         }
@@ -195,54 +259,79 @@ public class StatisticsServiceImpl implements StatisticsService {
     }
 
     public List<Map<String, Object>> getFeePaymentMethods() {
+        Tally<FeePayment.PaymentMethod> counts = statisticsEngine.getPaidByMethod();
+        Tally<FeePayment.PaymentMethod> amounts = statisticsEngine.getPaidAmountByMethod();
+        long total = counts.total();
         List<Map<String, Object>> methods = new ArrayList<>();
-        
-        String[] methodNames = {"银行转账", "现金缴费", "微信支付", "支付宝", "工资代扣"};
-        double[] percentages = {45.2, 25.8, 15.6, 8.9, 4.5};
-        
-        for (int i = 0; i < methodNames.length; i++) {
+
+        for (FeePayment.PaymentMethod paymentMethod : FeePayment.PaymentMethod.values()) {
             Map<String, Object> method = new HashMap<>();
-            method.put("paymentMethod", methodNames[i]);
-            method.put("count", (int)(percentages[i] * 25));
-            method.put("percentage", percentages[i]);
-            method.put("amount", percentages[i] * 1250);
+            method.put("paymentMethod", paymentMethodName(paymentMethod));
+            method.put("count", counts.get(paymentMethod));
+            method.put("percentage", percentage(counts.get(paymentMethod), total));
+            method.put("amount", yuan(amounts.get(paymentMethod)));
             methods.add(method);
         }
         return methods;
     }
 
     public Map<String, Object> getFeeOverdue() {
+        Tally<FeePayment.PaymentStatus> counts = statisticsEngine.getPaymentsByStatus();
+        Map<YearMonth, Long> overdueByMonth = statisticsEngine.getOverdueByMonth().snapshot();
+        LocalDate today = LocalDate.now();
+        long overdueCount = counts.get(FeePayment.PaymentStatus.OVERDUE);
+        long longestOverdueDays = 0;
+        long totalOverdueDays = 0;
+        long datedCount = 0;
+        for (Map.Entry<YearMonth, Long> entry : overdueByMonth.entrySet()) {
+            long days = overdueDays(entry.getKey(), today);
+            longestOverdueDays = Math.max(longestOverdueDays, days);
+            totalOverdueDays += days * entry.getValue();
+            datedCount += entry.getValue();
+        }
+
         Map<String, Object> overdue = new HashMap<>();
-        overdue.put("overdueCount", 8);
-        overdue.put("overdueAmount", 6500.50);
-        overdue.put("overdueRate", 5.2);
-        overdue.put("longestOverdueDays", 45);
-        overdue.put("averageOverdueDays", 18);
-        
+        overdue.put("overdueCount", overdueCount);
+        overdue.put("overdueAmount", yuan(statisticsEngine.getPaymentAmountByStatus().get(FeePayment.PaymentStatus.OVERDUE)));
+        overdue.put("overdueRate", percentage(overdueCount, counts.total()));
+        overdue.put("longestOverdueDays", longestOverdueDays);
+        overdue.put("averageOverdueDays", datedCount > 0 ? totalOverdueDays / datedCount : 0);
+
+        // 明细只取逾期最久的若干条
         List<Map<String, Object>> overdueList = new ArrayList<>();
-        for (int i = 1; i <= 8; i++) {
-            Map<String, Object> item = new HashMap<>();
-            item.put("userId", i);
-            item.put("userName", "党员" + i);
-            item.put("amount", (int)(Math.random() * 1000) + 200);
-            item.put("overdueDays", (int)(Math.random() * 40) + 5);
-            overdueList.add(item);
+        if (overdueCount > 0) {
+            PageRequest pageRequest = PageRequest.of(0, OVERDUE_LIST_SIZE,
+                    Sort.by("paymentYear", "paymentMonth", "id"));
+            for (FeePayment payment : feePaymentRepository.findByStatus(FeePayment.PaymentStatus.OVERDUE, pageRequest)) {
+                User user = payment.getMember().getUser();
+                Map<String, Object> item = new HashMap<>();
+                item.put("userId", user.getId());
+                item.put("userName", user.getRealName());
+                item.put("amount", payment.getFeeAmount());
+                item.put("overdueDays", overdueDays(
+                        YearMonth.of(payment.getPaymentYear(), payment.getPaymentMonth()), today));
+                overdueList.add(item);
+            }
         }
         overdue.put("overdueList", overdueList);
-        
+
         return overdue;
     }
 
     // 实现StatisticsService接口的原有方法
     @Override
     public Map<String, Object> getUserStatistics() {
-        return getSystemOverview();
+        Map<String, Object> stats = getSystemOverview();
+        stats.put("genderDistribution", getUserGenderDistribution());
+        stats.put("partyStatusDistribution", getPartyMemberStatusDistribution());
+        return stats;
     }
 
     @Override
     public Map<String, Object> getOrganizationStatistics() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("distribution", getOrganizationDistribution());
+        stats.put("levelDistribution", getOrganizationLevelDistribution());
         return stats;
     }
 
@@ -258,80 +347,120 @@ public class StatisticsServiceImpl implements StatisticsService {
 
     @Override
     public List<Map<String, Object>> getUserGrowthTrend(LocalDateTime startDate, LocalDateTime endDate) {
-        return getUserGrowthTrend(30); // 默认30天
+        if (startDate == null || endDate == null) {
+            return getUserGrowthTrend(30); // 默认30天
+        }
+        return buildUserGrowthTrend(startDate.toLocalDate(), endDate.toLocalDate());
     }
 
     // 实现StatisticsService接口的其他必需方法
     @Override
     public Map<String, Object> getActivityParticipationRate(Long organizationId) {
+        long totalActivities;
+        long participants;
+        long signedIn;
+        if (organizationId != null) {
+            totalActivities = statisticsEngine.getActivitiesByOrganization().get(organizationId);
+            participants = statisticsEngine.getParticipantsByOrganization().get(organizationId);
+            signedIn = statisticsEngine.getSignedInByOrganization().get(organizationId);
+        } else {
+            Tally<Integer> byStatus = statisticsEngine.getParticipantsByStatus();
+            totalActivities = statisticsEngine.getActivitiesByType().total();
+            participants = byStatus.total();
+            signedIn = byStatus.get(2);
+        }
+
         Map<String, Object> rate = new HashMap<>();
         rate.put("organizationId", organizationId);
-        rate.put("totalActivities", 25);
-        rate.put("participatedActivities", 22);
-        rate.put("participationRate", 88.0);
+        rate.put("totalActivities", totalActivities);
+        rate.put("totalParticipants", participants);
+        rate.put("signedInParticipants", signedIn);
+        rate.put("participationRate", percentage(signedIn, participants));
         return rate;
     }
 
     @Override
     public Map<String, Object> getPartyMemberStatusDistribution() {
-        Map<String, Object> distribution = new HashMap<>();
-        distribution.put("正式党员", 120);
-        distribution.put("预备党员", 25);
-        distribution.put("入党积极分子", 30);
-        distribution.put("申请人", 15);
+        Tally<Integer> byStatus = statisticsEngine.getUsersByPartyStatus();
+        Map<String, Object> distribution = new LinkedHashMap<>();
+        distribution.put("正式党员", byStatus.get(1));
+        distribution.put("预备党员", byStatus.get(2));
+        distribution.put("入党积极分子", byStatus.get(3));
+        distribution.put("已退党", byStatus.get(4));
         return distribution;
     }
 
     @Override
     public Map<String, Object> getOrganizationLevelDistribution() {
-        Map<String, Object> distribution = new HashMap<>();
-        distribution.put("党委", 1);
-        distribution.put("党总支", 3);
-        distribution.put("党支部", 8);
+        Tally<Integer> byType = statisticsEngine.getOrganizationsByType();
+        Map<String, Object> distribution = new LinkedHashMap<>();
+        distribution.put("党委", byType.get(1));
+        distribution.put("党总支", byType.get(2));
+        distribution.put("党支部", byType.get(3));
         return distribution;
     }
 
     @Override
     public Map<String, Object> getActivityTypeDistribution(LocalDateTime startDate, LocalDateTime endDate) {
-        return Map.of(
-            "学习教育", 8,
-            "组织生活", 6,
-            "志愿服务", 5,
-            "文体活动", 4,
-            "社会实践", 2
-        );
+        Map<String, Object> distribution = new LinkedHashMap<>();
+        for (int type = 1; type <= 5; type++) {
+            long count;
+            if (startDate == null || endDate == null) {
+                count = statisticsEngine.getActivitiesByType().get(type);
+            } else {
+                count = sumByDate(statisticsEngine.getActivitiesByStartDate(type),
+                        startDate.toLocalDate(), endDate.toLocalDate());
+            }
+            distribution.put(activityTypeName(type), count);
+        }
+        return distribution;
     }
 
     @Override
     public Map<String, Object> getMonthlyReport(Integer year, Integer month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        LocalDate start = yearMonth.atDay(1);
+        LocalDate end = yearMonth.atEndOfMonth();
+
         Map<String, Object> report = new HashMap<>();
         report.put("year", year);
         report.put("month", month);
-        report.put("newUsers", 12);
-        report.put("newActivities", 5);
-        report.put("feeCollection", 15600.0);
+        report.put("newUsers", sumByDate(statisticsEngine.getUsersByCreatedDate(), start, end));
+        report.put("newActivities", sumByDate(statisticsEngine.getActivitiesByCreatedDate(), start, end));
+        report.put("feeCollection", yuan(sumByDate(statisticsEngine.getPaidAmountByDate(), start, end)));
         return report;
     }
 
     @Override
     public Map<String, Object> getYearlyReport(Integer year) {
+        LocalDate start = LocalDate.of(year, 1, 1);
+        LocalDate end = LocalDate.of(year, 12, 31);
+
         Map<String, Object> report = new HashMap<>();
         report.put("year", year);
-        report.put("newUsers", 145);
-        report.put("newActivities", 62);
-        report.put("totalFeeCollection", 186500.0);
+        report.put("newUsers", sumByDate(statisticsEngine.getUsersByCreatedDate(), start, end));
+        report.put("newActivities", sumByDate(statisticsEngine.getActivitiesByCreatedDate(), start, end));
+        report.put("totalFeeCollection", yuan(sumByDate(statisticsEngine.getPaidAmountByDate(), start, end)));
         return report;
     }
 
     @Override
     public List<Map<String, Object>> getOrganizationActivityRanking(int limit) {
+        Tally<Long> activities = statisticsEngine.getActivitiesByOrganization();
+        Tally<Long> participants = statisticsEngine.getParticipantsByOrganization();
+        Tally<Long> signedIn = statisticsEngine.getSignedInByOrganization();
+        Map<Long, String> names = statisticsEngine.getOrganizationNames();
+
+        List<Map.Entry<Long, Long>> entries = topEntries(activities.snapshot(), limit);
         List<Map<String, Object>> ranking = new ArrayList<>();
-        for (int i = 1; i <= limit; i++) {
+        for (int i = 0; i < entries.size(); i++) {
+            Long organizationId = entries.get(i).getKey();
             Map<String, Object> org = new HashMap<>();
-            org.put("rank", i);
-            org.put("organizationName", "组织" + i);
-            org.put("activityCount", (int)(Math.random() * 10) + 5);
-            org.put("participationRate", Math.round((Math.random() * 20 + 80) * 100.0) / 100.0);
+            org.put("rank", i + 1);
+            org.put("organizationId", organizationId);
+            org.put("organizationName", names.get(organizationId));
+            org.put("activityCount", entries.get(i).getValue());
+            org.put("participationRate", percentage(signedIn.get(organizationId), participants.get(organizationId)));
             ranking.add(org);
         }
         return ranking;
@@ -339,13 +468,25 @@ public class StatisticsServiceImpl implements StatisticsService {
 
     @Override
     public List<Map<String, Object>> getUserActivityRanking(int limit) {
+        List<Map.Entry<Long, Long>> entries = topEntries(statisticsEngine.getSignedInByUser().snapshot(), limit);
+        List<Long> userIds = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : entries) {
+            userIds.add(entry.getKey());
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            names.put(user.getId(), user.getRealName());
+        }
+
+        long totalActivities = statisticsEngine.getActivitiesByType().total();
         List<Map<String, Object>> ranking = new ArrayList<>();
-        for (int i = 1; i <= limit; i++) {
+        for (int i = 0; i < entries.size(); i++) {
             Map<String, Object> user = new HashMap<>();
-            user.put("rank", i);
-            user.put("userName", "用户" + i);
-            user.put("participationCount", (int)(Math.random() * 20) + 10);
-            user.put("activityScore", (int)(Math.random() * 100) + 60);
+            user.put("rank", i + 1);
+            user.put("userId", entries.get(i).getKey());
+            user.put("userName", names.get(entries.get(i).getKey()));
+            user.put("participationCount", entries.get(i).getValue());
+            user.put("activityScore", percentage(entries.get(i).getValue(), totalActivities));
             ranking.add(user);
         }
         return ranking;
@@ -355,7 +496,7 @@ public class StatisticsServiceImpl implements StatisticsService {
     public Map<String, Object> getBirthdayReminderStatistics(int daysAhead) {
         Map<String, Object> reminder = new HashMap<>();
         reminder.put("daysAhead", daysAhead);
-        reminder.put("upcomingBirthdays", 8);
+        reminder.put("upcomingBirthdays", countUpcoming(statisticsEngine.getUsersByBirthday(), daysAhead));
         return reminder;
     }
 
@@ -363,17 +504,158 @@ public class StatisticsServiceImpl implements StatisticsService {
     public Map<String, Object> getPartyAnniversaryReminderStatistics(int daysAhead) {
         Map<String, Object> reminder = new HashMap<>();
         reminder.put("daysAhead", daysAhead);
-        reminder.put("upcomingAnniversaries", 12);
+        reminder.put("upcomingAnniversaries", countUpcoming(statisticsEngine.getUsersByPartyAnniversary(), daysAhead));
         return reminder;
     }
 
     @Override
     public Map<String, Object> getExportStatistics(String exportType, Map<String, Object> filters) {
+        long totalRecords;
+        String type = exportType != null ? exportType.toLowerCase() : "";
+        switch (type) {
+            case "organizations":
+                totalRecords = statisticsEngine.getOrganizationsByType().total();
+                break;
+            case "activities":
+                totalRecords = statisticsEngine.getActivitiesByType().total();
+                break;
+            case "fees":
+                totalRecords = statisticsEngine.getPaymentsByStatus().total();
+                break;
+            default:
+                totalRecords = statisticsEngine.getUsersByActive().total();
+                break;
+        }
+
         Map<String, Object> stats = new HashMap<>();
         stats.put("exportType", exportType);
-        stats.put("totalRecords", 1500);
-        stats.put("filteredRecords", 850);
-        stats.put("estimatedFileSize", "2.5MB");
+        stats.put("totalRecords", totalRecords);
+        // 过滤条件在导出时才生效，这里按全部记录估算
+        stats.put("filteredRecords", totalRecords);
+        stats.put("estimatedFileSize", formatFileSize(totalRecords * ESTIMATED_RECORD_BYTES));
+        // 导出在后台线程执行，排队中的任务越多等待越久
+        stats.put("activeExportJobs", exportJobManager.getActiveJobCount());
         return stats;
     }
-}
\ No newline at end of file
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 用户增长趋势读取每日汇总，当天的数据最多滞后一个汇总周期
+     */
+    private List<Map<String, Object>> buildUserGrowthTrend(LocalDate start, LocalDate end) {
+        Map<LocalDate, Object[]> rows = byDate(statisticsDailyRollupRepository.sumByDate(start, end));
+
+        List<Map<String, Object>> trend = new ArrayList<>();
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            Object[] row = rows.get(date);
+            Map<String, Object> dayData = new HashMap<>();
+            dayData.put("date", date.toString());
+            dayData.put("newUsers", longAt(row, 1));
+            dayData.put("totalUsers", longAt(row, 2));
+            dayData.put("activeUsers", statisticsEngine.getLoginUserCount(date));
+            trend.add(dayData);
+        }
+        return trend;
+    }
+
+    private static Map<LocalDate, Object[]> byDate(List<Object[]> rows) {
+        Map<LocalDate, Object[]> byDate = new HashMap<>();
+        for (Object[] row : rows) {
+            byDate.put((LocalDate) row[0], row);
+        }
+        return byDate;
+    }
+
+    private static long longAt(Object[] row, int index) {
+        return row != null && row[index] != null ? ((Number) row[index]).longValue() : 0L;
+    }
+
+    private static BigDecimal amountAt(Object[] row, int index) {
+        return row != null && row[index] != null
+                ? ((BigDecimal) row[index]).setScale(2, RoundingMode.HALF_UP) : yuan(0);
+    }
+
+    private static long sumByDate(Tally<LocalDate> tally, LocalDate start, LocalDate end) {
+        long sum = 0;
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            sum += tally.get(date);
+        }
+        return sum;
+    }
+
+    private static long countUpcoming(Tally<MonthDay> tally, int daysAhead) {
+        LocalDate today = LocalDate.now();
+        Set<MonthDay> days = new HashSet<>();
+        for (int i = 0; i <= Math.min(daysAhead, 365); i++) {
+            days.add(MonthDay.from(today.plusDays(i)));
+        }
+        return tally.sum(days);
+    }
+
+    private static List<Map.Entry<Long, Long>> topEntries(Map<Long, Long> values, int limit) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(values.entrySet());
+        entries.sort(Map.Entry.<Long, Long>comparingByValue().reversed());
+        return entries.subList(0, Math.min(Math.max(limit, 0), entries.size()));
+    }
+
+    private static int ageGroupOf(int age) {
+        for (int i = AGE_GROUP_LOWER_BOUNDS.length - 1; i >= 0; i--) {
+            if (age >= AGE_GROUP_LOWER_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long overdueDays(YearMonth billingMonth, LocalDate today) {
+        return Math.max(0, ChronoUnit.DAYS.between(billingMonth.atEndOfMonth(), today));
+    }
+
+    private static Map<String, Object> genderItem(String gender, long count, long total) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("gender", gender);
+        item.put("count", count);
+        item.put("percentage", percentage(count, total));
+        return item;
+    }
+
+    private static double percentage(long part, long total) {
+        return total > 0 ? Math.round(part * 10000.0 / total) / 100.0 : 0.0;
+    }
+
+    private static BigDecimal yuan(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static String activityTypeName(int type) {
+        switch (type) {
+            case 1: return "支部大会";
+            case 2: return "支委会";
+            case 3: return "党小组会";
+            case 4: return "党课";
+            case 5: return "主题党日";
+            default: return "其他";
+        }
+    }
+
+    private static String paymentMethodName(FeePayment.PaymentMethod method) {
+        switch (method) {
+            case CASH: return "现金缴费";
+            case BANK_TRANSFER: return "银行转账";
+            case ONLINE: return "在线支付";
+            case DEDUCTION: return "工资代扣";
+            default: return method.name();
+        }
+    }
+
+    private static String formatFileSize(long bytes) {
+        if (bytes < 1024) {
+            return bytes + "B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1fKB", bytes / 1024.0);
+        }
+        return String.format("%.1fMB", bytes / (1024.0 * 1024.0));
+    }
+}
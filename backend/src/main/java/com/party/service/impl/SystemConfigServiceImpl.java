@@ -1,17 +1,19 @@
 package com.party.service.impl;
 
+import com.party.common.batch.BatchWriter;
 import com.party.entity.SystemConfig;
 import com.party.repository.SystemConfigRepository;
 import com.party.service.OperationLogService;
 import com.party.service.SystemConfigService;
+import com.party.systemconfig.SystemConfigIndex;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
@@ -24,11 +26,12 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.Comparator;
 import org.springframework.data.domain.PageImpl;
 
 /**
  * 系统配置管理服务实现类
+ * 按键、前缀、类型的查询、类型转换取值、搜索和统计都读取内存中的配置快照，不访问数据库；
+ * 所有写操作在事务提交后重建快照，并通过缓存版本表通知其他节点重建
  */
 @Service
 @Transactional
@@ -40,6 +43,12 @@ public class SystemConfigServiceImpl implements SystemConfigService {
     @Autowired
     private OperationLogService operationLogService;
     
+    @Autowired
+    private SystemConfigIndex systemConfigIndex;
+    
+    @Autowired
+    private BatchWriter batchWriter;
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     // ==================== 基础CRUD操作 ====================
@@ -52,6 +61,7 @@ public class SystemConfigServiceImpl implements SystemConfigService {
         }
         
         SystemConfig saved = systemConfigRepository.save(config);
+        systemConfigIndex.reloadAfterCommit();
         operationLogService.log("CREATE_CONFIG", "SystemConfig", "创建配置: " + config.getConfigKey());
         return saved;
     }
@@ -73,6 +83,7 @@ public class SystemConfigServiceImpl implements SystemConfigService {
         existing.setIsEncrypted(config.getIsEncrypted());
         
         SystemConfig updated = systemConfigRepository.save(existing);
+        systemConfigIndex.reloadAfterCommit();
         operationLogService.log("UPDATE_CONFIG", "SystemConfig", "更新配置: " + existing.getConfigKey());
         return updated;
     }
@@ -88,6 +99,7 @@ public class SystemConfigServiceImpl implements SystemConfigService {
         }
         
         systemConfigRepository.deleteById(id);
+        systemConfigIndex.reloadAfterCommit();
         operationLogService.log("DELETE_CONFIG", "SystemConfig", "删除配置: " + config.getConfigKey());
     }
     
@@ -107,67 +119,62 @@ public class SystemConfigServiceImpl implements SystemConfigService {
     // ==================== 按键查询 ====================
     
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = "systemConfig", key = "#key")
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public SystemConfig getConfigByKey(String key) {
-        return systemConfigRepository.findByConfigKey(key)
-            .orElseThrow(() -> new EntityNotFoundException("配置不存在: " + key));
+        SystemConfig config = systemConfigIndex.current().getConfig(key);
+        if (config == null) {
+            throw new EntityNotFoundException("配置不存在: " + key);
+        }
+        return config;
     }
     
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = "configValue", key = "#key")
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public String getConfigValue(String key) {
-        return systemConfigRepository.findByConfigKey(key)
-            .map(SystemConfig::getConfigValue)
-            .orElse(null);
+        SystemConfigIndex.Entry entry = systemConfigIndex.current().get(key);
+        return entry != null ? entry.getValue() : null;
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public String getConfigValue(String configKey, String defaultValue) {
         String value = getConfigValue(configKey);
         return value != null ? value : defaultValue;
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<SystemConfig> getConfigsByKeyPrefix(String keyPrefix) {
-        return systemConfigRepository.findByConfigKeyStartingWith(keyPrefix);
+        return systemConfigIndex.current().getByKeyPrefix(keyPrefix);
     }
     
     // ==================== 按类型查询 ====================
     
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<SystemConfig> getConfigsByValueType(SystemConfig.ValueType valueType) {
-        return systemConfigRepository.findByValueType(valueType);
+        return systemConfigIndex.current().getByValueType(valueType);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<SystemConfig> getUserVisibleConfigs() {
-        return systemConfigRepository.findUserVisibleConfigs();
+        return systemConfigIndex.current().getUserVisibleConfigs();
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<SystemConfig> getSystemConfigs() {
-        return systemConfigRepository.findAll().stream()
-                .filter(SystemConfig::getIsSystem)
-                .collect(Collectors.toList());
+        return systemConfigIndex.current().getSystemConfigs();
     }
     
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<SystemConfig> getEncryptedConfigs() {
-        return systemConfigRepository.findAll().stream()
-                .filter(SystemConfig::getIsEncrypted)
-                .collect(Collectors.toList());
+        return systemConfigIndex.current().getEncryptedConfigs();
     }
     
     // ==================== 设置配置值 ====================
     
     @Override
-    @CacheEvict(value = {"systemConfig", "configValue"}, key = "#configKey")
     public SystemConfig setConfigValue(String configKey, String configValue) {
         SystemConfig config = systemConfigRepository.findByConfigKey(configKey)
             .orElse(new SystemConfig());
@@ -183,13 +190,13 @@ public class SystemConfigServiceImpl implements SystemConfigService {
         
         config.setConfigValue(configValue);
         SystemConfig savedConfig = systemConfigRepository.save(config);
+        systemConfigIndex.reloadAfterCommit();
         
         operationLogService.log("SET_CONFIG_VALUE", "SystemConfig", "设置配置值: " + configKey);
         return savedConfig;
     }
     
     @Override
-    @CacheEvict(value = {"systemConfig", "configValue"}, key = "#configKey")
     public SystemConfig setConfigValue(String configKey, String configValue, String configName, String description) {
         SystemConfig config = systemConfigRepository.findByConfigKey(configKey)
             .orElse(new SystemConfig());
@@ -206,13 +213,13 @@ public class SystemConfigServiceImpl implements SystemConfigService {
         config.setConfigValue(configValue);
         config.setDescription(description);
         SystemConfig savedConfig = systemConfigRepository.save(config);
+        systemConfigIndex.reloadAfterCommit();
         
         operationLogService.log("SET_CONFIG_VALUE", "SystemConfig", "设置配置值: " + configKey);
         return savedConfig;
     }
     
     @Override
-    @CacheEvict(value = {"systemConfig", "configValue"}, allEntries = true)
     public Map<String, Boolean> setConfigValues(Map<String, String> configMap) {
         Map<String, Boolean> result = new HashMap<>();
         for (Map.Entry<String, String> entry : configMap.entrySet()) {
@@ -231,7 +238,6 @@ public class SystemConfigServiceImpl implements SystemConfigService {
     // ==================== 删除配置 ====================
     
     @Override
-    @CacheEvict(value = {"systemConfig", "configValue"}, key = "#key")
     public void deleteConfigByKey(String key) {
         SystemConfig config = systemConfigRepository.findByConfigKey(key)
             .orElseThrow(() -> new EntityNotFoundException("配置不存在: " + key));
@@ -241,79 +247,61 @@ public class SystemConfigServiceImpl implements SystemConfigService {
         }
         
         systemConfigRepository.delete(config);
+        systemConfigIndex.reloadAfterCommit();
         operationLogService.log("DELETE_CONFIG_BY_KEY", "SystemConfig", "删除配置: " + key);
     }
     
     // ==================== 类型转换 ====================
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public String getStringValue(String key, String defaultValue) {
         String value = getConfigValue(key);
         return value != null ? value : defaultValue;
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Integer getIntValue(String key, Integer defaultValue) {
-        String value = getConfigValue(key);
-        if (value == null) {
-            return defaultValue;
-        }
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
+        SystemConfigIndex.Entry entry = systemConfigIndex.current().get(key);
+        Integer value = entry != null ? entry.getIntValue() : null;
+        return value != null ? value : defaultValue;
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Long getLongValue(String key, Long defaultValue) {
-        String value = getConfigValue(key);
-        if (value == null) {
-            return defaultValue;
-        }
-        try {
-            return Long.parseLong(value);
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
+        SystemConfigIndex.Entry entry = systemConfigIndex.current().get(key);
+        Long value = entry != null ? entry.getLongValue() : null;
+        return value != null ? value : defaultValue;
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Double getDoubleValue(String key, Double defaultValue) {
-        String value = getConfigValue(key);
-        if (value == null) {
-            return defaultValue;
-        }
-        try {
-            return Double.parseDouble(value);
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
+        SystemConfigIndex.Entry entry = systemConfigIndex.current().get(key);
+        Double value = entry != null ? entry.getDoubleValue() : null;
+        return value != null ? value : defaultValue;
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Boolean getBooleanValue(String key, Boolean defaultValue) {
-        String value = getConfigValue(key);
-        if (value == null) {
-            return defaultValue;
-        }
-        return Boolean.parseBoolean(value);
+        SystemConfigIndex.Entry entry = systemConfigIndex.current().get(key);
+        Boolean value = entry != null ? entry.getBooleanValue() : null;
+        return value != null ? value : defaultValue;
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public <T> T getJsonValue(String configKey, Class<T> clazz) {
-        String value = getConfigValue(configKey);
+        SystemConfigIndex.Entry entry = systemConfigIndex.current().get(configKey);
+        JsonNode value = entry != null ? entry.getJsonValue() : null;
         if (value == null) {
             return null;
         }
         try {
-            return objectMapper.readValue(value, clazz);
+            return objectMapper.treeToValue(value, clazz);
         } catch (JsonProcessingException e) {
             return null;
         }
@@ -361,93 +349,85 @@ public class SystemConfigServiceImpl implements SystemConfigService {
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean existsByConfigKey(String configKey) {
-        return systemConfigRepository.existsByConfigKey(configKey);
+        return systemConfigIndex.current().contains(configKey);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean isSystemConfig(String configKey) {
-        return systemConfigRepository.findByConfigKey(configKey)
-            .map(SystemConfig::getIsSystem)
-            .orElse(false);
+        SystemConfig config = systemConfigIndex.current().getConfig(configKey);
+        return config != null && Boolean.TRUE.equals(config.getIsSystem());
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean isEncryptedConfig(String configKey) {
-        return systemConfigRepository.findByConfigKey(configKey)
-            .map(SystemConfig::getIsEncrypted)
-            .orElse(false);
+        SystemConfig config = systemConfigIndex.current().getConfig(configKey);
+        return config != null && Boolean.TRUE.equals(config.getIsEncrypted());
     }
     
     // ==================== 搜索功能 ====================
     
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<SystemConfig> searchConfigs(String keyword) {
-        return systemConfigRepository.findAll().stream()
-                .filter(config -> config.getConfigKey().toLowerCase().contains(keyword.toLowerCase()) ||
-                                (config.getConfigName() != null && config.getConfigName().toLowerCase().contains(keyword.toLowerCase())) ||
-                                (config.getDescription() != null && config.getDescription().toLowerCase().contains(keyword.toLowerCase())))
-                .collect(Collectors.toList());
+        return systemConfigIndex.current().search(keyword);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<SystemConfig> searchByConfigName(String configName) {
-        return systemConfigRepository.findAll().stream()
-                .filter(config -> config.getConfigName() != null && 
-                                config.getConfigName().toLowerCase().contains(configName.toLowerCase()))
-                .collect(Collectors.toList());
+        return systemConfigIndex.current().searchByName(configName);
     }
     
     // ==================== 统计功能 ====================
     
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Map<String, Object> getSystemStatistics() {
+        SystemConfigIndex.Snapshot snapshot = systemConfigIndex.current();
         Map<String, Object> statistics = new HashMap<>();
         
         // 总配置数量
-        long totalConfigs = systemConfigRepository.count();
-        statistics.put("totalConfigs", totalConfigs);
+        statistics.put("totalConfigs", (long) snapshot.size());
         
         // 系统配置数量
-        long systemConfigCount = systemConfigRepository.findAll().stream()
-            .mapToLong(config -> config.getIsSystem() ? 1L : 0L)
-            .sum();
-        statistics.put("systemConfigs", systemConfigCount);
+        statistics.put("systemConfigs", (long) snapshot.getSystemConfigs().size());
         
         // 加密配置数量
-        long encryptedConfigCount = 0L;
-        statistics.put("encryptedConfigs", encryptedConfigCount);
+        statistics.put("encryptedConfigs", (long) snapshot.getEncryptedConfigs().size());
         
         // 字符串类型配置数量
-        long stringConfigCount = 0L;
-        statistics.put("stringConfigs", stringConfigCount);
+        statistics.put("stringConfigs", snapshot.getCountByValueType().getOrDefault(SystemConfig.ValueType.STRING, 0L));
         
         // 最近更新时间
-        Optional<SystemConfig> recentConfig = systemConfigRepository.findAll().stream()
-            .max(Comparator.comparing(SystemConfig::getUpdatedAt));
-        recentConfig.ifPresent(config -> statistics.put("lastUpdated", config.getUpdatedAt()));
+        if (snapshot.getLastUpdated() != null) {
+            statistics.put("lastUpdated", snapshot.getLastUpdated());
+        }
+        
+        // 配置快照版本
+        statistics.put("configVersion", snapshot.getVersion());
+        statistics.put("configLoadedAt", snapshot.getLoadedAt());
         
         return statistics;
     }
     
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public long countUserConfigs() {
-        return systemConfigRepository.countUserConfigs();
+        return systemConfigIndex.current().getUserConfigCount();
     }
     
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public long countSystemConfigs() {
-        return systemConfigRepository.findAll().stream()
-            .filter(SystemConfig::getIsSystem)
-            .count();
+        return systemConfigIndex.current().getSystemConfigs().size();
     }
     
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public long countAllConfigs() {
-        return systemConfigRepository.count();
+        return systemConfigIndex.current().size();
     }
     
     @Override
@@ -464,38 +444,34 @@ public class SystemConfigServiceImpl implements SystemConfigService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Map<String, String> getConfigValues(List<String> configKeys) {
-        List<Object[]> results = systemConfigRepository.findConfigValues(configKeys);
+        SystemConfigIndex.Snapshot snapshot = systemConfigIndex.current();
         Map<String, String> configMap = new HashMap<>();
-        for (Object[] result : results) {
-            String key = (String) result[0];
-            String value = (String) result[1];
-            configMap.put(key, value);
+        for (String key : configKeys) {
+            SystemConfigIndex.Entry entry = snapshot.get(key);
+            if (entry != null) {
+                configMap.put(key, entry.getValue());
+            }
         }
         return configMap;
     }
     
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Map<SystemConfig.ValueType, Long> countConfigsByValueType() {
-        return systemConfigRepository.findAll().stream()
-            .collect(Collectors.groupingBy(
-                SystemConfig::getValueType,
-                Collectors.counting()
-            ));
+        return systemConfigIndex.current().getCountByValueType();
     }
+    
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<SystemConfig> getRecentlyUpdatedConfigs(int limit) {
-        return systemConfigRepository.findAll().stream()
-                .sorted(Comparator.comparing(SystemConfig::getUpdatedAt).reversed())
-                .limit(limit > 0 ? limit : 10)
-                .collect(Collectors.toList());
+        return systemConfigIndex.current().getRecentlyUpdated(limit > 0 ? limit : 10);
     }
     
     // ==================== 导入导出功能 ====================
     
     @Override
-    @CacheEvict(value = {"systemConfig", "configValue"}, allEntries = true)
     public Map<String, Object> importConfigs(String filePath, boolean overwriteExisting) {
         try {
             File importFile = new File(filePath);
@@ -544,7 +520,7 @@ public class SystemConfigServiceImpl implements SystemConfigService {
     
     @Override
     public String exportConfigs(boolean includeSystemConfigs, boolean includeEncryptedConfigs) {
-        List<SystemConfig> configs = systemConfigRepository.findAll();
+        List<SystemConfig> configs = systemConfigIndex.current().getAll();
         
         // 过滤配置
         configs = configs.stream()
@@ -599,7 +575,6 @@ public class SystemConfigServiceImpl implements SystemConfigService {
     }
     
     @Override
-    @CacheEvict(value = {"systemConfig", "configValue"}, allEntries = true)
     public Map<String, Object> restoreConfigs(String backupPath) {
         try {
             File backupFile = new File(backupPath);
@@ -609,29 +584,60 @@ public class SystemConfigServiceImpl implements SystemConfigService {
             
             SystemConfig[] configs = objectMapper.readValue(backupFile, SystemConfig[].class);
             
-            int successCount = 0;
-            int failCount = 0;
+            // 一次IN查询找出已存在的配置键：已存在的按备份更新，不存在的新建
+            Map<Object, Long> existingIds = batchWriter.findOwners(SystemConfig.class, "configKey",
+                    Arrays.stream(configs).map(SystemConfig::getConfigKey).collect(Collectors.toList()));
             List<String> errors = new ArrayList<>();
+            Set<String> seenKeys = new HashSet<>();
+            List<SystemConfig> created = new ArrayList<>();
+            Map<Long, SystemConfig> updated = new LinkedHashMap<>();
             
             for (SystemConfig config : configs) {
-                try {
-                    // 重置ID，让JPA自动生成
+                String configKey = config.getConfigKey();
+                if (!StringUtils.hasText(configKey)) {
+                    errors.add(configKey + ": 配置键不能为空");
+                } else if (!seenKeys.add(configKey)) {
+                    errors.add(configKey + ": 配置键在备份中重复");
+                } else if (!StringUtils.hasText(config.getConfigName())) {
+                    errors.add(configKey + ": 配置名称不能为空");
+                } else if (existingIds.containsKey(configKey)) {
+                    updated.put(existingIds.get(configKey), config);
+                } else {
+                    // 重置ID，由序列分配
                     config.setId(null);
-                    systemConfigRepository.save(config);
-                    successCount++;
-                } catch (Exception e) {
-                    failCount++;
-                    errors.add(config.getConfigKey() + ": " + e.getMessage());
+                    applyRestoreDefaults(config);
+                    created.add(config);
                 }
             }
             
+            batchWriter.persistAll(created);
+            batchWriter.inChunks(new ArrayList<>(updated.keySet()), chunk -> {
+                Map<Long, SystemConfig> existingConfigs = batchWriter.findByIds(SystemConfig.class, chunk);
+                for (Long id : chunk) {
+                    SystemConfig existing = existingConfigs.get(id);
+                    SystemConfig backup = updated.get(id);
+                    applyRestoreDefaults(backup);
+                    existing.setConfigValue(backup.getConfigValue());
+                    existing.setConfigName(backup.getConfigName());
+                    existing.setDescription(backup.getDescription());
+                    existing.setValueType(backup.getValueType());
+                    existing.setIsSystem(backup.getIsSystem());
+                    existing.setIsEncrypted(backup.getIsEncrypted());
+                }
+            });
+            
+            systemConfigIndex.reloadAfterCommit();
+            
+            int successCount = created.size() + updated.size();
             Map<String, Object> result = new HashMap<>();
             result.put("totalCount", configs.length);
             result.put("successCount", successCount);
-            result.put("failCount", failCount);
+            result.put("createdCount", created.size());
+            result.put("updatedCount", updated.size());
+            result.put("failCount", errors.size());
             result.put("errors", errors);
             
-            operationLogService.log("RESTORE_CONFIGS", "SystemConfig", "从备份恢复 " + configs.length + " 个配置，成功 " + successCount + " 个");
+            operationLogService.log("RESTORE_CONFIGS", "SystemConfig", "从备份恢复 " + configs.length + " 个配置，新建 " + created.size() + " 个，更新 " + updated.size() + " 个");
             
             return result;
         } catch (IOException e) {
@@ -639,21 +645,39 @@ public class SystemConfigServiceImpl implements SystemConfigService {
         }
     }
     
+    /**
+     * 备份文件中缺省的必填字段取实体默认值
+     */
+    private void applyRestoreDefaults(SystemConfig config) {
+        if (config.getValueType() == null) {
+            config.setValueType(SystemConfig.ValueType.STRING);
+        }
+        if (config.getIsSystem() == null) {
+            config.setIsSystem(false);
+        }
+        if (config.getIsEncrypted() == null) {
+            config.setIsEncrypted(false);
+        }
+    }
+    
     // ==================== 缓存管理 ====================
     
     @Override
     public void refreshConfigCache() {
+        // 同时通知其他节点重新加载，用于数据库被直接修改之后
+        systemConfigIndex.reloadAfterCommit();
         operationLogService.log("REFRESH_CONFIG_CACHE", "SystemConfig", "刷新配置缓存");
     }
     
     @Override
     public void refreshConfigCache(String configKey) {
-        // 刷新指定配置的缓存
-        // 这里可以添加指定配置的缓存刷新逻辑
+        // 快照整体重建，单项刷新同样重新加载全部配置
+        systemConfigIndex.reloadAfterCommit();
     }
     
     @Override
     public void clearConfigCache() {
+        systemConfigIndex.reloadAfterCommit();
         operationLogService.log("CLEAR_CONFIG_CACHE", "SystemConfig", "清空配置缓存");
     }
     
@@ -696,6 +720,7 @@ public class SystemConfigServiceImpl implements SystemConfigService {
             }
         }
         
+        systemConfigIndex.reloadAfterCommit();
         operationLogService.log("INIT_DEFAULT_CONFIGS", "SystemConfig", 
             String.format("初始化默认配置: 创建%d个, 更新%d个", created, updated));
     }
@@ -727,12 +752,13 @@ public class SystemConfigServiceImpl implements SystemConfigService {
             }
         }
         
+        systemConfigIndex.reloadAfterCommit();
         operationLogService.log("CHECK_REQUIRED_CONFIGS", "SystemConfig", 
             String.format("检查并创建必需配置: 创建%d个", createdCount));
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Map<String, Object> getSystemInfo() {
         Map<String, Object> systemInfo = new HashMap<>();
         
@@ -776,6 +802,9 @@ public class SystemConfigServiceImpl implements SystemConfigService {
         configs.put("security.password.max.attempts", "5");
         configs.put("security.session.max.concurrent", "1");
         
+        // 日志配置
+        configs.put("log.retention.days", "180"); // 操作日志保留天数
+        
         // 邮件配置
         configs.put("email.smtp.host", "");
         configs.put("email.smtp.port", "587");
@@ -807,6 +836,7 @@ public class SystemConfigServiceImpl implements SystemConfigService {
         names.put("security.password.min.length", "密码最小长度");
         names.put("security.password.max.attempts", "密码最大尝试次数");
         names.put("security.session.max.concurrent", "最大并发会话数");
+        names.put("log.retention.days", "操作日志保留天数");
         names.put("email.smtp.host", "SMTP服务器地址");
         names.put("email.smtp.port", "SMTP服务器端口");
         names.put("email.smtp.username", "SMTP用户名");
@@ -837,6 +867,7 @@ public class SystemConfigServiceImpl implements SystemConfigService {
         descriptions.put("security.password.min.length", "用户密码最小长度要求");
         descriptions.put("security.password.max.attempts", "密码错误最大尝试次数");
         descriptions.put("security.session.max.concurrent", "单用户最大并发登录会话数");
+        descriptions.put("log.retention.days", "超过保留天数的操作日志由定时任务分段清理，0表示不清理");
         descriptions.put("email.smtp.host", "邮件服务器SMTP地址");
         descriptions.put("email.smtp.port", "邮件服务器SMTP端口");
         descriptions.put("email.smtp.username", "邮件服务器登录用户名");
@@ -1,12 +1,22 @@
 package com.party.service.impl;
 
+import com.party.common.batch.BatchResult;
+import com.party.common.batch.BatchWriter;
+import com.party.common.cache.BoundedCacheManager;
+import com.party.common.cache.CacheNames;
+import com.party.common.pagination.Cursor;
+import com.party.common.pagination.CursorPage;
 import com.party.entity.User;
 import com.party.repository.UserRepository;
 import com.party.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -15,7 +25,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import javax.annotation.PostConstruct;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 用户服务实现类
@@ -38,7 +51,23 @@ public class UserServiceImpl implements UserService {
     @Value("${party.system.default-password}")
     private String defaultPassword;
 
+    @Autowired
+    private BoundedCacheManager cacheManager;
+
+    @Autowired
+    private BatchWriter batchWriter;
+
+    /**
+     * 注册用户缓存的后台刷新加载函数，常用用户在缓存过期前在后台重新加载
+     */
+    @PostConstruct
+    public void registerCacheLoader() {
+        cacheManager.registerLoader(CacheNames.USERS,
+                key -> userRepository.findById((Long) key).map(UserServiceImpl::detachedCopy).orElse(null));
+    }
+
     @Override
+    @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
     public User createUser(User user) {
         logger.info("创建用户: {}", user.getUsername());
         
@@ -84,6 +113,10 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
+    })
     public User updateUser(Long id, User user) {
         logger.info("更新用户: ID={}", id);
         
@@ -118,46 +151,7 @@ public class UserServiceImpl implements UserService {
             throw new RuntimeException("身份证号已存在: " + user.getIdCard());
         }
         
-        // 更新字段
-        if (StringUtils.hasText(user.getUsername())) {
-            existingUser.setUsername(user.getUsername());
-        }
-        if (StringUtils.hasText(user.getRealName())) {
-            existingUser.setRealName(user.getRealName());
-        }
-        if (StringUtils.hasText(user.getIdCard())) {
-            existingUser.setIdCard(user.getIdCard());
-        }
-        if (StringUtils.hasText(user.getPhone())) {
-            existingUser.setPhone(user.getPhone());
-        }
-        if (StringUtils.hasText(user.getEmail())) {
-            existingUser.setEmail(user.getEmail());
-        }
-        if (user.getGender() != null) {
-            existingUser.setGender(user.getGender());
-        }
-        if (user.getBirthDate() != null) {
-            existingUser.setBirthDate(user.getBirthDate());
-        }
-        if (user.getJoinPartyDate() != null) {
-            existingUser.setJoinPartyDate(user.getJoinPartyDate());
-        }
-        if (user.getPartyStatus() != null) {
-            existingUser.setPartyStatus(user.getPartyStatus());
-        }
-        if (user.getOrganizationId() != null) {
-            existingUser.setOrganizationId(user.getOrganizationId());
-        }
-        if (user.getRoleId() != null) {
-            existingUser.setRoleId(user.getRoleId());
-        }
-        if (StringUtils.hasText(user.getAvatarUrl())) {
-            existingUser.setAvatarUrl(user.getAvatarUrl());
-        }
-        if (user.getIsActive() != null) {
-            existingUser.setIsActive(user.getIsActive());
-        }
+        applyChanges(existingUser, user);
         
         User updatedUser = userRepository.save(existingUser);
         logger.info("用户更新成功: ID={}, 用户名={}", updatedUser.getId(), updatedUser.getUsername());
@@ -165,6 +159,10 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
+    })
     public void deleteUser(Long id) {
         logger.info("删除用户: ID={}", id);
         
@@ -178,8 +176,10 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.USERS, key = "#id", sync = true)
     public Optional<User> findById(Long id) {
-        return userRepository.findById(id);
+        // 缓存在线程间共享，只缓存不属于任何持久化上下文、不含延迟加载代理的副本
+        return userRepository.findById(id).map(UserServiceImpl::detachedCopy);
     }
 
     @Override
@@ -195,6 +195,10 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.USERS, key = "#result.id"),
+            @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
+    })
     public User save(User user) {
         return userRepository.save(user);
     }
@@ -218,6 +222,22 @@ public class UserServiceImpl implements UserService {
         return userRepository.findByConditions(realName, organizationId, partyStatus, isActive, pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<User> findByConditions(String realName, Long organizationId, Integer partyStatus,
+                                             Boolean isActive, String after, int size, boolean withTotal) {
+        long afterId = StringUtils.hasText(after) ? Cursor.decode(after).getId() : 0L;
+        // 多取一行判断是否还有下一页
+        List<User> rows = userRepository.findByConditionsAfter(realName, organizationId, partyStatus, isActive,
+                afterId, PageRequest.of(0, size + 1));
+        CursorPage<User> page = CursorPage.of(rows, size, user -> Cursor.of(user.getId()));
+        if (withTotal) {
+            page = page.withTotal(userRepository.findByConditions(realName, organizationId, partyStatus, isActive,
+                    PageRequest.of(0, 1)).getTotalElements());
+        }
+        return page;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<User> findByOrganizationId(Long organizationId) {
@@ -237,6 +257,10 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
+    })
     public void activateUser(Long id) {
         logger.info("激活用户: ID={}", id);
         
@@ -250,6 +274,10 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
+    })
     public void deactivateUser(Long id) {
         logger.info("停用用户: ID={}", id);
         
@@ -263,6 +291,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.USERS, key = "#id")
     public void changePassword(Long id, String oldPassword, String newPassword) {
         logger.info("修改用户密码: ID={}", id);
         
@@ -282,6 +311,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.USERS, key = "#id")
     public void resetPassword(Long id, String newPassword) {
         logger.info("重置用户密码: ID={}", id);
         
@@ -362,44 +392,91 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<User> batchCreateUsers(List<User> users) {
+    @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
+    public BatchResult<User> batchCreateUsers(List<User> users) {
         logger.info("批量创建用户: 数量={}", users.size());
-        
-        List<User> createdUsers = new ArrayList<>();
-        for (User user : users) {
-            try {
-                User createdUser = createUser(user);
-                createdUsers.add(createdUser);
-            } catch (Exception e) {
-                logger.error("批量创建用户失败: 用户名={}, 错误={}", user.getUsername(), e.getMessage());
-                // 继续处理其他用户
+        long startTime = System.currentTimeMillis();
+        BatchResult<User> result = new BatchResult<>(users.size());
+        
+        Map<Integer, String> failures = validateBatchUniqueness(users, false);
+        List<User> accepted = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            String failure = failures.get(i);
+            if (failure != null) {
+                result.addError(i, user.getUsername(), failure);
+                continue;
+            }
+            user.setId(null);
+            if (!StringUtils.hasText(user.getPassword())) {
+                user.setPassword(defaultPassword);
+            }
+            if (user.getIsActive() == null) {
+                user.setIsActive(true);
+            }
+            if (user.getPartyStatus() == null) {
+                user.setPartyStatus(1); // 默认为正式党员
             }
+            accepted.add(user);
         }
         
-        logger.info("批量创建用户完成: 成功={}, 总数={}", createdUsers.size(), users.size());
-        return createdUsers;
+        encodePasswords(accepted);
+        batchWriter.persistAll(accepted);
+        accepted.forEach(result::addSuccess);
+        
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        logger.info("批量创建用户完成: 成功={}, 失败={}, 总数={}, 耗时={}ms",
+                result.getSuccessCount(), result.getFailureCount(), users.size(), result.getElapsedMillis());
+        return result;
     }
 
     @Override
-    public List<User> batchUpdateUsers(List<User> users) {
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.USERS, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
+    })
+    public BatchResult<User> batchUpdateUsers(List<User> users) {
         logger.info("批量更新用户: 数量={}", users.size());
-        
-        List<User> updatedUsers = new ArrayList<>();
-        for (User user : users) {
-            try {
-                User updatedUser = updateUser(user.getId(), user);
-                updatedUsers.add(updatedUser);
-            } catch (Exception e) {
-                logger.error("批量更新用户失败: ID={}, 错误={}", user.getId(), e.getMessage());
-                // 继续处理其他用户
+        long startTime = System.currentTimeMillis();
+        BatchResult<User> result = new BatchResult<>(users.size());
+        
+        Map<Integer, String> failures = validateBatchUniqueness(users, true);
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            String failure = failures.get(i);
+            if (failure != null) {
+                result.addError(i, users.get(i).getId(), failure);
+            } else {
+                accepted.add(i);
             }
         }
         
-        logger.info("批量更新用户完成: 成功={}, 总数={}", updatedUsers.size(), users.size());
-        return updatedUsers;
+        batchWriter.inChunks(accepted, chunk -> {
+            Map<Long, User> existingUsers = batchWriter.findByIds(User.class,
+                    chunk.stream().map(i -> users.get(i).getId()).collect(Collectors.toList()));
+            for (Integer index : chunk) {
+                User user = users.get(index);
+                User existingUser = existingUsers.get(user.getId());
+                if (existingUser == null) {
+                    result.addError(index, user.getId(), "用户不存在: ID=" + user.getId());
+                    continue;
+                }
+                applyChanges(existingUser, user);
+                result.addSuccess(existingUser);
+            }
+        });
+        
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        logger.info("批量更新用户完成: 成功={}, 失败={}, 总数={}, 耗时={}ms",
+                result.getSuccessCount(), result.getFailureCount(), users.size(), result.getElapsedMillis());
+        return result;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.USERS, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
+    })
     public void batchDeleteUsers(List<Long> userIds) {
         logger.info("批量删除用户: 数量={}", userIds.size());
         
@@ -418,6 +495,10 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.USERS, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.ORGANIZATIONS, allEntries = true)
+    })
     public void transferUsersToOrganization(List<Long> userIds, Long newOrganizationId) {
         logger.info("转移用户到新组织: 用户数量={}, 新组织ID={}", userIds.size(), newOrganizationId);
         
@@ -431,6 +512,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.USERS, key = "#id")
     public void updateUserAvatar(Long id, String avatarUrl) {
         logger.info("更新用户头像: ID={}", id);
         
@@ -489,6 +571,121 @@ public class UserServiceImpl implements UserService {
         return statistics;
     }
     
+    // ==================== 批量写入 ====================
+
+    /**
+     * 校验批量创建或更新的用户，每个唯一字段一次IN查询，同时检查本批内的重复
+     * @param update 是否为更新，更新时用户名可为空，字段被本用户占用不算冲突
+     * @return 校验失败的条目序号到原因的映射，每个条目只记录第一个原因
+     */
+    private Map<Integer, String> validateBatchUniqueness(List<User> users, boolean update) {
+        Map<Integer, String> failures = new HashMap<>();
+        Set<Long> seenIds = new HashSet<>();
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            if (update && user.getId() == null) {
+                failures.put(i, "用户ID不能为空");
+            } else if (update && !seenIds.add(user.getId())) {
+                failures.put(i, "用户ID在本批中重复: " + user.getId());
+            } else if (!update && !StringUtils.hasText(user.getUsername())) {
+                failures.put(i, "用户名不能为空");
+            }
+        }
+        checkBatchUnique(users, update, failures, "username", "用户名", User::getUsername);
+        checkBatchUnique(users, update, failures, "phone", "手机号", User::getPhone);
+        checkBatchUnique(users, update, failures, "email", "邮箱", User::getEmail);
+        checkBatchUnique(users, update, failures, "idCard", "身份证号", User::getIdCard);
+        return failures;
+    }
+
+    private void checkBatchUnique(List<User> users, boolean update, Map<Integer, String> failures,
+                                  String field, String label, Function<User, String> getter) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            String value = getter.apply(users.get(i));
+            if (!failures.containsKey(i) && StringUtils.hasText(value)) {
+                values.add(value);
+            }
+        }
+        Map<Object, Long> owners = batchWriter.findOwners(User.class, field, values);
+        Set<String> claimed = new HashSet<>();
+        for (int i = 0; i < users.size(); i++) {
+            String value = getter.apply(users.get(i));
+            if (failures.containsKey(i) || !StringUtils.hasText(value)) {
+                continue;
+            }
+            Long owner = owners.get(value);
+            if (owner != null && !(update && owner.equals(users.get(i).getId()))) {
+                failures.put(i, label + "已存在: " + value);
+            } else if (!claimed.add(value)) {
+                failures.put(i, label + "在本批中重复: " + value);
+            }
+        }
+    }
+
+    /**
+     * 复制用户的字段值，不复制组织、角色等延迟加载的关联
+     */
+    private static User detachedCopy(User user) {
+        User copy = new User();
+        BeanUtils.copyProperties(user, copy, "organization", "role", "roles");
+        return copy;
+    }
+
+    /**
+     * 并行加密批量创建的用户密码
+     * 每个用户单独加密，使用相同明文的用户也各自得到带独立盐值的密文；
+     * 批量导入时BCrypt加密占去大部分时间，按用户并行以利用多核
+     */
+    private void encodePasswords(List<User> users) {
+        users.parallelStream().forEach(user -> user.setPassword(passwordEncoder.encode(user.getPassword())));
+    }
+
+    /**
+     * 将请求中非空的字段复制到已有用户
+     */
+    private void applyChanges(User existingUser, User user) {
+        if (StringUtils.hasText(user.getUsername())) {
+            existingUser.setUsername(user.getUsername());
+        }
+        if (StringUtils.hasText(user.getRealName())) {
+            existingUser.setRealName(user.getRealName());
+        }
+        if (StringUtils.hasText(user.getIdCard())) {
+            existingUser.setIdCard(user.getIdCard());
+        }
+        if (StringUtils.hasText(user.getPhone())) {
+            existingUser.setPhone(user.getPhone());
+        }
+        if (StringUtils.hasText(user.getEmail())) {
+            existingUser.setEmail(user.getEmail());
+        }
+        if (user.getGender() != null) {
+            existingUser.setGender(user.getGender());
+        }
+        if (user.getBirthDate() != null) {
+            existingUser.setBirthDate(user.getBirthDate());
+        }
+        if (user.getJoinPartyDate() != null) {
+            existingUser.setJoinPartyDate(user.getJoinPartyDate());
+        }
+        if (user.getPartyStatus() != null) {
+            existingUser.setPartyStatus(user.getPartyStatus());
+        }
+        if (user.getOrganizationId() != null) {
+            existingUser.setOrganizationId(user.getOrganizationId());
+        }
+        if (user.getRoleId() != null) {
+            existingUser.setRoleId(user.getRoleId());
+        }
+        if (StringUtils.hasText(user.getAvatarUrl())) {
+            existingUser.setAvatarUrl(user.getAvatarUrl());
+        }
+        if (user.getIsActive() != null) {
+            existingUser.setIsActive(user.getIsActive());
+        }
+    }
+
     private String getPartyStatusText(Integer status) {
         if (status == null) return "未知";
         switch (status) {
@@ -0,0 +1,877 @@
+package com.party.statistics;
+
+import com.party.common.cache.CacheCoherenceManager;
+import com.party.common.cache.CacheRegion;
+import com.party.entity.Activity;
+import com.party.entity.ActivityParticipant;
+import com.party.entity.FeePayment;
+import com.party.entity.FeeStandard;
+import com.party.entity.Organization;
+import com.party.entity.User;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.MonthDay;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 统计引擎
+ * 启动时从数据库加载一次聚合计数，之后通过Hibernate提交后事件增量维护内存中的计数器和按日分桶，
+ * 统计接口只读取这些分桶，不再扫描业务表
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class StatisticsEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsEngine.class);
+
+    /** 加载失败后的重试间隔 */
+    private static final long RELOAD_RETRY_INTERVAL_MS = 60_000L;
+
+    /** 登录用户按日保留的天数 */
+    private static final int LOGIN_RETENTION_DAYS = 366;
+
+    /** 参与者状态：已签到 */
+    private static final int PARTICIPANT_SIGNED_IN = 2;
+
+    private static final String USER_SQL = "SELECT id, gender, birth_date, join_party_date, party_status, " +
+            "organization_id, is_active, created_at FROM users";
+    private static final String ORGANIZATION_SQL = "SELECT id, name, type, is_active FROM organizations";
+    private static final String ACTIVITY_SQL = "SELECT id, type, status, organization_id, start_time, created_at " +
+            "FROM activities";
+    private static final String PARTICIPANT_SQL = "SELECT id, activity_id, user_id, status FROM activity_participants";
+    private static final String FEE_PAYMENT_SQL = "SELECT id, payment_year, payment_month, fee_amount, payment_date, " +
+            "payment_method, status FROM fee_payments";
+    private static final String FEE_STANDARD_SQL = "SELECT id, status FROM fee_standards";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheCoherenceManager cacheCoherenceManager;
+
+    private final Object lock = new Object();
+
+    /** 同一时间只进行一次重新加载 */
+    private final Object rebuildLock = new Object();
+
+    /** 当前对外提供的计数，重新加载时整体替换 */
+    private volatile Counters counters = new Counters();
+
+    private volatile boolean loaded;
+
+    private volatile long lastLoadFailure;
+
+    /** 每次标记失效时递增，用于判断重新加载期间是否又有批量操作 */
+    private volatile long staleGeneration;
+
+    /** 重新加载期间提交的变更，按提交顺序记录，未在加载时为null */
+    private List<PendingChange> pendingChanges;
+
+    private final Map<LocalDate, Set<Long>> loginUsersByDate = new ConcurrentHashMap<>();
+
+    /**
+     * 注册Hibernate提交后事件监听，事务回滚的写入不会影响计数
+     */
+    @PostConstruct
+    public void registerListeners() {
+        StatisticsEventListener listener = new StatisticsEventListener(this);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        // 其他节点的计数无法增量同步，收到变更通知后标记失效，下次读取时重新加载
+        cacheCoherenceManager.register(CacheRegion.STATISTICS, this::markStale);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * 从数据库重新加载全部计数
+     * 仅在启动或绕过实体写入的批量操作之后调用。扫描业务表时不持有计数锁，结果写入新的计数，
+     * 完成后整体替换，读取方在加载期间继续看到原有计数；加载失败时保留原有计数
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            long generation = staleGeneration;
+            Counters fresh = new Counters();
+            // 按增量计数的实体记下扫描到的统计维度，加载期间提交的变更据此按最终状态校正
+            Map<Class<?>, Map<Object, Object>> scanned = new HashMap<>();
+            Map<Object, Object> scannedUsers = scanned.computeIfAbsent(User.class, type -> new HashMap<>());
+            Map<Object, Object> scannedParticipants =
+                    scanned.computeIfAbsent(ActivityParticipant.class, type -> new HashMap<>());
+            Map<Object, Object> scannedPayments = scanned.computeIfAbsent(FeePayment.class, type -> new HashMap<>());
+            Map<Object, Object> scannedStandards = scanned.computeIfAbsent(FeeStandard.class, type -> new HashMap<>());
+            synchronized (lock) {
+                pendingChanges = new ArrayList<>();
+            }
+            try {
+                jdbcTemplate.query(ORGANIZATION_SQL, (RowCallbackHandler) rs ->
+                        fresh.applyOrganization(rs.getLong("id"), new OrganizationFacts(rs.getString("name"),
+                                getInteger(rs, "type"), getBoolean(rs, "is_active"))));
+                jdbcTemplate.query(ACTIVITY_SQL, (RowCallbackHandler) rs ->
+                        fresh.applyActivity(rs.getLong("id"), new ActivityFacts(getInteger(rs, "type"),
+                                getInteger(rs, "status"), getLong(rs, "organization_id"),
+                                toDate(rs.getTimestamp("start_time")), toDate(rs.getTimestamp("created_at")))));
+                jdbcTemplate.query(PARTICIPANT_SQL, (RowCallbackHandler) rs -> {
+                    ParticipantFacts participant = new ParticipantFacts(getLong(rs, "activity_id"),
+                            getLong(rs, "user_id"), getInteger(rs, "status"));
+                    scannedParticipants.put(rs.getLong("id"), participant);
+                    fresh.contribute(participant, 1);
+                });
+                jdbcTemplate.query(USER_SQL, (RowCallbackHandler) rs -> {
+                    UserFacts user = new UserFacts(getInteger(rs, "gender"), toDate(rs.getDate("birth_date")),
+                            toDate(rs.getDate("join_party_date")), getInteger(rs, "party_status"),
+                            getLong(rs, "organization_id"), getBoolean(rs, "is_active"),
+                            toDate(rs.getTimestamp("created_at")));
+                    scannedUsers.put(rs.getLong("id"), user);
+                    fresh.contribute(user, 1);
+                });
+                jdbcTemplate.query(FEE_PAYMENT_SQL, (RowCallbackHandler) rs -> {
+                    FeePaymentFacts payment = new FeePaymentFacts(getInteger(rs, "payment_year"),
+                            getInteger(rs, "payment_month"), rs.getBigDecimal("fee_amount"),
+                            toDate(rs.getDate("payment_date")),
+                            toEnum(FeePayment.PaymentMethod.class, rs.getString("payment_method")),
+                            toEnum(FeePayment.PaymentStatus.class, rs.getString("status")));
+                    scannedPayments.put(rs.getLong("id"), payment);
+                    fresh.contribute(payment, 1);
+                });
+                jdbcTemplate.query(FEE_STANDARD_SQL, (RowCallbackHandler) rs -> {
+                    FeeStandard.FeeStandardStatus status =
+                            toEnum(FeeStandard.FeeStandardStatus.class, rs.getString("status"));
+                    scannedStandards.put(rs.getLong("id"), status);
+                    fresh.contribute(status, 1);
+                });
+                synchronized (lock) {
+                    replayPendingChanges(fresh, scanned);
+                    pendingChanges = null;
+                    counters = fresh;
+                    // 加载期间又有批量操作时保持失效，下次读取再加载
+                    loaded = generation == staleGeneration;
+                }
+                logger.info("统计数据加载完成: 用户{}个, 组织{}个, 活动{}个, 耗时{}ms",
+                        fresh.usersByActive.total(), fresh.organizations.size(), fresh.activities.size(),
+                        System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                synchronized (lock) {
+                    pendingChanges = null;
+                }
+                lastLoadFailure = System.currentTimeMillis();
+                logger.error("加载统计数据失败: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 把加载期间提交的变更补到新的计数上，调用方持有计数锁
+     * 提交后事件晚于提交本身，扫描可能已经读到其中一部分变更，所以不能按增量重放：
+     * 组织和活动按ID记录最新状态，按顺序覆盖即可；其余实体取每个ID最后一次变更后的状态，
+     * 替换扫描时读到的状态
+     */
+    private void replayPendingChanges(Counters fresh, Map<Class<?>, Map<Object, Object>> scanned) {
+        Map<Class<?>, Map<Object, Object>> latest = new HashMap<>();
+        for (PendingChange change : pendingChanges) {
+            if (scanned.containsKey(change.entityType)) {
+                latest.computeIfAbsent(change.entityType, type -> new HashMap<>()).put(change.id, change.after);
+            } else {
+                change.apply.accept(fresh);
+            }
+        }
+        latest.forEach((type, states) -> {
+            Map<Object, Object> scannedOfType = scanned.get(type);
+            states.forEach((id, after) -> {
+                fresh.contribute(scannedOfType.get(id), -1);
+                fresh.contribute(after, 1);
+            });
+        });
+    }
+
+    /**
+     * 标记计数失效，下次读取时重新加载，并通知其他节点
+     */
+    public void invalidate() {
+        markStale();
+        cacheCoherenceManager.publishAfterCommit(CacheRegion.STATISTICS);
+    }
+
+    /**
+     * 在当前事务提交后标记计数失效，供事务内绕过实体写入的批量更新调用，无事务时立即失效
+     * 提交前就标记失效的话，期间的读取会按未提交前的数据重新加载并视为最新
+     */
+    public void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markStale();
+            }
+        });
+        cacheCoherenceManager.publishAfterCommit(CacheRegion.STATISTICS);
+    }
+
+    private void markStale() {
+        staleGeneration++;
+        loaded = false;
+        lastLoadFailure = 0;
+    }
+
+    /**
+     * 记录用户登录
+     */
+    public void recordLogin(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        loginUsersByDate.computeIfAbsent(today, date -> ConcurrentHashMap.newKeySet()).add(userId);
+        loginUsersByDate.keySet().removeIf(date -> date.isBefore(today.minusDays(LOGIN_RETENTION_DAYS)));
+    }
+
+    // ==================== 事件处理 ====================
+
+    /**
+     * 处理实体的提交后变更，oldState为空表示新增，newState为空表示删除
+     */
+    void onEntityChange(Object entity, EntityPersister persister, Object id, Object[] oldState, Object[] newState) {
+        // 提交后事件会收到所有实体，只处理统计涉及的实体
+        if (entity == null || !isTracked(entity.getClass())) {
+            return;
+        }
+        PendingChange change = toChange(entity, persister, id, oldState, newState);
+        synchronized (lock) {
+            if (pendingChanges != null) {
+                // 正在重新加载，加载完成后应用到新的计数
+                pendingChanges.add(change);
+            }
+            if (loaded) {
+                change.apply.accept(counters);
+            }
+        }
+        // 提交后事件仍在事务同步期间触发，同一事务的多条变更只递增一次版本
+        cacheCoherenceManager.publishAfterCommit(CacheRegion.STATISTICS);
+    }
+
+    /**
+     * 在提交线程上取出变更前后的统计维度，计数的修改留到持有锁时进行
+     */
+    private static PendingChange toChange(Object entity, EntityPersister persister, Object id,
+                                          Object[] oldState, Object[] newState) {
+        if (entity instanceof Organization) {
+            OrganizationFacts after = newState != null ? OrganizationFacts.of(persister, newState) : null;
+            return new PendingChange(Organization.class, id, after,
+                    target -> target.applyOrganization((Long) id, after));
+        }
+        if (entity instanceof Activity) {
+            ActivityFacts after = newState != null ? ActivityFacts.of(persister, newState) : null;
+            return new PendingChange(Activity.class, id, after, target -> target.applyActivity((Long) id, after));
+        }
+        Class<?> entityType;
+        Object before;
+        Object after;
+        if (entity instanceof User) {
+            entityType = User.class;
+            before = oldState != null ? UserFacts.of(persister, oldState) : null;
+            after = newState != null ? UserFacts.of(persister, newState) : null;
+        } else if (entity instanceof ActivityParticipant) {
+            entityType = ActivityParticipant.class;
+            before = oldState != null ? ParticipantFacts.of(persister, oldState) : null;
+            after = newState != null ? ParticipantFacts.of(persister, newState) : null;
+        } else if (entity instanceof FeePayment) {
+            entityType = FeePayment.class;
+            before = oldState != null ? FeePaymentFacts.of(persister, oldState) : null;
+            after = newState != null ? FeePaymentFacts.of(persister, newState) : null;
+        } else {
+            entityType = FeeStandard.class;
+            before = oldState != null ? valueOf(persister, oldState, "status") : null;
+            after = newState != null ? valueOf(persister, newState, "status") : null;
+        }
+        return new PendingChange(entityType, id, after, target -> {
+            target.contribute(before, -1);
+            target.contribute(after, 1);
+        });
+    }
+
+    /**
+     * 是否为统计关心的实体
+     */
+    static boolean isTracked(Class<?> entityClass) {
+        return User.class.isAssignableFrom(entityClass)
+                || Organization.class.isAssignableFrom(entityClass)
+                || Activity.class.isAssignableFrom(entityClass)
+                || ActivityParticipant.class.isAssignableFrom(entityClass)
+                || FeePayment.class.isAssignableFrom(entityClass)
+                || FeeStandard.class.isAssignableFrom(entityClass);
+    }
+
+    /**
+     * 确保计数已加载并返回当前计数
+     */
+    private Counters loadedCounters() {
+        if (!loaded && System.currentTimeMillis() - lastLoadFailure > RELOAD_RETRY_INTERVAL_MS) {
+            synchronized (rebuildLock) {
+                if (!loaded && System.currentTimeMillis() - lastLoadFailure > RELOAD_RETRY_INTERVAL_MS) {
+                    rebuild();
+                }
+            }
+        }
+        return counters;
+    }
+
+    // ==================== 读取 ====================
+
+    /** 按是否启用统计的用户数 */
+    public Tally<Boolean> getUsersByActive() {
+        return loadedCounters().usersByActive;
+    }
+
+    /** 按注册日期统计的新增用户数 */
+    public Tally<LocalDate> getUsersByCreatedDate() {
+        return loadedCounters().usersByCreatedDate;
+    }
+
+    /** 按性别统计的用户数，0表示未填写 */
+    public Tally<Integer> getUsersByGender() {
+        return loadedCounters().usersByGender;
+    }
+
+    /** 按出生年份统计的用户数 */
+    public Tally<Integer> getUsersByBirthYear() {
+        return loadedCounters().usersByBirthYear;
+    }
+
+    /** 按党员状态统计的用户数 */
+    public Tally<Integer> getUsersByPartyStatus() {
+        return loadedCounters().usersByPartyStatus;
+    }
+
+    /** 按组织统计的成员数 */
+    public Tally<Long> getUsersByOrganization() {
+        return loadedCounters().usersByOrganization;
+    }
+
+    /** 按组织统计的启用成员数 */
+    public Tally<Long> getActiveUsersByOrganization() {
+        return loadedCounters().activeUsersByOrganization;
+    }
+
+    /** 按生日（月日）统计的用户数 */
+    public Tally<MonthDay> getUsersByBirthday() {
+        return loadedCounters().usersByBirthday;
+    }
+
+    /** 按入党纪念日（月日）统计的用户数 */
+    public Tally<MonthDay> getUsersByPartyAnniversary() {
+        return loadedCounters().usersByPartyAnniversary;
+    }
+
+    /** 指定日期登录过的用户数 */
+    public int getLoginUserCount(LocalDate date) {
+        Set<Long> users = loginUsersByDate.get(date);
+        return users != null ? users.size() : 0;
+    }
+
+    /** 组织名称，key为组织ID */
+    public Map<Long, String> getOrganizationNames() {
+        Map<Long, String> names = new HashMap<>();
+        loadedCounters().organizations.forEach((id, organization) -> {
+            if (organization.name != null) {
+                names.put(id, organization.name);
+            }
+        });
+        return Collections.unmodifiableMap(names);
+    }
+
+    /** 按类型统计的组织数 */
+    public Tally<Integer> getOrganizationsByType() {
+        return loadedCounters().organizationsByType;
+    }
+
+    /** 按类型统计的活动数 */
+    public Tally<Integer> getActivitiesByType() {
+        return loadedCounters().activitiesByType;
+    }
+
+    /** 按状态统计的活动数 */
+    public Tally<Integer> getActivitiesByStatus() {
+        return loadedCounters().activitiesByStatus;
+    }
+
+    /** 按组织统计的活动数 */
+    public Tally<Long> getActivitiesByOrganization() {
+        return loadedCounters().activitiesByOrganization;
+    }
+
+    /** 按创建日期统计的活动数 */
+    public Tally<LocalDate> getActivitiesByCreatedDate() {
+        return loadedCounters().activitiesByCreatedDate;
+    }
+
+    /** 指定类型按开始日期统计的活动数 */
+    public Tally<LocalDate> getActivitiesByStartDate(Integer type) {
+        Tally<LocalDate> tally = type != null ? loadedCounters().activitiesByTypeAndStartDate.get(type) : null;
+        return tally != null ? tally : new Tally<>();
+    }
+
+    /** 按参与状态统计的参与记录数 */
+    public Tally<Integer> getParticipantsByStatus() {
+        return loadedCounters().participantsByStatus;
+    }
+
+    /** 按活动类型统计的参与人次 */
+    public Tally<Integer> getParticipantsByType() {
+        return loadedCounters().participantsByType;
+    }
+
+    /** 按组织统计的参与人次 */
+    public Tally<Long> getParticipantsByOrganization() {
+        return loadedCounters().participantsByOrganization;
+    }
+
+    /** 按组织统计的签到人次 */
+    public Tally<Long> getSignedInByOrganization() {
+        return loadedCounters().signedInByOrganization;
+    }
+
+    /** 按用户统计的签到次数 */
+    public Tally<Long> getSignedInByUser() {
+        return loadedCounters().signedInByUser;
+    }
+
+    /** 按缴费状态统计的缴费记录数 */
+    public Tally<FeePayment.PaymentStatus> getPaymentsByStatus() {
+        return loadedCounters().paymentsByStatus;
+    }
+
+    /** 按缴费状态统计的应缴金额（分） */
+    public Tally<FeePayment.PaymentStatus> getPaymentAmountByStatus() {
+        return loadedCounters().paymentAmountByStatus;
+    }
+
+    /** 按缴费方式统计的已缴笔数 */
+    public Tally<FeePayment.PaymentMethod> getPaidByMethod() {
+        return loadedCounters().paidByMethod;
+    }
+
+    /** 按缴费方式统计的已缴金额（分） */
+    public Tally<FeePayment.PaymentMethod> getPaidAmountByMethod() {
+        return loadedCounters().paidAmountByMethod;
+    }
+
+    /** 按所属年月统计的缴费记录数 */
+    public Tally<YearMonth> getPaymentsByMonth() {
+        return loadedCounters().paymentsByMonth;
+    }
+
+    /** 按所属年月统计的已缴笔数 */
+    public Tally<YearMonth> getPaidByMonth() {
+        return loadedCounters().paidByMonth;
+    }
+
+    /** 按所属年月统计的逾期笔数 */
+    public Tally<YearMonth> getOverdueByMonth() {
+        return loadedCounters().overdueByMonth;
+    }
+
+    /** 按缴费日期统计的已缴金额（分） */
+    public Tally<LocalDate> getPaidAmountByDate() {
+        return loadedCounters().paidAmountByDate;
+    }
+
+    /** 按状态统计的党费标准数 */
+    public Tally<FeeStandard.FeeStandardStatus> getFeeStandardsByStatus() {
+        return loadedCounters().feeStandardsByStatus;
+    }
+
+    // ==================== 工具方法 ====================
+
+    static Object valueOf(EntityPersister persister, Object[] state, String property) {
+        Integer index = persister.getEntityMetamodel().getPropertyIndexOrNull(property);
+        return index != null ? state[index] : null;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue() : 0;
+    }
+
+    private static LocalDate toDate(Object value) {
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toLocalDate();
+        }
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toLocalDate();
+        }
+        if (value instanceof Date) {
+            return ((Date) value).toLocalDate();
+        }
+        return value instanceof LocalDate ? (LocalDate) value : null;
+    }
+
+    private static Integer getInteger(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Long getLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static boolean getBoolean(ResultSet rs, String column) throws SQLException {
+        boolean value = rs.getBoolean(column);
+        return rs.wasNull() || value;
+    }
+
+    private static <E extends Enum<E>> E toEnum(Class<E> type, String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // ==================== 计数 ====================
+
+    /**
+     * 一份完整的计数，重新加载时新建一份，完成后整体替换
+     * 写入在引擎的锁内串行进行，读取可以并发进行
+     */
+    private static final class Counters {
+
+        // 用户
+        final Tally<Boolean> usersByActive = new Tally<>();
+        final Tally<LocalDate> usersByCreatedDate = new Tally<>();
+        final Tally<Integer> usersByGender = new Tally<>();
+        final Tally<Integer> usersByBirthYear = new Tally<>();
+        final Tally<Integer> usersByPartyStatus = new Tally<>();
+        final Tally<Long> usersByOrganization = new Tally<>();
+        final Tally<Long> activeUsersByOrganization = new Tally<>();
+        final Tally<MonthDay> usersByBirthday = new Tally<>();
+        final Tally<MonthDay> usersByPartyAnniversary = new Tally<>();
+
+        // 组织
+        final Map<Long, OrganizationFacts> organizations = new ConcurrentHashMap<>();
+        final Tally<Integer> organizationsByType = new Tally<>();
+
+        // 活动
+        final Map<Long, ActivityFacts> activities = new ConcurrentHashMap<>();
+        final Tally<Integer> activitiesByType = new Tally<>();
+        final Tally<Integer> activitiesByStatus = new Tally<>();
+        final Tally<Long> activitiesByOrganization = new Tally<>();
+        final Tally<LocalDate> activitiesByCreatedDate = new Tally<>();
+        final Map<Integer, Tally<LocalDate>> activitiesByTypeAndStartDate = new ConcurrentHashMap<>();
+
+        // 活动参与
+        final Tally<Integer> participantsByStatus = new Tally<>();
+        final Tally<Long> participantsByActivity = new Tally<>();
+        final Tally<Long> signedInByActivity = new Tally<>();
+        final Tally<Integer> participantsByType = new Tally<>();
+        final Tally<Long> participantsByOrganization = new Tally<>();
+        final Tally<Long> signedInByOrganization = new Tally<>();
+        final Tally<Long> signedInByUser = new Tally<>();
+
+        // 党费（金额单位：分）
+        final Tally<FeePayment.PaymentStatus> paymentsByStatus = new Tally<>();
+        final Tally<FeePayment.PaymentStatus> paymentAmountByStatus = new Tally<>();
+        final Tally<FeePayment.PaymentMethod> paidByMethod = new Tally<>();
+        final Tally<FeePayment.PaymentMethod> paidAmountByMethod = new Tally<>();
+        final Tally<YearMonth> paymentsByMonth = new Tally<>();
+        final Tally<YearMonth> paidByMonth = new Tally<>();
+        final Tally<YearMonth> overdueByMonth = new Tally<>();
+        final Tally<LocalDate> paidAmountByDate = new Tally<>();
+        final Tally<FeeStandard.FeeStandardStatus> feeStandardsByStatus = new Tally<>();
+
+        /**
+         * 按统计维度的类型计入一条记录，null表示记录不存在
+         */
+        void contribute(Object facts, int sign) {
+            if (facts instanceof UserFacts) {
+                contributeUser((UserFacts) facts, sign);
+            } else if (facts instanceof ParticipantFacts) {
+                contributeParticipant((ParticipantFacts) facts, sign);
+            } else if (facts instanceof FeePaymentFacts) {
+                contributeFeePayment((FeePaymentFacts) facts, sign);
+            } else if (facts instanceof FeeStandard.FeeStandardStatus) {
+                feeStandardsByStatus.add((FeeStandard.FeeStandardStatus) facts, sign);
+            }
+        }
+
+        void contributeUser(UserFacts user, int sign) {
+            usersByActive.add(user.active, sign);
+            usersByCreatedDate.add(user.createdDate, sign);
+            if (user.organizationId != null) {
+                usersByOrganization.add(user.organizationId, sign);
+                if (user.active) {
+                    activeUsersByOrganization.add(user.organizationId, sign);
+                }
+            }
+            usersByGender.add(user.gender != null ? user.gender : 0, sign);
+            usersByPartyStatus.add(user.partyStatus, sign);
+            if (user.birthDate != null) {
+                usersByBirthYear.add(user.birthDate.getYear(), sign);
+                usersByBirthday.add(MonthDay.from(user.birthDate), sign);
+            }
+            if (user.joinPartyDate != null) {
+                usersByPartyAnniversary.add(MonthDay.from(user.joinPartyDate), sign);
+            }
+        }
+
+        void applyOrganization(Long id, OrganizationFacts organization) {
+            OrganizationFacts previous = organization != null
+                    ? organizations.put(id, organization) : organizations.remove(id);
+            if (previous != null) {
+                organizationsByType.add(previous.type, -1);
+            }
+            if (organization != null) {
+                organizationsByType.add(organization.type, 1);
+            }
+        }
+
+        void applyActivity(Long id, ActivityFacts activity) {
+            ActivityFacts previous = activity != null ? activities.put(id, activity) : activities.remove(id);
+            if (previous != null) {
+                contributeActivity(id, previous, -1);
+            }
+            if (activity != null) {
+                contributeActivity(id, activity, 1);
+            }
+        }
+
+        private void contributeActivity(Long id, ActivityFacts activity, int sign) {
+            activitiesByType.add(activity.type, sign);
+            activitiesByStatus.add(activity.status, sign);
+            activitiesByOrganization.add(activity.organizationId, sign);
+            activitiesByCreatedDate.add(activity.createdDate, sign);
+            if (activity.type != null) {
+                activitiesByTypeAndStartDate.computeIfAbsent(activity.type, type -> new Tally<>())
+                        .add(activity.startDate, sign);
+            }
+            // 活动的类型、组织或日期变化时，其参与人数随之迁移
+            contributeActivityParticipants(activity,
+                    participantsByActivity.get(id) * sign, signedInByActivity.get(id) * sign);
+        }
+
+        void contributeParticipant(ParticipantFacts participant, int sign) {
+            boolean signedIn = participant.isSignedIn();
+            participantsByStatus.add(participant.status, sign);
+            participantsByActivity.add(participant.activityId, sign);
+            if (signedIn) {
+                signedInByActivity.add(participant.activityId, sign);
+                signedInByUser.add(participant.userId, sign);
+            }
+            ActivityFacts activity = participant.activityId != null ? activities.get(participant.activityId) : null;
+            if (activity != null) {
+                contributeActivityParticipants(activity, sign, signedIn ? sign : 0);
+            }
+        }
+
+        private void contributeActivityParticipants(ActivityFacts activity, long participants, long signedIn) {
+            participantsByType.add(activity.type, participants);
+            participantsByOrganization.add(activity.organizationId, participants);
+            signedInByOrganization.add(activity.organizationId, signedIn);
+        }
+
+        void contributeFeePayment(FeePaymentFacts payment, int sign) {
+            long amount = toCents(payment.feeAmount) * sign;
+            paymentsByStatus.add(payment.status, sign);
+            paymentAmountByStatus.add(payment.status, amount);
+            paymentsByMonth.add(payment.billingMonth, sign);
+            if (payment.status == FeePayment.PaymentStatus.PAID) {
+                paidByMethod.add(payment.paymentMethod, sign);
+                paidAmountByMethod.add(payment.paymentMethod, amount);
+                paidByMonth.add(payment.billingMonth, sign);
+                paidAmountByDate.add(payment.paymentDate, amount);
+            } else if (payment.status == FeePayment.PaymentStatus.OVERDUE) {
+                overdueByMonth.add(payment.billingMonth, sign);
+            }
+        }
+    }
+
+    /**
+     * 重新加载期间提交的一次实体变更
+     */
+    private static final class PendingChange {
+        final Class<?> entityType;
+        final Object id;
+        /** 变更后的统计维度，删除时为null */
+        final Object after;
+        final Consumer<Counters> apply;
+
+        PendingChange(Class<?> entityType, Object id, Object after, Consumer<Counters> apply) {
+            this.entityType = entityType;
+            this.id = id;
+            this.after = after;
+            this.apply = apply;
+        }
+    }
+
+    // ==================== 统计维度 ====================
+
+    private static final class UserFacts {
+        final Integer gender;
+        final LocalDate birthDate;
+        final LocalDate joinPartyDate;
+        final Integer partyStatus;
+        final Long organizationId;
+        final boolean active;
+        final LocalDate createdDate;
+
+        UserFacts(Integer gender, LocalDate birthDate, LocalDate joinPartyDate, Integer partyStatus,
+                  Long organizationId, boolean active, LocalDate createdDate) {
+            this.gender = gender;
+            this.birthDate = birthDate;
+            this.joinPartyDate = joinPartyDate;
+            this.partyStatus = partyStatus;
+            this.organizationId = organizationId;
+            this.active = active;
+            this.createdDate = createdDate;
+        }
+
+        static UserFacts of(EntityPersister persister, Object[] state) {
+            Boolean active = (Boolean) valueOf(persister, state, "isActive");
+            return new UserFacts((Integer) valueOf(persister, state, "gender"),
+                    (LocalDate) valueOf(persister, state, "birthDate"),
+                    (LocalDate) valueOf(persister, state, "joinPartyDate"),
+                    (Integer) valueOf(persister, state, "partyStatus"),
+                    (Long) valueOf(persister, state, "organizationId"),
+                    active == null || active,
+                    toDate(valueOf(persister, state, "createdAt")));
+        }
+    }
+
+    private static final class OrganizationFacts {
+        final String name;
+        final Integer type;
+        final boolean active;
+
+        OrganizationFacts(String name, Integer type, boolean active) {
+            this.name = name;
+            this.type = type;
+            this.active = active;
+        }
+
+        static OrganizationFacts of(EntityPersister persister, Object[] state) {
+            Boolean active = (Boolean) valueOf(persister, state, "isActive");
+            return new OrganizationFacts((String) valueOf(persister, state, "name"),
+                    (Integer) valueOf(persister, state, "type"), active == null || active);
+        }
+    }
+
+    private static final class ActivityFacts {
+        final Integer type;
+        final Integer status;
+        final Long organizationId;
+        final LocalDate startDate;
+        final LocalDate createdDate;
+
+        ActivityFacts(Integer type, Integer status, Long organizationId, LocalDate startDate, LocalDate createdDate) {
+            this.type = type;
+            this.status = status;
+            this.organizationId = organizationId;
+            this.startDate = startDate;
+            this.createdDate = createdDate;
+        }
+
+        static ActivityFacts of(EntityPersister persister, Object[] state) {
+            return new ActivityFacts((Integer) valueOf(persister, state, "type"),
+                    (Integer) valueOf(persister, state, "status"),
+                    (Long) valueOf(persister, state, "organizationId"),
+                    toDate(valueOf(persister, state, "startTime")),
+                    toDate(valueOf(persister, state, "createdAt")));
+        }
+    }
+
+    private static final class ParticipantFacts {
+        final Long activityId;
+        final Long userId;
+        final Integer status;
+
+        ParticipantFacts(Long activityId, Long userId, Integer status) {
+            this.activityId = activityId;
+            this.userId = userId;
+            this.status = status;
+        }
+
+        boolean isSignedIn() {
+            return status != null && status == PARTICIPANT_SIGNED_IN;
+        }
+
+        static ParticipantFacts of(EntityPersister persister, Object[] state) {
+            return new ParticipantFacts((Long) valueOf(persister, state, "activityId"),
+                    (Long) valueOf(persister, state, "userId"),
+                    (Integer) valueOf(persister, state, "status"));
+        }
+    }
+
+    private static final class FeePaymentFacts {
+        final YearMonth billingMonth;
+        final BigDecimal feeAmount;
+        final LocalDate paymentDate;
+        final FeePayment.PaymentMethod paymentMethod;
+        final FeePayment.PaymentStatus status;
+
+        FeePaymentFacts(Integer paymentYear, Integer paymentMonth, BigDecimal feeAmount, LocalDate paymentDate,
+                        FeePayment.PaymentMethod paymentMethod, FeePayment.PaymentStatus status) {
+            this.billingMonth = paymentYear != null && paymentMonth != null && paymentMonth >= 1 && paymentMonth <= 12
+                    ? YearMonth.of(paymentYear, paymentMonth) : null;
+            this.feeAmount = feeAmount;
+            this.paymentDate = paymentDate;
+            this.paymentMethod = paymentMethod;
+            this.status = status;
+        }
+
+        static FeePaymentFacts of(EntityPersister persister, Object[] state) {
+            return new FeePaymentFacts((Integer) valueOf(persister, state, "paymentYear"),
+                    (Integer) valueOf(persister, state, "paymentMonth"),
+                    (BigDecimal) valueOf(persister, state, "feeAmount"),
+                    (LocalDate) valueOf(persister, state, "paymentDate"),
+                    (FeePayment.PaymentMethod) valueOf(persister, state, "paymentMethod"),
+                    (FeePayment.PaymentStatus) valueOf(persister, state, "status"));
+        }
+    }
+}
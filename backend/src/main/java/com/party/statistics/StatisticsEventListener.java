@@ -0,0 +1,86 @@
+package com.party.statistics;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 统计事件监听器
+ * 在事务提交后把实体的新旧状态交给统计引擎做增量更新
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+class StatisticsEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsEventListener.class);
+
+    private final StatisticsEngine statisticsEngine;
+
+    StatisticsEventListener(StatisticsEngine statisticsEngine) {
+        this.statisticsEngine = statisticsEngine;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        statisticsEngine.onEntityChange(event.getEntity(), event.getPersister(), event.getId(),
+                null, event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getOldState() == null) {
+            // 无法得知变更前的状态，只能整体重新加载
+            statisticsEngine.invalidate();
+            return;
+        }
+        statisticsEngine.onEntityChange(event.getEntity(), event.getPersister(), event.getId(),
+                event.getOldState(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getDeletedState() == null) {
+            statisticsEngine.invalidate();
+            return;
+        }
+        statisticsEngine.onEntityChange(event.getEntity(), event.getPersister(), event.getId(),
+                event.getDeletedState(), null);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        logger.debug("事务提交失败，忽略统计变更: {}", event.getEntity().getClass().getSimpleName());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        logger.debug("事务提交失败，忽略统计变更: {}", event.getEntity().getClass().getSimpleName());
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        logger.debug("事务提交失败，忽略统计变更: {}", event.getEntity().getClass().getSimpleName());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return StatisticsEngine.isTracked(persister.getMappedClass());
+    }
+
+    /**
+     * 接口中仍为抽象方法的旧名称，Hibernate只调用requiresPostCommitHandling
+     */
+    @Override
+    @Deprecated
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+}
@@ -0,0 +1,64 @@
+package com.party.statistics;
+
+import com.party.service.StatisticsRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * 每日统计汇总定时任务
+ * 首次运行时补齐缺失的汇总，之后定期重算最近几天的汇总
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class StatisticsRollupJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsRollupJob.class);
+
+    @Autowired
+    private StatisticsRollupService statisticsRollupService;
+
+    @Value("${party.statistics.rollup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${party.statistics.rollup.backfill-days:365}")
+    private int backfillDays;
+
+    @Value("${party.statistics.rollup.top-up-days:2}")
+    private int topUpDays;
+
+    private volatile boolean backfilled;
+
+    @Scheduled(initialDelayString = "${party.statistics.rollup.initial-delay-ms:5000}",
+               fixedDelayString = "${party.statistics.rollup.interval-ms:600000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate earliest = today.minusDays(Math.max(backfillDays, 1) - 1L);
+        LocalDate startDate = today.minusDays(Math.max(topUpDays, 1) - 1L);
+
+        try {
+            if (!backfilled) {
+                LocalDate latest = statisticsRollupService.getLatestRollupDate();
+                if (latest == null || latest.isBefore(earliest)) {
+                    startDate = earliest;
+                } else if (latest.isBefore(startDate)) {
+                    startDate = latest;
+                }
+            }
+            statisticsRollupService.rollup(startDate, today);
+            backfilled = true;
+        } catch (Exception e) {
+            logger.error("每日统计汇总失败: {}", e.getMessage(), e);
+        }
+    }
+}
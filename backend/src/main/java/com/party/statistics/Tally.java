@@ -0,0 +1,85 @@
+package com.party.statistics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按维度分桶的计数器
+ * 写入由统计引擎串行完成，读取可以并发进行
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public class Tally<K> {
+
+    private final ConcurrentHashMap<K, AtomicLong> values = new ConcurrentHashMap<>();
+
+    /**
+     * 累加指定桶的值，归零的桶会被移除
+     */
+    void add(K key, long delta) {
+        if (key == null || delta == 0) {
+            return;
+        }
+        AtomicLong value = values.computeIfAbsent(key, k -> new AtomicLong());
+        if (value.addAndGet(delta) == 0) {
+            values.remove(key, value);
+        }
+    }
+
+    /**
+     * 获取指定桶的值
+     */
+    public long get(K key) {
+        if (key == null) {
+            return 0;
+        }
+        AtomicLong value = values.get(key);
+        return value != null ? value.get() : 0;
+    }
+
+    /**
+     * 获取多个桶的合计
+     */
+    public long sum(Collection<K> keys) {
+        long sum = 0;
+        for (K key : keys) {
+            sum += get(key);
+        }
+        return sum;
+    }
+
+    /**
+     * 获取所有桶的合计
+     */
+    public long total() {
+        long total = 0;
+        for (AtomicLong value : values.values()) {
+            total += value.get();
+        }
+        return total;
+    }
+
+    /**
+     * 非空桶的数量
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * 获取当前所有桶的快照
+     */
+    public Map<K, Long> snapshot() {
+        if (values.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<K, Long> snapshot = new HashMap<>();
+        values.forEach((key, value) -> snapshot.put(key, value.get()));
+        return snapshot;
+    }
+}
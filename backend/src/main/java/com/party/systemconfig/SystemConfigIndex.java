@@ -0,0 +1,439 @@
+package com.party.systemconfig;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.party.common.cache.CacheCoherenceManager;
+import com.party.common.cache.CacheRegion;
+import com.party.entity.SystemConfig;
+import com.party.repository.SystemConfigRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * 系统配置快照
+ * 在内存中保存全部系统配置的不可变快照：按配置键的有序索引、按值类型的分组、系统/加密/用户可见配置列表、
+ * 按更新时间排序的列表，以及预先解析好的整数、长整数、小数、布尔和JSON取值，读取时不访问数据库也不再解析字符串。
+ * 配置写入后在事务提交时整体重建快照并递增版本号，读取方始终看到完整的一版数据。
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@Component
+public class SystemConfigIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemConfigIndex.class);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Autowired
+    private SystemConfigRepository systemConfigRepository;
+
+    @Autowired
+    private CacheCoherenceManager cacheCoherenceManager;
+
+    private final Object lock = new Object();
+
+    private long version;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 其他节点修改配置后重建本节点的快照
+     */
+    @PostConstruct
+    public void registerCacheRegion() {
+        cacheCoherenceManager.register(CacheRegion.SYSTEM_CONFIG, this::reload);
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 当前快照，一次请求内需要多次读取时先取快照，保证读到同一版本
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (lock) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 当前快照版本号，每次重建加一
+     */
+    public long getVersion() {
+        return current().getVersion();
+    }
+
+    // ==================== 重建 ====================
+
+    /**
+     * 配置变更后调用，在当前事务提交后重建，无事务时立即重建，并通知其他节点
+     * 同一事务内多次调用只重建一次，事务回滚时不重建
+     */
+    public void reloadAfterCommit() {
+        cacheCoherenceManager.publishAfterCommit(CacheRegion.SYSTEM_CONFIG);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SystemConfigIndex.this);
+            }
+        });
+    }
+
+    /**
+     * 从数据库重新加载全部配置
+     */
+    public void reload() {
+        synchronized (lock) {
+            List<SystemConfig> configs = systemConfigRepository.findAll();
+            snapshot = new Snapshot(++version, configs);
+            logger.debug("系统配置快照已重建, 版本{}, 共{}项配置", version, configs.size());
+        }
+    }
+
+    // ==================== 快照 ====================
+
+    /**
+     * 不可变快照，创建后不再修改
+     * 快照中的配置是从数据库读出后复制的对象，与持久化上下文无关；调用方不应修改返回的配置对象
+     */
+    public static final class Snapshot {
+
+        private final long version;
+
+        private final LocalDateTime loadedAt = LocalDateTime.now();
+
+        /** 配置键升序，支持前缀查询 */
+        private final NavigableMap<String, Entry> byKey;
+
+        private final List<SystemConfig> all;
+
+        private final Map<SystemConfig.ValueType, List<SystemConfig>> byValueType;
+
+        private final Map<SystemConfig.ValueType, Long> countByValueType;
+
+        private final List<SystemConfig> systemConfigs;
+
+        private final List<SystemConfig> encryptedConfigs;
+
+        /** 非系统且非加密的配置 */
+        private final List<SystemConfig> userVisibleConfigs;
+
+        private final long userConfigCount;
+
+        /** 更新时间降序 */
+        private final List<SystemConfig> recentlyUpdated;
+
+        private Snapshot(long version, List<SystemConfig> source) {
+            this.version = version;
+            TreeMap<String, Entry> entries = new TreeMap<>();
+            for (SystemConfig config : source) {
+                if (config.getConfigKey() != null) {
+                    entries.put(config.getConfigKey(), new Entry(copy(config)));
+                }
+            }
+            List<SystemConfig> configs = new ArrayList<>(entries.size());
+            Map<SystemConfig.ValueType, List<SystemConfig>> types = new EnumMap<>(SystemConfig.ValueType.class);
+            Map<SystemConfig.ValueType, Long> typeCounts = new EnumMap<>(SystemConfig.ValueType.class);
+            List<SystemConfig> system = new ArrayList<>();
+            List<SystemConfig> encrypted = new ArrayList<>();
+            List<SystemConfig> userVisible = new ArrayList<>();
+            long userCount = 0;
+            for (Entry entry : entries.values()) {
+                SystemConfig config = entry.config;
+                configs.add(config);
+                if (config.getValueType() != null) {
+                    types.computeIfAbsent(config.getValueType(), t -> new ArrayList<>()).add(config);
+                    typeCounts.merge(config.getValueType(), 1L, Long::sum);
+                }
+                boolean isSystem = Boolean.TRUE.equals(config.getIsSystem());
+                boolean isEncrypted = Boolean.TRUE.equals(config.getIsEncrypted());
+                if (isSystem) {
+                    system.add(config);
+                } else {
+                    userCount++;
+                }
+                if (isEncrypted) {
+                    encrypted.add(config);
+                }
+                if (!isSystem && !isEncrypted) {
+                    userVisible.add(config);
+                }
+            }
+            types.replaceAll((type, list) -> Collections.unmodifiableList(list));
+            List<SystemConfig> recent = new ArrayList<>(configs);
+            recent.sort(Comparator.comparing(SystemConfig::getUpdatedAt,
+                    Comparator.nullsLast(Comparator.reverseOrder())));
+
+            this.byKey = Collections.unmodifiableNavigableMap(entries);
+            this.all = Collections.unmodifiableList(configs);
+            this.byValueType = Collections.unmodifiableMap(types);
+            this.countByValueType = Collections.unmodifiableMap(typeCounts);
+            this.systemConfigs = Collections.unmodifiableList(system);
+            this.encryptedConfigs = Collections.unmodifiableList(encrypted);
+            this.userVisibleConfigs = Collections.unmodifiableList(userVisible);
+            this.userConfigCount = userCount;
+            this.recentlyUpdated = Collections.unmodifiableList(recent);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public LocalDateTime getLoadedAt() {
+            return loadedAt;
+        }
+
+        /**
+         * 按配置键查找，不存在时返回null
+         */
+        public Entry get(String key) {
+            return key != null ? byKey.get(key) : null;
+        }
+
+        public SystemConfig getConfig(String key) {
+            Entry entry = get(key);
+            return entry != null ? entry.config : null;
+        }
+
+        public boolean contains(String key) {
+            return get(key) != null;
+        }
+
+        /**
+         * 全部配置，按配置键升序
+         */
+        public List<SystemConfig> getAll() {
+            return all;
+        }
+
+        public int size() {
+            return all.size();
+        }
+
+        /**
+         * 配置键以指定前缀开头的配置，按配置键升序
+         */
+        public List<SystemConfig> getByKeyPrefix(String prefix) {
+            if (prefix == null || prefix.isEmpty()) {
+                return all;
+            }
+            List<SystemConfig> result = new ArrayList<>();
+            for (Entry entry : byKey.tailMap(prefix, true).values()) {
+                if (!entry.config.getConfigKey().startsWith(prefix)) {
+                    break;
+                }
+                result.add(entry.config);
+            }
+            return result;
+        }
+
+        public List<SystemConfig> getByValueType(SystemConfig.ValueType valueType) {
+            return byValueType.getOrDefault(valueType, Collections.emptyList());
+        }
+
+        public Map<SystemConfig.ValueType, Long> getCountByValueType() {
+            return countByValueType;
+        }
+
+        public List<SystemConfig> getSystemConfigs() {
+            return systemConfigs;
+        }
+
+        public List<SystemConfig> getEncryptedConfigs() {
+            return encryptedConfigs;
+        }
+
+        public List<SystemConfig> getUserVisibleConfigs() {
+            return userVisibleConfigs;
+        }
+
+        public long getUserConfigCount() {
+            return userConfigCount;
+        }
+
+        /**
+         * 按更新时间降序的配置，更新时间为空的排在最后
+         */
+        public List<SystemConfig> getRecentlyUpdated(int limit) {
+            return recentlyUpdated.subList(0, Math.min(Math.max(limit, 0), recentlyUpdated.size()));
+        }
+
+        public LocalDateTime getLastUpdated() {
+            return recentlyUpdated.isEmpty() ? null : recentlyUpdated.get(0).getUpdatedAt();
+        }
+
+        /**
+         * 配置键、名称或描述包含关键字（不区分大小写）的配置
+         */
+        public List<SystemConfig> search(String keyword) {
+            String lowerKeyword = keyword.toLowerCase(Locale.ROOT);
+            List<SystemConfig> result = new ArrayList<>();
+            for (Entry entry : byKey.values()) {
+                if (entry.searchText.contains(lowerKeyword)) {
+                    result.add(entry.config);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * 配置名称包含指定文字（不区分大小写）的配置
+         */
+        public List<SystemConfig> searchByName(String name) {
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            List<SystemConfig> result = new ArrayList<>();
+            for (Entry entry : byKey.values()) {
+                if (entry.lowerName != null && entry.lowerName.contains(lowerName)) {
+                    result.add(entry.config);
+                }
+            }
+            return result;
+        }
+
+        private static SystemConfig copy(SystemConfig source) {
+            SystemConfig config = new SystemConfig();
+            config.setId(source.getId());
+            config.setConfigKey(source.getConfigKey());
+            config.setConfigValue(source.getConfigValue());
+            config.setConfigName(source.getConfigName());
+            config.setDescription(source.getDescription());
+            config.setValueType(source.getValueType());
+            config.setIsSystem(source.getIsSystem());
+            config.setIsEncrypted(source.getIsEncrypted());
+            config.setCreatedAt(source.getCreatedAt());
+            config.setUpdatedAt(source.getUpdatedAt());
+            return config;
+        }
+    }
+
+    /**
+     * 单项配置及其预先解析的取值，无法按某种类型解析时对应取值为null
+     */
+    public static final class Entry {
+
+        private final SystemConfig config;
+
+        private final Integer intValue;
+
+        private final Long longValue;
+
+        private final Double doubleValue;
+
+        private final Boolean booleanValue;
+
+        private final JsonNode jsonValue;
+
+        /** 配置键、名称、描述的小写拼接，供关键字搜索 */
+        private final String searchText;
+
+        private final String lowerName;
+
+        private Entry(SystemConfig config) {
+            this.config = config;
+            String value = config.getConfigValue();
+            String trimmed = value != null ? value.trim() : null;
+            this.intValue = parse(trimmed, Integer::valueOf);
+            this.longValue = parse(trimmed, Long::valueOf);
+            this.doubleValue = parse(trimmed, Double::valueOf);
+            this.booleanValue = value != null ? Boolean.parseBoolean(value) : null;
+            this.jsonValue = parseJson(value);
+            this.lowerName = config.getConfigName() != null ? config.getConfigName().toLowerCase(Locale.ROOT) : null;
+            StringBuilder text = new StringBuilder(config.getConfigKey().toLowerCase(Locale.ROOT));
+            if (lowerName != null) {
+                text.append('\n').append(lowerName);
+            }
+            if (config.getDescription() != null) {
+                text.append('\n').append(config.getDescription().toLowerCase(Locale.ROOT));
+            }
+            this.searchText = text.toString();
+        }
+
+        public SystemConfig getConfig() {
+            return config;
+        }
+
+        public String getValue() {
+            return config.getConfigValue();
+        }
+
+        public Integer getIntValue() {
+            return intValue;
+        }
+
+        public Long getLongValue() {
+            return longValue;
+        }
+
+        public Double getDoubleValue() {
+            return doubleValue;
+        }
+
+        public Boolean getBooleanValue() {
+            return booleanValue;
+        }
+
+        public JsonNode getJsonValue() {
+            return jsonValue;
+        }
+
+        private static <T> T parse(String value, Function<String, T> parser) {
+            if (value == null || value.isEmpty()) {
+                return null;
+            }
+            try {
+                return parser.apply(value);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static JsonNode parseJson(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return null;
+            }
+            try {
+                return OBJECT_MAPPER.readTree(value);
+            } catch (JsonProcessingException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.party.utils;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 已验证的JWT身份信息
+ * 一个token只解析验签一次，之后直接复用该不可变对象
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+public final class JwtPrincipal {
+
+    private final Long userId;
+    private final String username;
+    private final List<String> roles;
+    private final Long organizationId;
+    private final String tokenType;
+    private final long expiresAt;
+
+    public JwtPrincipal(Long userId, String username, List<String> roles, Long organizationId,
+                        String tokenType, long expiresAt) {
+        this.userId = userId;
+        this.username = username;
+        this.roles = roles != null ? Collections.unmodifiableList(roles) : Collections.emptyList();
+        this.organizationId = organizationId;
+        this.tokenType = tokenType;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public Long getOrganizationId() {
+        return organizationId;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    /**
+     * 过期时间戳（毫秒）
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * 是否为刷新token
+     */
+    public boolean isRefreshToken() {
+        return "refresh".equals(tokenType);
+    }
+
+    /**
+     * 是否已过期
+     */
+    public boolean isExpired() {
+        return isExpired(System.currentTimeMillis());
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtPrincipal{" +
+                "userId=" + userId +
+                ", username='" + username + '\'' +
+                ", roles=" + roles +
+                ", organizationId=" + organizationId +
+                ", tokenType='" + tokenType + '\'' +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
@@ -7,11 +7,17 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -34,26 +40,92 @@ public class JwtUtils {
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private int principalCacheMaxSize;
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    /**
+     * 已验签token的身份缓存，key为token的SHA-256摘要，条目在token过期时失效
+     */
+    private final Map<String, JwtPrincipal> principalCache = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     /**
      * 获取签名密钥
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
+    }
+
+    /**
+     * 获取已验证的token身份信息
+     * 首次出现的token解析验签一次并缓存，之后只做一次摘要查找
+     *
+     * @return token有效且未过期时返回身份信息，否则返回null
+     */
+    public JwtPrincipal getPrincipal(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        String cacheKey = hashToken(token);
+        JwtPrincipal cached = principalCache.get(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            principalCache.remove(cacheKey, cached);
+            return null;
+        }
+
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        JwtPrincipal principal = toPrincipal(claims);
+        if (principal.isExpired(now)) {
+            return null;
+        }
+
+        if (principalCache.size() >= principalCacheMaxSize) {
+            evictPrincipals(now);
+        }
+        principalCache.put(cacheKey, principal);
+        return principal;
+    }
+
+    /**
+     * 清空身份缓存
+     */
+    public void clearPrincipalCache() {
+        principalCache.clear();
     }
 
     /**
      * 从token中获取用户名
      */
     public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        JwtPrincipal principal = getPrincipal(token);
+        return principal != null ? principal.getUsername() : null;
     }
 
     /**
      * 从token中获取过期时间
      */
     public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+        JwtPrincipal principal = getPrincipal(token);
+        return principal != null ? new Date(principal.getExpiresAt()) : null;
     }
 
     /**
@@ -69,11 +141,7 @@ public class JwtUtils {
      */
     private Claims getAllClaimsFromToken(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (Exception e) {
             logger.error("解析JWT token失败: {}", e.getMessage());
             throw e;
@@ -84,12 +152,8 @@ public class JwtUtils {
      * 检查token是否过期
      */
     public Boolean isTokenExpired(String token) {
-        try {
-            final Date expiration = getExpirationDateFromToken(token);
-            return expiration.before(new Date());
-        } catch (Exception e) {
-            return true;
-        }
+        JwtPrincipal principal = getPrincipal(token);
+        return principal == null || principal.isExpired();
     }
 
     /**
@@ -137,32 +201,30 @@ public class JwtUtils {
      * 验证token
      */
     public Boolean validateToken(String token, String username) {
-        try {
-            final String tokenUsername = getUsernameFromToken(token);
-            return (username.equals(tokenUsername) && !isTokenExpired(token));
-        } catch (Exception e) {
-            logger.error("验证JWT token失败: {}", e.getMessage());
-            return false;
-        }
+        JwtPrincipal principal = getPrincipal(token);
+        return principal != null && username != null && username.equals(principal.getUsername());
     }
 
     /**
      * 验证token（无用户名参数）
      */
     public Boolean validateToken(String token) {
-        return validateTokenFormat(token) && !isTokenExpired(token);
+        return getPrincipal(token) != null;
     }
 
     /**
      * 验证token格式
      */
     public Boolean validateTokenFormat(String token) {
+        return getPrincipal(token) != null;
+    }
+
+    /**
+     * 解析并验签token，失败时记录原因并返回null
+     */
+    private Claims parseClaims(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (MalformedJwtException e) {
             logger.error("JWT token格式错误: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -174,7 +236,71 @@ public class JwtUtils {
         } catch (Exception e) {
             logger.error("JWT token验证失败: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * 将声明转换为不可变的身份信息
+     */
+    private JwtPrincipal toPrincipal(Claims claims) {
+        Date expirationDate = claims.getExpiration();
+        long expiresAt = expirationDate != null ? expirationDate.getTime() : Long.MAX_VALUE;
+        return new JwtPrincipal(
+                toLong(claims.get("userId")),
+                claims.getSubject(),
+                extractRoles(claims),
+                toLong(claims.get("organizationId")),
+                (String) claims.get("type"),
+                expiresAt);
+    }
+
+    @SuppressWarnings("unchecked")
+    private java.util.List<String> extractRoles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (roles instanceof java.util.List) {
+            return new java.util.ArrayList<>((java.util.List<String>) roles);
+        } else if (roles instanceof String) {
+            return java.util.Arrays.asList((String) roles);
+        }
+        // 如果没有roles，尝试获取单个role
+        Object role = claims.get("role");
+        if (role != null) {
+            return java.util.Arrays.asList(role.toString());
+        }
+        return new java.util.ArrayList<>();
+    }
+
+    private Long toLong(Object value) {
+        return value != null ? Long.valueOf(value.toString()) : null;
+    }
+
+    /**
+     * 计算token的SHA-256摘要，避免在缓存中保留原始token
+     */
+    private String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256算法不可用", e);
+        }
+    }
+
+    /**
+     * 缓存达到上限时先清理过期条目，仍然超限则淘汰部分条目
+     */
+    private void evictPrincipals(long now) {
+        principalCache.values().removeIf(principal -> principal.isExpired(now));
+        if (principalCache.size() < principalCacheMaxSize) {
+            return;
+        }
+        int toRemove = principalCache.size() - principalCacheMaxSize * 9 / 10;
+        Iterator<String> iterator = principalCache.keySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
     }
 
     /**
@@ -201,17 +327,8 @@ public class JwtUtils {
      * 从token中获取用户ID
      */
     public Long getUserIdFromToken(String token) {
-        try {
-            Claims claims = getAllClaimsFromToken(token);
-            Object userId = claims.get("userId");
-            if (userId != null) {
-                return Long.valueOf(userId.toString());
-            }
-            return null;
-        } catch (Exception e) {
-            logger.error("从token获取用户ID失败: {}", e.getMessage());
-            return null;
-        }
+        JwtPrincipal principal = getPrincipal(token);
+        return principal != null ? principal.getUserId() : null;
     }
 
     /**
@@ -230,56 +347,25 @@ public class JwtUtils {
     /**
      * 从token中获取角色列表
      */
-    @SuppressWarnings("unchecked")
     public java.util.List<String> getRolesFromToken(String token) {
-        try {
-            Claims claims = getAllClaimsFromToken(token);
-            Object roles = claims.get("roles");
-            if (roles instanceof java.util.List) {
-                return (java.util.List<String>) roles;
-            } else if (roles instanceof String) {
-                return java.util.Arrays.asList((String) roles);
-            }
-            // 如果没有roles，尝试获取单个role
-            String role = getRoleFromToken(token);
-            if (role != null) {
-                return java.util.Arrays.asList(role);
-            }
-            return new java.util.ArrayList<>();
-        } catch (Exception e) {
-            logger.error("从token获取角色列表失败: {}", e.getMessage());
-            return new java.util.ArrayList<>();
-        }
+        JwtPrincipal principal = getPrincipal(token);
+        return principal != null ? principal.getRoles() : new java.util.ArrayList<>();
     }
 
     /**
      * 从token中获取组织ID
      */
     public Long getOrganizationIdFromToken(String token) {
-        try {
-            Claims claims = getAllClaimsFromToken(token);
-            Object orgId = claims.get("organizationId");
-            if (orgId != null) {
-                return Long.valueOf(orgId.toString());
-            }
-            return null;
-        } catch (Exception e) {
-            logger.error("从token获取组织ID失败: {}", e.getMessage());
-            return null;
-        }
+        JwtPrincipal principal = getPrincipal(token);
+        return principal != null ? principal.getOrganizationId() : null;
     }
 
     /**
      * 获取token剩余有效时间（毫秒）
      */
     public Long getTokenRemainingTime(String token) {
-        try {
-            Date expiration = getExpirationDateFromToken(token);
-            Date now = new Date();
-            return expiration.getTime() - now.getTime();
-        } catch (Exception e) {
-            return 0L;
-        }
+        JwtPrincipal principal = getPrincipal(token);
+        return principal != null ? principal.getExpiresAt() - System.currentTimeMillis() : 0L;
     }
 
     /**
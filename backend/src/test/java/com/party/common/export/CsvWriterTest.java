@@ -0,0 +1,75 @@
+package com.party.common.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CSV写入器测试类
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+class CsvWriterTest {
+
+    @Test
+    void testPlainCells() throws IOException {
+        assertEquals("a,123,\r\n", write(writer -> writer.cell("a").cell(123).cell((Object) null).endRow()));
+    }
+
+    @Test
+    void testEmptyCellsKeepPositions() throws IOException {
+        assertEquals(",,x\r\n", write(writer -> writer.cell("").cell((String) null).cell("x").endRow()));
+    }
+
+    @Test
+    void testQuotesDoubled() throws IOException {
+        assertEquals("\"say \"\"hi\"\"\",\"\"\"\"\r\n",
+                write(writer -> writer.cell("say \"hi\"").cell("\"").endRow()));
+    }
+
+    @Test
+    void testCommaQuoted() throws IOException {
+        assertEquals("\"a,b\"\r\n", write(writer -> writer.cell("a,b").endRow()));
+    }
+
+    @Test
+    void testNewlinesQuoted() throws IOException {
+        assertEquals("\"line1\nline2\",\"cr\rlf\",\"\r\n\"\r\n",
+                write(writer -> writer.cell("line1\nline2").cell("cr\rlf").cell("\r\n").endRow()));
+    }
+
+    @Test
+    void testLeadingAndTrailingSpacesQuoted() throws IOException {
+        assertEquals("\" lead\",\"trail \",\" \",in side\r\n",
+                write(writer -> writer.cell(" lead").cell("trail ").cell(" ").cell("in side").endRow()));
+    }
+
+    @Test
+    void testHeaderAndBom() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(out, true)) {
+            writer.header("ID", "用户名").cell(1).cell("张三").endRow();
+        }
+        String text = out.toString(StandardCharsets.UTF_8.name());
+        assertEquals("\uFEFFID,用户名\r\n1,张三\r\n", text);
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private interface Rows {
+        void write(CsvWriter writer) throws IOException;
+    }
+
+    private static String write(Rows rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(out, false)) {
+            rows.write(writer);
+        }
+        return out.toString(StandardCharsets.UTF_8.name());
+    }
+}
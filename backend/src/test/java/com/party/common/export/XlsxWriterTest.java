@@ -0,0 +1,151 @@
+package com.party.common.export;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Excel写入器测试类
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+class XlsxWriterTest {
+
+    private static final String SHEET = "xl/worksheets/sheet1.xml";
+
+    @Test
+    void testPackageEntries() throws Exception {
+        // When
+        Map<String, byte[]> entries = write("日志", writer -> writer.header("ID").cell(1).endRow());
+
+        // Then
+        assertTrue(entries.keySet().containsAll(Arrays.asList("[Content_Types].xml", "_rels/.rels",
+                "xl/_rels/workbook.xml.rels", "xl/workbook.xml", SHEET)));
+        for (byte[] content : entries.values()) {
+            parse(content);
+        }
+    }
+
+    @Test
+    void testXmlSpecialCharactersEscaped() throws Exception {
+        // When
+        Document sheet = sheet(write("s", writer -> writer.cell("a<b>&c\"d'e").endRow()));
+
+        // Then
+        assertEquals(Arrays.asList("a<b>&c\"d'e"), texts(sheet));
+    }
+
+    @Test
+    void testControlCharactersRemoved() throws Exception {
+        // When - XML 1.0不允许的控制字符被丢弃，制表符和换行保留
+        Document sheet = sheet(write("s", writer -> writer.cell("a\u0000b\u0001c\u001Fd\te\nf").endRow()));
+
+        // Then
+        assertEquals(Arrays.asList("abcd\te\nf"), texts(sheet));
+    }
+
+    @Test
+    void testLeadingAndTrailingSpacesPreserved() throws Exception {
+        // When
+        Document sheet = sheet(write("s", writer -> writer.cell("  both  ").cell(" ").endRow()));
+
+        // Then
+        assertEquals(Arrays.asList("  both  ", " "), texts(sheet));
+        NodeList texts = sheet.getElementsByTagName("t");
+        assertEquals("preserve", ((Element) texts.item(0)).getAttribute("xml:space"));
+    }
+
+    @Test
+    void testNumbersAndEmptyCells() throws Exception {
+        // When
+        Document sheet = sheet(write("s", writer -> writer.cell(42).cell((Object) null).cell("").cell(1.5).endRow()));
+
+        // Then
+        NodeList cells = sheet.getElementsByTagName("c");
+        assertEquals(4, cells.getLength());
+        assertEquals("42", cells.item(0).getTextContent());
+        assertFalse(((Element) cells.item(0)).hasAttribute("t"));
+        assertEquals("", cells.item(1).getTextContent());
+        assertEquals("", cells.item(2).getTextContent());
+        assertEquals("1.5", cells.item(3).getTextContent());
+    }
+
+    @Test
+    void testSheetNameEscaped() throws Exception {
+        // When
+        Map<String, byte[]> entries = write("A&B<\"C\">", writer -> writer.cell("x").endRow());
+
+        // Then
+        Document workbook = parse(entries.get("xl/workbook.xml"));
+        assertEquals("A&B<\"C\">", ((Element) workbook.getElementsByTagName("sheet").item(0)).getAttribute("name"));
+    }
+
+    @Test
+    void testUnclosedRowClosedOnClose() throws Exception {
+        // When
+        Document sheet = sheet(write("s", writer -> writer.cell("x")));
+
+        // Then
+        assertEquals(1, sheet.getElementsByTagName("row").getLength());
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private interface Rows {
+        void write(XlsxWriter writer) throws IOException;
+    }
+
+    private static Map<String, byte[]> write(String sheetName, Rows rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XlsxWriter writer = new XlsxWriter(out, sheetName)) {
+            rows.write(writer);
+        }
+        Map<String, byte[]> entries = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = zip.read(buffer)) > 0) {
+                    content.write(buffer, 0, read);
+                }
+                entries.put(entry.getName(), content.toByteArray());
+            }
+        }
+        return entries;
+    }
+
+    private static Document sheet(Map<String, byte[]> entries) throws Exception {
+        return parse(entries.get(SHEET));
+    }
+
+    private static Document parse(byte[] content) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(content));
+    }
+
+    private static List<String> texts(Document sheet) {
+        NodeList nodes = sheet.getElementsByTagName("t");
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            texts.add(nodes.item(i).getTextContent());
+        }
+        return texts;
+    }
+}
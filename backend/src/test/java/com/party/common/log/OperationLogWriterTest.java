@@ -0,0 +1,139 @@
+package com.party.common.log;
+
+import com.party.entity.OperationLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 操作日志批量写入器测试类
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class OperationLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private OperationLogStatsCube operationLogStatsCube;
+
+    @InjectMocks
+    private OperationLogWriter operationLogWriter;
+
+    /** 已写入数据库的日志条数 */
+    private final AtomicInteger written = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(operationLogWriter, "enabled", true);
+        ReflectionTestUtils.setField(operationLogWriter, "queueCapacity", 100000);
+        ReflectionTestUtils.setField(operationLogWriter, "batchSize", 200);
+        // 空闲的写入线程最多等待一个刷新间隔才能察觉关闭
+        ReflectionTestUtils.setField(operationLogWriter, "flushIntervalMs", 100L);
+        ReflectionTestUtils.setField(operationLogWriter, "overflowPolicy", OperationLogWriter.OverflowPolicy.DROP);
+        ReflectionTestUtils.setField(operationLogWriter, "shutdownTimeoutMs", 10000L);
+
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            Collection<?> batch = invocation.getArgument(1);
+            written.addAndGet(batch.size());
+            return new int[0][];
+        });
+    }
+
+    @Test
+    void testShutdown_FlushesQueuedLogs() {
+        // Given
+        operationLogWriter.start();
+        for (int i = 0; i < 3; i++) {
+            operationLogWriter.submit(log(i));
+        }
+
+        // When
+        operationLogWriter.shutdown();
+
+        // Then
+        assertEquals(3, written.get());
+        assertEquals(3L, operationLogWriter.getStatistics().get("written"));
+        assertEquals(0, operationLogWriter.getStatistics().get("pending"));
+        verify(operationLogStatsCube, atLeastOnce()).record(anyList());
+    }
+
+    @Test
+    void testSubmitAfterShutdown_WrittenSynchronously() {
+        // Given
+        operationLogWriter.start();
+        operationLogWriter.shutdown();
+
+        // When
+        operationLogWriter.submit(log(1));
+
+        // Then
+        assertEquals(1, written.get());
+        assertEquals(0, operationLogWriter.getStatistics().get("pending"));
+    }
+
+    @Test
+    void testShutdownBetweenCheckAndEnqueue_NoLogLost() {
+        // Given - 提交线程通过运行检查后、入队前，关闭流程已排空队列
+        operationLogWriter.start();
+        ReflectionTestUtils.setField(operationLogWriter, "queue", new ArrayBlockingQueue<OperationLog>(16) {
+            private boolean shutdownTriggered;
+
+            @Override
+            public boolean offer(OperationLog operationLog) {
+                if (!shutdownTriggered) {
+                    shutdownTriggered = true;
+                    operationLogWriter.shutdown();
+                }
+                return super.offer(operationLog);
+            }
+        });
+
+        // When
+        operationLogWriter.submit(log(1));
+
+        // Then
+        assertEquals(1, written.get());
+        assertEquals(0, operationLogWriter.getStatistics().get("pending"));
+    }
+
+    @Test
+    void testDisabled_WritesSynchronously() {
+        // Given
+        ReflectionTestUtils.setField(operationLogWriter, "enabled", false);
+        operationLogWriter.start();
+
+        // When
+        operationLogWriter.submit(log(1));
+
+        // Then
+        assertEquals(1, written.get());
+        verify(operationLogStatsCube).record(anyList());
+    }
+
+    private static OperationLog log(int index) {
+        OperationLog log = new OperationLog();
+        log.setUsername("user" + index);
+        log.setOperationType("QUERY");
+        log.setExecutionTime(10L);
+        return log;
+    }
+}
@@ -0,0 +1,198 @@
+package com.party.common.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 键集分页游标测试类
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+class CursorTest {
+
+    @Test
+    void testEncodeDecode_IdOnly() {
+        // Given
+        Cursor cursor = Cursor.of(42L);
+
+        // When
+        Cursor decoded = Cursor.decode(cursor.encode());
+
+        // Then
+        assertEquals(42L, decoded.getId());
+        assertNull(decoded.getKey());
+        assertNull(decoded.getKeyAsDateTime());
+    }
+
+    @Test
+    void testEncodeDecode_DateTimeKeyKeepsNanos() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 7, 1, 8, 30, 15, 123456789);
+
+        // When
+        Cursor decoded = Cursor.decode(Cursor.of(createdAt, 7L).encode());
+
+        // Then
+        assertEquals(7L, decoded.getId());
+        assertEquals(createdAt, decoded.getKeyAsDateTime());
+    }
+
+    @Test
+    void testEncodeDecode_KeyContainingSeparator() {
+        // Given - 排序键本身含有分隔符
+        Cursor cursor = Cursor.of("a|b|c", 3L);
+
+        // When
+        Cursor decoded = Cursor.decode(cursor.encode());
+
+        // Then
+        assertEquals(3L, decoded.getId());
+        assertEquals("a|b|c", decoded.getKey());
+    }
+
+    @Test
+    void testEncode_UrlSafe() {
+        // Given
+        Cursor cursor = Cursor.of("党员?&=/+", Long.MAX_VALUE);
+
+        // When
+        String token = cursor.encode();
+
+        // Then
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+        assertEquals("党员?&=/+", Cursor.decode(token).getKey());
+    }
+
+    @Test
+    void testDecode_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode(Cursor.of("x", 1L).encode().substring(1)));
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode(Cursor.of("x", 1L).encode()).getKeyAsDateTime());
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode(Cursor.of("x", 1L).encode()).getKeyAsLong());
+    }
+
+    @Test
+    void testCursorPage_LastPage() {
+        // Given
+        List<Row> rows = rows(3, LocalDateTime.of(2024, 1, 1, 0, 0));
+
+        // When
+        CursorPage<Row> page = CursorPage.of(rows, 3, Row::cursor);
+
+        // Then
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+        assertEquals(3, page.getContent().size());
+        assertNull(page.getTotalElements());
+    }
+
+    @Test
+    void testCursorPage_NextCursorFromLastRow() {
+        // Given - 多取一行
+        List<Row> rows = rows(4, LocalDateTime.of(2024, 1, 1, 0, 0));
+
+        // When
+        CursorPage<Row> page = CursorPage.of(rows, 3, Row::cursor);
+
+        // Then
+        assertTrue(page.isHasNext());
+        assertEquals(3, page.getContent().size());
+        Cursor next = Cursor.decode(page.getNextCursor());
+        assertEquals(rows.get(2).id, next.getId());
+        assertEquals(rows.get(2).createdAt, next.getKeyAsDateTime());
+        assertEquals(10L, page.withTotal(10L).getTotalElements());
+    }
+
+    @Test
+    void testSeek_EqualCreatedAtTies() {
+        // Given - 25行中多行创建时间相同，页大小与并列行数错开
+        LocalDateTime same = LocalDateTime.of(2024, 5, 1, 9, 0);
+        List<Row> table = new ArrayList<>();
+        long id = 1;
+        for (int i = 0; i < 10; i++) {
+            table.add(new Row(id++, same));
+        }
+        for (int i = 0; i < 8; i++) {
+            table.add(new Row(id++, same.plusSeconds(1)));
+        }
+        for (int i = 0; i < 7; i++) {
+            table.add(new Row(id++, same.minusNanos(1)));
+        }
+
+        // When - 按创建时间倒序、ID倒序逐页查询
+        List<Long> seen = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            CursorPage<Row> page = CursorPage.of(seekBefore(table, after, 4), 4, Row::cursor);
+            page.getContent().forEach(row -> seen.add(row.id));
+            after = page.getNextCursor();
+            pages++;
+        } while (after != null);
+
+        // Then - 每行恰好出现一次且顺序与整表排序一致
+        List<Long> expected = table.stream().sorted(ORDER).map(row -> row.id).collect(Collectors.toList());
+        assertEquals(expected, seen);
+        Set<Long> unique = new HashSet<>(seen);
+        assertEquals(table.size(), unique.size());
+        assertEquals(7, pages);
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private static final Comparator<Row> ORDER = Comparator.comparing((Row row) -> row.createdAt)
+            .thenComparing(row -> row.id).reversed();
+
+    /**
+     * 与仓库中的键集条件一致：createdAt < :beforeTime OR (createdAt = :beforeTime AND id < :beforeId)，
+     * 按创建时间倒序、ID倒序多取一行
+     */
+    private static List<Row> seekBefore(List<Row> table, String after, int size) {
+        LocalDateTime beforeTime = Cursor.MAX_DATE_TIME;
+        long beforeId = Long.MAX_VALUE;
+        if (after != null) {
+            Cursor cursor = Cursor.decode(after);
+            beforeTime = cursor.getKeyAsDateTime();
+            beforeId = cursor.getId();
+        }
+        LocalDateTime time = beforeTime;
+        long id = beforeId;
+        return table.stream()
+                .filter(row -> row.createdAt.isBefore(time) || (row.createdAt.equals(time) && row.id < id))
+                .sorted(ORDER)
+                .limit(size + 1L)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Row> rows(int count, LocalDateTime createdAt) {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Row(count - i, createdAt));
+        }
+        return rows;
+    }
+
+    private static final class Row {
+        final long id;
+        final LocalDateTime createdAt;
+
+        Row(long id, LocalDateTime createdAt) {
+            this.id = id;
+            this.createdAt = createdAt;
+        }
+
+        Cursor cursor() {
+            return Cursor.of(createdAt, id);
+        }
+    }
+}
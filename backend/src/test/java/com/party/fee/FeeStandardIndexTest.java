@@ -0,0 +1,102 @@
+package com.party.fee;
+
+import com.party.common.cache.CacheCoherenceManager;
+import com.party.common.cache.CacheRegion;
+import com.party.entity.FeeStandard;
+import com.party.repository.FeeStandardRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeeStandardIndexTest {
+
+    @Mock
+    private FeeStandardRepository feeStandardRepository;
+
+    @Mock
+    private CacheCoherenceManager cacheCoherenceManager;
+
+    @InjectMocks
+    private FeeStandardIndex feeStandardIndex;
+
+    @Test
+    void testFindUsesLatestEffectiveStandard() {
+        // Given
+        FeeStandard oldLow = standard(1L, "0", "3000", "0.005", "2020-01-01");
+        FeeStandard oldHigh = standard(2L, "3000.01", null, "0.01", "2020-01-01");
+        FeeStandard newLow = standard(3L, "0", "5000", "0.004", "2025-01-01");
+        when(feeStandardRepository.findByStatus(FeeStandard.FeeStandardStatus.ACTIVE))
+                .thenReturn(Arrays.asList(newLow, oldHigh, oldLow));
+
+        // When & Then
+        assertSame(oldLow, feeStandardIndex.find(new BigDecimal("2000"), LocalDate.of(2024, 6, 1)));
+        assertSame(oldHigh, feeStandardIndex.find(new BigDecimal("4000"), LocalDate.of(2024, 6, 1)));
+        assertSame(newLow, feeStandardIndex.find(new BigDecimal("4000"), LocalDate.of(2025, 1, 1)));
+        assertSame(oldHigh, feeStandardIndex.find(new BigDecimal("8000"), LocalDate.of(2025, 6, 1)));
+        assertNull(feeStandardIndex.find(new BigDecimal("2000"), LocalDate.of(2019, 12, 31)));
+        assertNull(feeStandardIndex.find(null, LocalDate.of(2024, 6, 1)));
+        verify(feeStandardRepository, times(1)).findByStatus(FeeStandard.FeeStandardStatus.ACTIVE);
+    }
+
+    @Test
+    void testCalculateFees() {
+        // Given
+        FeeStandard low = standard(1L, "0", "3000", "0.005", "2020-01-01");
+        FeeStandard fixed = standard(2L, "3000.01", "10000", "0.01", "2020-01-01");
+        fixed.setFixedAmount(new BigDecimal("50"));
+        when(feeStandardRepository.findByStatus(FeeStandard.FeeStandardStatus.ACTIVE))
+                .thenReturn(Arrays.asList(low, fixed));
+        Map<Long, BigDecimal> incomes = new LinkedHashMap<>();
+        incomes.put(10L, new BigDecimal("2999"));
+        incomes.put(11L, new BigDecimal("6000"));
+        incomes.put(12L, new BigDecimal("20000"));
+
+        // When
+        Map<Long, BigDecimal> fees = feeStandardIndex.calculateFees(incomes, LocalDate.of(2024, 1, 1));
+
+        // Then
+        assertEquals(new BigDecimal("15.00"), fees.get(10L));
+        assertEquals(new BigDecimal("50.00"), fees.get(11L));
+        assertFalse(fees.containsKey(12L));
+    }
+
+    @Test
+    void testReloadReplacesSnapshot() {
+        // Given
+        FeeStandard standard = standard(1L, "0", null, "0.01", "2020-01-01");
+        when(feeStandardRepository.findByStatus(FeeStandard.FeeStandardStatus.ACTIVE))
+                .thenReturn(Collections.singletonList(standard), Collections.emptyList());
+        assertSame(standard, feeStandardIndex.find(new BigDecimal("100")));
+
+        // When
+        feeStandardIndex.reloadAfterCommit();
+
+        // Then
+        assertNull(feeStandardIndex.find(new BigDecimal("100")));
+        verify(cacheCoherenceManager).publishAfterCommit(CacheRegion.FEE_STANDARD);
+    }
+
+    private static FeeStandard standard(Long id, String min, String max, String rate, String effectiveDate) {
+        FeeStandard standard = new FeeStandard();
+        standard.setId(id);
+        standard.setIncomeMin(new BigDecimal(min));
+        standard.setIncomeMax(max != null ? new BigDecimal(max) : null);
+        standard.setFeeRate(new BigDecimal(rate));
+        standard.setEffectiveDate(LocalDate.parse(effectiveDate));
+        standard.setStatus(FeeStandard.FeeStandardStatus.ACTIVE);
+        return standard;
+    }
+}
@@ -0,0 +1,259 @@
+package com.party.service;
+
+import com.party.activity.ActivitySlotCounter;
+import com.party.dto.BatchCheckInResult;
+import com.party.entity.ActivityParticipant;
+import com.party.repository.ActivityParticipantRepository;
+import com.party.repository.ActivityRepository;
+import com.party.service.impl.ActivityParticipantServiceImpl;
+import com.party.statistics.StatisticsEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 活动参与者服务测试类
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class ActivityParticipantServiceTest {
+
+    private static final Long ACTIVITY_ID = 1L;
+
+    @Mock
+    private ActivityParticipantRepository activityParticipantRepository;
+
+    @Mock
+    private ActivityRepository activityRepository;
+
+    @Mock
+    private ActivitySlotCounter activitySlotCounter;
+
+    @Mock
+    private StatisticsEngine statisticsEngine;
+
+    @InjectMocks
+    private ActivityParticipantServiceImpl activityParticipantService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(activityParticipantRepository.save(any(ActivityParticipant.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testSignUpActivity_Available() {
+        // Given
+        when(activitySlotCounter.tryAcquire(ACTIVITY_ID)).thenReturn(true);
+        when(activityRepository.incrementSignedUpIfAvailable(ACTIVITY_ID)).thenReturn(1);
+
+        // When
+        ActivityParticipant result = activityParticipantService.signUpActivity(ACTIVITY_ID, 10L);
+
+        // Then
+        assertEquals(1, result.getStatus());
+        verify(activitySlotCounter).releaseOnRollback(ACTIVITY_ID);
+        verify(activitySlotCounter, never()).markFull(ACTIVITY_ID);
+    }
+
+    @Test
+    void testSignUpActivity_FullWithWaitlist() {
+        // Given
+        when(activitySlotCounter.tryAcquire(ACTIVITY_ID)).thenReturn(false);
+        when(activityRepository.incrementSignedUpIfAvailable(ACTIVITY_ID)).thenReturn(0);
+        when(activitySlotCounter.isWaitlistEnabled(ACTIVITY_ID)).thenReturn(true);
+
+        // When
+        ActivityParticipant result = activityParticipantService.signUpActivity(ACTIVITY_ID, 10L);
+
+        // Then
+        assertEquals(5, result.getStatus());
+        verify(activityRepository).incrementSignedUpIfAvailable(ACTIVITY_ID);
+        verify(activitySlotCounter).markFull(ACTIVITY_ID);
+    }
+
+    @Test
+    void testSignUpActivity_FullWithoutWaitlist() {
+        // Given
+        when(activitySlotCounter.tryAcquire(ACTIVITY_ID)).thenReturn(false);
+        when(activitySlotCounter.isWaitlistEnabled(ACTIVITY_ID)).thenReturn(false);
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> activityParticipantService.signUpActivity(ACTIVITY_ID, 10L));
+        assertEquals("活动报名人数已满", exception.getMessage());
+        verify(activityParticipantRepository, never()).existsByActivityIdAndUserId(anyLong(), anyLong());
+        verify(activityParticipantRepository, never()).save(any(ActivityParticipant.class));
+        verify(activityRepository, never()).incrementSignedUpIfAvailable(anyLong());
+    }
+
+    @Test
+    void testSignUpActivity_StaleCounter() {
+        // Given - 内存计数显示已满，但其他节点已释放名额，开启候补的活动仍交由数据库判断
+        when(activitySlotCounter.tryAcquire(ACTIVITY_ID)).thenReturn(false);
+        when(activitySlotCounter.isWaitlistEnabled(ACTIVITY_ID)).thenReturn(true);
+        when(activityRepository.incrementSignedUpIfAvailable(ACTIVITY_ID)).thenReturn(1);
+
+        // When
+        ActivityParticipant result = activityParticipantService.signUpActivity(ACTIVITY_ID, 10L);
+
+        // Then
+        assertEquals(1, result.getStatus());
+        verify(activitySlotCounter).invalidate(ACTIVITY_ID);
+        verify(activitySlotCounter, never()).releaseOnRollback(ACTIVITY_ID);
+        verify(activitySlotCounter, never()).markFull(ACTIVITY_ID);
+    }
+
+    @Test
+    void testSignUpActivity_AlreadySignedUp() {
+        // Given
+        when(activitySlotCounter.tryAcquire(ACTIVITY_ID)).thenReturn(true);
+        when(activityParticipantRepository.existsByActivityIdAndUserId(ACTIVITY_ID, 10L)).thenReturn(true);
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> activityParticipantService.signUpActivity(ACTIVITY_ID, 10L));
+        verify(activityRepository, never()).incrementSignedUpIfAvailable(anyLong());
+        verify(activitySlotCounter).releaseOnRollback(ACTIVITY_ID);
+    }
+
+    @Test
+    void testCancelSignUp_PromotesWaitlisted() {
+        // Given
+        ActivityParticipant registered = participant(1L, 10L, 1);
+        ActivityParticipant waitlisted = participant(2L, 11L, 5);
+        when(activityParticipantRepository.findByActivityIdAndUserIdForUpdate(ACTIVITY_ID, 10L))
+                .thenReturn(Optional.of(registered));
+        when(activityParticipantRepository.findFirstByActivityIdAndStatusOrderByIdAsc(ACTIVITY_ID, 5))
+                .thenReturn(Optional.of(waitlisted));
+        when(activityRepository.incrementSignedUpIfAvailable(ACTIVITY_ID)).thenReturn(1);
+
+        // When
+        activityParticipantService.cancelSignUp(ACTIVITY_ID, 10L);
+
+        // Then
+        verify(activityParticipantRepository).delete(registered);
+        verify(activityRepository).adjustParticipantCounters(ACTIVITY_ID, -1, 0, 0, 0);
+        assertEquals(1, waitlisted.getStatus());
+        verify(activityParticipantRepository).save(waitlisted);
+        verify(activitySlotCounter, never()).releaseAfterCommit(ACTIVITY_ID);
+    }
+
+    @Test
+    void testCancelSignUp_NoWaitlistReleasesSlot() {
+        // Given
+        ActivityParticipant registered = participant(1L, 10L, 1);
+        when(activityParticipantRepository.findByActivityIdAndUserIdForUpdate(ACTIVITY_ID, 10L))
+                .thenReturn(Optional.of(registered));
+        when(activityParticipantRepository.findFirstByActivityIdAndStatusOrderByIdAsc(ACTIVITY_ID, 5))
+                .thenReturn(Optional.empty());
+
+        // When
+        activityParticipantService.cancelSignUp(ACTIVITY_ID, 10L);
+
+        // Then
+        verify(activityRepository, never()).incrementSignedUpIfAvailable(anyLong());
+        verify(activitySlotCounter).releaseAfterCommit(ACTIVITY_ID);
+    }
+
+    @Test
+    void testPromoteWaitlisted_CapacityRaised() {
+        // Given - 人数上限调高后空出两个名额，候补三人
+        ActivityParticipant first = participant(2L, 11L, 5);
+        ActivityParticipant second = participant(3L, 12L, 5);
+        ActivityParticipant third = participant(4L, 13L, 5);
+        when(activityParticipantRepository.findFirstByActivityIdAndStatusOrderByIdAsc(ACTIVITY_ID, 5))
+                .thenReturn(Optional.of(first), Optional.of(second), Optional.of(third));
+        when(activityRepository.incrementSignedUpIfAvailable(ACTIVITY_ID)).thenReturn(1, 1, 0);
+
+        // When
+        int promoted = activityParticipantService.promoteWaitlisted(ACTIVITY_ID);
+
+        // Then
+        assertEquals(2, promoted);
+        assertEquals(1, first.getStatus());
+        assertEquals(1, second.getStatus());
+        assertEquals(5, third.getStatus());
+        verify(activityParticipantRepository, never()).save(third);
+    }
+
+    @Test
+    void testPromoteWaitlisted_NoWaitlisted() {
+        // Given
+        when(activityParticipantRepository.findFirstByActivityIdAndStatusOrderByIdAsc(ACTIVITY_ID, 5))
+                .thenReturn(Optional.empty());
+
+        // When
+        int promoted = activityParticipantService.promoteWaitlisted(ACTIVITY_ID);
+
+        // Then
+        assertEquals(0, promoted);
+        verify(activityRepository, never()).incrementSignedUpIfAvailable(anyLong());
+    }
+
+    @Test
+    void testCheckIn_WaitlistedRejected() {
+        // Given
+        when(activityParticipantRepository.findByActivityIdAndUserIdForUpdate(ACTIVITY_ID, 11L))
+                .thenReturn(Optional.of(participant(2L, 11L, 5)));
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> activityParticipantService.checkIn(ACTIVITY_ID, 11L));
+        verify(activityRepository, never()).adjustParticipantCounters(anyLong(), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testBatchCheckIn_WaitlistedReported() {
+        // Given - 10已报名、11候补、12请假、13已签到、14未报名
+        when(activityParticipantRepository.findUserStatusesByActivityIdForUpdate(ACTIVITY_ID)).thenReturn(Arrays.asList(
+                new Object[]{10L, 1}, new Object[]{11L, 5}, new Object[]{12L, 3}, new Object[]{13L, 2}));
+
+        // When
+        BatchCheckInResult result = activityParticipantService.batchCheckIn(ACTIVITY_ID,
+                Arrays.asList(10L, 11L, 12L, 13L, 14L));
+
+        // Then
+        assertEquals(Arrays.asList(10L, 12L), result.getCheckedIn());
+        assertEquals(Arrays.asList(11L), result.getWaitlisted());
+        assertEquals(Arrays.asList(13L), result.getAlreadyCheckedIn());
+        assertEquals(Arrays.asList(14L), result.getNotRegistered());
+        verify(activityParticipantRepository).checkInAll(eq(ACTIVITY_ID), eq(Arrays.asList(10L, 12L)), any());
+        verify(activityRepository).adjustParticipantCounters(ACTIVITY_ID, 0, 2, -1, 0);
+        verify(statisticsEngine).invalidateAfterCommit();
+    }
+
+    @Test
+    void testBatchCheckIn_NothingToCheckIn() {
+        // Given - 全部已签到
+        when(activityParticipantRepository.findUserStatusesByActivityIdForUpdate(ACTIVITY_ID))
+                .thenReturn(Arrays.<Object[]>asList(new Object[]{13L, 2}));
+
+        // When
+        BatchCheckInResult result = activityParticipantService.batchCheckIn(ACTIVITY_ID, Arrays.asList(13L));
+
+        // Then
+        assertTrue(result.getCheckedIn().isEmpty());
+        verify(activityParticipantRepository, never()).checkInAll(anyLong(), anyList(), any());
+        verify(statisticsEngine, never()).invalidateAfterCommit();
+    }
+
+    private static ActivityParticipant participant(Long id, Long userId, int status) {
+        ActivityParticipant participant = new ActivityParticipant();
+        participant.setId(id);
+        participant.setActivityId(ACTIVITY_ID);
+        participant.setUserId(userId);
+        participant.setStatus(status);
+        return participant;
+    }
+}
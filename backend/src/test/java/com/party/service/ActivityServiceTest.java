@@ -1,5 +1,6 @@
 package com.party.service;
 
+import com.party.common.batch.BatchResult;
 import com.party.entity.Activity;
 import com.party.repository.ActivityRepository;
 import com.party.service.impl.ActivityServiceImpl;
@@ -268,17 +269,20 @@ class ActivityServiceTest {
     void testBatchDeleteActivities() {
         // Given
         List<Long> ids = Arrays.asList(1L, 2L, 3L);
-        when(activityRepository.existsById(1L)).thenReturn(true);
-        when(activityRepository.existsById(2L)).thenReturn(true);
-        when(activityRepository.existsById(3L)).thenReturn(false);
+        Activity secondActivity = new Activity();
+        secondActivity.setId(2L);
+        List<Activity> found = Arrays.asList(testActivity, secondActivity);
+        when(activityRepository.findAllById(ids)).thenReturn(found);
 
         // When
-        activityService.batchDeleteActivities(ids);
+        BatchResult<Long> result = activityService.batchDeleteActivities(ids);
 
         // Then
-        verify(activityRepository).deleteById(1L);
-        verify(activityRepository).deleteById(2L);
-        verify(activityRepository, never()).deleteById(3L); // 不存在的不删除
+        verify(activityRepository).deleteAll(found);
+        verify(activityRepository, never()).deleteById(anyLong());
+        assertEquals(Arrays.asList(1L, 2L), result.getSucceeded());
+        assertEquals(1, result.getFailureCount()); // 不存在的不删除，记为失败
+        assertEquals(3L, result.getErrors().get(0).getKey());
     }
 
     @Test
@@ -0,0 +1,101 @@
+package com.party.service;
+
+import com.party.common.exception.BusinessException;
+import com.party.entity.Organization;
+import com.party.organization.OrganizationTreeIndex;
+import com.party.repository.OrganizationClosureRepository;
+import com.party.repository.OrganizationRepository;
+import com.party.service.impl.OrganizationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 组织服务测试类
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class OrganizationServiceTest {
+
+    private static final Long ORGANIZATION_ID = 1L;
+
+    private static final Long CHILD_ID = 2L;
+
+    private static final Long OTHER_ID = 3L;
+
+    @Mock
+    private OrganizationRepository organizationRepository;
+
+    @Mock
+    private OrganizationClosureRepository organizationClosureRepository;
+
+    @Mock
+    private OrganizationTreeIndex organizationTreeIndex;
+
+    @InjectMocks
+    private OrganizationServiceImpl organizationService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(organizationRepository.findById(ORGANIZATION_ID)).thenReturn(Optional.of(organization(ORGANIZATION_ID, 1)));
+        lenient().when(organizationRepository.findById(OTHER_ID)).thenReturn(Optional.of(organization(OTHER_ID, 1)));
+        // CHILD_ID是ORGANIZATION_ID的下级
+        lenient().when(organizationClosureRepository.existsPath(ORGANIZATION_ID, CHILD_ID)).thenReturn(true);
+        lenient().when(organizationClosureRepository.existsPath(ORGANIZATION_ID, ORGANIZATION_ID)).thenReturn(true);
+    }
+
+    @Test
+    void testMoveOrganization_UnderOwnDescendantRejected() {
+        // When
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> organizationService.moveOrganization(ORGANIZATION_ID, CHILD_ID));
+
+        // Then - 闭包表不做任何改动
+        assertEquals(400, e.getCode());
+        verify(organizationClosureRepository, never()).detachSubtree(anyLong());
+        verify(organizationClosureRepository, never()).attachSubtree(anyLong(), anyLong());
+    }
+
+    @Test
+    void testMoveOrganization_UnderItselfRejected() {
+        // When
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> organizationService.moveOrganization(ORGANIZATION_ID, ORGANIZATION_ID));
+
+        // Then
+        assertEquals(400, e.getCode());
+        verify(organizationClosureRepository, never()).attachSubtree(anyLong(), anyLong());
+    }
+
+    @Test
+    void testMoveOrganization_AttachesSubtree() {
+        // When
+        organizationService.moveOrganization(ORGANIZATION_ID, OTHER_ID);
+
+        // Then
+        verify(organizationClosureRepository).detachSubtree(ORGANIZATION_ID);
+        verify(organizationClosureRepository).attachSubtree(ORGANIZATION_ID, OTHER_ID);
+        verify(organizationRepository).updateSubtreeLevels(ORGANIZATION_ID);
+        verify(organizationTreeIndex).reloadAfterCommit();
+    }
+
+    private static Organization organization(Long id, int level) {
+        Organization organization = new Organization();
+        organization.setId(id);
+        organization.setName("组织" + id);
+        organization.setType(3);
+        organization.setLevel(level);
+        return organization;
+    }
+}
@@ -0,0 +1,157 @@
+package com.party.service;
+
+import com.party.common.cache.CacheCoherenceManager;
+import com.party.entity.Permission;
+import com.party.entity.Role;
+import com.party.permission.PermissionIndex;
+import com.party.repository.RoleRepository;
+import com.party.service.impl.RoleServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 角色服务测试类
+ *
+ * @author Party Management System
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class RoleServiceTest {
+
+    private static final Long ROLE_ID = 1L;
+
+    private static final Long USER_ID = 10L;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CacheCoherenceManager cacheCoherenceManager;
+
+    @InjectMocks
+    private RoleServiceImpl roleService;
+
+    private PermissionIndex permissionIndex;
+
+    /** 数据库中该角色当前授予的权限代码 */
+    private final List<String> grantedCodes = new ArrayList<>();
+
+    private Role role;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        permissionIndex = new PermissionIndex();
+        ReflectionTestUtils.setField(permissionIndex, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(permissionIndex, "cacheCoherenceManager", cacheCoherenceManager);
+        ReflectionTestUtils.setField(roleService, "permissionIndex", permissionIndex);
+
+        // 用户持有该角色，每次编译时按grantedCodes逐行回调
+        lenient().doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (String code : grantedCodes) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("role_id")).thenReturn(ROLE_ID);
+                when(rs.getString("code")).thenReturn(code);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(USER_ID));
+
+        role = new Role();
+        role.setId(ROLE_ID);
+        role.setName("支部书记");
+        role.setPermissions(new HashSet<>(Arrays.asList(permission(1L, "user:read"), permission(2L, "user:delete"))));
+        grantedCodes.addAll(Arrays.asList("user:read", "user:delete"));
+        lenient().when(roleRepository.findById(ROLE_ID)).thenReturn(Optional.of(role));
+        lenient().when(roleRepository.save(any(Role.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testUpdateRole_RevokedPermissionNoLongerGranted() {
+        // Given - 权限已编译进缓存
+        assertTrue(permissionIndex.hasPermission(USER_ID, "user:delete"));
+
+        // When - 收回user:delete
+        Role update = new Role();
+        update.setPermissions(new HashSet<>(Arrays.asList(permission(1L, "user:read"))));
+        roleService.updateRole(ROLE_ID, update);
+        grantedCodes.remove("user:delete");
+
+        // Then
+        assertFalse(permissionIndex.hasPermission(USER_ID, "user:delete"));
+        assertTrue(permissionIndex.hasPermission(USER_ID, "user:read"));
+    }
+
+    @Test
+    void testBatchUpdateRoles_RevokedPermissionNoLongerGranted() {
+        // Given
+        assertTrue(permissionIndex.hasPermission(USER_ID, "user:delete"));
+
+        // When
+        Role update = new Role();
+        update.setId(ROLE_ID);
+        update.setPermissions(new HashSet<>(Arrays.asList(permission(1L, "user:read"))));
+        roleService.batchUpdateRoles(Arrays.asList(update));
+        grantedCodes.remove("user:delete");
+
+        // Then
+        assertFalse(permissionIndex.hasPermission(USER_ID, "user:delete"));
+    }
+
+    @Test
+    void testDeleteRole_InvalidatesHolders() {
+        // Given
+        assertTrue(permissionIndex.hasPermission(USER_ID, "user:read"));
+
+        // When
+        roleService.deleteRole(ROLE_ID);
+        grantedCodes.clear();
+
+        // Then
+        verify(roleRepository).deleteById(ROLE_ID);
+        assertFalse(permissionIndex.hasPermission(USER_ID, "user:read"));
+    }
+
+    @Test
+    void testUpdateRole_DescriptionOnlyKeepsCache() {
+        // Given
+        assertTrue(permissionIndex.hasPermission(USER_ID, "user:read"));
+
+        // When
+        Role update = new Role();
+        update.setDescription("负责支部日常工作");
+        roleService.updateRole(ROLE_ID, update);
+
+        // Then - 权限未变，不重新编译
+        assertTrue(permissionIndex.hasPermission(USER_ID, "user:read"));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), eq(USER_ID));
+    }
+
+    private static Permission permission(Long id, String code) {
+        Permission permission = new Permission();
+        permission.setId(id);
+        permission.setCode(code);
+        return permission;
+    }
+}
@@ -0,0 +1,87 @@
+package com.party.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secret",
+                "partyManagementSystemSecretKey2023ForJWTTokenGenerationWithHS512AlgorithmSupportAndSecureLength");
+        ReflectionTestUtils.setField(jwtUtils, "expiration", 3600000L);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpiration", 7200000L);
+        ReflectionTestUtils.setField(jwtUtils, "principalCacheMaxSize", 2);
+        jwtUtils.init();
+    }
+
+    @Test
+    void testGetPrincipal() {
+        // Given
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", 1L);
+        claims.put("roles", Arrays.asList("ADMIN"));
+        claims.put("organizationId", 3L);
+        String token = jwtUtils.generateToken("admin", claims);
+
+        // When
+        JwtPrincipal principal = jwtUtils.getPrincipal(token);
+
+        // Then
+        assertNotNull(principal);
+        assertEquals(1L, principal.getUserId());
+        assertEquals("admin", principal.getUsername());
+        assertEquals(Arrays.asList("ADMIN"), principal.getRoles());
+        assertEquals(3L, principal.getOrganizationId());
+        assertFalse(principal.isExpired());
+        assertSame(principal, jwtUtils.getPrincipal(token));
+    }
+
+    @Test
+    void testGetPrincipalWithInvalidToken() {
+        String token = jwtUtils.generateToken("admin");
+
+        assertNull(jwtUtils.getPrincipal(token + "x"));
+        assertNull(jwtUtils.getPrincipal("not-a-token"));
+        assertNull(jwtUtils.getPrincipal(null));
+        assertFalse(jwtUtils.validateToken("not-a-token"));
+    }
+
+    @Test
+    void testGetPrincipalWithExpiredToken() {
+        ReflectionTestUtils.setField(jwtUtils, "expiration", -1000L);
+        String token = jwtUtils.generateToken("admin");
+
+        assertNull(jwtUtils.getPrincipal(token));
+        assertTrue(jwtUtils.isTokenExpired(token));
+    }
+
+    @Test
+    void testPrincipalCacheIsBounded() {
+        // Given
+        String first = jwtUtils.generateToken("user1");
+        String second = jwtUtils.generateToken("user2");
+        String third = jwtUtils.generateToken("user3");
+
+        // When
+        jwtUtils.getPrincipal(first);
+        jwtUtils.getPrincipal(second);
+        jwtUtils.getPrincipal(third);
+
+        // Then
+        Map<?, ?> cache = (Map<?, ?>) ReflectionTestUtils.getField(jwtUtils, "principalCache");
+        assertNotNull(cache);
+        assertTrue(cache.size() <= 2);
+        assertEquals("user1", jwtUtils.getUsernameFromToken(first));
+    }
+}
@@ -0,0 +1,23 @@
+-- 创建统计汇总表的迁移脚本
+-- 创建时间: 2026-10-17
+-- 描述: 创建每日统计汇总表，每个组织每天一行，供趋势统计接口读取
+
+CREATE TABLE IF NOT EXISTS statistics_daily_rollups (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '汇总ID',
+    stat_date DATE NOT NULL COMMENT '统计日期',
+    organization_id BIGINT NOT NULL DEFAULT 0 COMMENT '组织ID，0表示未分配组织',
+    new_users INT NOT NULL DEFAULT 0 COMMENT '当日新增用户数',
+    total_users INT NOT NULL DEFAULT 0 COMMENT '截至当日的用户总数',
+    activity_count INT NOT NULL DEFAULT 0 COMMENT '当日开始的活动数',
+    participant_count INT NOT NULL DEFAULT 0 COMMENT '当日开始活动的报名人次',
+    signed_in_count INT NOT NULL DEFAULT 0 COMMENT '当日开始活动的签到人次',
+    fee_paid_count INT NOT NULL DEFAULT 0 COMMENT '当日缴费笔数',
+    fee_paid_amount DECIMAL(14,2) NOT NULL DEFAULT 0.00 COMMENT '当日缴费金额',
+    fee_billed_count INT NOT NULL DEFAULT 0 COMMENT '所属月份的应缴笔数，记在该月1日',
+    fee_billed_paid_count INT NOT NULL DEFAULT 0 COMMENT '所属月份的已缴笔数，记在该月1日',
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '汇总时间',
+    UNIQUE KEY uk_rollup_date_org (stat_date, organization_id),
+    INDEX idx_rollup_stat_date (stat_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='每日统计汇总表';
+
+COMMIT;
@@ -0,0 +1,16 @@
+-- 创建组织闭包表的迁移脚本
+-- 创建时间: 2026-10-17
+-- 描述: 创建组织闭包表，保存每对上下级组织及其层级差；
+--       表中数据由应用启动时的闭包校验按现有组织整表生成，之后由组织服务在事务内维护
+
+CREATE TABLE IF NOT EXISTS organization_closure (
+    ancestor_id BIGINT NOT NULL COMMENT '上级组织ID',
+    descendant_id BIGINT NOT NULL COMMENT '下级组织ID',
+    depth INT NOT NULL COMMENT '层级差，组织到自身为0',
+    PRIMARY KEY (ancestor_id, descendant_id),
+    INDEX idx_closure_descendant (descendant_id, depth),
+    FOREIGN KEY (ancestor_id) REFERENCES organizations(id) ON DELETE CASCADE,
+    FOREIGN KEY (descendant_id) REFERENCES organizations(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='组织闭包表';
+
+COMMIT;
@@ -0,0 +1,27 @@
+-- 为活动表添加参与人数计数的迁移脚本
+-- 创建时间: 2026-10-17
+-- 描述: 在activities表上冗余保存报名、签到、请假、缺席人数，列表和统计接口直接读取；
+--       计数由参与者服务在事务内按增量维护，此处按现有参与记录回填
+
+ALTER TABLE activities
+    ADD COLUMN signed_up_count INT NOT NULL DEFAULT 0 COMMENT '报名记录总数' AFTER is_required,
+    ADD COLUMN signed_in_count INT NOT NULL DEFAULT 0 COMMENT '已签到人数' AFTER signed_up_count,
+    ADD COLUMN leave_count INT NOT NULL DEFAULT 0 COMMENT '请假人数' AFTER signed_in_count,
+    ADD COLUMN absent_count INT NOT NULL DEFAULT 0 COMMENT '缺席人数' AFTER leave_count;
+
+UPDATE activities a
+LEFT JOIN (
+    SELECT activity_id,
+           COUNT(*) AS signed_up,
+           SUM(CASE WHEN status = 2 THEN 1 ELSE 0 END) AS signed_in,
+           SUM(CASE WHEN status = 3 THEN 1 ELSE 0 END) AS on_leave,
+           SUM(CASE WHEN status = 4 THEN 1 ELSE 0 END) AS absent
+    FROM activity_participants
+    GROUP BY activity_id
+) p ON p.activity_id = a.id
+SET a.signed_up_count = COALESCE(p.signed_up, 0),
+    a.signed_in_count = COALESCE(p.signed_in, 0),
+    a.leave_count = COALESCE(p.on_leave, 0),
+    a.absent_count = COALESCE(p.absent, 0);
+
+COMMIT;
@@ -0,0 +1,22 @@
+-- 活动报名名额控制与候补的迁移脚本
+-- 创建时间: 2026-10-17
+-- 描述: 为活动增加候补开关；参与记录状态新增 5-候补，候补记录不计入报名人数；
+--       同一用户对同一活动只能有一条参与记录，由唯一约束兜底并发重复报名
+
+ALTER TABLE activities
+    ADD COLUMN waitlist_enabled BOOLEAN DEFAULT FALSE COMMENT '满员后是否允许候补' AFTER is_required;
+
+-- 清理历史重复报名，保留最早的一条
+DELETE p1 FROM activity_participants p1
+JOIN activity_participants p2
+  ON p1.activity_id = p2.activity_id AND p1.user_id = p2.user_id AND p1.id > p2.id;
+
+ALTER TABLE activity_participants
+    ADD CONSTRAINT uk_activity_user UNIQUE (activity_id, user_id);
+
+UPDATE activities a
+SET a.signed_up_count = (
+    SELECT COUNT(*) FROM activity_participants p WHERE p.activity_id = a.id AND p.status <> 5
+);
+
+COMMIT;
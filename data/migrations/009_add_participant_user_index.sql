@@ -0,0 +1,7 @@
+-- 为活动参与记录添加用户索引的迁移脚本
+-- 创建时间: 2026-10-17
+-- 描述: "我的活动"按用户过滤并按参与记录ID倒序分页，(user_id, id)索引使按游标翻页只需索引范围扫描
+
+CREATE INDEX idx_participant_user ON activity_participants (user_id, id);
+
+COMMIT;
@@ -0,0 +1,12 @@
+-- 为列表游标分页添加排序索引的迁移脚本
+-- 创建时间: 2026-10-17
+-- 描述: 操作日志和活动按(created_at, id)倒序、缴费记录按(payment_year, payment_month, id)倒序游标翻页，
+--       索引与排序键一致时任意深度的翻页都只需从游标位置开始的索引范围扫描；用户和组织按主键翻页，无需新增索引
+
+CREATE INDEX idx_operation_log_created ON operation_logs (created_at, id);
+
+CREATE INDEX idx_activity_created ON activities (created_at, id);
+
+CREATE INDEX idx_payment_period ON fee_payments (payment_year, payment_month, id);
+
+COMMIT;
@@ -0,0 +1,33 @@
+-- 操作日志表按月分区的迁移脚本
+-- 创建时间: 2026-10-17
+-- 描述: operation_logs按created_at做RANGE COLUMNS分区，每月一个分区，另有兜底分区pmax；
+--       带created_at条件的统计和列表查询只扫描命中的月份分区，保留期清理整区删除过期月份。
+--       MySQL要求分区列包含在每个唯一键中，主键改为(id, created_at)，id仍由AUTO_INCREMENT生成且唯一；
+--       RANGE COLUMNS不支持TIMESTAMP，created_at改为DATETIME。
+--       之后月份的分区由应用每天检查并从pmax中拆分创建（party.operation-log.partition.months-ahead）。
+
+ALTER TABLE operation_logs
+    MODIFY created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE operation_logs
+    PARTITION BY RANGE COLUMNS (created_at) (
+        PARTITION phistory VALUES LESS THAN ('2026-01-01'),
+        PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+        PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+        PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+        PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+        PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+        PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+        PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+        PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+        PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+        PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+        PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+        PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+        PARTITION p202701 VALUES LESS THAN ('2027-02-01'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
+
+COMMIT;
@@ -0,0 +1,22 @@
+-- 创建操作日志小时统计表的迁移脚本
+-- 创建时间: 2026-10-17
+-- 描述: 每小时每个操作类型、模块、用户名和成功标志的组合一行，随操作日志写入累加，
+--       操作日志统计接口只读取该表；模块或用户名为空的日志记为空字符串。
+--       首次部署后应用启动时发现该表为空，会按已有操作日志补齐
+
+CREATE TABLE IF NOT EXISTS operation_log_hourly_stats (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '统计ID',
+    stat_hour DATETIME NOT NULL COMMENT '统计小时，截断到整点',
+    operation_type VARCHAR(50) NOT NULL COMMENT '操作类型',
+    operation_module VARCHAR(50) NOT NULL DEFAULT '' COMMENT '操作模块，空字符串表示未记录',
+    username VARCHAR(50) NOT NULL DEFAULT '' COMMENT '操作用户名，空字符串表示未记录',
+    success BOOLEAN NOT NULL COMMENT '是否成功',
+    op_count BIGINT NOT NULL DEFAULT 0 COMMENT '操作次数',
+    total_execution_time BIGINT NOT NULL DEFAULT 0 COMMENT '执行时间合计(毫秒)',
+    max_execution_time BIGINT NOT NULL DEFAULT 0 COMMENT '最长执行时间(毫秒)',
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_op_stat_dimensions (stat_hour, operation_type, operation_module, username, success),
+    INDEX idx_op_stat_hour (stat_hour)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='操作日志小时统计表';
+
+COMMIT;
@@ -0,0 +1,20 @@
+-- 创建缓存版本表的迁移脚本
+-- 创建时间: 2026-10-17
+-- 描述: 每个需要跨节点保持一致的本地缓存区域一行，节点提交变更后递增对应区域的版本，
+--       各节点按固定间隔轮询该表，只清除版本变大的区域的本地缓存
+
+CREATE TABLE IF NOT EXISTS cache_versions (
+    cache_name VARCHAR(50) NOT NULL PRIMARY KEY COMMENT '缓存区域',
+    version BIGINT NOT NULL DEFAULT 0 COMMENT '版本号，每次变更加一',
+    updated_by VARCHAR(100) COMMENT '最后变更的节点',
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '最后变更时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='缓存版本表';
+
+INSERT IGNORE INTO cache_versions (cache_name, version) VALUES
+    ('SYSTEM_CONFIG', 0),
+    ('PERMISSION', 0),
+    ('ORGANIZATION_TREE', 0),
+    ('FEE_STANDARD', 0),
+    ('STATISTICS', 0);
+
+COMMIT;
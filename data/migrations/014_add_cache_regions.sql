@@ -0,0 +1,10 @@
+-- 新增缓存区域的迁移脚本
+-- 创建时间: 2026-10-17
+-- 描述: 用户缓存和组织统计缓存改为有界缓存后，清除时也需要通知其他节点，
+--       在缓存版本表中登记对应的区域
+
+INSERT IGNORE INTO cache_versions (cache_name, version) VALUES
+    ('USERS', 0),
+    ('ORGANIZATIONS', 0);
+
+COMMIT;
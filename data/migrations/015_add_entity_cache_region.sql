@@ -0,0 +1,9 @@
+-- 新增二级缓存区域的迁移脚本
+-- 创建时间: 2026-10-17
+-- 描述: 组织、角色、权限、党费标准和系统配置启用Hibernate二级缓存后，
+--       节点提交这些实体的变更时递增该区域的版本，其他节点清除本地二级缓存
+
+INSERT IGNORE INTO cache_versions (cache_name, version) VALUES
+    ('ENTITY_CACHE', 0);
+
+COMMIT;
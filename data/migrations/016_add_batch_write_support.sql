@@ -0,0 +1,36 @@
+-- 批量写入支持的迁移脚本
+-- 创建时间: 2026-10-17
+-- 描述: 1. 用户、组织和系统配置的主键改为按序列分配 (每次预分配50个)，Hibernate才能把INSERT合并为JDBC批量语句。
+--          MySQL没有序列，Hibernate使用与序列同名的单行表，next_val为下一次分配的上界，
+--          初始值取现有最大ID加50，使首个分配的ID紧接现有记录。原有的AUTO_INCREMENT保留，不影响按序列指定的ID。
+--       2. 批量创建用户时按手机号、邮箱各一次IN查询校验唯一性，为这两列建索引
+--          (身份证号列建表脚本中尚未创建，随该列一并建索引)
+
+CREATE TABLE IF NOT EXISTS users_seq (
+    next_val BIGINT NOT NULL COMMENT '下一次分配的ID上界'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户主键序列';
+
+INSERT INTO users_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM users
+WHERE NOT EXISTS (SELECT 1 FROM users_seq);
+
+CREATE TABLE IF NOT EXISTS organizations_seq (
+    next_val BIGINT NOT NULL COMMENT '下一次分配的ID上界'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='组织主键序列';
+
+INSERT INTO organizations_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM organizations
+WHERE NOT EXISTS (SELECT 1 FROM organizations_seq);
+
+CREATE TABLE IF NOT EXISTS system_configs_seq (
+    next_val BIGINT NOT NULL COMMENT '下一次分配的ID上界'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='系统配置主键序列';
+
+INSERT INTO system_configs_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM system_configs
+WHERE NOT EXISTS (SELECT 1 FROM system_configs_seq);
+
+CREATE INDEX idx_users_phone ON users (phone);
+CREATE INDEX idx_users_email ON users (email);
+
+COMMIT;